@@ -0,0 +1,98 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+
+import java.util.Collection;
+
+import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
+
+/**
+ * {@code CacheEvictionPolicy} class decides which cached proposition is evicted when the {@link PropositionsCache} is full.
+ * <p>
+ * Accesses are recorded from the cache read path, which is not synchronized, so implementations must be thread-safe. Victim
+ * selection and admission are only invoked by the cache writer.
+ */
+abstract class CacheEvictionPolicy {
+    /**
+     * Records a read of the given {@code scope}, whether or not it is present in the cache.
+     *
+     * @param scope {@link DecisionScope} which was read.
+     */
+    abstract void recordAccess(final DecisionScope scope);
+
+    /**
+     * Records that a proposition for the given {@code scope} was added to, or replaced in, the cache.
+     *
+     * @param scope {@link DecisionScope} which was written.
+     */
+    abstract void recordWrite(final DecisionScope scope);
+
+    /**
+     * Records that the proposition for the given {@code scope} was removed from the cache.
+     *
+     * @param scope {@link DecisionScope} which was removed.
+     */
+    abstract void recordRemoval(final DecisionScope scope);
+
+    /**
+     * Selects the scope to be evicted among the given {@code candidates}.
+     *
+     * @param candidates {@code Collection<DecisionScope>} containing the scopes which can be evicted.
+     * @return {@link DecisionScope} to be evicted or null, if {@code candidates} is empty.
+     */
+    abstract DecisionScope selectVictim(final Collection<DecisionScope> candidates);
+
+    /**
+     * Removes all the recorded access information.
+     */
+    abstract void clear();
+
+    /**
+     * Determines whether the given {@code candidate} should be admitted to the full cache at the cost of evicting {@code victim}.
+     * <p>
+     * The default implementation always admits the candidate.
+     *
+     * @param candidate {@link DecisionScope} to be added to the cache.
+     * @param victim {@code DecisionScope} which would be evicted to make room for the {@code candidate}.
+     * @return {@code boolean} indicating whether the {@code candidate} should be admitted.
+     */
+    boolean shouldAdmit(final DecisionScope candidate, final DecisionScope victim) {
+        return true;
+    }
+
+    /**
+     * Creates a {@code CacheEvictionPolicy} for the given policy {@code name}.
+     * <p>
+     * This method returns a least recently used policy if the provided {@code name} is null, empty or not supported.
+     *
+     * @param name {@link String} containing the policy name, one of {@value OptimizeConstants.CacheEvictionPolicies#LRU},
+     *             {@value OptimizeConstants.CacheEvictionPolicies#LFU} or {@value OptimizeConstants.CacheEvictionPolicies#TINY_LFU}.
+     * @return {@link CacheEvictionPolicy} instance.
+     */
+    static CacheEvictionPolicy fromName(final String name) {
+        if (OptimizeConstants.CacheEvictionPolicies.LFU.equalsIgnoreCase(name)) {
+            return new LfuEvictionPolicy();
+        } else if (OptimizeConstants.CacheEvictionPolicies.TINY_LFU.equalsIgnoreCase(name)) {
+            return new TinyLfuEvictionPolicy();
+        }
+
+        if (!OptimizeUtils.isNullOrEmpty(name) && !OptimizeConstants.CacheEvictionPolicies.LRU.equalsIgnoreCase(name)) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Cache eviction policy (%s) is not supported, defaulting to (%s).", name, OptimizeConstants.CacheEvictionPolicies.LRU));
+        }
+        return new LruEvictionPolicy();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+/**
+ * {@code CircuitBreaker} class stops the personalization query requests to the Edge network after consecutive failed requests.
+ * <p>
+ * The circuit opens after the configured number of consecutive failures. Once the open duration has elapsed, a single probe request is
+ * allowed. The circuit closes if the probe succeeds, or if no failure is reported for it within the probe timeout, as the Edge network
+ * does not return a personalization response for the scopes without any qualified content. Otherwise, the circuit opens again.
+ * <p>
+ * The optional {@link CloseListener} is notified each time an open or half-open circuit closes, whichever way it is closed.
+ */
+class CircuitBreaker {
+    static final String STATE_CLOSED = "closed";
+    static final String STATE_OPEN = "open";
+    static final String STATE_HALF_OPEN = "halfopen";
+
+    private final long probeTimeoutMillis;
+    private final CloseListener closeListener;
+    private int failureThreshold;
+    private long openDurationMillis;
+
+    private String state = STATE_CLOSED;
+    private int consecutiveFailures;
+    private long openedTimeMillis;
+    private long probeSentTimeMillis;
+
+    /**
+     * Constructor creates {@code CircuitBreaker} using the provided settings.
+     *
+     * @param failureThreshold {@code int} containing the number of consecutive failures after which the circuit opens, or 0 to never open it.
+     * @param openDurationMillis {@code long} containing the time in milliseconds before a probe request is allowed through an open circuit.
+     * @param probeTimeoutMillis {@code long} containing the time in milliseconds after which a probe request without failure is considered successful.
+     */
+    CircuitBreaker(final int failureThreshold, final long openDurationMillis, final long probeTimeoutMillis) {
+        this(failureThreshold, openDurationMillis, probeTimeoutMillis, null);
+    }
+
+    /**
+     * Constructor creates {@code CircuitBreaker} using the provided settings, notifying the given {@code closeListener} when the circuit closes.
+     *
+     * @param failureThreshold {@code int} containing the number of consecutive failures after which the circuit opens, or 0 to never open it.
+     * @param openDurationMillis {@code long} containing the time in milliseconds before a probe request is allowed through an open circuit.
+     * @param probeTimeoutMillis {@code long} containing the time in milliseconds after which a probe request without failure is considered successful.
+     * @param closeListener {@link CloseListener} notified when an open or half-open circuit closes, may be null.
+     */
+    CircuitBreaker(final int failureThreshold, final long openDurationMillis, final long probeTimeoutMillis, final CloseListener closeListener) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.probeTimeoutMillis = probeTimeoutMillis;
+        this.closeListener = closeListener;
+    }
+
+    /**
+     * Updates the circuit breaker settings.
+     * <p>
+     * The circuit is closed if the breaker is disabled.
+     *
+     * @param failureThreshold {@code int} containing the number of consecutive failures after which the circuit opens, or 0 to never open it.
+     * @param openDurationMillis {@code long} containing the time in milliseconds before a probe request is allowed through an open circuit.
+     * @return {@code boolean} indicating whether an open or half-open circuit has been closed by disabling the breaker.
+     */
+    boolean configure(final int failureThreshold, final long openDurationMillis) {
+        final boolean closed;
+        synchronized (this) {
+            this.failureThreshold = failureThreshold;
+            this.openDurationMillis = openDurationMillis;
+            closed = failureThreshold <= 0 && close();
+        }
+        notifyClosed(closed);
+        return closed;
+    }
+
+    /**
+     * Checks whether a request is allowed, moving an open circuit to half-open once the open duration has elapsed, and closing a half-open
+     * circuit once the probe timeout has elapsed without failure.
+     * <p>
+     * When this method returns true for a half-open circuit, the request is the probe and the caller must send it.
+     *
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     * @return {@code boolean} indicating whether the request should be sent.
+     */
+    boolean allowRequest(final long nowMillis) {
+        final boolean closed;
+        synchronized (this) {
+            closed = STATE_HALF_OPEN.equals(state) && nowMillis - probeSentTimeMillis >= probeTimeoutMillis && close();
+            if (STATE_OPEN.equals(state) && nowMillis - openedTimeMillis >= openDurationMillis) {
+                state = STATE_HALF_OPEN;
+                probeSentTimeMillis = nowMillis;
+                return true;
+            }
+            if (!STATE_CLOSED.equals(state)) {
+                return false;
+            }
+        }
+        notifyClosed(closed);
+        return true;
+    }
+
+    /**
+     * Checks whether the circuit is open, without affecting its state.
+     *
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     * @return {@code boolean} indicating whether the requests are currently rejected.
+     */
+    synchronized boolean isOpen(final long nowMillis) {
+        return STATE_OPEN.equals(state) && nowMillis - openedTimeMillis < openDurationMillis
+                || STATE_HALF_OPEN.equals(state) && nowMillis - probeSentTimeMillis < probeTimeoutMillis;
+    }
+
+    /**
+     * Records a successful request, closing the circuit.
+     *
+     * @return {@code boolean} indicating whether the circuit was open or half-open before this success.
+     */
+    boolean onSuccess() {
+        final boolean closed;
+        synchronized (this) {
+            closed = close();
+        }
+        notifyClosed(closed);
+        return closed;
+    }
+
+    /**
+     * Records a failed request, opening the circuit if the probe failed or if the failure threshold is reached.
+     *
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     * @return {@code boolean} indicating whether the circuit has been opened by this failure.
+     */
+    synchronized boolean onFailure(final long nowMillis) {
+        consecutiveFailures++;
+        if (failureThreshold <= 0 || STATE_OPEN.equals(state)) {
+            return false;
+        }
+
+        if (STATE_HALF_OPEN.equals(state) || consecutiveFailures >= failureThreshold) {
+            state = STATE_OPEN;
+            openedTimeMillis = nowMillis;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the circuit state.
+     *
+     * @return {@link String} containing one of {@value #STATE_CLOSED}, {@value #STATE_OPEN} or {@value #STATE_HALF_OPEN}.
+     */
+    synchronized String getState() {
+        return state;
+    }
+
+    /**
+     * Gets the number of consecutive failed requests.
+     *
+     * @return {@code int} containing the number of failures since the last successful request.
+     */
+    synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    private boolean close() {
+        final boolean wasClosed = STATE_CLOSED.equals(state);
+        state = STATE_CLOSED;
+        consecutiveFailures = 0;
+        return !wasClosed;
+    }
+
+    /**
+     * Notifies the close listener, outside of the lock, if the circuit has just been closed.
+     *
+     * @param closed {@code boolean} indicating whether an open or half-open circuit has been closed.
+     */
+    private void notifyClosed(final boolean closed) {
+        if (closed && closeListener != null) {
+            closeListener.onClose();
+        }
+    }
+
+    /**
+     * {@code CloseListener} interface is notified when an open or half-open circuit closes, after a successful request, after a probe
+     * request without failure within the probe timeout, or when the breaker is disabled.
+     */
+    interface CloseListener {
+        /**
+         * Invoked on the thread which closed the circuit. Implementations must not block.
+         */
+        void onClose();
+    }
+}
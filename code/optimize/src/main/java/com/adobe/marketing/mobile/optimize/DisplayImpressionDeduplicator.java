@@ -0,0 +1,188 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code DisplayImpressionDeduplicator} class suppresses the repeated display interactions of the same offer, identified by its proposition
+ * identifier and offer identifier, tracked within a time window or, in session mode, until the next session starts.
+ * <p>
+ * The displayed offers are kept in a bounded insertion-ordered map, so the offers first displayed longest ago are forgotten first once
+ * {@value #DEFAULT_MAX_ENTRIES} offers are remembered. An exact set is used rather than a probabilistic filter so that a display is never
+ * dropped for an offer which was not displayed before.
+ */
+class DisplayImpressionDeduplicator {
+    static final long DISABLED = 0;
+    static final long SESSION = -1;
+    static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final int maxEntries;
+    private final Map<String, Long> displayTimes = new LinkedHashMap<String, Long>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private long windowMillis = DISABLED;
+    private long suppressedCount;
+
+    /**
+     * Constructor creates a {@code DisplayImpressionDeduplicator} remembering up to {@value #DEFAULT_MAX_ENTRIES} displayed offers.
+     */
+    DisplayImpressionDeduplicator() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructor creates a {@code DisplayImpressionDeduplicator} remembering up to {@code maxEntries} displayed offers.
+     *
+     * @param maxEntries {@code int} containing the maximum number of remembered offers.
+     */
+    DisplayImpressionDeduplicator(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Sets the deduplication window, forgetting the remembered offers if the window has changed.
+     *
+     * @param windowMillis {@code long} containing the window in milliseconds, {@value #SESSION} to suppress the duplicates until
+     * {@link #clear()} is called on the next session start, or {@value #DISABLED} to disable the deduplication.
+     */
+    synchronized void configure(final long windowMillis) {
+        final long newWindowMillis = windowMillis < 0 ? SESSION : windowMillis;
+        if (newWindowMillis != this.windowMillis) {
+            this.windowMillis = newWindowMillis;
+            displayTimes.clear();
+        }
+    }
+
+    /**
+     * Checks whether the deduplication is in session mode.
+     *
+     * @return {@code boolean} indicating whether the duplicates are suppressed until the next session starts.
+     */
+    synchronized boolean isSessionMode() {
+        return windowMillis == SESSION;
+    }
+
+    /**
+     * Removes the offers already displayed within the window from the given display interaction XDM.
+     * <p>
+     * The interaction XDM is returned as is if the deduplication is disabled, if it is not a display interaction or if none of its offers
+     * is a duplicate. Otherwise a copy without the duplicate offers is returned, leaving out the propositions without any offer left.
+     *
+     * @param interactionXdm {@code Map<String, Object>} containing the XDM data for the proposition interaction.
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     * @return {@code Map<String, Object>} containing the XDM data to be sent, or null if all its offers are duplicates.
+     */
+    synchronized Map<String, Object> filter(final Map<String, Object> interactionXdm, final long nowMillis) {
+        if (windowMillis == DISABLED || interactionXdm == null
+                || !OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_DISPLAY.equals(interactionXdm.get(OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE))) {
+            return interactionXdm;
+        }
+
+        final Map<String, Object> experience = OptimizeUtils.getMap(interactionXdm, OptimizeConstants.JsonKeys.EXPERIENCE);
+        final Map<String, Object> decisioning = OptimizeUtils.getMap(experience, OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING);
+        if (!(decisioning.get(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS) instanceof List)) {
+            return interactionXdm;
+        }
+
+        final List<Object> propositions = (List<Object>) decisioning.get(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS);
+        final List<Object> filteredPropositions = new ArrayList<>();
+        boolean suppressed = false;
+        for (final Object proposition : propositions) {
+            if (!(proposition instanceof Map) || !(((Map<?, ?>) proposition).get(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS) instanceof List)) {
+                filteredPropositions.add(proposition);
+                continue;
+            }
+
+            final Map<String, Object> propositionData = (Map<String, Object>) proposition;
+            final String propositionId = OptimizeUtils.getString(propositionData, OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ID);
+            final List<Object> items = (List<Object>) propositionData.get(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS);
+            final List<Object> filteredItems = new ArrayList<>();
+            for (final Object item : items) {
+                final String itemId = item instanceof Map
+                        ? OptimizeUtils.getString((Map<String, Object>) item, OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS_ID) : null;
+                if (itemId == null || propositionId == null || recordDisplay(propositionId + '\n' + itemId, nowMillis)) {
+                    filteredItems.add(item);
+                }
+            }
+
+            if (filteredItems.size() == items.size()) {
+                filteredPropositions.add(proposition);
+                continue;
+            }
+            suppressed = true;
+            suppressedCount += items.size() - filteredItems.size();
+            if (!filteredItems.isEmpty()) {
+                final Map<String, Object> filteredProposition = new HashMap<>(propositionData);
+                filteredProposition.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS, filteredItems);
+                filteredPropositions.add(filteredProposition);
+            }
+        }
+
+        if (!suppressed) {
+            return interactionXdm;
+        }
+        if (filteredPropositions.isEmpty()) {
+            return null;
+        }
+
+        // The experience and decisioning maps are copies, see OptimizeUtils#getMap(Map, String).
+        decisioning.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS, filteredPropositions);
+        experience.put(OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING, decisioning);
+        final Map<String, Object> filteredXdm = new HashMap<>(interactionXdm);
+        filteredXdm.put(OptimizeConstants.JsonKeys.EXPERIENCE, experience);
+        return filteredXdm;
+    }
+
+    /**
+     * Gets the number of duplicate display interactions suppressed so far.
+     *
+     * @return {@code long} containing the number of suppressed offer displays.
+     */
+    synchronized long getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    /**
+     * Forgets all the remembered offers, so that their next display is tracked.
+     */
+    synchronized void clear() {
+        displayTimes.clear();
+    }
+
+    /**
+     * Records the display of the offer with the given {@code key}, unless it is a duplicate.
+     *
+     * @param key {@link String} identifying the displayed offer.
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     * @return {@code boolean} indicating whether the display should be tracked.
+     */
+    private boolean recordDisplay(final String key, final long nowMillis) {
+        final Long displayTime = displayTimes.get(key);
+        if (displayTime != null && (windowMillis == SESSION || nowMillis - displayTime < windowMillis)) {
+            return false;
+        }
+
+        // Re-inserting moves the offer to the end of the eviction order.
+        displayTimes.remove(key);
+        displayTimes.put(key, nowMillis);
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+/**
+ * {@code DroppableTask} interface is implemented by the extension tasks which must answer their caller if they are dropped without
+ * being run, for instance when the executor queue is full or the extension has been unregistered.
+ */
+interface DroppableTask extends Runnable {
+    /**
+     * Invoked instead of {@link #run()} when the task is dropped, on the thread which dropped it. Implementations must not block.
+     */
+    void onDropped();
+}
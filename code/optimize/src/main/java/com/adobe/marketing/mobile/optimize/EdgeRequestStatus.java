@@ -0,0 +1,122 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code EdgeRequestStatus} class contains the status of the personalization query requests sent to the Experience Edge network.
+ * <p>
+ * After consecutive failed requests, the circuit breaker opens and no personalization query request is sent until the open duration
+ * has elapsed. A single probe request is then allowed and the circuit closes if it succeeds. Meanwhile, propositions are served from
+ * the cache only.
+ */
+public class EdgeRequestStatus {
+    /** The circuit is closed, personalization query requests are sent. */
+    public static final String CIRCUIT_CLOSED = CircuitBreaker.STATE_CLOSED;
+    /** The circuit is open, personalization query requests are not sent. */
+    public static final String CIRCUIT_OPEN = CircuitBreaker.STATE_OPEN;
+    /** The circuit is half-open, a probe personalization query request is outstanding. */
+    public static final String CIRCUIT_HALF_OPEN = CircuitBreaker.STATE_HALF_OPEN;
+
+    final private String circuitState;
+    final private int consecutiveFailures;
+    final private long retryCount;
+    final private long rejectedRetryCount;
+
+    /**
+     * Constructor creates an {@code EdgeRequestStatus} using the provided attributes.
+     *
+     * @param circuitState {@link String} containing the circuit breaker state.
+     * @param consecutiveFailures {@code int} containing the number of consecutive failed requests.
+     * @param retryCount {@code long} containing the number of retried requests.
+     * @param rejectedRetryCount {@code long} containing the number of retries rejected while the circuit was open.
+     */
+    EdgeRequestStatus(final String circuitState, final int consecutiveFailures, final long retryCount, final long rejectedRetryCount) {
+        this.circuitState = circuitState;
+        this.consecutiveFailures = consecutiveFailures;
+        this.retryCount = retryCount;
+        this.rejectedRetryCount = rejectedRetryCount;
+    }
+
+    /**
+     * Gets the circuit breaker state.
+     *
+     * @return {@link String} containing one of {@link #CIRCUIT_CLOSED}, {@link #CIRCUIT_OPEN} or {@link #CIRCUIT_HALF_OPEN}.
+     */
+    public String getCircuitState() {
+        return circuitState;
+    }
+
+    /**
+     * Gets the number of consecutive failed personalization query requests.
+     *
+     * @return {@code int} containing the number of failures since the last successful request.
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Gets the number of personalization query requests retried since the extension was registered.
+     *
+     * @return {@code long} containing the number of retries.
+     */
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Gets the number of personalization query request retries which were not sent, as the circuit breaker was open when they were due.
+     *
+     * @return {@code long} containing the number of rejected retries.
+     */
+    public long getRejectedRetryCount() {
+        return rejectedRetryCount;
+    }
+
+    /**
+     * Creates an {@code EdgeRequestStatus} object using information provided in {@code data} map.
+     * <p>
+     * This method returns null if the provided {@code data} is empty or null or if it does not contain the circuit breaker state.
+     *
+     * @param data {@code Map<String, Object>} containing this {@code EdgeRequestStatus} object's attributes.
+     * @return {@code EdgeRequestStatus} object or null.
+     */
+    static EdgeRequestStatus fromEventData(final Map<String, Object> data) {
+        final String circuitState = OptimizeUtils.getString(data, OptimizeConstants.EventDataKeys.CIRCUIT_STATE);
+        if (OptimizeUtils.isNullOrEmpty(circuitState)) {
+            return null;
+        }
+
+        return new EdgeRequestStatus(circuitState,
+                (int) OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.CONSECUTIVE_FAILURES, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.RETRY_COUNT, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.REJECTED_RETRY_COUNT, 0));
+    }
+
+    /**
+     * Returns a {@code Map<String, Object>} containing this {@code EdgeRequestStatus} object's attributes.
+     *
+     * @return {@code Map<String, Object>} containing {@link EdgeRequestStatus} data.
+     */
+    Map<String, Object> toEventData() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(OptimizeConstants.EventDataKeys.CIRCUIT_STATE, circuitState);
+        map.put(OptimizeConstants.EventDataKeys.CONSECUTIVE_FAILURES, consecutiveFailures);
+        map.put(OptimizeConstants.EventDataKeys.RETRY_COUNT, retryCount);
+        map.put(OptimizeConstants.EventDataKeys.REJECTED_RETRY_COUNT, rejectedRetryCount);
+        return map;
+    }
+}
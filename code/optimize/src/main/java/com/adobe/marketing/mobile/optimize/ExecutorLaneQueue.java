@@ -0,0 +1,138 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code ExecutorLaneQueue} class is the task queue of an extension executor lane.
+ * <p>
+ * Up to {@code capacity} tasks which are not critical are queued, the others are refused so that the executor hands them to its
+ * {@link TaskOverflowHandler}. Critical tasks, such as the Edge responses, the clears and the configuration updates, are always queued
+ * behind the tasks submitted before them, so they are neither lost nor run out of order. No method of this queue blocks the submitting thread.
+ */
+class ExecutorLaneQueue extends LinkedBlockingQueue<Runnable> {
+    private final int capacity;
+    private final AtomicInteger boundedTaskCount = new AtomicInteger();
+
+    /**
+     * Constructor creates an {@code ExecutorLaneQueue} queueing up to {@code capacity} tasks which are not critical.
+     *
+     * @param capacity {@code int} containing the maximum number of queued tasks which are not critical.
+     */
+    ExecutorLaneQueue(final int capacity) {
+        super();
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean offer(final Runnable task) {
+        if (isCritical(task)) {
+            return super.offer(task);
+        }
+
+        while (true) {
+            final int count = boundedTaskCount.get();
+            if (count >= capacity) {
+                return false;
+            }
+            if (boundedTaskCount.compareAndSet(count, count + 1)) {
+                break;
+            }
+        }
+
+        if (!super.offer(task)) {
+            boundedTaskCount.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean offer(final Runnable task, final long timeout, final TimeUnit unit) {
+        return offer(task);
+    }
+
+    @Override
+    public void put(final Runnable task) {
+        if (!offer(task)) {
+            throw new IllegalStateException("Executor lane queue full");
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        return onDequeued(super.take());
+    }
+
+    @Override
+    public Runnable poll() {
+        return onDequeued(super.poll());
+    }
+
+    @Override
+    public Runnable poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return onDequeued(super.poll(timeout, unit));
+    }
+
+    @Override
+    public boolean remove(final Object task) {
+        if (!super.remove(task)) {
+            return false;
+        }
+        onDequeued((Runnable) task);
+        return true;
+    }
+
+    @Override
+    public int drainTo(final Collection<? super Runnable> tasks) {
+        return drainTo(tasks, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super Runnable> tasks, final int maxTasks) {
+        final List<Runnable> drainedTasks = new ArrayList<>();
+        final int drainedCount = super.drainTo(drainedTasks, maxTasks);
+        for (final Runnable task : drainedTasks) {
+            onDequeued(task);
+        }
+        tasks.addAll(drainedTasks);
+        return drainedCount;
+    }
+
+    @Override
+    public void clear() {
+        drainTo(new ArrayList<Runnable>());
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(capacity - boundedTaskCount.get(), 0);
+    }
+
+    private Runnable onDequeued(final Runnable task) {
+        if (task != null && !isCritical(task)) {
+            boundedTaskCount.decrementAndGet();
+        }
+        return task;
+    }
+
+    private static boolean isCritical(final Runnable task) {
+        return task instanceof ExecutorMetrics.InstrumentedTask && ((ExecutorMetrics.InstrumentedTask) task).isCritical();
+    }
+}
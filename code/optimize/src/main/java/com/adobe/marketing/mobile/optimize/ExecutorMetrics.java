@@ -0,0 +1,260 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@code ExecutorMetrics} class records the number of tasks queued on the extension executor, and the wait and run time histograms of
+ * the tasks by type.
+ * <p>
+ * Recording a task costs a few atomic updates, so the metrics are always collected.
+ */
+class ExecutorMetrics {
+    static final List<String> TASK_TYPES = Collections.unmodifiableList(Arrays.asList(
+            ExecutorTaskMetrics.TASK_UPDATE,
+            ExecutorTaskMetrics.TASK_GET,
+            ExecutorTaskMetrics.TASK_TRACK,
+            ExecutorTaskMetrics.TASK_EDGE_RESPONSE,
+            ExecutorTaskMetrics.TASK_CLEAR,
+            ExecutorTaskMetrics.TASK_OTHER
+    ));
+
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicInteger maxQueuedTasks = new AtomicInteger();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final Map<String, TaskRecorder> taskRecorders;
+
+    /**
+     * Constructor creates {@code ExecutorMetrics} for the task types in {@link #TASK_TYPES}.
+     */
+    ExecutorMetrics() {
+        final Map<String, TaskRecorder> recorders = new HashMap<>();
+        for (final String taskType : TASK_TYPES) {
+            recorders.put(taskType, new TaskRecorder());
+        }
+        taskRecorders = Collections.unmodifiableMap(recorders);
+    }
+
+    /**
+     * Wraps the given {@code task} to record its wait and run time, counting it as queued until it starts running.
+     * <p>
+     * The {@value ExecutorTaskMetrics#TASK_EDGE_RESPONSE} and {@value ExecutorTaskMetrics#TASK_CLEAR} tasks are critical, the other tasks are not.
+     * The returned {@code Runnable} must be submitted to the executor right away.
+     *
+     * @param taskType {@link String} containing one of the {@link #TASK_TYPES}.
+     * @param task {@link Runnable} to be executed.
+     * @return {@link InstrumentedTask} to be submitted to the executor.
+     * @see #instrument(String, Runnable, boolean)
+     */
+    InstrumentedTask instrument(final String taskType, final Runnable task) {
+        return instrument(taskType, task,
+                ExecutorTaskMetrics.TASK_EDGE_RESPONSE.equals(taskType) || ExecutorTaskMetrics.TASK_CLEAR.equals(taskType));
+    }
+
+    /**
+     * Wraps the given {@code task} to record its wait and run time, counting it as queued until it starts running.
+     * <p>
+     * Critical tasks are always queued by an {@link ExecutorLaneQueue}, they are never dropped nor run on the submitting thread when the
+     * executor queue is full. The returned {@code Runnable} must be submitted to the executor right away.
+     *
+     * @param taskType {@link String} containing one of the {@link #TASK_TYPES}.
+     * @param task {@link Runnable} to be executed.
+     * @param critical {@code boolean} indicating whether the task must run in order even if the executor queue is full.
+     * @return {@link InstrumentedTask} to be submitted to the executor.
+     */
+    InstrumentedTask instrument(final String taskType, final Runnable task, final boolean critical) {
+        updateMax(maxQueuedTasks, queuedTasks.incrementAndGet());
+        return new InstrumentedTask(taskType, task, critical, System.nanoTime());
+    }
+
+    /**
+     * Records that the given {@code task} was not run, as the executor did not accept it or dropped it from its queue.
+     *
+     * @param task {@link Runnable} returned by {@link #instrument(String, Runnable)}.
+     */
+    void onRejected(final Runnable task) {
+        if (task instanceof InstrumentedTask && ((InstrumentedTask) task).dequeue()) {
+            queuedTasks.decrementAndGet();
+        }
+        rejectedTasks.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of tasks waiting in the executor queue.
+     *
+     * @return {@code int} containing the number of queued tasks.
+     */
+    int getQueuedTaskCount() {
+        return queuedTasks.get();
+    }
+
+    /**
+     * Gets the greatest number of tasks waiting in the executor queue at the same time.
+     *
+     * @return {@code int} containing the maximum number of queued tasks.
+     */
+    int getMaxQueuedTaskCount() {
+        return maxQueuedTasks.get();
+    }
+
+    /**
+     * Gets the number of tasks which were not run as the executor did not accept them or dropped them from its queue.
+     *
+     * @return {@code long} containing the number of rejected tasks.
+     */
+    long getRejectedTaskCount() {
+        return rejectedTasks.get();
+    }
+
+    /**
+     * Takes a snapshot of the task metrics.
+     *
+     * @return {@code Map<String, ExecutorTaskMetrics>} containing the metrics for each task type.
+     */
+    Map<String, ExecutorTaskMetrics> getTaskMetrics() {
+        final Map<String, ExecutorTaskMetrics> taskMetrics = new HashMap<>();
+        for (final Map.Entry<String, TaskRecorder> entry : taskRecorders.entrySet()) {
+            taskMetrics.put(entry.getKey(), new ExecutorTaskMetrics(entry.getValue().waitTime.snapshot(), entry.getValue().runTime.snapshot()));
+        }
+        return taskMetrics;
+    }
+
+    private TaskRecorder recorderFor(final String taskType) {
+        final TaskRecorder recorder = taskRecorders.get(taskType);
+        return recorder != null ? recorder : taskRecorders.get(ExecutorTaskMetrics.TASK_OTHER);
+    }
+
+    private static void updateMax(final AtomicInteger max, final int value) {
+        int current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * {@code InstrumentedTask} class wraps an extension task to record its wait and run time.
+     */
+    final class InstrumentedTask implements Runnable {
+        private final String taskType;
+        private final Runnable task;
+        private final boolean critical;
+        private final long queuedNanos;
+        private final AtomicBoolean queued = new AtomicBoolean(true);
+
+        private InstrumentedTask(final String taskType, final Runnable task, final boolean critical, final long queuedNanos) {
+            this.taskType = taskType;
+            this.task = task;
+            this.critical = critical;
+            this.queuedNanos = queuedNanos;
+        }
+
+        /**
+         * Gets the type of this task.
+         *
+         * @return {@link String} containing the task type.
+         */
+        String getTaskType() {
+            return taskType;
+        }
+
+        /**
+         * Checks whether this task must run in order even if the executor queue is full.
+         *
+         * @return {@code boolean} indicating whether this task is critical.
+         */
+        boolean isCritical() {
+            return critical;
+        }
+
+        /**
+         * Notifies the wrapped task that it has been dropped without being run, if it is a {@link DroppableTask}.
+         */
+        void onDropped() {
+            if (task instanceof DroppableTask) {
+                ((DroppableTask) task).onDropped();
+            }
+        }
+
+        @Override
+        public void run() {
+            final long startNanos = System.nanoTime();
+            final TaskRecorder recorder = recorderFor(taskType);
+            if (dequeue()) {
+                queuedTasks.decrementAndGet();
+            }
+            recorder.waitTime.record(startNanos - queuedNanos);
+            try {
+                task.run();
+            } finally {
+                recorder.runTime.record(System.nanoTime() - startNanos);
+            }
+        }
+
+        private boolean dequeue() {
+            return queued.compareAndSet(true, false);
+        }
+    }
+
+    private static final class TaskRecorder {
+        private final HistogramRecorder waitTime = new HistogramRecorder();
+        private final HistogramRecorder runTime = new HistogramRecorder();
+    }
+
+    /**
+     * {@code HistogramRecorder} class accumulates durations into the buckets of a {@link LatencyHistogram}.
+     */
+    private static final class HistogramRecorder {
+        private final AtomicLongArray bucketCounts = new AtomicLongArray(LatencyHistogram.bucketCount());
+        private final AtomicLong totalMicros = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        /**
+         * Records the given duration.
+         *
+         * @param durationNanos {@code long} containing the duration in nanoseconds.
+         */
+        void record(final long durationNanos) {
+            final long durationMicros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(durationNanos));
+            bucketCounts.incrementAndGet(LatencyHistogram.bucketIndex(durationMicros));
+            totalMicros.addAndGet(durationMicros);
+
+            long current = maxMicros.get();
+            while (durationMicros > current && !maxMicros.compareAndSet(current, durationMicros)) {
+                current = maxMicros.get();
+            }
+        }
+
+        /**
+         * Takes a snapshot of the recorded durations.
+         *
+         * @return {@link LatencyHistogram} containing the recorded durations.
+         */
+        LatencyHistogram snapshot() {
+            final long[] counts = new long[bucketCounts.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = bucketCounts.get(i);
+            }
+            return new LatencyHistogram(counts, totalMicros.get(), maxMicros.get());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * {@code ExecutorPropositionsCallback} class wraps a get propositions callback, invoking it using the provided {@link Executor} instead of
+ * the thread delivering the response.
+ * <p>
+ * The propositions are handed to the wrapped callback as received, without being copied. The expired scopes, if any, are delivered in the
+ * same task as the propositions, so that the wrapped callback is notified of them first even if the executor runs tasks concurrently.
+ */
+class ExecutorPropositionsCallback implements PropositionsExpiryCallback {
+    private final Executor executor;
+    private final AdobeCallback<Map<DecisionScope, Proposition>> callback;
+    private volatile List<DecisionScope> expiredScopes;
+
+    /**
+     * Constructor creates an {@code ExecutorPropositionsCallback} wrapping the provided {@code callback}.
+     *
+     * @param executor {@link Executor} to invoke the callback.
+     * @param callback {@code AdobeCallback<Map<DecisionScope, Proposition>>} to be invoked with the response or the error.
+     */
+    ExecutorPropositionsCallback(final Executor executor, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        this.executor = executor;
+        this.callback = callback;
+    }
+
+    @Override
+    public void expired(final List<DecisionScope> expiredScopes) {
+        this.expiredScopes = expiredScopes;
+    }
+
+    @Override
+    public void call(final Map<DecisionScope, Proposition> propositions) {
+        final List<DecisionScope> scopes = expiredScopes;
+        expiredScopes = null;
+        OptimizeUtils.execute(executor, new Runnable() {
+            @Override
+            public void run() {
+                if (scopes != null && callback instanceof PropositionsExpiryCallback) {
+                    ((PropositionsExpiryCallback) callback).expired(scopes);
+                }
+                callback.call(propositions);
+            }
+        });
+    }
+
+    @Override
+    public void fail(final AdobeError error) {
+        if (!(callback instanceof AdobeCallbackWithError)) {
+            return;
+        }
+
+        OptimizeUtils.execute(executor, new Runnable() {
+            @Override
+            public void run() {
+                ((AdobeCallbackWithError<?>) callback).fail(error);
+            }
+        });
+    }
+}
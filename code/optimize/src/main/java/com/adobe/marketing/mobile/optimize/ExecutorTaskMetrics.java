@@ -0,0 +1,111 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code ExecutorTaskMetrics} class contains the time the Optimize extension tasks of a given type spent waiting in the extension queue,
+ * and the time they took to run.
+ * <p>
+ * The get propositions requests answered on the calling thread are not extension tasks and are not recorded, only the ones queued
+ * behind a pending clear propositions request are. The synchronous cached propositions reads are not recorded either.
+ */
+public class ExecutorTaskMetrics {
+    /** Update propositions requests, including the merged and retried personalization query requests. */
+    public static final String TASK_UPDATE = "update";
+    /** Get propositions requests. */
+    public static final String TASK_GET = "get";
+    /** Track propositions requests. */
+    public static final String TASK_TRACK = "track";
+    /** Edge personalization responses and error responses. */
+    public static final String TASK_EDGE_RESPONSE = "edgeresponse";
+    /** Clear propositions requests. */
+    public static final String TASK_CLEAR = "clear";
+    /** Other tasks, such as configuration updates and prefetch registrations. */
+    public static final String TASK_OTHER = "other";
+
+    private static final String WAIT_TIME = "waittime";
+    private static final String RUN_TIME = "runtime";
+
+    final private LatencyHistogram waitTime;
+    final private LatencyHistogram runTime;
+
+    /**
+     * Constructor creates an {@code ExecutorTaskMetrics} using the provided histograms.
+     *
+     * @param waitTime {@link LatencyHistogram} containing the time the tasks waited in the queue.
+     * @param runTime {@link LatencyHistogram} containing the time the tasks took to run.
+     */
+    ExecutorTaskMetrics(final LatencyHistogram waitTime, final LatencyHistogram runTime) {
+        this.waitTime = waitTime;
+        this.runTime = runTime;
+    }
+
+    /**
+     * Gets the number of tasks run.
+     *
+     * @return {@code long} containing the number of tasks.
+     */
+    public long getTaskCount() {
+        return runTime.getCount();
+    }
+
+    /**
+     * Gets the distribution of the time the tasks waited in the extension queue before running.
+     *
+     * @return {@link LatencyHistogram} containing the wait times.
+     */
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * Gets the distribution of the time the tasks took to run.
+     *
+     * @return {@link LatencyHistogram} containing the run times.
+     */
+    public LatencyHistogram getRunTime() {
+        return runTime;
+    }
+
+    /**
+     * Creates an {@code ExecutorTaskMetrics} object using information provided in {@code data} map.
+     * <p>
+     * This method returns null if the provided {@code data} is empty or null or if it does not contain valid histograms.
+     *
+     * @param data {@code Map<String, Object>} containing this {@code ExecutorTaskMetrics} object's attributes.
+     * @return {@code ExecutorTaskMetrics} object or null.
+     */
+    static ExecutorTaskMetrics fromEventData(final Map<String, Object> data) {
+        final LatencyHistogram waitTime = LatencyHistogram.fromEventData(OptimizeUtils.getMap(data, WAIT_TIME));
+        final LatencyHistogram runTime = LatencyHistogram.fromEventData(OptimizeUtils.getMap(data, RUN_TIME));
+        if (waitTime == null || runTime == null) {
+            return null;
+        }
+        return new ExecutorTaskMetrics(waitTime, runTime);
+    }
+
+    /**
+     * Returns a {@code Map<String, Object>} containing this {@code ExecutorTaskMetrics} object's attributes.
+     *
+     * @return {@code Map<String, Object>} containing {@link ExecutorTaskMetrics} data.
+     */
+    Map<String, Object> toEventData() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(WAIT_TIME, waitTime.toEventData());
+        map.put(RUN_TIME, runTime.toEventData());
+        return map;
+    }
+}
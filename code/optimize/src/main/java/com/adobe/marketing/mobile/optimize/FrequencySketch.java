@@ -0,0 +1,131 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * {@code FrequencySketch} class is a count-min sketch estimating how often an item was seen, in constant memory.
+ * <p>
+ * Counters saturate at {@value #MAX_COUNT} and are halved once the number of recorded increments reaches ten times the sketch width,
+ * so that the estimates favor recent history. Updates use atomic operations and never block.
+ */
+class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0x9e3779b9, 0xc2b2ae35, 0x85ebca6b};
+
+    private final AtomicIntegerArray table;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final int mask;
+    private final int sampleSize;
+
+    /**
+     * Constructor creates a {@code FrequencySketch} sized for the given number of distinct items.
+     *
+     * @param capacity {@code int} containing the expected number of distinct items.
+     */
+    FrequencySketch(final int capacity) {
+        int width = 16;
+        while (width < capacity) {
+            width <<= 1;
+        }
+
+        table = new AtomicIntegerArray(width * DEPTH);
+        mask = width - 1;
+        sampleSize = width * 10;
+    }
+
+    /**
+     * Increments the estimated frequency of the given {@code item}.
+     *
+     * @param item {@link Object} which was seen.
+     */
+    void increment(final Object item) {
+        if (item == null) {
+            return;
+        }
+
+        final int hash = spread(item.hashCode());
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            final int index = indexOf(hash, row);
+            int count;
+            do {
+                count = table.get(index);
+                if (count >= MAX_COUNT) {
+                    break;
+                }
+            } while (!table.compareAndSet(index, count, count + 1));
+            added |= count < MAX_COUNT;
+        }
+
+        if (added && additions.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Gets the estimated frequency of the given {@code item}.
+     *
+     * @param item {@link Object} to be looked up.
+     * @return {@code int} containing the estimated frequency, never lower than the actual frequency since the last reset.
+     */
+    int frequency(final Object item) {
+        if (item == null) {
+            return 0;
+        }
+
+        final int hash = spread(item.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, table.get(indexOf(hash, row)));
+        }
+        return frequency;
+    }
+
+    /**
+     * Resets all the estimated frequencies to zero.
+     */
+    void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, 0);
+        }
+        additions.set(0);
+    }
+
+    /**
+     * Halves all the counters so that older increments weigh less than recent ones.
+     */
+    private void reset() {
+        additions.set(0);
+        for (int i = 0; i < table.length(); i++) {
+            int count;
+            do {
+                count = table.get(i);
+            } while (!table.compareAndSet(i, count, count >>> 1));
+        }
+    }
+
+    private int indexOf(final int hash, final int row) {
+        int h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+        h ^= h >>> 16;
+        return row * (mask + 1) + (h & mask);
+    }
+
+    private static int spread(final int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code InFlightInteractionTracker} class keeps the proposition interactions dispatched to the Edge network extension, keyed by the
+ * identifier of their Edge request event, so that an interaction can be journaled again if the Edge network returns an error for it.
+ * <p>
+ * Once dispatched, an interaction is delivered by the Edge network extension, which queues its requests on disk and retries them while
+ * the network is not available. The Edge network does not report the interactions it received successfully, so the tracker only keeps
+ * the most recently dispatched interactions, up to the given maximum number of entries.
+ */
+class InFlightInteractionTracker {
+    static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final Map<String, Interaction> interactions;
+
+    /**
+     * Constructor creates {@code InFlightInteractionTracker} keeping up to {@code maxEntries} interactions.
+     *
+     * @param maxEntries {@code int} containing the maximum number of interactions kept, the oldest ones are forgotten first.
+     */
+    InFlightInteractionTracker(final int maxEntries) {
+        this.interactions = new LinkedHashMap<String, Interaction>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Interaction> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Records the interaction dispatched with the given {@code requestEventId}.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the Edge request event.
+     * @param xdm {@code Map<String, Object>} containing the interaction XDM.
+     * @param datasetId {@link String} containing the override dataset identifier, may be null.
+     */
+    synchronized void add(final String requestEventId, final Map<String, Object> xdm, final String datasetId) {
+        if (requestEventId == null) {
+            return;
+        }
+
+        interactions.put(requestEventId, new Interaction(xdm, datasetId));
+    }
+
+    /**
+     * Removes the interaction dispatched with the given {@code requestEventId}.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the Edge request event.
+     * @return {@link Interaction} dispatched with the {@code requestEventId}, or null if it is not an interaction request or it was forgotten.
+     */
+    synchronized Interaction complete(final String requestEventId) {
+        return requestEventId != null ? interactions.remove(requestEventId) : null;
+    }
+
+    /**
+     * Gets the number of interactions kept.
+     *
+     * @return {@code int} containing the number of interactions.
+     */
+    synchronized int size() {
+        return interactions.size();
+    }
+
+    /**
+     * Forgets all the dispatched interactions.
+     */
+    synchronized void clear() {
+        interactions.clear();
+    }
+
+    /**
+     * {@code Interaction} class contains a dispatched proposition interaction.
+     */
+    static final class Interaction {
+        private final Map<String, Object> xdm;
+        private final String datasetId;
+
+        private Interaction(final Map<String, Object> xdm, final String datasetId) {
+            this.xdm = xdm;
+            this.datasetId = datasetId;
+        }
+
+        /**
+         * Gets the interaction XDM.
+         *
+         * @return {@code Map<String, Object>} containing the XDM data for the proposition interactions.
+         */
+        Map<String, Object> getXdm() {
+            return xdm;
+        }
+
+        /**
+         * Gets the override dataset identifier.
+         *
+         * @return {@link String} containing the dataset identifier, may be null.
+         */
+        String getDatasetId() {
+            return datasetId;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@code InFlightRequestTracker} class keeps track of the decision scopes with an outstanding personalization query request to the Edge network,
+ * so that an identical request for the same scope is not sent again until the outstanding one is answered.
+ * <p>
+ * A scope stops being in flight when the Edge response or error response for its request is received, or once the given timeout has elapsed,
+ * as the Edge network does not return a personalization response for the scopes without any qualified content.
+ */
+class InFlightRequestTracker {
+    private final long timeoutMillis;
+    private final Map<String, Request> inFlightScopes = new HashMap<>();
+
+    /**
+     * Constructor creates {@code InFlightRequestTracker} using the provided {@code timeoutMillis}.
+     *
+     * @param timeoutMillis {@code long} containing the time in milliseconds after which a request without response is no longer considered in flight.
+     */
+    InFlightRequestTracker(final long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Filters out the decision scopes which already have an outstanding request with the same {@code xdm}, {@code data} and override {@code datasetId}.
+     *
+     * @param scopeNames {@code Collection<String>} containing the requested decision scope names.
+     * @param xdm {@code Map<String, Object>} containing the request XDM, may be null.
+     * @param data {@code Map<String, Object>} containing the request free-form data, may be null.
+     * @param datasetId {@link String} containing the override dataset identifier, may be null.
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     * @return {@code List<String>} containing the decision scope names which are not in flight.
+     */
+    synchronized List<String> filter(final Collection<String> scopeNames, final Map<String, Object> xdm, final Map<String, Object> data,
+                                     final String datasetId, final long nowMillis) {
+        final List<String> filteredScopeNames = new ArrayList<>();
+        for (final String scopeName : scopeNames) {
+            final Request inFlightRequest = inFlightScopes.get(scopeName);
+            if (inFlightRequest == null
+                    || inFlightRequest.isTimedOut(nowMillis, timeoutMillis)
+                    || !inFlightRequest.matches(xdm, data, datasetId)) {
+                filteredScopeNames.add(scopeName);
+            }
+        }
+        return filteredScopeNames;
+    }
+
+    /**
+     * Marks the given decision scopes as in flight for the request with the given {@code requestEventId}.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the Edge request event.
+     * @param scopeNames {@code List<String>} containing the requested decision scope names.
+     * @param xdm {@code Map<String, Object>} containing the request XDM, may be null.
+     * @param data {@code Map<String, Object>} containing the request free-form data, may be null.
+     * @param datasetId {@link String} containing the override dataset identifier, may be null.
+     * @param attempt {@code int} containing the attempt number of the request, starting from 1.
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     */
+    synchronized void add(final String requestEventId, final List<String> scopeNames, final Map<String, Object> xdm,
+                          final Map<String, Object> data, final String datasetId, final int attempt, final long nowMillis) {
+        final Request inFlightRequest = new Request(requestEventId, scopeNames, xdm, data, datasetId, attempt, nowMillis);
+        for (final String scopeName : scopeNames) {
+            inFlightScopes.put(scopeName, inFlightRequest);
+        }
+    }
+
+    /**
+     * Clears the decision scopes which are in flight for the request with the given {@code requestEventId}.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the Edge request event.
+     * @return {@link Request} containing the cleared decision scope names, or null if none of the request scopes was in flight.
+     */
+    synchronized Request complete(final String requestEventId) {
+        if (requestEventId == null) {
+            return null;
+        }
+
+        Request completedRequest = null;
+        final List<String> completedScopeNames = new ArrayList<>();
+        final Iterator<Map.Entry<String, Request>> iterator = inFlightScopes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Request> entry = iterator.next();
+            if (requestEventId.equals(entry.getValue().requestEventId)) {
+                completedRequest = entry.getValue();
+                completedScopeNames.add(entry.getKey());
+                iterator.remove();
+            }
+        }
+
+        if (completedRequest == null) {
+            return null;
+        }
+
+        // Keep the order of the request scopes
+        final List<String> scopeNames = new ArrayList<>(completedRequest.scopeNames);
+        scopeNames.retainAll(completedScopeNames);
+        return new Request(requestEventId, scopeNames, completedRequest.xdm, completedRequest.data, completedRequest.datasetId,
+                completedRequest.attempt, completedRequest.sentTimeMillis);
+    }
+
+    /**
+     * Clears the given decision scopes, irrespective of their request.
+     *
+     * @param scopeNames {@code Collection<String>} containing the decision scope names.
+     */
+    synchronized void complete(final Collection<String> scopeNames) {
+        inFlightScopes.keySet().removeAll(scopeNames);
+    }
+
+    /**
+     * Clears all the decision scopes in flight.
+     */
+    synchronized void clear() {
+        inFlightScopes.clear();
+    }
+
+    /**
+     * {@code Request} class contains a personalization query request sent to the Edge network.
+     */
+    static final class Request {
+        private final String requestEventId;
+        private final List<String> scopeNames;
+        private final Map<String, Object> xdm;
+        private final Map<String, Object> data;
+        private final String datasetId;
+        private final int attempt;
+        private final long sentTimeMillis;
+
+        private Request(final String requestEventId, final List<String> scopeNames, final Map<String, Object> xdm, final Map<String, Object> data,
+                        final String datasetId, final int attempt, final long sentTimeMillis) {
+            this.requestEventId = requestEventId;
+            this.scopeNames = scopeNames;
+            this.xdm = xdm != null ? xdm : Collections.<String, Object>emptyMap();
+            this.data = data != null ? data : Collections.<String, Object>emptyMap();
+            this.datasetId = datasetId;
+            this.attempt = attempt;
+            this.sentTimeMillis = sentTimeMillis;
+        }
+
+        /**
+         * Gets the decision scope names of this request.
+         *
+         * @return {@code List<String>} containing the decision scope names.
+         */
+        List<String> getScopeNames() {
+            return scopeNames;
+        }
+
+        /**
+         * Gets the XDM of this request.
+         *
+         * @return {@code Map<String, Object>} containing the request XDM.
+         */
+        Map<String, Object> getXdm() {
+            return xdm;
+        }
+
+        /**
+         * Gets the free-form data of this request.
+         *
+         * @return {@code Map<String, Object>} containing the request data.
+         */
+        Map<String, Object> getData() {
+            return data;
+        }
+
+        /**
+         * Gets the override dataset identifier of this request.
+         *
+         * @return {@link String} containing the dataset identifier, or null.
+         */
+        String getDatasetId() {
+            return datasetId;
+        }
+
+        /**
+         * Gets the attempt number of this request.
+         *
+         * @return {@code int} containing the attempt number, starting from 1.
+         */
+        int getAttempt() {
+            return attempt;
+        }
+
+        private boolean isTimedOut(final long nowMillis, final long timeoutMillis) {
+            return nowMillis - sentTimeMillis >= timeoutMillis;
+        }
+
+        private boolean matches(final Map<String, Object> xdm, final Map<String, Object> data, final String datasetId) {
+            return this.xdm.equals(xdm != null ? xdm : Collections.<String, Object>emptyMap())
+                    && this.data.equals(data != null ? data : Collections.<String, Object>emptyMap())
+                    && Objects.equals(this.datasetId, datasetId);
+        }
+    }
+}
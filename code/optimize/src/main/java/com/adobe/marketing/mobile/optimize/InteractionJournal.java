@@ -0,0 +1,517 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import android.app.Application;
+
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
+
+/**
+ * {@code InteractionJournal} class persists the proposition interactions which could not be sent to the Edge network, so that they can be
+ * replayed, in the order they were tracked, after the Edge requests succeed again or the application restarts.
+ * <p>
+ * Interactions are appended to a single file, one record per line, containing a sequence number, the override dataset identifier and the
+ * interaction XDM. The sequence number of the last replayed record is saved in a separate checkpoint file, and the replayed records are
+ * removed from the journal once they make up most of it. When the journal would exceed its maximum size, the oldest records are dropped.
+ * <p>
+ * Appends, replays and the file syncs are performed asynchronously on the provided {@code Executor}, in the order they were requested,
+ * so they never block the calling thread.
+ */
+class InteractionJournal {
+    static final long DEFAULT_MAX_SIZE_BYTES = 256 * 1024;
+
+    private static final String DIRECTORY_NAME = "com.adobe.optimize";
+    private static final String FILE_NAME = "interactions.log";
+    private static final String COMPACTION_FILE_NAME = "interactions.log.tmp";
+    private static final String CHECKPOINT_FILE_NAME = "interactions.checkpoint";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char SEPARATOR = '\t';
+    private static final byte NEWLINE = '\n';
+
+    private final File file;
+    private final File compactionFile;
+    private final File checkpointFile;
+    private final Executor executor;
+    private final Object mutex = new Object();
+    private volatile long maxSizeBytes = DEFAULT_MAX_SIZE_BYTES;
+
+    // Records not replayed yet, null until the file is first read.
+    private List<Record> pendingRecords;
+    private long pendingSizeBytes;
+    private long checkpoint;
+    private long nextSequence;
+
+    /**
+     * {@code ReplayHandler} interface is notified of the journal records to be replayed.
+     */
+    interface ReplayHandler {
+        /**
+         * Replays the given journal {@code records}.
+         *
+         * @param records {@code List<Record>} containing the records to be replayed, in the order they were appended.
+         * @return {@code boolean} indicating whether the records were replayed and can be checkpointed, false to stop the replay.
+         */
+        boolean replay(final List<Record> records);
+    }
+
+    /**
+     * Constructor creates an {@code InteractionJournal} persisting interactions in the given {@code directory}.
+     *
+     * @param directory {@link File} containing the directory where interactions are persisted.
+     * @param executor {@link Executor} performing the disk reads and writes.
+     */
+    InteractionJournal(final File directory, final Executor executor) {
+        this.file = new File(directory, FILE_NAME);
+        this.compactionFile = new File(directory, COMPACTION_FILE_NAME);
+        this.checkpointFile = new File(directory, CHECKPOINT_FILE_NAME);
+        this.executor = executor;
+    }
+
+    /**
+     * Creates an {@code InteractionJournal} in the application's files directory.
+     *
+     * @param executor {@link Executor} performing the disk reads and writes.
+     * @return {@link InteractionJournal} instance or null, if the application's files directory is not available.
+     */
+    static InteractionJournal create(final Executor executor) {
+        final Application application = MobileCore.getApplication();
+        final File filesDir = application != null ? application.getFilesDir() : null;
+        return filesDir != null ? new InteractionJournal(new File(filesDir, DIRECTORY_NAME), executor) : null;
+    }
+
+    /**
+     * Sets the maximum size of the journal, the oldest records are dropped on the next append if it is exceeded.
+     *
+     * @param maxSizeBytes {@code long} containing the maximum size in bytes.
+     */
+    void setMaxSizeBytes(final long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes > 0 ? maxSizeBytes : DEFAULT_MAX_SIZE_BYTES;
+    }
+
+    /**
+     * Determines whether there are journaled interactions, from a previous or the current application session.
+     *
+     * @return {@code boolean} indicating whether the journal file exists.
+     */
+    boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Appends the given interaction in the background, syncing it to disk.
+     *
+     * @param interactionXdm {@code Map<String, Object>} containing the XDM data for the proposition interaction.
+     * @param datasetId {@link String} containing the override dataset identifier, may be null.
+     */
+    void append(final Map<String, Object> interactionXdm, final String datasetId) {
+        if (OptimizeUtils.isNullOrEmpty(interactionXdm)) {
+            return;
+        }
+
+        final String xdmJson = new JSONObject(interactionXdm).toString();
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (mutex) {
+                    load();
+                    final Record record = new Record(nextSequence++, datasetId, xdmJson);
+                    final byte[] line = record.format();
+                    if (line.length + 1 > maxSizeBytes) {
+                        MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Not journaling the proposition interaction, it exceeds the journal maximum size.");
+                        return;
+                    }
+                    if (pendingSizeBytes + line.length + 1 > maxSizeBytes) {
+                        dropOldest(line.length + 1);
+                        rewrite();
+                    }
+                    if (write(file, line, true)) {
+                        pendingRecords.add(record);
+                        pendingSizeBytes += record.sizeBytes;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Replays the journaled interactions in the background, in batches of up to {@code batchSize} records.
+     * <p>
+     * Each batch replayed by the {@code handler} is checkpointed, and the replay stops at the first batch the handler does not replay.
+     *
+     * @param batchSize {@code int} containing the maximum number of records per batch.
+     * @param handler {@link ReplayHandler} replaying the records.
+     */
+    void replay(final int batchSize, final ReplayHandler handler) {
+        replay(batchSize, handler, null);
+    }
+
+    /**
+     * Replays the journaled interactions in the background, in batches of up to {@code batchSize} records, and runs {@code drainedCallback}
+     * if no record is left to be replayed afterwards.
+     * <p>
+     * Each batch replayed by the {@code handler} is checkpointed, and the replay stops at the first batch the handler does not replay.
+     *
+     * @param batchSize {@code int} containing the maximum number of records per batch.
+     * @param handler {@link ReplayHandler} replaying the records.
+     * @param drainedCallback {@link Runnable} run on the journal executor once all the records are replayed, may be null.
+     */
+    void replay(final int batchSize, final ReplayHandler handler, final Runnable drainedCallback) {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                final boolean drained;
+                synchronized (mutex) {
+                    load();
+                    while (!pendingRecords.isEmpty()) {
+                        final List<Record> batch = new ArrayList<>(pendingRecords.subList(0, Math.min(batchSize, pendingRecords.size())));
+                        if (!handler.replay(batch)) {
+                            break;
+                        }
+                        pendingRecords.subList(0, batch.size()).clear();
+                        for (final Record record : batch) {
+                            pendingSizeBytes -= record.sizeBytes;
+                        }
+                        checkpoint = batch.get(batch.size() - 1).sequence;
+                        write(checkpointFile, String.valueOf(checkpoint).getBytes(UTF_8), false);
+                    }
+
+                    drained = pendingRecords.isEmpty();
+                    if (drained) {
+                        delete(file);
+                        delete(checkpointFile);
+                    } else if (file.length() > 2 * pendingSizeBytes) {
+                        rewrite();
+                    }
+                }
+
+                if (drained && drainedCallback != null) {
+                    drainedCallback.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes all the journaled interactions in the background.
+     */
+    void clear() {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (mutex) {
+                    pendingRecords = new ArrayList<>();
+                    pendingSizeBytes = 0;
+                    delete(file);
+                    delete(checkpointFile);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the records not replayed yet from the journal file, if not already read.
+     * <p>
+     * Malformed records, such as an incomplete trailing record left by an interrupted write, are skipped.
+     */
+    private void load() {
+        if (pendingRecords != null) {
+            return;
+        }
+
+        pendingRecords = new ArrayList<>();
+        pendingSizeBytes = 0;
+        checkpoint = readCheckpoint();
+        nextSequence = checkpoint + 1;
+        if (!file.exists()) {
+            return;
+        }
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final Record record = Record.parse(line);
+                if (record == null) {
+                    continue;
+                }
+                nextSequence = Math.max(nextSequence, record.sequence + 1);
+                if (record.sequence > checkpoint) {
+                    pendingRecords.add(record);
+                    pendingSizeBytes += record.sizeBytes;
+                }
+            }
+        } catch (final IOException e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to read the journaled proposition interactions due to an exception (%s)!", e.getLocalizedMessage()));
+        } finally {
+            close(reader);
+        }
+
+        if (file.length() > 0 && !endsWithNewline()) {
+            // Drops the incomplete trailing record, so that the next record is not appended to it.
+            rewrite();
+        }
+    }
+
+    private boolean endsWithNewline() {
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "r");
+            randomAccessFile.seek(randomAccessFile.length() - 1);
+            return randomAccessFile.read() == NEWLINE;
+        } catch (final IOException e) {
+            return false;
+        } finally {
+            close(randomAccessFile);
+        }
+    }
+
+    private long readCheckpoint() {
+        if (!checkpointFile.exists()) {
+            return 0;
+        }
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(checkpointFile), UTF_8));
+            final String line = reader.readLine();
+            return line != null ? Long.parseLong(line.trim()) : 0;
+        } catch (final IOException | NumberFormatException e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to read the proposition interactions checkpoint due to an exception (%s)!", e.getLocalizedMessage()));
+            return 0;
+        } finally {
+            close(reader);
+        }
+    }
+
+    /**
+     * Drops the oldest pending records until {@code requiredBytes} more bytes fit within the maximum size.
+     *
+     * @param requiredBytes {@code long} containing the size of the record to be appended.
+     */
+    private void dropOldest(final long requiredBytes) {
+        int dropped = 0;
+        while (!pendingRecords.isEmpty() && pendingSizeBytes + requiredBytes > maxSizeBytes) {
+            pendingSizeBytes -= pendingRecords.remove(0).sizeBytes;
+            dropped++;
+        }
+        MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                String.format("Dropped (%d) journaled proposition interactions, the journal reached its maximum size.", dropped));
+    }
+
+    /**
+     * Rewrites the journal file keeping only the pending records. The checkpoint file is kept, as the sequence numbers are preserved.
+     */
+    private void rewrite() {
+        FileOutputStream fileOutputStream = null;
+        try {
+            fileOutputStream = new FileOutputStream(compactionFile, false);
+            final OutputStream outputStream = new BufferedOutputStream(fileOutputStream);
+            for (final Record record : pendingRecords) {
+                outputStream.write(record.format());
+                outputStream.write(NEWLINE);
+            }
+            outputStream.flush();
+            fileOutputStream.getFD().sync();
+        } catch (final IOException e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to compact the journaled proposition interactions due to an exception (%s)!", e.getLocalizedMessage()));
+            return;
+        } finally {
+            close(fileOutputStream);
+        }
+
+        if (!compactionFile.renameTo(file)) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Failed to replace the journaled proposition interactions file with the compacted one!");
+        }
+    }
+
+    private boolean write(final File target, final byte[] line, final boolean append) {
+        final File directory = target.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Failed to create the directory for journaled proposition interactions!");
+            return false;
+        }
+
+        FileOutputStream outputStream = null;
+        try {
+            outputStream = new FileOutputStream(target, append);
+            outputStream.write(line);
+            if (append) {
+                outputStream.write(NEWLINE);
+            }
+            outputStream.flush();
+            outputStream.getFD().sync();
+            return true;
+        } catch (final IOException e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to journal proposition interactions due to an exception (%s)!", e.getLocalizedMessage()));
+            return false;
+        } finally {
+            close(outputStream);
+        }
+    }
+
+    private void submit(final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Dropped an interaction journal task, the journal executor has been shut down.");
+        }
+    }
+
+    private static void delete(final File target) {
+        if (target.exists() && !target.delete()) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Failed to delete the journaled proposition interactions file!");
+        }
+    }
+
+    private static Map<String, Object> toMap(final JSONObject jsonObject) throws JSONException {
+        final Map<String, Object> map = new HashMap<>();
+        final Iterator<String> keys = jsonObject.keys();
+        while (keys.hasNext()) {
+            final String key = keys.next();
+            map.put(key, fromJson(jsonObject.get(key)));
+        }
+        return map;
+    }
+
+    private static List<Object> toList(final JSONArray jsonArray) throws JSONException {
+        final List<Object> list = new ArrayList<>();
+        for (int i = 0; i < jsonArray.length(); i++) {
+            list.add(fromJson(jsonArray.get(i)));
+        }
+        return list;
+    }
+
+    private static Object fromJson(final Object value) throws JSONException {
+        if (value instanceof JSONObject) {
+            return toMap((JSONObject) value);
+        } else if (value instanceof JSONArray) {
+            return toList((JSONArray) value);
+        } else if (value == JSONObject.NULL) {
+            return null;
+        }
+        return value;
+    }
+
+    private static void close(final Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+
+        try {
+            closeable.close();
+        } catch (final IOException e) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                    String.format("Failed to close the journaled proposition interactions file due to an exception (%s).", e.getLocalizedMessage()));
+        }
+    }
+
+    /**
+     * {@code Record} class contains a journaled proposition interaction.
+     */
+    static final class Record {
+        private final long sequence;
+        private final String datasetId;
+        private final String xdmJson;
+        private final int sizeBytes;
+
+        private Record(final long sequence, final String datasetId, final String xdmJson) {
+            this.sequence = sequence;
+            this.datasetId = datasetId;
+            this.xdmJson = xdmJson;
+            this.sizeBytes = format().length + 1;
+        }
+
+        /**
+         * Gets the XDM data for the proposition interaction.
+         *
+         * @return {@code Map<String, Object>} containing the interaction XDM, or null if it cannot be parsed.
+         */
+        Map<String, Object> getXdm() {
+            try {
+                return toMap(new JSONObject(xdmJson));
+            } catch (final JSONException e) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                        String.format("Skipping journaled proposition interaction due to an exception (%s).", e.getLocalizedMessage()));
+                return null;
+            }
+        }
+
+        /**
+         * Gets the override dataset identifier for the proposition interaction.
+         *
+         * @return {@link String} containing the dataset identifier, or null.
+         */
+        String getDatasetId() {
+            return datasetId;
+        }
+
+        private byte[] format() {
+            return (sequence + String.valueOf(SEPARATOR) + (datasetId != null ? JSONObject.quote(datasetId) : "null")
+                    + SEPARATOR + xdmJson).getBytes(UTF_8);
+        }
+
+        private static Record parse(final String line) {
+            final int datasetStart = line.indexOf(SEPARATOR) + 1;
+            final int xdmStart = line.indexOf(SEPARATOR, datasetStart) + 1;
+            if (datasetStart == 0 || xdmStart == 0) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Skipping journaled proposition interaction, record is malformed.");
+                return null;
+            }
+
+            try {
+                final long sequence = Long.parseLong(line.substring(0, datasetStart - 1));
+                final Object datasetId = new JSONTokener(line.substring(datasetStart, xdmStart - 1)).nextValue();
+                final String xdmJson = line.substring(xdmStart);
+                // Validates the XDM, so that a truncated record is not replayed.
+                new JSONObject(xdmJson);
+                return new Record(sequence, datasetId instanceof String ? (String) datasetId : null, xdmJson);
+            } catch (final NumberFormatException | JSONException e) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                        String.format("Skipping journaled proposition interaction due to an exception (%s).", e.getLocalizedMessage()));
+                return null;
+            }
+        }
+    }
+}
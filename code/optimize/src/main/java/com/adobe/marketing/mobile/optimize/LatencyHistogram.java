@@ -0,0 +1,209 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code LatencyHistogram} class contains the distribution of recorded durations, in microseconds, over fixed exponential buckets.
+ * <p>
+ * Each bucket counts the durations up to and including its upper bound, and greater than the upper bound of the previous bucket.
+ * The last bucket counts all the durations greater than the second-to-last bound.
+ */
+public class LatencyHistogram {
+    private static final long[] BUCKET_UPPER_BOUNDS_MICROS = {
+            100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000, 250000, 500000, 1000000, 2500000, Long.MAX_VALUE
+    };
+    private static final String COUNT = "count";
+    private static final String TOTAL_MICROS = "totalmicros";
+    private static final String MAX_MICROS = "maxmicros";
+    private static final String BUCKETS = "buckets";
+
+    final private long[] bucketCounts;
+    final private long count;
+    final private long totalMicros;
+    final private long maxMicros;
+
+    /**
+     * Constructor creates a {@code LatencyHistogram} using the provided attributes.
+     *
+     * @param bucketCounts {@code long[]} containing the number of durations in each bucket.
+     * @param totalMicros {@code long} containing the sum of the recorded durations in microseconds.
+     * @param maxMicros {@code long} containing the longest recorded duration in microseconds.
+     */
+    LatencyHistogram(final long[] bucketCounts, final long totalMicros, final long maxMicros) {
+        this.bucketCounts = bucketCounts;
+        long count = 0;
+        for (final long bucketCount : bucketCounts) {
+            count += bucketCount;
+        }
+        this.count = count;
+        this.totalMicros = totalMicros;
+        this.maxMicros = maxMicros;
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return {@code long} containing the number of durations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of the recorded durations.
+     *
+     * @return {@code long} containing the total duration in microseconds.
+     */
+    public long getTotalMicros() {
+        return totalMicros;
+    }
+
+    /**
+     * Gets the longest recorded duration.
+     *
+     * @return {@code long} containing the maximum duration in microseconds, or 0 if no duration was recorded.
+     */
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    /**
+     * Gets the mean of the recorded durations.
+     *
+     * @return {@code long} containing the mean duration in microseconds, or 0 if no duration was recorded.
+     */
+    public long getMeanMicros() {
+        return count > 0 ? totalMicros / count : 0;
+    }
+
+    /**
+     * Gets the upper bound of the histogram buckets.
+     *
+     * @return {@code long[]} containing the bucket upper bounds in microseconds, the last one being {@link Long#MAX_VALUE}.
+     */
+    public long[] getBucketUpperBoundsMicros() {
+        return BUCKET_UPPER_BOUNDS_MICROS.clone();
+    }
+
+    /**
+     * Gets the number of recorded durations in each bucket.
+     *
+     * @return {@code long[]} containing the bucket counts, in the order of {@link #getBucketUpperBoundsMicros()}.
+     */
+    public long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    /**
+     * Estimates the given {@code percentile} of the recorded durations, as the upper bound of the bucket containing it.
+     * <p>
+     * The estimate never exceeds the longest recorded duration.
+     *
+     * @param percentile {@code double} between 0 and 100.
+     * @return {@code long} containing the estimated duration in microseconds, or 0 if no duration was recorded.
+     */
+    public long getPercentileMicros(final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        final double rank = Math.max(1, Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100));
+        long cumulativeCount = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            cumulativeCount += bucketCounts[i];
+            if (cumulativeCount >= rank) {
+                return Math.min(BUCKET_UPPER_BOUNDS_MICROS[i], maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    /**
+     * Returns the index of the bucket for the given duration.
+     *
+     * @param durationMicros {@code long} containing the duration in microseconds.
+     * @return {@code int} containing the bucket index.
+     */
+    static int bucketIndex(final long durationMicros) {
+        int index = 0;
+        while (durationMicros > BUCKET_UPPER_BOUNDS_MICROS[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of histogram buckets.
+     *
+     * @return {@code int} containing the number of buckets.
+     */
+    static int bucketCount() {
+        return BUCKET_UPPER_BOUNDS_MICROS.length;
+    }
+
+    /**
+     * Creates a {@code LatencyHistogram} object using information provided in {@code data} map.
+     * <p>
+     * This method returns null if the provided {@code data} is empty or null or if it does not contain the expected number of bucket counts.
+     *
+     * @param data {@code Map<String, Object>} containing this {@code LatencyHistogram} object's attributes.
+     * @return {@code LatencyHistogram} object or null.
+     */
+    static LatencyHistogram fromEventData(final Map<String, Object> data) {
+        if (OptimizeUtils.isNullOrEmpty(data) || !(data.get(BUCKETS) instanceof List)) {
+            return null;
+        }
+
+        final List<?> buckets = (List<?>) data.get(BUCKETS);
+        if (buckets.size() != BUCKET_UPPER_BOUNDS_MICROS.length) {
+            return null;
+        }
+
+        final long[] bucketCounts = new long[buckets.size()];
+        for (int i = 0; i < bucketCounts.length; i++) {
+            final Object bucketCount = buckets.get(i);
+            if (!(bucketCount instanceof Number)) {
+                return null;
+            }
+            bucketCounts[i] = ((Number) bucketCount).longValue();
+        }
+
+        return new LatencyHistogram(bucketCounts,
+                OptimizeUtils.getLong(data, TOTAL_MICROS, 0),
+                OptimizeUtils.getLong(data, MAX_MICROS, 0));
+    }
+
+    /**
+     * Returns a {@code Map<String, Object>} containing this {@code LatencyHistogram} object's attributes.
+     *
+     * @return {@code Map<String, Object>} containing {@link LatencyHistogram} data.
+     */
+    Map<String, Object> toEventData() {
+        final List<Long> buckets = new ArrayList<>();
+        for (final long bucketCount : bucketCounts) {
+            buckets.add(bucketCount);
+        }
+
+        final Map<String, Object> map = new HashMap<>();
+        map.put(COUNT, count);
+        map.put(TOTAL_MICROS, totalMicros);
+        map.put(MAX_MICROS, maxMicros);
+        map.put(BUCKETS, buckets);
+        return map;
+    }
+}
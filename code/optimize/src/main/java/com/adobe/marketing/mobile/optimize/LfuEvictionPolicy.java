@@ -0,0 +1,84 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code LfuEvictionPolicy} class evicts the least frequently used cached proposition.
+ * <p>
+ * Ties are broken in favor of evicting the least recently written proposition.
+ */
+class LfuEvictionPolicy extends CacheEvictionPolicy {
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentMap<DecisionScope, AccessCount> accessCounts = new ConcurrentHashMap<>();
+
+    @Override
+    void recordAccess(final DecisionScope scope) {
+        // Only scopes present in the cache are tracked.
+        final AccessCount accessCount = accessCounts.get(scope);
+        if (accessCount != null) {
+            accessCount.count.incrementAndGet();
+        }
+    }
+
+    @Override
+    void recordWrite(final DecisionScope scope) {
+        final AccessCount accessCount = accessCounts.get(scope);
+        if (accessCount == null) {
+            accessCounts.put(scope, new AccessCount(clock.incrementAndGet()));
+        } else {
+            accessCount.count.incrementAndGet();
+        }
+    }
+
+    @Override
+    void recordRemoval(final DecisionScope scope) {
+        accessCounts.remove(scope);
+    }
+
+    @Override
+    DecisionScope selectVictim(final Collection<DecisionScope> candidates) {
+        DecisionScope victim = null;
+        long lowestCount = Long.MAX_VALUE;
+        long oldestWrite = Long.MAX_VALUE;
+        for (final DecisionScope candidate : candidates) {
+            final AccessCount accessCount = accessCounts.get(candidate);
+            final long count = accessCount != null ? accessCount.count.get() : 0;
+            final long written = accessCount != null ? accessCount.written : 0;
+            if (victim == null || count < lowestCount || (count == lowestCount && written < oldestWrite)) {
+                victim = candidate;
+                lowestCount = count;
+                oldestWrite = written;
+            }
+        }
+        return victim;
+    }
+
+    @Override
+    void clear() {
+        accessCounts.clear();
+    }
+
+    private static final class AccessCount {
+        private final AtomicLong count = new AtomicLong();
+        private final long written;
+
+        private AccessCount(final long written) {
+            this.written = written;
+        }
+    }
+}
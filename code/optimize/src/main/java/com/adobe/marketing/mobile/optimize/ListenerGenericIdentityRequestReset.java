@@ -37,7 +37,8 @@ class ListenerGenericIdentityRequestReset extends ExtensionListener {
     /**
      * This listener method listens to {@value OptimizeConstants.EventType#GENERIC_IDENTITY} and {@value OptimizeConstants.EventSource#REQUEST_RESET} events.
      * <p>
-     * It invokes method on the parent {@link OptimizeExtension} to handle requests for clearing previously cached propositions.
+     * It invokes method on the parent {@link OptimizeExtension} to handle requests for clearing previously cached propositions and discarding
+     * the proposition interactions not sent yet.
      *
      * @param event {@link Event} to be processed.
      */
@@ -56,7 +57,7 @@ class ListenerGenericIdentityRequestReset extends ExtensionListener {
             return;
         }
 
-        parentExtension.handleClearPropositions(event);
+        parentExtension.handleResetIdentities(event);
     }
 
     /**
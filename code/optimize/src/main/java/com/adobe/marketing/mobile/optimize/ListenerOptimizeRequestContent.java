@@ -44,6 +44,9 @@ class ListenerOptimizeRequestContent extends ExtensionListener {
      *     <li>Updating propositions in the extension by sending personalization query requests to the Experience Edge.</li>
      *     <li>Retrieving previously fetched and cached propositions in the extension.</li>
      *     <li>Sending proposition interactions information to the Edge network.</li>
+     *     <li>Registering and unregistering decision scopes for background prefetch.</li>
+     *     <li>Retrieving the status of the personalization query requests to the Edge network.</li>
+     *     <li>Retrieving the cache and request metrics of the extension.</li>
      * </ul>
      *
      * @param event {@link Event} to be processed.
@@ -72,6 +75,14 @@ class ListenerOptimizeRequestContent extends ExtensionListener {
             parentExtension.handleGetPropositions(event);
         } else if (requestType.equals(OptimizeConstants.EventDataValues.REQUEST_TYPE_TRACK)) {
             parentExtension.handleTrackPropositions(event);
+        } else if (requestType.equals(OptimizeConstants.EventDataValues.REQUEST_TYPE_REGISTER_PREFETCH)) {
+            parentExtension.handleRegisterPrefetch(event);
+        } else if (requestType.equals(OptimizeConstants.EventDataValues.REQUEST_TYPE_UNREGISTER_PREFETCH)) {
+            parentExtension.handleUnregisterPrefetch(event);
+        } else if (requestType.equals(OptimizeConstants.EventDataValues.REQUEST_TYPE_GET_EDGE_REQUEST_STATUS)) {
+            parentExtension.handleGetEdgeRequestStatus(event);
+        } else if (requestType.equals(OptimizeConstants.EventDataValues.REQUEST_TYPE_GET_METRICS)) {
+            parentExtension.handleGetMetrics(event);
         } else {
             MobileCore.log(LoggingMode.DEBUG, OptimizeConstants.LOG_TAG,
                     String.format("Ignoring the Optimize request event, provided request type (%s) is not handled by this extension.", requestType));
@@ -0,0 +1,64 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code LruEvictionPolicy} class evicts the least recently used cached proposition.
+ * <p>
+ * Recency is tracked with a logical clock, so recording an access is a single map replace.
+ */
+class LruEvictionPolicy extends CacheEvictionPolicy {
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentMap<DecisionScope, Long> lastAccess = new ConcurrentHashMap<>();
+
+    @Override
+    void recordAccess(final DecisionScope scope) {
+        // Only scopes present in the cache are tracked.
+        lastAccess.replace(scope, clock.incrementAndGet());
+    }
+
+    @Override
+    void recordWrite(final DecisionScope scope) {
+        lastAccess.put(scope, clock.incrementAndGet());
+    }
+
+    @Override
+    void recordRemoval(final DecisionScope scope) {
+        lastAccess.remove(scope);
+    }
+
+    @Override
+    DecisionScope selectVictim(final Collection<DecisionScope> candidates) {
+        DecisionScope victim = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (final DecisionScope candidate : candidates) {
+            final Long access = lastAccess.get(candidate);
+            final long candidateAccess = access != null ? access : 0;
+            if (victim == null || candidateAccess < oldestAccess) {
+                victim = candidate;
+                oldestAccess = candidateAccess;
+            }
+        }
+        return victim;
+    }
+
+    @Override
+    void clear() {
+        lastAccess.clear();
+    }
+}
@@ -22,7 +22,9 @@ import org.json.JSONObject;
 
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -183,6 +185,29 @@ public class Offer {
         }
     }
 
+    /**
+     * Creates a copy of this {@code Offer} whose metadata, language and characteristics, including their nested maps and lists, cannot be modified.
+     * <p>
+     * The copy does not reference any {@code Proposition} until it is added to one.
+     *
+     * @return {@link Offer} immutable copy.
+     * @see Proposition#freeze()
+     */
+    @SuppressWarnings("unchecked")
+    Offer freeze() {
+        final Offer offer = new Offer();
+        offer.id = id;
+        offer.etag = etag;
+        offer.score = score;
+        offer.schema = schema;
+        offer.meta = (Map<String, Object>) OptimizeUtils.unmodifiableDeepCopy(meta);
+        offer.type = type;
+        offer.language = (List<String>) OptimizeUtils.unmodifiableDeepCopy(language);
+        offer.content = content;
+        offer.characteristics = (Map<String, String>) OptimizeUtils.unmodifiableDeepCopy(characteristics);
+        return offer;
+    }
+
     /**
      * Gets the {@code Offer} identifier.
      *
@@ -332,27 +357,63 @@ public class Offer {
      * @return {@code Map<String, Object>} containing the XDM data for the proposition interaction.
      */
     private Map<String, Object> generateInteractionXdm(final String experienceEventType) {
-        if (propositionReference == null || propositionReference.get() == null) {
+        return generateInteractionXdm(Collections.singletonList(this), experienceEventType);
+    }
+
+    /**
+     * Generates a map containing XDM formatted data for {@code Experience Event - Proposition Interactions} field group from the given {@code offers}
+     * and {@code experienceEventType}.
+     * <p>
+     * The offers belonging to the same {@code Proposition} instance are listed as items of a single proposition entry, in the order they are
+     * provided. Distinct propositions are never merged, even if they are equal.
+     * The offers whose proposition reference is released and no longer valid are skipped, and the method returns null if no offer is left.
+     *
+     * @param offers {@code List<Offer>} containing the offers for the proposition interaction.
+     * @param experienceEventType {@link String} containing the event type for the Experience Event
+     * @return {@code Map<String, Object>} containing the XDM data for the proposition interaction.
+     */
+    static Map<String, Object> generateInteractionXdm(final List<Offer> offers, final String experienceEventType) {
+        if (offers == null) {
             return null;
         }
 
-        Proposition proposition = propositionReference.get();
-        final Map<String, Object> propositionsData = new HashMap<>();
-        propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ID, proposition.getId());
-        propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_SCOPE, proposition.getScope());
-        propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_SCOPEDETAILS, proposition.getScopeDetails());
-
-        final Map<String, Object> propositionItem = new HashMap<>();
-        propositionItem.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS_ID, id);
-
-        final List<Map<String, Object>> propositionItemsList = new ArrayList<>();
-        propositionItemsList.add(propositionItem);
+        // The propositions are grouped by identity, as equal propositions may hold different offers.
+        final Map<Proposition, List<Map<String, Object>>> propositionItems = new IdentityHashMap<>();
+        final List<Proposition> orderedPropositions = new ArrayList<>();
+        for (final Offer offer : offers) {
+            if (offer == null || offer.propositionReference == null) {
+                continue;
+            }
+            final Proposition proposition = offer.propositionReference.get();
+            if (proposition == null) {
+                continue;
+            }
 
-        // Add list containing proposition item ids.
-        propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS, propositionItemsList);
+            List<Map<String, Object>> propositionItemsList = propositionItems.get(proposition);
+            if (propositionItemsList == null) {
+                propositionItemsList = new ArrayList<>();
+                propositionItems.put(proposition, propositionItemsList);
+                orderedPropositions.add(proposition);
+            }
+            final Map<String, Object> propositionItem = new HashMap<>();
+            propositionItem.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS_ID, offer.id);
+            propositionItemsList.add(propositionItem);
+        }
+        if (propositionItems.isEmpty()) {
+            return null;
+        }
 
         final List<Map<String, Object>> decisioningPropositions = new ArrayList<>();
-        decisioningPropositions.add(propositionsData);
+        for (final Proposition proposition : orderedPropositions) {
+            final Map<String, Object> propositionsData = new HashMap<>();
+            propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ID, proposition.getId());
+            propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_SCOPE, proposition.getScope());
+            propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_SCOPEDETAILS, proposition.getScopeDetails());
+
+            // Add list containing proposition item ids.
+            propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS, propositionItems.get(proposition));
+            decisioningPropositions.add(propositionsData);
+        }
 
         final Map<String, Object> experienceDecisioning = new HashMap<>();
         experienceDecisioning.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS, decisioningPropositions);
@@ -374,7 +435,7 @@ public class Offer {
      *
      * @param xdm {@code Map<String, Object>} containing the XDM data for the proposition interactions.
      */
-    private void trackWithData(final Map<String, Object> xdm) {
+    static void trackWithData(final Map<String, Object> xdm) {
         if (OptimizeUtils.isNullOrEmpty(xdm)) {
             MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
                     "Failed to dispatch track propositions request event, input xdm is null or empty.");
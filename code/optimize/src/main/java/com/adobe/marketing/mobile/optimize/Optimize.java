@@ -22,9 +22,13 @@ import com.adobe.marketing.mobile.LoggingMode;
 import com.adobe.marketing.mobile.MobileCore;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
 
@@ -32,6 +36,8 @@ import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
  * Public class containing APIs for the Optimize extension.
  */
 public class Optimize {
+    private static final PropositionsUpdateNotifier propositionsUpdateNotifier = new PropositionsUpdateNotifier();
+
     private Optimize() {}
 
     /**
@@ -49,6 +55,22 @@ public class Optimize {
      * Note: This method should be called only once in your application class.
      */
     public static void registerExtension() {
+        registerExtension(null);
+    }
+
+    /**
+     * Registers the extension with the Mobile Core, running the extension tasks on the provided {@code executorService}.
+     * <p>
+     * The extension does not shut down the provided executor when it is unregistered. The extension tasks are handed to the executor one at
+     * a time, once the previous one has completed, so they run in order even if the executor has several threads, e.g. a shared thread pool.
+     * The proposition interaction tracking tasks always run on a separate extension owned executor.
+     * <p>
+     * Note: This method should be called only once in your application class.
+     *
+     * @param executorService {@link ExecutorService} to run the extension tasks, or null to use the default bounded single thread executor.
+     */
+    public static void registerExtension(final ExecutorService executorService) {
+        OptimizeExtension.setExecutorService(executorService);
         MobileCore.registerExtension(OptimizeExtension.class, new ExtensionErrorCallback<ExtensionError>() {
             @Override
             public void error(final ExtensionError extensionError) {
@@ -126,11 +148,129 @@ public class Optimize {
      * This API retrieves the previously fetched propositions, for the provided decision scopes, from the in-memory extension propositions cache.
      * <p>
      * The returned decision propositions are cached in-memory in the Optimize SDK extension and can be retrieved using {@link #getPropositions(List, AdobeCallback)} API.
+     * <p>
+     * Expired propositions are not returned. If the given {@code callback} is a {@link PropositionsExpiryCallback}, it is notified of the
+     * decision scopes whose cached propositions have expired.
      *
      * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to be requested.
      * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are retrieved from the local cache.
      */
     public static void getPropositions(final List<DecisionScope> decisionScopes, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        getPropositions(decisionScopes, new HashMap<String, Object>(), callback);
+    }
+
+    /**
+     * This API retrieves the previously fetched propositions, for the provided decision scopes, from the in-memory extension propositions cache,
+     * invoking the callback using the provided {@code executor}.
+     * <p>
+     * The callback is not invoked on the Mobile Core event hub thread, so that a slow callback does not delay the events of the other extensions.
+     * The callback is invoked on the calling thread if the {@code executor} is null or rejects it.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to be requested.
+     * @param executor {@link Executor} which will invoke the callback, e.g. one posting to the main thread handler.
+     * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are retrieved from the local cache.
+     */
+    public static void getPropositions(final List<DecisionScope> decisionScopes, final Executor executor, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        getPropositions(decisionScopes, new HashMap<String, Object>(), executor != null ? new ExecutorPropositionsCallback(executor, callback) : callback);
+    }
+
+    /**
+     * This API synchronously retrieves the previously fetched propositions, for the provided decision scopes, from the in-memory extension propositions cache.
+     * <p>
+     * Unlike {@link #getPropositions(List, AdobeCallback)}, the propositions are read on the calling thread from an immutable snapshot of the cache,
+     * without dispatching any event, so this API is cheap enough to be called from the UI thread, e.g. when binding a view. Expired propositions
+     * are not returned, and the propositions persisted on disk are only restored by the asynchronous get propositions APIs.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to be retrieved.
+     * @return {@code Map<DecisionScope, Proposition>} containing the cached propositions, empty if none is cached or if the extension is not registered.
+     */
+    public static Map<DecisionScope, Proposition> getCachedPropositions(final List<DecisionScope> decisionScopes) {
+        if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot get cached propositions, provided list of decision scopes is null or empty.");
+            return new HashMap<>();
+        }
+
+        final OptimizeExtension extension = OptimizeExtension.getRegisteredExtension();
+        if (extension == null) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot get cached propositions, the Optimize extension is not registered.");
+            return new HashMap<>();
+        }
+
+        return extension.getCachedPropositions(decisionScopes);
+    }
+
+    /**
+     * This API retrieves the previously fetched propositions, for the provided decision scopes, from the in-memory extension propositions cache,
+     * failing if they are not retrieved within the given timeout.
+     * <p>
+     * If no response is received within {@code timeoutMillis}, the callback fails with {@link AdobeError#CALLBACK_TIMEOUT}, provided it is an
+     * {@link AdobeCallbackWithError}, and the late response is ignored. The extension skips the request altogether if its deadline has already
+     * passed when the request is processed.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to be requested.
+     * @param timeoutMillis {@code long} containing the maximum time, in milliseconds, to wait for the propositions.
+     * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are retrieved from the local cache.
+     */
+    public static void getPropositions(final List<DecisionScope> decisionScopes, final long timeoutMillis, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        if (timeoutMillis <= 0) {
+            getPropositions(decisionScopes, callback);
+            return;
+        }
+
+        final TimeoutPropositionsCallback timeoutCallback = new TimeoutPropositionsCallback(callback);
+        final Map<String, Object> requestData = new HashMap<>();
+        requestData.put(OptimizeConstants.EventDataKeys.REQUEST_DEADLINE, System.currentTimeMillis() + timeoutMillis);
+        timeoutCallback.start(timeoutMillis);
+        getPropositions(decisionScopes, requestData, timeoutCallback);
+    }
+
+    /**
+     * This API retrieves the previously fetched propositions, for the provided decision scopes, from the in-memory extension propositions cache,
+     * and refreshes the stale ones in the background.
+     * <p>
+     * The cached propositions are returned immediately, even if stale. The propositions cached for longer than {@code maxAgeSeconds}, and the
+     * expired ones, are then fetched again from the Experience Edge network, as if requested using {@link #updatePropositions(List, Map, Map)}.
+     * The refreshed propositions are delivered to the callbacks registered using {@link #onPropositionsUpdate(AdobeCallback)} API.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to be requested.
+     * @param maxAgeSeconds {@code long} containing the age, in seconds, after which a cached proposition is refreshed.
+     * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are retrieved from the local cache.
+     */
+    public static void getPropositionsAndRevalidate(final List<DecisionScope> decisionScopes, final long maxAgeSeconds, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        final Map<String, Object> requestData = new HashMap<>();
+        requestData.put(OptimizeConstants.EventDataKeys.REVALIDATE_AFTER, TimeUnit.SECONDS.toMillis(Math.max(maxAgeSeconds, 0)));
+        getPropositions(decisionScopes, requestData, callback);
+    }
+
+    /**
+     * This API retrieves the propositions for the provided decision scopes from the in-memory extension propositions cache, fetching
+     * the ones not yet cached from the Experience Edge network.
+     * <p>
+     * If all the decision scopes are cached, the callback is invoked immediately. Otherwise, a personalization query request is sent for the
+     * missing decision scopes, as if requested using {@link #updatePropositions(List, Map, Map)}, and the callback is invoked once their
+     * propositions are received or {@code timeoutMillis} has elapsed, with the propositions cached at that time. The callback is invoked
+     * without waiting if the request cannot be sent, and fails with an error if the Edge network returns an error for it.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to be requested.
+     * @param timeoutMillis {@code long} containing the maximum time, in milliseconds, to wait for the missing propositions.
+     * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are retrieved.
+     */
+    public static void getPropositionsAndFetchMissing(final List<DecisionScope> decisionScopes, final long timeoutMillis, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        final Map<String, Object> requestData = new HashMap<>();
+        requestData.put(OptimizeConstants.EventDataKeys.FETCH_TIMEOUT, Math.max(timeoutMillis, 0));
+        getPropositions(decisionScopes, requestData, callback);
+    }
+
+    /**
+     * Dispatches the get propositions request event, containing the given {@code decisionScopes} and {@code requestData}, and invokes the
+     * {@code callback} with the propositions in the response event.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to be requested.
+     * @param requestData {@code Map<String, Object>} containing additional get request options to be added to the event data.
+     * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are retrieved from the local cache.
+     */
+    private static void getPropositions(final List<DecisionScope> decisionScopes, final Map<String, Object> requestData,
+                                        final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
         if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
             MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot get propositions, provided list of decision scopes is null or empty.");
             failWithError(callback, AdobeError.UNEXPECTED_ERROR);
@@ -166,7 +306,7 @@ public class Optimize {
             flattenedDecisionScopes.add(scope.toEventData());
         }
 
-        final Map<String, Object> eventData = new HashMap<>();
+        final Map<String, Object> eventData = new HashMap<>(requestData);
         eventData.put(OptimizeConstants.EventDataKeys.REQUEST_TYPE, OptimizeConstants.EventDataValues.REQUEST_TYPE_GET);
         eventData.put(OptimizeConstants.EventDataKeys.DECISION_SCOPES, flattenedDecisionScopes);
 
@@ -196,15 +336,18 @@ public class Optimize {
                     return;
                 }
 
-                final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>)eventData.get(OptimizeConstants.EventDataKeys.PROPOSITIONS);
+                final Map<DecisionScope, Proposition> propositionsMap = retrievePropositions(event);
 
-                final Map<DecisionScope, Proposition> propositionsMap = new HashMap<>();
-                for (final Map<String, Object> propositionData: propositionsList) {
-                    final Proposition proposition = Proposition.fromEventData(propositionData);
-                    if (proposition != null && !OptimizeUtils.isNullOrEmpty(proposition.getScope())) {
-                        final DecisionScope scope = new DecisionScope(proposition.getScope());
-                        propositionsMap.put(scope, proposition);
+                if (callback instanceof PropositionsExpiryCallback && eventData.containsKey(OptimizeConstants.EventDataKeys.EXPIRED_DECISION_SCOPES)) {
+                    final List<Map<String, Object>> expiredScopesList = (List<Map<String, Object>>) eventData.get(OptimizeConstants.EventDataKeys.EXPIRED_DECISION_SCOPES);
+                    final List<DecisionScope> expiredScopes = new ArrayList<>();
+                    for (final Map<String, Object> scopeData : expiredScopesList) {
+                        final DecisionScope scope = DecisionScope.fromEventData(scopeData);
+                        if (scope != null) {
+                            expiredScopes.add(scope);
+                        }
                     }
+                    ((PropositionsExpiryCallback) callback).expired(expiredScopes);
                 }
                 callback.call(propositionsMap);
             }
@@ -215,37 +358,339 @@ public class Optimize {
      * This API registers a permanent callback which is invoked whenever the Edge extension dispatches a response Event received from the Experience Edge Network upon a personalization query.
      * <p>
      * The personalization query requests can be triggered by the {@link Optimize#updatePropositions(List, Map, Map)} API, Edge extension {@code sendEvent(ExperienceEvent, EdgeCallback)} API or launch consequence rules.
+     * <p>
+     * All the registered callbacks share a single event listener, and the received propositions are retrieved once for all of them. The callback
+     * can be removed using {@link #removeOnPropositionsUpdate(AdobeCallback)} API.
      *
      * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are received from the Edge network.
      */
     public static void onPropositionsUpdate(final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
-        MobileCore.registerEventListener(OptimizeConstants.EventType.OPTIMIZE, OptimizeConstants.EventSource.NOTIFICATION, new AdobeCallbackWithError<Event>() {
+        if (callback == null) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot register for propositions update, provided callback is null.");
+            return;
+        }
+
+        propositionsUpdateNotifier.add(callback);
+    }
+
+    /**
+     * This API registers a permanent callback which is invoked, using the provided {@code executor}, whenever the Edge extension dispatches a
+     * response Event received from the Experience Edge Network upon a personalization query.
+     * <p>
+     * The callback is not invoked on the Mobile Core event hub thread, so that a slow callback does not delay the events of the other extensions.
+     * The propositions are handed over as received, without being copied again for the executor.
+     *
+     * @param executor {@link Executor} which will invoke the callback, e.g. one posting to the main thread handler.
+     * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are received from the Edge network.
+     * @see #onPropositionsUpdate(AdobeCallback)
+     */
+    public static void onPropositionsUpdate(final Executor executor, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        if (callback == null) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot register for propositions update, provided callback is null.");
+            return;
+        }
+
+        propositionsUpdateNotifier.add(null, executor, callback);
+    }
+
+    /**
+     * This API registers a permanent callback which is invoked whenever propositions for any of the provided decision scopes are received from the
+     * Experience Edge Network upon a personalization query.
+     * <p>
+     * The callback only receives the propositions for the provided decision scopes, and it is not invoked for the notifications which contain
+     * none of them. The callback can be removed using {@link #removeOnPropositionsUpdate(AdobeCallback)} API.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing the scopes for which the callback should be notified.
+     * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are received from the Edge network.
+     */
+    public static void onPropositionsUpdate(final List<DecisionScope> decisionScopes, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        onPropositionsUpdate(decisionScopes, null, callback);
+    }
+
+    /**
+     * This API registers a permanent callback which is invoked, using the provided {@code executor}, whenever propositions for any of the provided
+     * decision scopes are received from the Experience Edge Network upon a personalization query.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing the scopes for which the callback should be notified.
+     * @param executor {@link Executor} which will invoke the callback, or null to invoke it on the thread delivering the notification.
+     * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, Proposition>>} which will be invoked when decision propositions are received from the Edge network.
+     * @see #onPropositionsUpdate(List, AdobeCallback)
+     * @see #onPropositionsUpdate(Executor, AdobeCallback)
+     */
+    public static void onPropositionsUpdate(final List<DecisionScope> decisionScopes, final Executor executor,
+                                            final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        if (callback == null) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot register for propositions update, provided callback is null.");
+            return;
+        }
+
+        if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot register for propositions update, provided list of decision scopes is null or empty.");
+            return;
+        }
+
+        final List<DecisionScope> validScopes = new ArrayList<>();
+        for (final DecisionScope scope : decisionScopes) {
+            if (scope != null && scope.isValid()) {
+                validScopes.add(scope);
+            }
+        }
+
+        if (validScopes.isEmpty()) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot register for propositions update, provided list of decision scopes has no valid scope.");
+            return;
+        }
+
+        propositionsUpdateNotifier.add(validScopes, executor, callback);
+    }
+
+    /**
+     * This API removes a callback previously registered using {@link #onPropositionsUpdate(AdobeCallback)} API, so that it is no longer invoked
+     * when decision propositions are received from the Edge network.
+     * <p>
+     * The callbacks registered for specific decision scopes using {@link #onPropositionsUpdate(List, AdobeCallback)} API are removed as well.
+     * If the same callback was registered several times, only one of its registrations is removed.
+     *
+     * @param callback {@code AdobeCallback<Map<DecisionScope, Proposition>>} to be removed.
+     */
+    public static void removeOnPropositionsUpdate(final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        if (!propositionsUpdateNotifier.remove(callback)) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot remove the propositions update callback, it is not registered.");
+        }
+    }
+
+    /**
+     * This API dispatches an event for the Edge network extension to send a single Experience Event to the Edge network with the display
+     * interaction data for all the given {@code offers}.
+     * <p>
+     * The offers belonging to the same {@link Proposition} are tracked as items of a single proposition, which avoids sending one Experience
+     * Event per offer when several offers of a scope are displayed together.
+     *
+     * @param offers {@code List<Offer>} containing the displayed offers.
+     * @see Offer#displayed()
+     */
+    public static void trackDisplayed(final List<Offer> offers) {
+        trackOffers(offers, OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_DISPLAY);
+    }
+
+    /**
+     * This API dispatches an event for the Edge network extension to send a single Experience Event to the Edge network with the tap
+     * interaction data for all the given {@code offers}.
+     * <p>
+     * The offers belonging to the same {@link Proposition} are tracked as items of a single proposition.
+     *
+     * @param offers {@code List<Offer>} containing the tapped offers.
+     * @see Offer#tapped()
+     */
+    public static void trackTapped(final List<Offer> offers) {
+        trackOffers(offers, OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_INTERACT);
+    }
+
+    /**
+     * Dispatches an event to track the interaction of the given {@code offers}, with the given Experience Event type.
+     *
+     * @param offers {@code List<Offer>} containing the offers for the proposition interaction.
+     * @param experienceEventType {@link String} containing the event type for the Experience Event.
+     */
+    private static void trackOffers(final List<Offer> offers, final String experienceEventType) {
+        if (OptimizeUtils.isNullOrEmpty(offers)) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot track proposition interactions, provided list of offers is null or empty.");
+            return;
+        }
+
+        final Map<String, Object> xdm = Offer.generateInteractionXdm(offers, experienceEventType);
+        if (xdm == null) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot track proposition interactions, provided offers are not attached to a valid proposition.");
+            return;
+        }
+        Offer.trackWithData(xdm);
+    }
+
+    /**
+     * This API registers the provided decision scopes for background prefetch, so that their propositions are periodically fetched from the
+     * Experience Edge network, as if requested using {@link #updatePropositions(List, Map, Map)}.
+     * <p>
+     * The propositions for the newly registered decision scopes are fetched immediately, and then again every {@code refreshIntervalSeconds},
+     * with some random jitter. The refresh interval is at least one minute and is extended after failed requests. Prefetching is paused while
+     * the app is in background, as reported by the Mobile Core {@code lifecycleStart} and {@code lifecyclePause} APIs.
+     * The fetched propositions are delivered to the callbacks registered using {@link #onPropositionsUpdate(AdobeCallback)} API.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to be prefetched.
+     * @param refreshIntervalSeconds {@code long} containing the interval, in seconds, between the refreshes of the propositions.
+     */
+    public static void registerPrefetch(final List<DecisionScope> decisionScopes, final long refreshIntervalSeconds) {
+        if (refreshIntervalSeconds <= 0) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot register prefetch, provided refresh interval is not positive.");
+            return;
+        }
+
+        final Map<String, Object> requestData = new HashMap<>();
+        requestData.put(OptimizeConstants.EventDataKeys.REFRESH_INTERVAL, TimeUnit.SECONDS.toMillis(refreshIntervalSeconds));
+        dispatchPrefetchRequest(decisionScopes, OptimizeConstants.EventNames.REGISTER_PREFETCH_REQUEST,
+                OptimizeConstants.EventDataValues.REQUEST_TYPE_REGISTER_PREFETCH, requestData);
+    }
+
+    /**
+     * This API unregisters the provided decision scopes from background prefetch.
+     * <p>
+     * The propositions previously fetched for the decision scopes remain cached.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers should no longer be prefetched.
+     */
+    public static void unregisterPrefetch(final List<DecisionScope> decisionScopes) {
+        dispatchPrefetchRequest(decisionScopes, OptimizeConstants.EventNames.UNREGISTER_PREFETCH_REQUEST,
+                OptimizeConstants.EventDataValues.REQUEST_TYPE_UNREGISTER_PREFETCH, new HashMap<String, Object>());
+    }
+
+    /**
+     * Dispatches the prefetch request event containing the valid {@code decisionScopes} and {@code requestData}.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which prefetch is requested.
+     * @param eventName {@link String} containing the request event name.
+     * @param requestType {@code String} containing the request type.
+     * @param requestData {@code Map<String, Object>} containing additional request options to be added to the event data.
+     */
+    private static void dispatchPrefetchRequest(final List<DecisionScope> decisionScopes, final String eventName,
+                                                final String requestType, final Map<String, Object> requestData) {
+        if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot process prefetch request, provided list of decision scopes is null or empty.");
+            return;
+        }
+
+        final List<Map<String, Object>> flattenedDecisionScopes = new ArrayList<>();
+        for (final DecisionScope scope: decisionScopes) {
+            if (!scope.isValid()) {
+                continue;
+            }
+            flattenedDecisionScopes.add(scope.toEventData());
+        }
+
+        if (flattenedDecisionScopes.size() == 0) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Cannot process prefetch request, provided list of decision scopes has no valid scope.");
+            return;
+        }
+
+        final ExtensionErrorCallback<ExtensionError> errorCallback = new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                        String.format("Failed to dispatch event (%s) due to error (%s).",
+                                eventName,
+                                extensionError.getErrorName()));
+            }
+        };
+
+        final Map<String, Object> eventData = new HashMap<>(requestData);
+        eventData.put(OptimizeConstants.EventDataKeys.REQUEST_TYPE, requestType);
+        eventData.put(OptimizeConstants.EventDataKeys.DECISION_SCOPES, flattenedDecisionScopes);
+
+        final Event event = new Event.Builder(eventName,
+                OptimizeConstants.EventType.OPTIMIZE,
+                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                .setEventData(eventData)
+                .build();
+
+        MobileCore.dispatchEvent(event, errorCallback);
+    }
+
+    /**
+     * This API retrieves the status of the personalization query requests sent to the Experience Edge network, including the circuit breaker
+     * state and the number of retried requests.
+     *
+     * @param callback {@code AdobeCallbackWithError<EdgeRequestStatus>} which will be invoked with the current {@link EdgeRequestStatus}.
+     */
+    public static void getEdgeRequestStatus(final AdobeCallback<EdgeRequestStatus> callback) {
+        final ExtensionErrorCallback<ExtensionError> errorCallback = new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                        String.format("Failed to dispatch event (%s) due to error (%s).",
+                                OptimizeConstants.EventNames.GET_EDGE_REQUEST_STATUS_REQUEST,
+                                extensionError.getErrorName()));
+            }
+        };
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(OptimizeConstants.EventDataKeys.REQUEST_TYPE, OptimizeConstants.EventDataValues.REQUEST_TYPE_GET_EDGE_REQUEST_STATUS);
+
+        final Event event = new Event.Builder(OptimizeConstants.EventNames.GET_EDGE_REQUEST_STATUS_REQUEST,
+                OptimizeConstants.EventType.OPTIMIZE,
+                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                .setEventData(eventData)
+                .build();
+
+        MobileCore.dispatchEventWithResponseCallback(event, new AdobeCallbackWithError<Event>() {
             @Override
-            public void fail(final AdobeError error) {}
+            public void fail(final AdobeError adobeError) {
+                failWithError(callback, adobeError);
+            }
 
             @Override
             public void call(final Event event) {
-                final Map<String, Object> eventData = event.getEventData();
-                if (OptimizeUtils.isNullOrEmpty(eventData)) {
+                final EdgeRequestStatus status = EdgeRequestStatus.fromEventData(event.getEventData());
+                if (status == null) {
+                    failWithError(callback, AdobeError.UNEXPECTED_ERROR);
                     return;
                 }
+                callback.call(status);
+            }
+        }, errorCallback);
+    }
+
+    /**
+     * This API retrieves the propositions cache and personalization request metrics of the Optimize extension, such as the cache hits and misses,
+     * the cache size and the number of requests sent to the Experience Edge network.
+     *
+     * @param callback {@code AdobeCallbackWithError<OptimizeMetrics>} which will be invoked with the current {@link OptimizeMetrics}.
+     */
+    public static void getMetrics(final AdobeCallback<OptimizeMetrics> callback) {
+        final ExtensionErrorCallback<ExtensionError> errorCallback = new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                        String.format("Failed to dispatch event (%s) due to error (%s).",
+                                OptimizeConstants.EventNames.GET_METRICS_REQUEST,
+                                extensionError.getErrorName()));
+            }
+        };
 
-                final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>)eventData.get(OptimizeConstants.EventDataKeys.PROPOSITIONS);
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(OptimizeConstants.EventDataKeys.REQUEST_TYPE, OptimizeConstants.EventDataValues.REQUEST_TYPE_GET_METRICS);
 
-                final Map<DecisionScope, Proposition> propositionsMap = new HashMap<>();
-                for (final Map<String, Object> propositionData : propositionsList) {
-                    final Proposition proposition = Proposition.fromEventData(propositionData);
-                    if (proposition != null && !OptimizeUtils.isNullOrEmpty(proposition.getScope())) {
-                        final DecisionScope scope = new DecisionScope(proposition.getScope());
-                        propositionsMap.put(scope, proposition);
-                    }
-                }
+        final Event event = new Event.Builder(OptimizeConstants.EventNames.GET_METRICS_REQUEST,
+                OptimizeConstants.EventType.OPTIMIZE,
+                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                .setEventData(eventData)
+                .build();
+
+        MobileCore.dispatchEventWithResponseCallback(event, new AdobeCallbackWithError<Event>() {
+            @Override
+            public void fail(final AdobeError adobeError) {
+                failWithError(callback, adobeError);
+            }
 
-                if (!propositionsMap.isEmpty()) {
-                    callback.call(propositionsMap);
+            @Override
+            public void call(final Event event) {
+                final OptimizeMetrics metrics = OptimizeMetrics.fromEventData(event.getEventData());
+                if (metrics == null) {
+                    failWithError(callback, AdobeError.UNEXPECTED_ERROR);
+                    return;
                 }
+                callback.call(metrics);
             }
-        });
+        }, errorCallback);
+    }
+
+    /**
+     * This API sets a tracer to receive the stage timestamps of the subsequent {@link #updatePropositions(List, Map, Map)} requests, from the
+     * request dispatch to the propositions notification dispatch.
+     * <p>
+     * Each request is reported once to the tracer, including the requests which did not receive any propositions.
+     *
+     * @param tracer {@link PersonalizationRequestTracer} to be notified of the completed request traces, or null to stop tracing.
+     */
+    public static void setTracer(final PersonalizationRequestTracer tracer) {
+        RequestTraceRecorder.setTracer(tracer);
     }
 
     /**
@@ -268,6 +713,56 @@ public class Optimize {
         MobileCore.dispatchEvent(event, errorCallback);
     }
 
+    /**
+     * Retrieves the propositions in the given optimize response or notification {@code event}.
+     * <p>
+     * The {@code Proposition} objects shared by the registered extension alongside the event are returned if still available, otherwise
+     * the propositions are parsed from the event data.
+     *
+     * @param event {@link Event} containing the propositions event data.
+     * @return {@code Map<DecisionScope, Proposition>} containing the propositions, keyed by their decision scope.
+     */
+    static Map<DecisionScope, Proposition> retrievePropositions(final Event event) {
+        return retrievePropositions(event, null);
+    }
+
+    /**
+     * Retrieves the propositions in the given optimize response or notification {@code event}, parsing only the ones for the given {@code decisionScopes}.
+     * <p>
+     * The {@code Proposition} objects shared by the registered extension alongside the event are returned if still available, for all the
+     * scopes, otherwise the propositions for the given {@code decisionScopes} are parsed from the event data.
+     *
+     * @param event {@link Event} containing the propositions event data.
+     * @param decisionScopes {@code Collection<DecisionScope>} containing the scopes whose propositions are needed, or null for all the scopes.
+     * @return {@code Map<DecisionScope, Proposition>} containing the propositions, keyed by their decision scope.
+     */
+    static Map<DecisionScope, Proposition> retrievePropositions(final Event event, final Collection<DecisionScope> decisionScopes) {
+        final OptimizeExtension extension = OptimizeExtension.getRegisteredExtension();
+        final Map<DecisionScope, Proposition> sharedPropositions = extension != null ? extension.getSharedPropositions().get(event) : null;
+        if (sharedPropositions != null) {
+            return sharedPropositions;
+        }
+
+        final Map<DecisionScope, Proposition> propositionsMap = new HashMap<>();
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) event.getEventData().get(OptimizeConstants.EventDataKeys.PROPOSITIONS);
+        if (propositionsList == null) {
+            return propositionsMap;
+        }
+
+        for (final Map<String, Object> propositionData : propositionsList) {
+            if (decisionScopes != null
+                    && !decisionScopes.contains(new DecisionScope(OptimizeUtils.getString(propositionData, OptimizeConstants.JsonKeys.PAYLOAD_SCOPE)))) {
+                continue;
+            }
+            final Proposition proposition = Proposition.fromEventData(propositionData);
+            if (proposition != null && !OptimizeUtils.isNullOrEmpty(proposition.getScope())) {
+                final DecisionScope scope = new DecisionScope(proposition.getScope());
+                propositionsMap.put(scope, proposition);
+            }
+        }
+        return propositionsMap;
+    }
+
     /**
      * Invokes fail method with the provided {@code error}, if the callback is an instance of {@code AdobeCallbackWithError}.
      *
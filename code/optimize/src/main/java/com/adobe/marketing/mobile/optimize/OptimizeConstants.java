@@ -32,6 +32,10 @@ class OptimizeConstants {
         static final String GET_PROPOSITIONS_REQUEST = "Optimize Get Propositions Request";
         static final String TRACK_PROPOSITIONS_REQUEST = "Optimize Track Propositions Request";
         static final String CLEAR_PROPOSITIONS_REQUEST = "Optimize Clear Propositions Request";
+        static final String REGISTER_PREFETCH_REQUEST = "Optimize Register Prefetch Request";
+        static final String UNREGISTER_PREFETCH_REQUEST = "Optimize Unregister Prefetch Request";
+        static final String GET_EDGE_REQUEST_STATUS_REQUEST = "Optimize Get Edge Request Status Request";
+        static final String GET_METRICS_REQUEST = "Optimize Get Metrics Request";
         static final String OPTIMIZE_NOTIFICATION = "Optimize Notification";
         static final String EDGE_PERSONALIZATION_REQUEST = "Edge Optimize Personalization Request";
         static final String EDGE_PROPOSITION_INTERACTION_REQUEST = "Edge Optimize Proposition Interaction Request";
@@ -44,6 +48,8 @@ class OptimizeConstants {
         static final String OPTIMIZE = "com.adobe.eventType.optimize";
         static final String EDGE = "com.adobe.eventType.edge";
         static final String GENERIC_IDENTITY = "com.adobe.eventType.generic.identity";
+        static final String GENERIC_LIFECYCLE = "com.adobe.eventType.generic.lifecycle";
+        static final String CONFIGURATION = "com.adobe.eventType.configuration";
 
         private EventType() {}
     }
@@ -69,6 +75,30 @@ class OptimizeConstants {
         static final String PROPOSITIONS = "propositions";
         static final String RESPONSE_ERROR = "responseerror";
         static final String PROPOSITION_INTERACTIONS = "propositioninteractions";
+        static final String EXPIRED_DECISION_SCOPES = "expireddecisionscopes";
+        static final String REVALIDATE_AFTER = "revalidateafter";
+        static final String FETCH_TIMEOUT = "fetchtimeout";
+        static final String REQUEST_DEADLINE = "requestdeadline";
+        static final String REFRESH_INTERVAL = "refreshinterval";
+        static final String LIFECYCLE_ACTION = "action";
+        static final String CIRCUIT_STATE = "circuitstate";
+        static final String CONSECUTIVE_FAILURES = "consecutivefailures";
+        static final String RETRY_COUNT = "retrycount";
+        static final String REJECTED_RETRY_COUNT = "rejectedretrycount";
+        static final String CACHE_HITS = "cachehits";
+        static final String CACHE_MISSES = "cachemisses";
+        static final String CACHE_EVICTIONS = "cacheevictions";
+        static final String CACHE_ENTRIES = "cacheentries";
+        static final String CACHE_SIZE_BYTES = "cachesizebytes";
+        static final String REQUESTS_SENT = "requestssent";
+        static final String RESPONSES_PARSED = "responsesparsed";
+        static final String PROPOSITIONS_DROPPED = "propositionsdropped";
+        static final String CLEARS = "clears";
+        static final String QUEUED_TASKS = "queuedtasks";
+        static final String MAX_QUEUED_TASKS = "maxqueuedtasks";
+        static final String EXECUTOR_TASKS = "executortasks";
+        static final String REJECTED_TASKS = "rejectedtasks";
+        static final String SUPPRESSED_DISPLAYS = "suppresseddisplays";
 
         private EventDataKeys() {}
     }
@@ -77,6 +107,12 @@ class OptimizeConstants {
         static final String REQUEST_TYPE_UPDATE = "updatepropositions";
         static final String REQUEST_TYPE_GET = "getpropositions";
         static final String REQUEST_TYPE_TRACK = "trackpropositions";
+        static final String REQUEST_TYPE_REGISTER_PREFETCH = "registerprefetch";
+        static final String REQUEST_TYPE_UNREGISTER_PREFETCH = "unregisterprefetch";
+        static final String REQUEST_TYPE_GET_EDGE_REQUEST_STATUS = "getedgerequeststatus";
+        static final String REQUEST_TYPE_GET_METRICS = "getmetrics";
+        static final String LIFECYCLE_ACTION_START = "start";
+        static final String LIFECYCLE_ACTION_PAUSE = "pause";
 
         private EventDataValues() {}
     }
@@ -86,10 +122,12 @@ class OptimizeConstants {
         static final String EVENT_HANDLE = "type";
         static final String EVENT_HANDLE_TYPE_PERSONALIZATION = "personalization:decisions";
         static final String PAYLOAD = "payload";
+        static final String REQUEST_EVENT_ID = "requestEventId";
 
         static final class ErrorKeys {
             static final String TYPE = "type";
             static final String DETAIL = "detail";
+            static final String STATUS = "status";
 
             private ErrorKeys() {}
         }
@@ -99,10 +137,45 @@ class OptimizeConstants {
     static final class Configuration {
         static final String EXTENSION_NAME = "com.adobe.module.configuration";
         static final String OPTIMIZE_OVERRIDE_DATASET_ID = "optimize.datasetId";
+        static final String OPTIMIZE_CACHE_MAX_ENTRIES = "optimize.cache.maxEntries";
+        static final String OPTIMIZE_CACHE_MAX_SIZE_BYTES = "optimize.cache.maxSizeBytes";
+        static final String OPTIMIZE_CACHE_EVICTION_POLICY = "optimize.cache.evictionPolicy";
+        static final String OPTIMIZE_CACHE_PINNED_SCOPES = "optimize.cache.pinnedScopes";
+        static final String OPTIMIZE_CACHE_TTL_SECONDS = "optimize.cache.ttlSeconds";
+        static final String OPTIMIZE_CACHE_SCOPE_TTL_SECONDS = "optimize.cache.scopeTtlSeconds";
+        static final String OPTIMIZE_CACHE_SWEEP_INTERVAL_SECONDS = "optimize.cache.sweepIntervalSeconds";
+        static final String OPTIMIZE_CACHE_PERSISTENCE_ENABLED = "optimize.cache.persistence.enabled";
+        static final String OPTIMIZE_UPDATE_COALESCING_WINDOW_MILLIS = "optimize.update.coalescingWindowMillis";
+        static final String OPTIMIZE_EDGE_MAX_RETRIES = "optimize.edge.maxRetries";
+        static final String OPTIMIZE_EDGE_CIRCUIT_BREAKER_FAILURE_THRESHOLD = "optimize.edge.circuitBreaker.failureThreshold";
+        static final String OPTIMIZE_EDGE_CIRCUIT_BREAKER_OPEN_SECONDS = "optimize.edge.circuitBreaker.openSeconds";
+        static final String OPTIMIZE_EXECUTOR_OVERFLOW_POLICY = "optimize.executor.overflowPolicy";
+        static final String OPTIMIZE_TRACKING_BATCH_WINDOW_MILLIS = "optimize.tracking.batchWindowMillis";
+        static final String OPTIMIZE_TRACKING_BATCH_MAX_SIZE = "optimize.tracking.batchMaxSize";
+        static final String OPTIMIZE_TRACKING_FLUSH_ON_TAP = "optimize.tracking.flushOnTap";
+        static final String OPTIMIZE_TRACKING_DISPLAY_DEDUPE_WINDOW_SECONDS = "optimize.tracking.displayDedupeWindowSeconds";
+        static final String OPTIMIZE_TRACKING_JOURNAL_ENABLED = "optimize.tracking.journal.enabled";
+        static final String OPTIMIZE_TRACKING_JOURNAL_MAX_SIZE_BYTES = "optimize.tracking.journal.maxSizeBytes";
+        static final String OPTIMIZE_PROPOSITIONS_SHARING_ENABLED = "optimize.propositions.sharing.enabled";
 
         private Configuration() {}
     }
 
+    static final class CacheEvictionPolicies {
+        static final String LRU = "lru";
+        static final String LFU = "lfu";
+        static final String TINY_LFU = "tinylfu";
+
+        private CacheEvictionPolicies() {}
+    }
+
+    static final class ExecutorOverflowPolicies {
+        static final String DROP_OLDEST_TRACKING = "dropoldesttracking";
+        static final String REJECT_NEW = "rejectnew";
+
+        private ExecutorOverflowPolicies() {}
+    }
+
     static final class JsonKeys {
         static final String PAYLOAD_ID = "id";
         static final String PAYLOAD_SCOPE = "scope";
@@ -12,6 +12,7 @@
 
 package com.adobe.marketing.mobile.optimize;
 
+import com.adobe.marketing.mobile.AdobeCallback;
 import com.adobe.marketing.mobile.AdobeError;
 import com.adobe.marketing.mobile.Event;
 import com.adobe.marketing.mobile.Extension;
@@ -23,21 +24,111 @@ import com.adobe.marketing.mobile.MobileCore;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.adobe.marketing.mobile.optimize.OptimizeConstants.EXTENSION_NAME;
 import static com.adobe.marketing.mobile.optimize.OptimizeConstants.EXTENSION_VERSION;
 import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
 
 class OptimizeExtension extends Extension {
+    private static final long DEFAULT_CACHE_SWEEP_INTERVAL_SECONDS = 60;
+    private static final long IN_FLIGHT_REQUEST_TIMEOUT_MILLIS = 10000;
+    private static final long MIN_PREFETCH_INTERVAL_MILLIS = 60000;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long RETRY_BASE_DELAY_MILLIS = 1000;
+    private static final long RETRY_MAX_DELAY_MILLIS = 30000;
+    private static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_CIRCUIT_BREAKER_OPEN_SECONDS = 30;
+    private static final int DEFAULT_EXECUTOR_QUEUE_CAPACITY = 500;
+    private static final int DEFAULT_TRACKING_BATCH_MAX_SIZE = 50;
+    private static final int JOURNAL_REPLAY_BATCH_SIZE = 50;
+    private static final long JOURNAL_REPLAY_CHECK_INTERVAL_SECONDS = 30;
+
+    // Executor provided by the app for the next extension registration, see Optimize#registerExtension(ExecutorService).
+    private static volatile ExecutorService injectedExecutorService;
+
+    // Most recently registered extension instance, serving the synchronous cache reads, see Optimize#getCachedPropositions(List).
+    private static volatile OptimizeExtension registeredExtension;
+
     private final Object executorMutex = new Object();
     private ExecutorService executorService;
-
-    private final Map<DecisionScope, Proposition> cachedPropositions;
+    private ExecutorService trackingExecutorService;
+    private ScheduledExecutorService scheduledExecutorService;
+    private ScheduledFuture<?> cacheSweeper;
+    private long cacheSweepIntervalSeconds;
+    private ScheduledFuture<?> prefetchTask;
+    private boolean prefetchPaused;
+    private ScheduledFuture<?> journalReplayCheck;
+
+    private final PropositionsCache cachedPropositions;
+    private final ExecutorService storageExecutorService;
+    private final PropositionsStore propositionsStore;
+    private final ExecutorService journalExecutorService;
+    private final InteractionJournal interactionJournal;
+    private volatile boolean journalEnabled;
+    private final Object journalMutex = new Object();
+    // Guarded by journalMutex, set while the journal may hold interactions not replayed yet, including those of a previous session.
+    private boolean journalPending;
+    // Guarded by journalMutex, incremented on each append, so that a replay only clears journalPending if nothing was journaled meanwhile.
+    private long journalAppendCount;
+    // Accessed on the extension executor only, set once the first configuration has been applied.
+    private boolean configured;
+    private volatile boolean persistenceEnabled;
+    private final SharedPropositions sharedPropositions = new SharedPropositions();
+    private volatile boolean propositionsSharingEnabled;
+    private final ConcurrentMap<DecisionScope, Long> revalidationRequestTimes = new ConcurrentHashMap<>();
+    private final List<PendingGetRequest> pendingGetRequests = new CopyOnWriteArrayList<>();
+    private final UpdateRequestCoalescer updateRequestCoalescer = new UpdateRequestCoalescer();
+    private volatile long coalescingWindowMillis;
+    private final PropositionInteractionBatcher interactionBatcher = new PropositionInteractionBatcher();
+    private volatile long trackingBatchWindowMillis;
+    private volatile int trackingBatchMaxSize = DEFAULT_TRACKING_BATCH_MAX_SIZE;
+    private volatile boolean trackingFlushOnTap;
+    private final DisplayImpressionDeduplicator displayDeduplicator = new DisplayImpressionDeduplicator();
+    private final InFlightRequestTracker inFlightRequests = new InFlightRequestTracker(IN_FLIGHT_REQUEST_TIMEOUT_MILLIS);
+    private final InFlightInteractionTracker inFlightInteractions = new InFlightInteractionTracker(InFlightInteractionTracker.DEFAULT_MAX_ENTRIES);
+    private final Random random = new Random();
+    private final PrefetchScheduler prefetchScheduler = new PrefetchScheduler(random);
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD,
+            TimeUnit.SECONDS.toMillis(DEFAULT_CIRCUIT_BREAKER_OPEN_SECONDS), IN_FLIGHT_REQUEST_TIMEOUT_MILLIS, new CircuitBreaker.CloseListener() {
+                @Override
+                public void onClose() {
+                    replayInteractionJournal();
+                }
+            });
+    private volatile int maxRetries = DEFAULT_MAX_RETRIES;
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong rejectedRetryCount = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong requestsSent = new AtomicLong();
+    private final AtomicLong responsesParsed = new AtomicLong();
+    private final AtomicLong propositionsDropped = new AtomicLong();
+    private final AtomicLong clearCount = new AtomicLong();
+    // Number of clear propositions tasks queued on the extension executor and not yet run.
+    private final AtomicInteger pendingClears = new AtomicInteger();
+    private final ExecutorMetrics executorMetrics = new ExecutorMetrics();
+    private final TaskOverflowHandler overflowHandler = new TaskOverflowHandler(executorMetrics);
+    private final TaskOverflowHandler trackingOverflowHandler = new TaskOverflowHandler(executorMetrics);
+    private final RequestTraceRecorder traceRecorder = new RequestTraceRecorder();
 
     // List containing the schema strings for the proposition items supported by the SDK, sent in the personalization query request.
     final static List<String> supportedSchemas = Arrays.asList(
@@ -65,6 +156,8 @@ class OptimizeExtension extends Extension {
      *         Listener for {@code Event} type {@value OptimizeConstants.EventType#EDGE} and source {@value OptimizeConstants.EventSource#ERROR_RESPONSE_CONTENT}
      *         Listener for {@code Event} type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value OptimizeConstants.EventSource#REQUEST_RESET}
      *         Listener for {@code Event} type {@value OptimizeConstants.EventType#GENERIC_IDENTITY} and source {@value OptimizeConstants.EventSource#REQUEST_RESET}
+     *         Listener for {@code Event} type {@value OptimizeConstants.EventType#CONFIGURATION} and source {@value OptimizeConstants.EventSource#RESPONSE_CONTENT}
+     *         Listener for {@code Event} type {@value OptimizeConstants.EventType#GENERIC_LIFECYCLE} and source {@value OptimizeConstants.EventSource#REQUEST_CONTENT}
      *     </li>
      * </ul>
      *
@@ -73,7 +166,23 @@ class OptimizeExtension extends Extension {
     protected OptimizeExtension(final ExtensionApi extensionApi) {
         super(extensionApi);
 
-        cachedPropositions = new HashMap<>();
+        // The provided executor may run several tasks concurrently, so the extension tasks are handed to it one at a time.
+        final ExecutorService providedExecutorService = injectedExecutorService;
+        if (providedExecutorService != null) {
+            executorService = new SerialExecutorService(providedExecutorService, DEFAULT_EXECUTOR_QUEUE_CAPACITY, overflowHandler);
+        }
+
+        cachedPropositions = new PropositionsCache();
+
+        // The index of the propositions persisted in a previous session is read in the background, so that lookups never scan the file.
+        storageExecutorService = Executors.newSingleThreadExecutor(OptimizeUtils.daemonThreadFactory("Optimize Storage"));
+        propositionsStore = PropositionsStore.create(storageExecutorService);
+        if (propositionsStore != null) {
+            propositionsStore.preload();
+        }
+        // The journal syncs each interaction to disk on its own thread, so that the appends never delay the propositions storage.
+        journalExecutorService = Executors.newSingleThreadExecutor(OptimizeUtils.daemonThreadFactory("Optimize Journal"));
+        interactionJournal = InteractionJournal.create(journalExecutorService);
 
         final ExtensionErrorCallback<ExtensionError> errorCallback = new ExtensionErrorCallback<ExtensionError>() {
             @Override
@@ -99,6 +208,15 @@ class OptimizeExtension extends Extension {
         // Register listener - Mobile Core `resetIdentities()` API dispatches generic identity request reset event.
         extensionApi.registerEventListener(OptimizeConstants.EventType.GENERIC_IDENTITY, OptimizeConstants.EventSource.REQUEST_RESET,
                 ListenerGenericIdentityRequestReset.class, errorCallback);
+
+        extensionApi.registerEventListener(OptimizeConstants.EventType.CONFIGURATION, OptimizeConstants.EventSource.RESPONSE_CONTENT,
+                ListenerConfigurationResponseContent.class, errorCallback);
+
+        // Register listener - Mobile Core `lifecycleStart()` and `lifecyclePause()` APIs dispatch generic lifecycle request content events.
+        extensionApi.registerEventListener(OptimizeConstants.EventType.GENERIC_LIFECYCLE, OptimizeConstants.EventSource.REQUEST_CONTENT,
+                ListenerGenericLifecycleRequestContent.class, errorCallback);
+
+        registeredExtension = this;
     }
 
     /**
@@ -126,17 +244,34 @@ class OptimizeExtension extends Extension {
      * <p>
      * This method dispatches an event to the Edge network extension to send personalization query request to the Experience Edge network. The dispatched event
      * contains additional XDM and/ or free-form data, read from the incoming event, to be attached to the Edge request.
+     * <p>
+     * If {@value OptimizeConstants.Configuration#OPTIMIZE_UPDATE_COALESCING_WINDOW_MILLIS} is configured, the requests received within the window
+     * which have the same XDM and free-form data are merged into a single Edge request for the union of their decision scopes.
+     * A decision scope is not requested again while an identical request for it is in flight.
+     * <p>
+     * If the extension executor drops the request, the drop is logged and, if a {@link PersonalizationRequestTracer} is set, the request
+     * trace is reported without any Edge request.
      *
      * @param event incoming {@link Event} object to be processed.
      */
     void handleUpdatePropositions(final Event event) {
-        getExecutor().execute(new Runnable() {
+        execute(ExecutorTaskMetrics.TASK_UPDATE, new DroppableTask() {
+            @Override
+            public void onDropped() {
+                MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Dropped the update propositions request, the extension executor did not accept it.");
+                final PersonalizationRequestTrace trace = event != null ? traceRecorder.start(event, System.currentTimeMillis()) : null;
+                if (trace != null) {
+                    RequestTraceRecorder.report(Collections.singletonList(trace));
+                }
+            }
+
             @Override
             public void run() {
                 if (event == null || OptimizeUtils.isNullOrEmpty(event.getEventData())) {
                     MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot process the update propositions request event, event is null or event data is null/ empty.");
                     return;
                 }
+                final long startMillis = System.currentTimeMillis();
                 final Map<String, Object> eventData = event.getEventData();
 
                 final Map<String, Object> configData = retrieveConfigurationSharedState(event);
@@ -153,59 +288,26 @@ class OptimizeExtension extends Extension {
                         return;
                     }
 
-                    final Map<String, Object> edgeEventData = new HashMap<>();
-
-                    // Add query
-                    final Map<String, Object> queryPersonalization = new HashMap<>();
-                    queryPersonalization.put(OptimizeConstants.JsonKeys.SCHEMAS, supportedSchemas);
-                    queryPersonalization.put(OptimizeConstants.JsonKeys.DECISION_SCOPES, validScopeNames);
-                    final Map<String, Object> query = new HashMap<>();
-                    query.put(OptimizeConstants.JsonKeys.QUERY_PERSONALIZATION, queryPersonalization);
-                    edgeEventData.put(OptimizeConstants.JsonKeys.QUERY, query);
-
-                    // Add xdm
-                    final Map<String, Object> xdm = new HashMap<>();
+                    Map<String, Object> xdm = null;
                     if (eventData.containsKey(OptimizeConstants.EventDataKeys.XDM)) {
-                        final Map<String, Object> inputXdm = (Map<String, Object>) eventData.get(OptimizeConstants.EventDataKeys.XDM);
-                        if (!OptimizeUtils.isNullOrEmpty(inputXdm)) {
-                            xdm.putAll(inputXdm);
-                        }
+                        xdm = (Map<String, Object>) eventData.get(OptimizeConstants.EventDataKeys.XDM);
                     }
-                    xdm.put(OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE, OptimizeConstants.JsonValues.EE_EVENT_TYPE_PERSONALIZATION);
-                    edgeEventData.put(OptimizeConstants.JsonKeys.XDM, xdm);
-
-                    // Add data
-                    final Map<String, Object> data = new HashMap<>();
+                    Map<String, Object> data = null;
                     if (eventData.containsKey(OptimizeConstants.EventDataKeys.DATA)) {
-                        final Map<String, Object> inputData = (Map<String, Object>) eventData.get(OptimizeConstants.EventDataKeys.DATA);
-                        if (!OptimizeUtils.isNullOrEmpty(inputData)) {
-                            data.putAll(inputData);
-                            edgeEventData.put(OptimizeConstants.JsonKeys.DATA, data);
-                        }
+                        data = (Map<String, Object>) eventData.get(OptimizeConstants.EventDataKeys.DATA);
                     }
-
-                    // Add override datasetId
-                    if (configData.containsKey(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID)) {
-                        final String overrideDatasetId = (String) configData.get(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID);
-                        if (!OptimizeUtils.isNullOrEmpty(overrideDatasetId)) {
-                            edgeEventData.put(OptimizeConstants.JsonKeys.DATASET_ID, overrideDatasetId);
-                        }
+                    final String overrideDatasetId = configData.containsKey(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID)
+                            ? (String) configData.get(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID) : null;
+
+                    final PersonalizationRequestTrace trace = traceRecorder.start(event, startMillis);
+                    final long windowMillis = coalescingWindowMillis;
+                    if (windowMillis <= 0) {
+                        dispatchEdgePersonalizationRequest(validScopeNames, xdm, data, overrideDatasetId, 1,
+                                trace != null ? Collections.singletonList(trace) : Collections.<PersonalizationRequestTrace>emptyList());
+                    } else if (updateRequestCoalescer.add(validScopeNames, xdm, data, overrideDatasetId, trace)) {
+                        scheduleCoalescedUpdateRequests(windowMillis);
                     }
 
-                    final Event edgeEvent = new Event.Builder(OptimizeConstants.EventNames.EDGE_PERSONALIZATION_REQUEST,
-                                                            OptimizeConstants.EventType.EDGE,
-                                                            OptimizeConstants.EventSource.REQUEST_CONTENT)
-                            .setEventData(edgeEventData)
-                            .build();
-
-                    MobileCore.dispatchEvent(edgeEvent, new ExtensionErrorCallback<ExtensionError>() {
-                        @Override
-                        public void error(final ExtensionError extensionError) {
-                            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
-                                    String.format("Failed to dispatch update propositions request event to the Edge network due to an error (%s)!", extensionError.getErrorName()));
-                        }
-                    });
-
                 } catch (final Exception e) {
                     MobileCore.log(LoggingMode.WARNING, LOG_TAG,
                             String.format("Failed to process update propositions request event due to an exception (%s)!", e.getLocalizedMessage()));
@@ -214,18 +316,185 @@ class OptimizeExtension extends Extension {
         });
     }
 
+    /**
+     * Dispatches an event to the Edge network extension to fetch the decision propositions for the given {@code scopeNames}.
+     * <p>
+     * The scopes which already have an outstanding request with the same XDM and free-form data are left out of the query, and no event is
+     * dispatched if all the scopes are in flight. No event is dispatched either while the circuit breaker is open.
+     * <p>
+     * If the event cannot be dispatched, the get propositions requests waiting for the scopes fail with an error.
+     *
+     * @param scopeNames {@code List<String>} containing the valid decision scope names.
+     * @param inputXdm {@code Map<String, Object>} containing additional XDM-formatted data to be sent in the request, may be null.
+     * @param inputData {@code Map<String, Object>} containing additional free-form data to be sent in the request, may be null.
+     * @param overrideDatasetId {@link String} containing the dataset used for storing the Experience Events, may be null.
+     * @param attempt {@code int} containing the attempt number of the request, starting from 1.
+     * @param traces {@code List<PersonalizationRequestTrace>} of the update propositions requests merged into this request.
+     * @return {@code boolean} indicating whether the scopes are requested, false if the request was short-circuited by the circuit breaker.
+     */
+    private boolean dispatchEdgePersonalizationRequest(final List<String> scopeNames, final Map<String, Object> inputXdm,
+                                                    final Map<String, Object> inputData, final String overrideDatasetId, final int attempt,
+                                                    final List<PersonalizationRequestTrace> traces) {
+        final long nowMillis = System.currentTimeMillis();
+        final List<String> requestScopeNames = inFlightRequests.filter(scopeNames, inputXdm, inputData, overrideDatasetId, nowMillis);
+        if (requestScopeNames.isEmpty()) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Not dispatching the update propositions request, a request for the provided decision scopes is already in flight.");
+            RequestTraceRecorder.report(traces);
+            return true;
+        }
+        if (!circuitBreaker.allowRequest(nowMillis)) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Not dispatching the update propositions request, the circuit breaker is open after consecutive Edge request failures.");
+            RequestTraceRecorder.report(traces);
+            return false;
+        }
+
+        final Map<String, Object> edgeEventData = new HashMap<>();
+
+        // Add query
+        final Map<String, Object> queryPersonalization = new HashMap<>();
+        queryPersonalization.put(OptimizeConstants.JsonKeys.SCHEMAS, supportedSchemas);
+        queryPersonalization.put(OptimizeConstants.JsonKeys.DECISION_SCOPES, requestScopeNames);
+        final Map<String, Object> query = new HashMap<>();
+        query.put(OptimizeConstants.JsonKeys.QUERY_PERSONALIZATION, queryPersonalization);
+        edgeEventData.put(OptimizeConstants.JsonKeys.QUERY, query);
+
+        // Add xdm
+        final Map<String, Object> xdm = new HashMap<>();
+        if (!OptimizeUtils.isNullOrEmpty(inputXdm)) {
+            xdm.putAll(inputXdm);
+        }
+        xdm.put(OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE, OptimizeConstants.JsonValues.EE_EVENT_TYPE_PERSONALIZATION);
+        edgeEventData.put(OptimizeConstants.JsonKeys.XDM, xdm);
+
+        // Add data
+        if (!OptimizeUtils.isNullOrEmpty(inputData)) {
+            final Map<String, Object> data = new HashMap<>(inputData);
+            edgeEventData.put(OptimizeConstants.JsonKeys.DATA, data);
+        }
+
+        // Add override datasetId
+        if (!OptimizeUtils.isNullOrEmpty(overrideDatasetId)) {
+            edgeEventData.put(OptimizeConstants.JsonKeys.DATASET_ID, overrideDatasetId);
+        }
+
+        final Event edgeEvent = new Event.Builder(OptimizeConstants.EventNames.EDGE_PERSONALIZATION_REQUEST,
+                                                OptimizeConstants.EventType.EDGE,
+                                                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                .setEventData(edgeEventData)
+                .build();
+
+        inFlightRequests.add(edgeEvent.getUniqueIdentifier(), requestScopeNames, inputXdm, inputData, overrideDatasetId, attempt, nowMillis);
+        traceRecorder.onEdgeRequestDispatched(edgeEvent.getUniqueIdentifier(), traces, System.currentTimeMillis());
+        requestsSent.incrementAndGet();
+        MobileCore.dispatchEvent(edgeEvent, new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                inFlightRequests.complete(requestScopeNames);
+                RequestTraceRecorder.report(traceRecorder.remove(edgeEvent.getUniqueIdentifier()));
+                failWaitingGetRequests(toDecisionScopes(requestScopeNames), AdobeError.UNEXPECTED_ERROR);
+                MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                        String.format("Failed to dispatch update propositions request event to the Edge network due to an error (%s)!", extensionError.getErrorName()));
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Schedules the retry of the given failed personalization query {@code request}.
+     * <p>
+     * The retry delay doubles with each attempt, from {@value #RETRY_BASE_DELAY_MILLIS} up to {@value #RETRY_MAX_DELAY_MILLIS} milliseconds,
+     * and is randomized between half and the whole of that value.
+     * <p>
+     * If the extension executor drops the retry, or if the circuit breaker is open when the retry is due, the get propositions requests
+     * waiting for the request scopes are answered with an error and the request traces are reported. The retries rejected by the circuit
+     * breaker are counted in the {@link EdgeRequestStatus}.
+     *
+     * @param request {@link InFlightRequestTracker.Request} which failed.
+     * @param traces {@code List<PersonalizationRequestTrace>} of the update propositions requests merged into the failed request.
+     */
+    private void scheduleRetry(final InFlightRequestTracker.Request request, final List<PersonalizationRequestTrace> traces) {
+        final long backoffMillis = Math.min(RETRY_BASE_DELAY_MILLIS << Math.min(request.getAttempt() - 1, 16), RETRY_MAX_DELAY_MILLIS);
+        final long delayMillis = backoffMillis / 2 + (long) (random.nextDouble() * (backoffMillis / 2));
+        retryCount.incrementAndGet();
+
+        MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                String.format("Retrying the personalization query request for (%d) decision scopes in (%d) ms, attempt (%d).",
+                        request.getScopeNames().size(), delayMillis, request.getAttempt() + 1));
+        getScheduledExecutor().schedule(new Runnable() {
+            @Override
+            public void run() {
+                execute(ExecutorTaskMetrics.TASK_UPDATE, new DroppableTask() {
+                    @Override
+                    public void run() {
+                        if (!dispatchEdgePersonalizationRequest(request.getScopeNames(), request.getXdm(), request.getData(), request.getDatasetId(),
+                                request.getAttempt() + 1, traces)) {
+                            rejectedRetryCount.incrementAndGet();
+                            failWaitingGetRequests(toDecisionScopes(request.getScopeNames()), AdobeError.UNEXPECTED_ERROR);
+                        }
+                    }
+
+                    @Override
+                    public void onDropped() {
+                        failWaitingGetRequests(toDecisionScopes(request.getScopeNames()), AdobeError.UNEXPECTED_ERROR);
+                        RequestTraceRecorder.report(traces);
+                    }
+                });
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks whether a request which failed with the given Edge error {@code status} may succeed if retried.
+     * <p>
+     * Only the server errors, the request timeouts and the throttled requests are retried. The errors without a status, or with a
+     * non-error status, are the warnings returned by the Edge network for requests which did not fail.
+     *
+     * @param status {@code long} containing the HTTP status of the Edge error, or 0 if not available.
+     * @return {@code boolean} indicating whether the request should be retried.
+     */
+    private static boolean isRetryableStatus(final long status) {
+        return status >= 500 || status == 408 || status == 429;
+    }
+
+    /**
+     * Schedules the dispatch of the update propositions requests merged by the {@code UpdateRequestCoalescer} once the window has elapsed.
+     *
+     * @param windowMillis {@code long} containing the coalescing window in milliseconds.
+     */
+    private void scheduleCoalescedUpdateRequests(final long windowMillis) {
+        getScheduledExecutor().schedule(new Runnable() {
+            @Override
+            public void run() {
+                // A single drain is scheduled per window, dropping it would leave the merged requests in the coalescer.
+                execute(ExecutorTaskMetrics.TASK_UPDATE, true, new Runnable() {
+                    @Override
+                    public void run() {
+                        for (final UpdateRequestCoalescer.Request request : updateRequestCoalescer.drain()) {
+                            dispatchEdgePersonalizationRequest(request.getScopeNames(), request.getXdm(), request.getData(), request.getDatasetId(), 1,
+                                    request.getTraces());
+                        }
+                    }
+                });
+            }
+        }, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Handles the event with type {@value OptimizeConstants.EventType#EDGE} and source {@value OptimizeConstants.EventSource#EDGE_PERSONALIZATION_DECISIONS}.
      * <p>
      * This method caches the propositions, returned in the Edge response, in the SDK. It also dispatches a personalization notification event with the
-     * received propositions.
+     * received propositions. The decision scopes of the answered request are no longer considered in flight, and the circuit breaker is closed
+     * if the response answers a personalization query request sent by this extension and still in flight.
+     * If a {@link PersonalizationRequestTracer} is set, the traces of the answered update propositions requests are completed and reported.
      *
      * @param event incoming {@link Event} object to be processed.
      */
     void handleEdgeResponse(final Event event) {
-        getExecutor().execute(new Runnable() {
+        final long receiptMillis = System.currentTimeMillis();
+        execute(ExecutorTaskMetrics.TASK_EDGE_RESPONSE, new Runnable() {
               @Override
               public void run() {
+                  final long startMillis = System.currentTimeMillis();
                   if (event == null || OptimizeUtils.isNullOrEmpty(event.getEventData())) {
                       MobileCore.log(LoggingMode.DEBUG, OptimizeConstants.LOG_TAG, "Cannot process the Edge personalization:decisions event, event is null or event data is null/ empty.");
                       return;
@@ -238,24 +507,61 @@ class OptimizeExtension extends Extension {
                       MobileCore.log(LoggingMode.DEBUG, OptimizeConstants.LOG_TAG, "Cannot process the Edge personalization:decisions event, event handle type is not personalization:decisions.");
                       return;
                   }
+                  // Only a response to a tracked personalization query request closes the circuit.
+                  final String requestEventId = OptimizeUtils.getString(eventData, OptimizeConstants.Edge.REQUEST_EVENT_ID);
+                  if (inFlightRequests.complete(requestEventId) != null) {
+                      circuitBreaker.onSuccess();
+                  }
+                  responsesParsed.incrementAndGet();
 
                   final List<Map<String, Object>> payload = (List<Map<String, Object>>) eventData.get(OptimizeConstants.Edge.PAYLOAD);
                   final Map<DecisionScope, Proposition> propositionsMap = new HashMap<>();
+                  final List<String> responseScopeNames = new ArrayList<>();
+                  final boolean sharingEnabled = propositionsSharingEnabled;
                   for (final Map<String, Object> propositionData: payload) {
-                     final Proposition proposition = Proposition.fromEventData(propositionData);
+                     final Proposition parsedProposition = Proposition.fromEventData(propositionData);
+                     // The shared propositions are frozen before being cached, so that the cache and the API callbacks hold the same instances.
+                     final Proposition proposition = sharingEnabled && parsedProposition != null ? parsedProposition.freeze() : parsedProposition;
+                     if (proposition != null) {
+                         responseScopeNames.add(proposition.getScope());
+                     }
                      if (proposition != null && !OptimizeUtils.isNullOrEmpty(proposition.getOffers())) {
                          final DecisionScope scope = new DecisionScope(proposition.getScope());
                          propositionsMap.put(scope, proposition);
+                     } else {
+                         propositionsDropped.incrementAndGet();
                      }
                   }
 
+                  // Clear the in-flight scopes answered by this response
+                  inFlightRequests.complete(responseScopeNames);
+                  prefetchScheduler.onSuccess(toDecisionScopes(responseScopeNames));
+
+                  final List<PersonalizationRequestTrace> traces = traceRecorder.remove(requestEventId);
+                  for (final PersonalizationRequestTrace trace : traces) {
+                      trace.setEdgeResponseReceiptMillis(receiptMillis);
+                      trace.setEdgeResponseStartMillis(startMillis);
+                  }
+
                   if (OptimizeUtils.isNullOrEmpty(propositionsMap)) {
                       MobileCore.log(LoggingMode.DEBUG, OptimizeConstants.LOG_TAG, "Cannot process the Edge personalization:decisions event, no propositions with valid offers are present in the Edge response.");
+                      RequestTraceRecorder.report(traces);
                       return;
                   }
 
-                  // Update propositions cache
-                  cachedPropositions.putAll(propositionsMap);
+                  // Update propositions cache, publishing a new snapshot atomically
+                  final long writeTimeMillis = System.currentTimeMillis();
+                  cachedPropositions.putAll(propositionsMap, writeTimeMillis);
+                  if (persistenceEnabled && propositionsStore != null) {
+                      propositionsStore.write(propositionsMap, writeTimeMillis);
+                  }
+                  if (!traces.isEmpty()) {
+                      final long cacheWriteMillis = System.currentTimeMillis();
+                      for (final PersonalizationRequestTrace trace : traces) {
+                          trace.setCacheWriteMillis(cacheWriteMillis);
+                      }
+                  }
+                  completeFilledGetRequests(propositionsMap.keySet());
 
                   final List<Map<String, Object>> propositionsList = new ArrayList<>();
                   for (final Proposition proposition: propositionsMap.values()) {
@@ -269,6 +575,9 @@ class OptimizeExtension extends Extension {
                           OptimizeConstants.EventSource.NOTIFICATION)
                           .setEventData(notificationData)
                           .build();
+                  if (sharingEnabled) {
+                      sharedPropositions.put(edgeEvent, propositionsMap);
+                  }
 
                   // Dispatch notification event
                   MobileCore.dispatchEvent(edgeEvent, new ExtensionErrorCallback<ExtensionError>() {
@@ -278,6 +587,14 @@ class OptimizeExtension extends Extension {
                                   String.format("Failed to dispatch optimize notification event due to an error (%s)!", extensionError.getErrorName()));
                       }
                   });
+
+                  if (!traces.isEmpty()) {
+                      final long notificationMillis = System.currentTimeMillis();
+                      for (final PersonalizationRequestTrace trace : traces) {
+                          trace.setNotificationDispatchMillis(notificationMillis);
+                      }
+                      RequestTraceRecorder.report(traces);
+                  }
               }
         });
     }
@@ -286,11 +603,22 @@ class OptimizeExtension extends Extension {
      * Handles the event with type {@value OptimizeConstants.EventType#EDGE} and source {@value OptimizeConstants.EventSource#ERROR_RESPONSE_CONTENT}.
      * <p>
      * This method logs the error information, returned in Edge response, specifying error type along with a detail message.
+     * The decision scopes of the failed request are no longer considered in flight, and their background prefetch is backed off.
+     * <p>
+     * If the error status indicates a server error, a request timeout or throttling, the failed personalization query request is retried up to
+     * {@value OptimizeConstants.Configuration#OPTIMIZE_EDGE_MAX_RETRIES} times, with capped exponential backoff and jitter, and the failure is
+     * counted by the circuit breaker. The other errors, including the warnings without a status, are neither retried nor counted.
+     * <p>
+     * The get propositions requests waiting for the propositions of the failed request scopes are answered with an error, unless the error
+     * is a warning.
+     * <p>
+     * If the error is returned for a proposition interactions request and the interaction journal is enabled, the interactions are journaled
+     * to be sent again, under the same conditions.
      *
      * @param event incoming {@link Event} object to be processed.
      */
     void handleEdgeErrorResponse(final Event event) {
-        getExecutor().execute(new Runnable() {
+        execute(ExecutorTaskMetrics.TASK_EDGE_RESPONSE, new Runnable() {
             @Override
             public void run() {
                 if (event == null || OptimizeUtils.isNullOrEmpty(event.getEventData())) {
@@ -304,6 +632,47 @@ class OptimizeExtension extends Extension {
 
                 MobileCore.log(LoggingMode.WARNING, OptimizeConstants.LOG_TAG,
                         String.format("Decisioning Service error! Error type: (%s), detail: (%s)", errorType, errorDetail));
+
+                final String requestEventId = OptimizeUtils.getString(eventData, OptimizeConstants.Edge.REQUEST_EVENT_ID);
+                final long status = OptimizeUtils.getLong(eventData, OptimizeConstants.Edge.ErrorKeys.STATUS, 0);
+                final InFlightInteractionTracker.Interaction failedInteraction = inFlightInteractions.complete(requestEventId);
+                if (failedInteraction != null) {
+                    if (journalEnabled && interactionJournal != null && isRetryableStatus(status)) {
+                        MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Journaling the proposition interactions, the Edge request failed.");
+                        journalInteraction(failedInteraction.getXdm(), failedInteraction.getDatasetId(), false);
+                        scheduleJournalReplayCheck();
+                    }
+                    return;
+                }
+
+                // Allow the scopes of the failed request to be requested again
+                final InFlightRequestTracker.Request failedRequest = inFlightRequests.complete(requestEventId);
+                if (failedRequest == null) {
+                    return;
+                }
+                final List<PersonalizationRequestTrace> traces = traceRecorder.remove(requestEventId);
+
+                final long nowMillis = System.currentTimeMillis();
+                prefetchScheduler.onFailure(toDecisionScopes(failedRequest.getScopeNames()), nowMillis);
+                // The warnings, without an error status, do not fail the get propositions requests waiting for the scopes.
+                if (status >= 400) {
+                    failWaitingGetRequests(toDecisionScopes(failedRequest.getScopeNames()), AdobeError.UNEXPECTED_ERROR);
+                }
+
+                if (!isRetryableStatus(status)) {
+                    RequestTraceRecorder.report(traces);
+                    return;
+                }
+
+                if (circuitBreaker.onFailure(nowMillis)) {
+                    MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                            String.format("Pausing the personalization query requests after (%d) consecutive Edge request failures.", circuitBreaker.getConsecutiveFailures()));
+                }
+                if (failedRequest.getAttempt() <= maxRetries) {
+                    scheduleRetry(failedRequest, traces);
+                } else {
+                    RequestTraceRecorder.report(traces);
+                }
             }
         });
     }
@@ -311,64 +680,186 @@ class OptimizeExtension extends Extension {
     /**
      * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value OptimizeConstants.EventSource#REQUEST_CONTENT}.
      * <p>
-     * This method caches the propositions, returned in the Edge response, in the SDK. It also dispatches an optimize response event with the
-     * propositions for the requested decision scopes.
+     * This method dispatches an optimize response event with the previously cached propositions for the requested decision scopes.
+     * Expired propositions are not returned; instead, their scopes are listed under {@value OptimizeConstants.EventDataKeys#EXPIRED_DECISION_SCOPES}
+     * in the response event data.
+     * <p>
+     * The propositions are read from an immutable snapshot of the cache on the calling thread, so the request is not queued behind
+     * the update, track and Edge response tasks pending on the extension executor. If persistence is enabled, propositions missing from
+     * memory are restored from the propositions persisted on disk, if any. The disk is read in the background and the response is then
+     * dispatched from the extension executor, so the calling thread never blocks on I/O. While a clear propositions request is pending, the request is queued on the extension
+     * executor instead, so that it does not return the propositions being cleared, and it is answered with an error if the executor drops it.
+     * <p>
+     * If the request contains {@value OptimizeConstants.EventDataKeys#REVALIDATE_AFTER}, the returned propositions cached for longer than the
+     * given number of milliseconds, and the expired ones, are refreshed in the background after the response is dispatched.
+     * <p>
+     * If the request contains {@value OptimizeConstants.EventDataKeys#FETCH_TIMEOUT} and some of the requested scopes are not cached, the
+     * propositions for those scopes are requested from the Edge network. The response is then dispatched once they are all cached, or
+     * once the given number of milliseconds has elapsed, whichever comes first. The cached propositions are returned immediately while the
+     * circuit breaker is open, or if the request for the missing propositions is not sent, and an error is returned if the Edge network
+     * returns an error for it.
+     * <p>
+     * If the request contains {@value OptimizeConstants.EventDataKeys#REQUEST_DEADLINE} and the deadline has already passed, the request is
+     * dropped without a response, as the caller has stopped waiting for it.
      *
      * @param event incoming {@link Event} object to be processed.
      */
     void handleGetPropositions(final Event event) {
-        getExecutor().execute(new Runnable() {
-            @Override
-            public void run() {
-                final ExtensionErrorCallback<ExtensionError> callback = new ExtensionErrorCallback<ExtensionError>() {
-                    @Override
-                    public void error(final ExtensionError extensionError) {
-                        MobileCore.log(LoggingMode.WARNING, LOG_TAG,
-                                String.format("Failed to dispatch optimize response event due to an error (%s)!", extensionError.getErrorName()));
-                    }
-                };
+        if (pendingClears.get() > 0) {
+            execute(ExecutorTaskMetrics.TASK_GET, new DroppableTask() {
+                @Override
+                public void run() {
+                    processGetPropositions(event);
+                }
 
-                if (event == null || OptimizeUtils.isNullOrEmpty(event.getEventData())) {
-                    MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot process the update propositions request event, event is null or event data is null/ empty.");
-                    MobileCore.dispatchResponseEvent(createResponseEventWithError(AdobeError.UNEXPECTED_ERROR), event, callback);
-                    return;
+                @Override
+                public void onDropped() {
+                    dispatchGetPropositionsError(event, AdobeError.UNEXPECTED_ERROR);
                 }
-                final Map<String, Object> eventData = event.getEventData();
+            });
+            return;
+        }
 
-                try {
-                    final List<Map<String, Object>> decisionScopesData = (List<Map<String, Object>>) eventData.get(OptimizeConstants.EventDataKeys.DECISION_SCOPES);
-                    final List<String> validScopeNames = retrieveValidDecisionScopes(decisionScopesData);
-                    if (OptimizeUtils.isNullOrEmpty(validScopeNames)) {
-                        MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot process the get propositions request event, provided list of decision scopes has no valid scope.");
-                        MobileCore.dispatchResponseEvent(createResponseEventWithError(AdobeError.UNEXPECTED_ERROR), event, callback);
-                        return;
-                    }
+        processGetPropositions(event);
+    }
 
-                    final List<Map<String, Object>> propositionsList = new ArrayList<>();
-                    for (final String scopeName : validScopeNames) {
-                        final DecisionScope scope = new DecisionScope(scopeName);
-                        if (cachedPropositions.containsKey(scope)) {
-                            final Proposition proposition = cachedPropositions.get(scope);
-                            propositionsList.add(proposition.toEventData());
-                        }
-                    }
-                    final Map<String, Object> responseEventData = new HashMap<>();
-                    responseEventData.put(OptimizeConstants.EventDataKeys.PROPOSITIONS, propositionsList);
+    /**
+     * Gets the cached propositions for the given {@code decisionScopes} on the calling thread.
+     * <p>
+     * The propositions are read from an immutable snapshot of the cache, without dispatching any event or waiting for the extension executor.
+     * Expired propositions are not returned, and the propositions persisted on disk are not restored, so that the call never blocks on I/O.
+     * No propositions are returned while a clear propositions request is pending.
+     * <p>
+     * The read is counted in the cache hits and misses only, the executor task metrics being reserved for the extension tasks.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} to be looked up.
+     * @return {@code Map<DecisionScope, Proposition>} containing the cached propositions, in the order of the given {@code decisionScopes}.
+     */
+    Map<DecisionScope, Proposition> getCachedPropositions(final List<DecisionScope> decisionScopes) {
+        if (pendingClears.get() > 0) {
+            cacheMisses.addAndGet(decisionScopes.size());
+            return Collections.emptyMap();
+        }
 
-                    final Event responseEvent = new Event.Builder(OptimizeConstants.EventNames.OPTIMIZE_RESPONSE,
-                            OptimizeConstants.EventType.OPTIMIZE,
-                            OptimizeConstants.EventSource.RESPONSE_CONTENT)
-                            .setEventData(responseEventData)
-                            .build();
+        final PropositionsCache.Result result = cachedPropositions.getAll(decisionScopes);
+        final int hitCount = result.getPropositions().size();
+        cacheHits.addAndGet(hitCount);
+        cacheMisses.addAndGet(decisionScopes.size() - hitCount);
+        return result.getPropositions();
+    }
 
-                    MobileCore.dispatchResponseEvent(responseEvent, event, callback);
+    /**
+     * Gets the propositions shared by this extension with the public API callbacks.
+     *
+     * @return {@link SharedPropositions} instance, empty unless {@value OptimizeConstants.Configuration#OPTIMIZE_PROPOSITIONS_SHARING_ENABLED} is set to true.
+     */
+    SharedPropositions getSharedPropositions() {
+        return sharedPropositions;
+    }
 
-                } catch (final Exception e) {
-                    MobileCore.log(LoggingMode.WARNING, LOG_TAG,
-                            String.format("Failed to process get propositions request event due to an exception (%s)!", e.getLocalizedMessage()));
+    /**
+     * Gets the most recently registered {@code OptimizeExtension} instance.
+     *
+     * @return {@link OptimizeExtension} instance, or null if the extension is not registered.
+     */
+    static OptimizeExtension getRegisteredExtension() {
+        return registeredExtension;
+    }
+
+    /**
+     * Processes the get propositions request {@code event} on the calling thread.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     * @see #handleGetPropositions(Event)
+     */
+    private void processGetPropositions(final Event event) {
+        final ExtensionErrorCallback<ExtensionError> callback = new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                        String.format("Failed to dispatch optimize response event due to an error (%s)!", extensionError.getErrorName()));
+            }
+        };
+
+        if (event == null || OptimizeUtils.isNullOrEmpty(event.getEventData())) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot process the update propositions request event, event is null or event data is null/ empty.");
+            MobileCore.dispatchResponseEvent(createResponseEventWithError(AdobeError.UNEXPECTED_ERROR), event, callback);
+            return;
+        }
+        final Map<String, Object> eventData = event.getEventData();
+
+        // The caller has already given up on the request.
+        final long deadlineMillis = OptimizeUtils.getLong(eventData, OptimizeConstants.EventDataKeys.REQUEST_DEADLINE, 0);
+        if (deadlineMillis > 0 && System.currentTimeMillis() >= deadlineMillis) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Ignoring the get propositions request event, the request deadline has passed.");
+            return;
+        }
+
+        try {
+            final List<Map<String, Object>> decisionScopesData = (List<Map<String, Object>>) eventData.get(OptimizeConstants.EventDataKeys.DECISION_SCOPES);
+            final List<String> validScopeNames = retrieveValidDecisionScopes(decisionScopesData);
+            if (OptimizeUtils.isNullOrEmpty(validScopeNames)) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot process the get propositions request event, provided list of decision scopes has no valid scope.");
+                MobileCore.dispatchResponseEvent(createResponseEventWithError(AdobeError.UNEXPECTED_ERROR), event, callback);
+                return;
+            }
+
+            final List<DecisionScope> validScopes = new ArrayList<>();
+            for (final String scopeName : validScopeNames) {
+                validScopes.add(new DecisionScope(scopeName));
+            }
+
+            // Take a consistent view of the cache for all the requested scopes.
+            final PropositionsCache.Result result = cachedPropositions.getAll(validScopes);
+            final List<DecisionScope> persistedScopes = retrievePersistedScopes(validScopes, result);
+            if (!persistedScopes.isEmpty()) {
+                restorePersistedPropositions(event, validScopes, persistedScopes);
+                return;
+            }
+            completeGetPropositions(event, validScopes, result);
+
+        } catch (final Exception e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to process get propositions request event due to an exception (%s)!", e.getLocalizedMessage()));
+        }
+    }
+
+    /**
+     * Dispatches the response to the get propositions request {@code event}, or defers it until the missing propositions are fetched.
+     *
+     * @param event {@link Event} containing the get propositions request.
+     * @param validScopes {@code List<DecisionScope>} containing the valid requested scopes.
+     * @param result {@link PropositionsCache.Result} of the cache lookup for the {@code validScopes}.
+     */
+    private void completeGetPropositions(final Event event, final List<DecisionScope> validScopes, final PropositionsCache.Result result) {
+        final Map<String, Object> eventData = event.getEventData();
+        final long deadlineMillis = OptimizeUtils.getLong(eventData, OptimizeConstants.EventDataKeys.REQUEST_DEADLINE, 0);
+        try {
+            final int hitCount = result.getPropositions().size();
+            cacheHits.addAndGet(hitCount);
+            cacheMisses.addAndGet(validScopes.size() - hitCount);
+
+            if (eventData.containsKey(OptimizeConstants.EventDataKeys.FETCH_TIMEOUT)
+                    && result.getPropositions().size() < validScopes.size()
+                    && !circuitBreaker.isOpen(System.currentTimeMillis())) {
+                long fetchTimeoutMillis = OptimizeUtils.getLong(eventData, OptimizeConstants.EventDataKeys.FETCH_TIMEOUT, 0);
+                if (deadlineMillis > 0) {
+                    fetchTimeoutMillis = Math.min(fetchTimeoutMillis, deadlineMillis - System.currentTimeMillis());
                 }
+                fetchMissingPropositions(event, validScopes, result, fetchTimeoutMillis);
+                return;
             }
-        });
+
+            dispatchGetPropositionsResponse(event, result);
+
+            if (eventData.containsKey(OptimizeConstants.EventDataKeys.REVALIDATE_AFTER)) {
+                revalidateStalePropositions(event, result, OptimizeUtils.getLong(eventData, OptimizeConstants.EventDataKeys.REVALIDATE_AFTER, 0));
+            }
+
+        } catch (final Exception e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to process get propositions request event due to an exception (%s)!", e.getLocalizedMessage()));
+        }
     }
 
     /**
@@ -377,11 +868,25 @@ class OptimizeExtension extends Extension {
      * This method dispatches an event to the Edge network extension to send proposition interactions information to the Experience Edge network.
      * The dispatched event may contain an override {@code datasetId} indicating the dataset which will be used for storing the Experience Events
      * sent to the Edge network.
+     * <p>
+     * If {@value OptimizeConstants.Configuration#OPTIMIZE_TRACKING_BATCH_WINDOW_MILLIS} is configured, the interactions received within the window
+     * are merged into a single Experience Event per event type, which is sent once the window has elapsed, once
+     * {@value OptimizeConstants.Configuration#OPTIMIZE_TRACKING_BATCH_MAX_SIZE} interactions are pending or, if
+     * {@value OptimizeConstants.Configuration#OPTIMIZE_TRACKING_FLUSH_ON_TAP} is enabled, as soon as a tap interaction is received.
+     * <p>
+     * If {@value OptimizeConstants.Configuration#OPTIMIZE_TRACKING_JOURNAL_ENABLED} is set to true, the interactions tracked while the device
+     * is offline or the circuit breaker is open, and the interactions for which the Edge network returns an error, are journaled on disk.
+     * They are replayed once the extension is first configured, when the circuit breaker closes, when an interaction is tracked again while
+     * the Edge network is reachable and, while interactions are journaled, once the periodic reachability check finds the device back online.
+     * The interactions tracked while journaled ones are pending replay are journaled behind them, so that they are sent in the tracked order.
+     * <p>
+     * If {@value OptimizeConstants.Configuration#OPTIMIZE_TRACKING_DISPLAY_DEDUPE_WINDOW_SECONDS} is configured, the display interactions of
+     * the offers already displayed within the window, or within the session if set to -1, are not sent again.
      *
      * @param event incoming {@link Event} object to be processed.
      */
     void handleTrackPropositions(final Event event) {
-        getExecutor().execute(new Runnable() {
+        execute(ExecutorTaskMetrics.TASK_TRACK, new Runnable() {
             @Override
             public void run() {
                 if (event == null || OptimizeUtils.isNullOrEmpty(event.getEventData())) {
@@ -397,40 +902,33 @@ class OptimizeExtension extends Extension {
                 }
 
                 try {
-                    final Map<String, Object> propositionInteractionsXdm = (Map<String, Object>) eventData.get(OptimizeConstants.EventDataKeys.PROPOSITION_INTERACTIONS);
-                    if (OptimizeUtils.isNullOrEmpty(propositionInteractionsXdm)) {
+                    final Map<String, Object> requestedInteractionsXdm = (Map<String, Object>) eventData.get(OptimizeConstants.EventDataKeys.PROPOSITION_INTERACTIONS);
+                    if (OptimizeUtils.isNullOrEmpty(requestedInteractionsXdm)) {
                         MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot process the track propositions request event, provided proposition interactions map is null or empty.");
                         return;
                     }
 
-                    final Map<String, Object> edgeEventData = new HashMap<>();
-
-                    // Add xdm
-                    final Map<String, Object> xdm = new HashMap<>();
-                    xdm.putAll(propositionInteractionsXdm);
-                    edgeEventData.put(OptimizeConstants.JsonKeys.XDM, xdm);
-
-                    // Add override datasetId
-                    if (configData.containsKey(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID)) {
-                        final String overrideDatasetId = (String) configData.get(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID);
-                        if (!OptimizeUtils.isNullOrEmpty(overrideDatasetId)) {
-                            edgeEventData.put(OptimizeConstants.JsonKeys.DATASET_ID, overrideDatasetId);
-                        }
+                    final Map<String, Object> propositionInteractionsXdm = displayDeduplicator.filter(requestedInteractionsXdm, System.currentTimeMillis());
+                    if (propositionInteractionsXdm == null) {
+                        MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Not sending the display interaction, the offers were already displayed within the deduplication window.");
+                        return;
                     }
 
-                    final Event edgeEvent = new Event.Builder(OptimizeConstants.EventNames.EDGE_PROPOSITION_INTERACTION_REQUEST,
-                            OptimizeConstants.EventType.EDGE,
-                            OptimizeConstants.EventSource.REQUEST_CONTENT)
-                            .setEventData(edgeEventData)
-                            .build();
-
-                    MobileCore.dispatchEvent(edgeEvent, new ExtensionErrorCallback<ExtensionError>() {
-                        @Override
-                        public void error(final ExtensionError extensionError) {
-                            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
-                                    String.format("Failed to dispatch proposition interactions event to the Edge network due to an error (%s)!", extensionError.getErrorName()));
-                        }
-                    });
+                    final String overrideDatasetId = configData.containsKey(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID)
+                            ? (String) configData.get(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID) : null;
+
+                    final long windowMillis = trackingBatchWindowMillis;
+                    final int pendingCount = windowMillis > 0
+                            ? interactionBatcher.add(propositionInteractionsXdm, overrideDatasetId) : PropositionInteractionBatcher.NOT_BATCHABLE;
+                    if (pendingCount == PropositionInteractionBatcher.NOT_BATCHABLE) {
+                        trackInteraction(propositionInteractionsXdm, overrideDatasetId);
+                    } else if (pendingCount >= trackingBatchMaxSize
+                            || (trackingFlushOnTap && OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_INTERACT.equals(
+                                    propositionInteractionsXdm.get(OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE)))) {
+                        flushInteractionBatches();
+                    } else if (pendingCount == 1) {
+                        scheduleInteractionBatchesFlush(windowMillis);
+                    }
 
                 } catch (final Exception e) {
                     MobileCore.log(LoggingMode.WARNING, LOG_TAG,
@@ -441,55 +939,1199 @@ class OptimizeExtension extends Extension {
     }
 
     /**
-     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value OptimizeConstants.EventSource#REQUEST_RESET}.
-     * <p>
-     * This method clears previously cached propositions in the SDK.
+     * Sends the given proposition interactions to the Experience Edge network or, if the interaction journal is enabled, journals them to
+     * be replayed later if the Edge requests cannot currently succeed, or if journaled interactions are still pending replay.
      *
-     * @param event incoming {@link Event} object to be processed.
+     * @param interactionXdm {@code Map<String, Object>} containing the XDM data for the proposition interactions.
+     * @param overrideDatasetId {@link String} containing the dataset used for storing the Experience Events, may be null.
      */
-    void handleClearPropositions(final Event event) {
-        getExecutor().execute(new Runnable() {
-            @Override
-            public void run() {
-                cachedPropositions.clear();
+    private void trackInteraction(final Map<String, Object> interactionXdm, final String overrideDatasetId) {
+        if (journalEnabled && interactionJournal != null) {
+            if (!isEdgeReachable()) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Journaling the proposition interactions, the device is offline or the Edge requests are failing.");
+                journalInteraction(interactionXdm, overrideDatasetId, false);
+                scheduleJournalReplayCheck();
+                return;
             }
-        });
+            if (journalInteraction(interactionXdm, overrideDatasetId, true)) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Journaling the proposition interactions behind the journaled ones pending replay.");
+                cancelJournalReplayCheck();
+                replayInteractionJournal();
+                return;
+            }
+        }
+        dispatchEdgeInteractionRequest(interactionXdm, overrideDatasetId);
     }
 
     /**
-     * Retrieves the {@code Configuration} shared state versioned at the current {@code event}.
+     * Appends the given proposition interactions to the journal, marking the journal as pending replay.
      *
-     * @param event incoming {@link Event} instance.
-     * @return {@code Map<String, Object>} containing configuration data.
+     * @param interactionXdm {@code Map<String, Object>} containing the XDM data for the proposition interactions.
+     * @param overrideDatasetId {@link String} containing the dataset used for storing the Experience Events, may be null.
+     * @param onlyIfPending {@code boolean} indicating whether the interactions are journaled only if the journal is pending replay.
+     * @return {@code boolean} indicating whether the interactions have been journaled.
      */
-    Map<String, Object> retrieveConfigurationSharedState(final Event event) {
-        final ExtensionErrorCallback<ExtensionError> errorCallback = new ExtensionErrorCallback<ExtensionError>() {
-            @Override
-            public void error(final ExtensionError extensionError) {
-                MobileCore.log(LoggingMode.ERROR, LOG_TAG,
-                        String.format("Failed to read Configuration shared state due to an error (%s)!",
-                                extensionError.getErrorName()));
+    private boolean journalInteraction(final Map<String, Object> interactionXdm, final String overrideDatasetId, final boolean onlyIfPending) {
+        synchronized (journalMutex) {
+            if (onlyIfPending && !journalPending) {
+                return false;
             }
-        };
 
-        return getApi().getSharedEventState(OptimizeConstants.Configuration.EXTENSION_NAME, event, errorCallback);
+            // The append is submitted under the lock, so that it is ordered with the replays on the journal executor.
+            journalPending = true;
+            journalAppendCount++;
+            interactionJournal.append(interactionXdm, overrideDatasetId);
+            return true;
+        }
     }
 
     /**
-     * Gets the {@code ExecutorService} instance that can execute this extension's tasks on a separate thread.
-     * <p>
-     * This prevents blocking the {@code EventHub} thread for long running extension tasks such as processing
-     * of incoming events.
+     * Checks whether the Edge requests can currently succeed, that is whether the device is connected to a network and the circuit breaker
+     * is not open after consecutive Edge request failures.
      *
-     * @return {@link ExecutorService} instance for this extension.
+     * @return {@code boolean} indicating whether the Edge network is reachable.
      */
-    ExecutorService getExecutor() {
+    private boolean isEdgeReachable() {
+        return !circuitBreaker.isOpen(System.currentTimeMillis()) && OptimizeUtils.isNetworkAvailable();
+    }
+
+    /**
+     * Replays the journaled proposition interactions in the background, if the interaction journal is enabled.
+     * <p>
+     * The interactions are sent in the order they were journaled, merging up to {@value #JOURNAL_REPLAY_BATCH_SIZE} consecutive interactions
+     * of the same type into a single Edge event. The replay stops if the device goes offline or the circuit breaker opens again, leaving
+     * the remaining interactions journaled until the Edge network is reachable again.
+     * <p>
+     * A batch is checkpointed once dispatched to the Edge network extension, which queues the requests on disk and retries them until
+     * they are delivered. The replayed interactions for which the Edge network returns an error are journaled again.
+     * <p>
+     * The journal is no longer pending replay once all its interactions are replayed, unless interactions were journaled meanwhile, in
+     * which case they are replayed by the replay requested when they were journaled.
+     */
+    private void replayInteractionJournal() {
+        if (!journalEnabled || interactionJournal == null) {
+            return;
+        }
+
+        synchronized (journalMutex) {
+            if (!journalPending) {
+                return;
+            }
+
+            final long appendCount = journalAppendCount;
+            interactionJournal.replay(JOURNAL_REPLAY_BATCH_SIZE, new InteractionJournal.ReplayHandler() {
+                @Override
+                public boolean replay(final List<InteractionJournal.Record> records) {
+                    if (!isEdgeReachable()) {
+                        scheduleJournalReplayCheck();
+                        return false;
+                    }
+
+                    final PropositionInteractionBatcher batcher = new PropositionInteractionBatcher();
+                    for (final InteractionJournal.Record record : records) {
+                        final Map<String, Object> xdm = record.getXdm();
+                        if (xdm == null) {
+                            continue;
+                        }
+                        if (batcher.add(xdm, record.getDatasetId()) == PropositionInteractionBatcher.NOT_BATCHABLE) {
+                            // Sends the previously merged interactions first, to preserve the order.
+                            dispatchInteractionBatches(batcher);
+                            dispatchEdgeInteractionRequest(xdm, record.getDatasetId());
+                        }
+                    }
+                    dispatchInteractionBatches(batcher);
+                    return true;
+                }
+            }, new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (journalMutex) {
+                        if (journalAppendCount == appendCount) {
+                            journalPending = false;
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Schedules the periodic reachability check replaying the journaled interactions once the Edge network is reachable again, if not
+     * already scheduled.
+     */
+    private void scheduleJournalReplayCheck() {
         synchronized (executorMutex) {
-            if (executorService == null) {
-                executorService = Executors.newSingleThreadExecutor();
+            if (journalReplayCheck != null) {
+                return;
             }
 
-            return executorService;
+            journalReplayCheck = getScheduledExecutor().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    execute(ExecutorTaskMetrics.TASK_TRACK, new Runnable() {
+                        @Override
+                        public void run() {
+                            replayInteractionJournalIfReachable();
+                        }
+                    });
+                }
+            }, JOURNAL_REPLAY_CHECK_INTERVAL_SECONDS, JOURNAL_REPLAY_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Replays the journaled interactions, and stops the periodic reachability check, once the Edge network is reachable again.
+     */
+    private void replayInteractionJournalIfReachable() {
+        if (!isEdgeReachable()) {
+            return;
+        }
+
+        cancelJournalReplayCheck();
+        replayInteractionJournal();
+    }
+
+    /**
+     * Removes the journaled interactions in the background, the journal no longer being pending replay.
+     */
+    private void clearInteractionJournal() {
+        synchronized (journalMutex) {
+            journalPending = false;
+            interactionJournal.clear();
+        }
+    }
+
+    /**
+     * Stops the periodic reachability check scheduled while interactions are journaled.
+     */
+    private void cancelJournalReplayCheck() {
+        synchronized (executorMutex) {
+            if (journalReplayCheck != null) {
+                journalReplayCheck.cancel(false);
+                journalReplayCheck = null;
+            }
+        }
+    }
+
+    /**
+     * Dispatches an event to the Edge network extension for each batch of proposition interactions merged by the given {@code batcher}.
+     *
+     * @param batcher {@link PropositionInteractionBatcher} containing the merged interactions.
+     */
+    private void dispatchInteractionBatches(final PropositionInteractionBatcher batcher) {
+        for (final PropositionInteractionBatcher.Batch batch : batcher.drain()) {
+            dispatchEdgeInteractionRequest(batch.getXdm(), batch.getDatasetId());
+        }
+    }
+
+    /**
+     * Dispatches an event to the Edge network extension to send the given proposition interactions to the Experience Edge network.
+     *
+     * @param interactionXdm {@code Map<String, Object>} containing the XDM data for the proposition interactions.
+     * @param overrideDatasetId {@link String} containing the dataset used for storing the Experience Events, may be null.
+     */
+    private void dispatchEdgeInteractionRequest(final Map<String, Object> interactionXdm, final String overrideDatasetId) {
+        final Map<String, Object> edgeEventData = new HashMap<>();
+
+        // Add xdm
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.putAll(interactionXdm);
+        edgeEventData.put(OptimizeConstants.JsonKeys.XDM, xdm);
+
+        // Add override datasetId
+        if (!OptimizeUtils.isNullOrEmpty(overrideDatasetId)) {
+            edgeEventData.put(OptimizeConstants.JsonKeys.DATASET_ID, overrideDatasetId);
+        }
+
+        final Event edgeEvent = new Event.Builder(OptimizeConstants.EventNames.EDGE_PROPOSITION_INTERACTION_REQUEST,
+                OptimizeConstants.EventType.EDGE,
+                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                .setEventData(edgeEventData)
+                .build();
+
+        if (journalEnabled) {
+            inFlightInteractions.add(edgeEvent.getUniqueIdentifier(), interactionXdm, overrideDatasetId);
+        }
+        MobileCore.dispatchEvent(edgeEvent, new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                        String.format("Failed to dispatch proposition interactions event to the Edge network due to an error (%s)!", extensionError.getErrorName()));
+            }
+        });
+    }
+
+    /**
+     * Dispatches an event to the Edge network extension for each batch of proposition interactions merged by the {@code PropositionInteractionBatcher}.
+     */
+    private void flushInteractionBatches() {
+        for (final PropositionInteractionBatcher.Batch batch : interactionBatcher.drain()) {
+            MobileCore.log(LoggingMode.VERBOSE, LOG_TAG,
+                    String.format("Dispatching (%d) batched proposition interactions to the Edge network.", batch.getInteractionCount()));
+            trackInteraction(batch.getXdm(), batch.getDatasetId());
+        }
+    }
+
+    /**
+     * Schedules the dispatch of the proposition interactions merged by the {@code PropositionInteractionBatcher} once the window has elapsed.
+     *
+     * @param windowMillis {@code long} containing the batching window in milliseconds.
+     */
+    private void scheduleInteractionBatchesFlush(final long windowMillis) {
+        getScheduledExecutor().schedule(new Runnable() {
+            @Override
+            public void run() {
+                execute(ExecutorTaskMetrics.TASK_TRACK, new Runnable() {
+                    @Override
+                    public void run() {
+                        flushInteractionBatches();
+                    }
+                });
+            }
+        }, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     * <p>
+     * This method registers the requested decision scopes for background prefetch, with the refresh interval read from the incoming event.
+     * The refresh interval is at least {@value #MIN_PREFETCH_INTERVAL_MILLIS} milliseconds.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleRegisterPrefetch(final Event event) {
+        execute(ExecutorTaskMetrics.TASK_OTHER, new Runnable() {
+            @Override
+            public void run() {
+                final List<DecisionScope> scopes = retrievePrefetchDecisionScopes(event);
+                if (scopes == null) {
+                    return;
+                }
+
+                final long intervalMillis = Math.max(OptimizeUtils.getLong(event.getEventData(), OptimizeConstants.EventDataKeys.REFRESH_INTERVAL, 0),
+                        MIN_PREFETCH_INTERVAL_MILLIS);
+                prefetchScheduler.register(scopes, intervalMillis, System.currentTimeMillis());
+                schedulePrefetch();
+            }
+        });
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     * <p>
+     * This method unregisters the requested decision scopes from background prefetch.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleUnregisterPrefetch(final Event event) {
+        execute(ExecutorTaskMetrics.TASK_OTHER, new Runnable() {
+            @Override
+            public void run() {
+                final List<DecisionScope> scopes = retrievePrefetchDecisionScopes(event);
+                if (scopes == null) {
+                    return;
+                }
+
+                prefetchScheduler.unregister(scopes);
+                schedulePrefetch();
+            }
+        });
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#GENERIC_LIFECYCLE} and source {@value OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     * <p>
+     * This method pauses the background prefetch when the app is backgrounded, and resumes it when the app is foregrounded. The decision scopes
+     * which became due while paused are fetched as soon as the prefetch is resumed. A lifecycle start also ends the display deduplication
+     * session, if {@value OptimizeConstants.Configuration#OPTIMIZE_TRACKING_DISPLAY_DEDUPE_WINDOW_SECONDS} is set to -1.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleLifecycleRequest(final Event event) {
+        execute(ExecutorTaskMetrics.TASK_OTHER, new Runnable() {
+            @Override
+            public void run() {
+                final String action = OptimizeUtils.getString(event.getEventData(), OptimizeConstants.EventDataKeys.LIFECYCLE_ACTION);
+                if (OptimizeConstants.EventDataValues.LIFECYCLE_ACTION_PAUSE.equals(action)) {
+                    synchronized (executorMutex) {
+                        prefetchPaused = true;
+                    }
+                } else if (OptimizeConstants.EventDataValues.LIFECYCLE_ACTION_START.equals(action)) {
+                    synchronized (executorMutex) {
+                        prefetchPaused = false;
+                    }
+                    if (displayDeduplicator.isSessionMode()) {
+                        displayDeduplicator.clear();
+                    }
+                } else {
+                    return;
+                }
+                schedulePrefetch();
+            }
+        });
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     * <p>
+     * This method dispatches an optimize response event with the {@link EdgeRequestStatus} containing the circuit breaker state and the
+     * number of retried personalization query requests.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleGetEdgeRequestStatus(final Event event) {
+        final EdgeRequestStatus status = new EdgeRequestStatus(circuitBreaker.getState(), circuitBreaker.getConsecutiveFailures(), retryCount.get(),
+                rejectedRetryCount.get());
+        final Event responseEvent = new Event.Builder(OptimizeConstants.EventNames.OPTIMIZE_RESPONSE,
+                OptimizeConstants.EventType.OPTIMIZE,
+                OptimizeConstants.EventSource.RESPONSE_CONTENT)
+                .setEventData(status.toEventData())
+                .build();
+
+        MobileCore.dispatchResponseEvent(responseEvent, event, new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                        String.format("Failed to dispatch optimize response event due to an error (%s)!", extensionError.getErrorName()));
+            }
+        });
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     * <p>
+     * This method dispatches an optimize response event with the {@link OptimizeMetrics} containing the propositions cache and
+     * personalization request counters, and the extension executor queue metrics. The response is dispatched on the calling thread, so it is not delayed by the pending extension tasks.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleGetMetrics(final Event event) {
+        final PropositionsCache.Snapshot snapshot = cachedPropositions.getSnapshot();
+        final OptimizeMetrics metrics = new OptimizeMetrics(cacheHits.get(), cacheMisses.get(), cachedPropositions.getEvictionCount(),
+                snapshot.getPropositions().size(), snapshot.getSizeBytes(), requestsSent.get(), responsesParsed.get(),
+                propositionsDropped.get(), clearCount.get(), executorMetrics.getQueuedTaskCount(), executorMetrics.getMaxQueuedTaskCount(),
+                executorMetrics.getTaskMetrics(), executorMetrics.getRejectedTaskCount(), displayDeduplicator.getSuppressedCount());
+        final Event responseEvent = new Event.Builder(OptimizeConstants.EventNames.OPTIMIZE_RESPONSE,
+                OptimizeConstants.EventType.OPTIMIZE,
+                OptimizeConstants.EventSource.RESPONSE_CONTENT)
+                .setEventData(metrics.toEventData())
+                .build();
+
+        MobileCore.dispatchResponseEvent(responseEvent, event, new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                        String.format("Failed to dispatch optimize response event due to an error (%s)!", extensionError.getErrorName()));
+            }
+        });
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value OptimizeConstants.EventSource#REQUEST_RESET}.
+     * <p>
+     * This method clears previously cached propositions in the SDK, including the propositions persisted on disk. The offers remembered for the
+     * display deduplication are forgotten as well.
+     * <p>
+     * The proposition interactions pending in a batch are sent on the tracking executor, and the journaled interactions are kept, as they
+     * still belong to the current identity.
+     * <p>
+     * The get propositions requests received until the clear is applied are queued behind it on the extension executor.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     * @see #handleResetIdentities(Event)
+     */
+    void handleClearPropositions(final Event event) {
+        clearPropositions();
+
+        execute(ExecutorTaskMetrics.TASK_TRACK, true, new Runnable() {
+            @Override
+            public void run() {
+                flushInteractionBatches();
+            }
+        });
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#GENERIC_IDENTITY} and source {@value OptimizeConstants.EventSource#REQUEST_RESET}.
+     * <p>
+     * This method clears previously cached propositions like {@link #handleClearPropositions(Event)}. The proposition interactions tracked
+     * before the reset and not sent yet, whether pending in a batch or journaled on disk, are discarded on the tracking executor so that
+     * they are not attributed to the new identity.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleResetIdentities(final Event event) {
+        clearPropositions();
+
+        execute(ExecutorTaskMetrics.TASK_TRACK, true, new Runnable() {
+            @Override
+            public void run() {
+                final List<PropositionInteractionBatcher.Batch> discardedBatches = interactionBatcher.drain();
+                if (!discardedBatches.isEmpty()) {
+                    MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                            String.format("Discarding (%d) batched proposition interactions on reset.", discardedBatches.size()));
+                }
+                inFlightInteractions.clear();
+                cancelJournalReplayCheck();
+                if (interactionJournal != null) {
+                    clearInteractionJournal();
+                }
+            }
+        });
+    }
+
+    /**
+     * Clears the cached propositions on the extension executor, the get propositions requests received until then being queued behind it.
+     */
+    private void clearPropositions() {
+        pendingClears.incrementAndGet();
+        final boolean submitted = execute(ExecutorTaskMetrics.TASK_CLEAR, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    cachedPropositions.clear();
+                    clearCount.incrementAndGet();
+                    revalidationRequestTimes.clear();
+                    inFlightRequests.clear();
+                    traceRecorder.clear();
+                    displayDeduplicator.clear();
+                    for (final PendingGetRequest pendingRequest : pendingGetRequests) {
+                        completePendingGetRequest(pendingRequest);
+                    }
+                    if (propositionsStore != null) {
+                        propositionsStore.clear();
+                    }
+                } finally {
+                    pendingClears.decrementAndGet();
+                }
+            }
+        });
+        if (!submitted) {
+            pendingClears.decrementAndGet();
+        }
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#CONFIGURATION} and source {@value OptimizeConstants.EventSource#RESPONSE_CONTENT}.
+     * <p>
+     * This method applies the propositions cache settings from the latest configuration. The cache is unbounded unless
+     * {@value OptimizeConstants.Configuration#OPTIMIZE_CACHE_MAX_ENTRIES} or {@value OptimizeConstants.Configuration#OPTIMIZE_CACHE_MAX_SIZE_BYTES}
+     * is configured. Cached propositions do not expire unless {@value OptimizeConstants.Configuration#OPTIMIZE_CACHE_TTL_SECONDS} or
+     * {@value OptimizeConstants.Configuration#OPTIMIZE_CACHE_SCOPE_TTL_SECONDS} is configured, in which case a sweeper periodically removes
+     * the expired propositions. Propositions are persisted on disk only if {@value OptimizeConstants.Configuration#OPTIMIZE_CACHE_PERSISTENCE_ENABLED}
+     * is set to true, otherwise any previously persisted propositions are removed.
+     * <p>
+     * It also applies the retry and circuit breaker settings for the failed personalization query requests. Setting
+     * {@value OptimizeConstants.Configuration#OPTIMIZE_EDGE_MAX_RETRIES} or {@value OptimizeConstants.Configuration#OPTIMIZE_EDGE_CIRCUIT_BREAKER_FAILURE_THRESHOLD}
+     * to 0 disables the retries or the circuit breaker. The {@value OptimizeConstants.Configuration#OPTIMIZE_EXECUTOR_OVERFLOW_POLICY} setting
+     * selects how the tasks submitted while the extension executor queue is full are handled.
+     * <p>
+     * If {@value OptimizeConstants.Configuration#OPTIMIZE_PROPOSITIONS_SHARING_ENABLED} is set to true, the propositions received from then on
+     * are frozen and the same instances are handed to all the API callbacks, otherwise each callback parses its own modifiable copy.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleConfigurationResponse(final Event event) {
+        execute(ExecutorTaskMetrics.TASK_OTHER, true, new Runnable() {
+            @Override
+            public void run() {
+                if (event == null || OptimizeUtils.isNullOrEmpty(event.getEventData())) {
+                    MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot process the configuration response event, event is null or event data is null/ empty.");
+                    return;
+                }
+                final Map<String, Object> configData = event.getEventData();
+
+                final List<DecisionScope> pinnedScopes = new ArrayList<>();
+                for (final String scopeName : OptimizeUtils.getStringList(configData, OptimizeConstants.Configuration.OPTIMIZE_CACHE_PINNED_SCOPES)) {
+                    pinnedScopes.add(new DecisionScope(scopeName));
+                }
+
+                cachedPropositions.configure(
+                        (int) OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_CACHE_MAX_ENTRIES, PropositionsCache.UNBOUNDED),
+                        OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_CACHE_MAX_SIZE_BYTES, PropositionsCache.UNBOUNDED),
+                        OptimizeUtils.getString(configData, OptimizeConstants.Configuration.OPTIMIZE_CACHE_EVICTION_POLICY),
+                        pinnedScopes);
+
+                final Map<DecisionScope, Long> scopeTtlMillis = new HashMap<>();
+                final Map<String, Object> scopeTtlSeconds = OptimizeUtils.getMap(configData, OptimizeConstants.Configuration.OPTIMIZE_CACHE_SCOPE_TTL_SECONDS);
+                for (final String scopeName : scopeTtlSeconds.keySet()) {
+                    final long ttlSeconds = OptimizeUtils.getLong(scopeTtlSeconds, scopeName, PropositionsCache.NO_EXPIRY);
+                    scopeTtlMillis.put(new DecisionScope(scopeName), TimeUnit.SECONDS.toMillis(ttlSeconds));
+                }
+                cachedPropositions.configureExpiry(
+                        TimeUnit.SECONDS.toMillis(OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_CACHE_TTL_SECONDS, PropositionsCache.NO_EXPIRY)),
+                        scopeTtlMillis);
+
+                coalescingWindowMillis = OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_UPDATE_COALESCING_WINDOW_MILLIS, 0);
+                trackingBatchWindowMillis = OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_TRACKING_BATCH_WINDOW_MILLIS, 0);
+                trackingBatchMaxSize = (int) OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_TRACKING_BATCH_MAX_SIZE, DEFAULT_TRACKING_BATCH_MAX_SIZE);
+                trackingFlushOnTap = OptimizeUtils.getBoolean(configData, OptimizeConstants.Configuration.OPTIMIZE_TRACKING_FLUSH_ON_TAP, false);
+                final boolean enableJournal = OptimizeUtils.getBoolean(configData, OptimizeConstants.Configuration.OPTIMIZE_TRACKING_JOURNAL_ENABLED, false);
+                if (interactionJournal != null) {
+                    interactionJournal.setMaxSizeBytes(OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_TRACKING_JOURNAL_MAX_SIZE_BYTES,
+                            InteractionJournal.DEFAULT_MAX_SIZE_BYTES));
+                    if (!enableJournal && interactionJournal.exists()) {
+                        clearInteractionJournal();
+                    } else if (enableJournal && !configured && interactionJournal.exists()) {
+                        // Marked before the journal is enabled, so that no interaction is sent ahead of those journaled by a previous session.
+                        synchronized (journalMutex) {
+                            journalPending = true;
+                        }
+                    }
+                }
+                journalEnabled = enableJournal;
+                propositionsSharingEnabled = OptimizeUtils.getBoolean(configData, OptimizeConstants.Configuration.OPTIMIZE_PROPOSITIONS_SHARING_ENABLED, false);
+                if (!propositionsSharingEnabled) {
+                    sharedPropositions.clear();
+                }
+                final long dedupeWindowSeconds = OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_TRACKING_DISPLAY_DEDUPE_WINDOW_SECONDS, 0);
+                displayDeduplicator.configure(dedupeWindowSeconds < 0 ? DisplayImpressionDeduplicator.SESSION : TimeUnit.SECONDS.toMillis(dedupeWindowSeconds));
+                maxRetries = (int) OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_EDGE_MAX_RETRIES, DEFAULT_MAX_RETRIES);
+                circuitBreaker.configure(
+                        (int) OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_EDGE_CIRCUIT_BREAKER_FAILURE_THRESHOLD, DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD),
+                        TimeUnit.SECONDS.toMillis(OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_EDGE_CIRCUIT_BREAKER_OPEN_SECONDS, DEFAULT_CIRCUIT_BREAKER_OPEN_SECONDS)));
+                // Replays the interactions journaled by a previous session once first configured, the circuit breaker replaying them when it closes.
+                if (!configured) {
+                    replayInteractionJournal();
+                }
+                configured = true;
+                final String overflowPolicy = OptimizeUtils.getString(configData, OptimizeConstants.Configuration.OPTIMIZE_EXECUTOR_OVERFLOW_POLICY);
+                overflowHandler.setPolicy(overflowPolicy);
+                trackingOverflowHandler.setPolicy(overflowPolicy);
+
+                persistenceEnabled = OptimizeUtils.getBoolean(configData, OptimizeConstants.Configuration.OPTIMIZE_CACHE_PERSISTENCE_ENABLED, false);
+                if (!persistenceEnabled && propositionsStore != null && propositionsStore.exists()) {
+                    propositionsStore.clear();
+                }
+
+                scheduleCacheSweeper(cachedPropositions.isExpiryEnabled()
+                        ? OptimizeUtils.getLong(configData, OptimizeConstants.Configuration.OPTIMIZE_CACHE_SWEEP_INTERVAL_SECONDS, DEFAULT_CACHE_SWEEP_INTERVAL_SECONDS)
+                        : 0);
+            }
+        });
+    }
+
+    /**
+     * Dispatches the optimize response event for the given get propositions request {@code event}.
+     *
+     * @param event {@link Event} containing the get propositions request.
+     * @param result {@link PropositionsCache.Result} of the cache lookup for the requested scopes.
+     */
+    private void dispatchGetPropositionsResponse(final Event event, final PropositionsCache.Result result) {
+        final List<Map<String, Object>> propositionsList = new ArrayList<>();
+        for (final Proposition proposition : result.getPropositions().values()) {
+            propositionsList.add(proposition.toEventData());
+        }
+        final Map<String, Object> responseEventData = new HashMap<>();
+        responseEventData.put(OptimizeConstants.EventDataKeys.PROPOSITIONS, propositionsList);
+
+        if (!result.getExpiredScopes().isEmpty()) {
+            final List<Map<String, Object>> expiredScopesList = new ArrayList<>();
+            for (final DecisionScope scope : result.getExpiredScopes()) {
+                expiredScopesList.add(scope.toEventData());
+            }
+            responseEventData.put(OptimizeConstants.EventDataKeys.EXPIRED_DECISION_SCOPES, expiredScopesList);
+        }
+
+        final Event responseEvent = new Event.Builder(OptimizeConstants.EventNames.OPTIMIZE_RESPONSE,
+                OptimizeConstants.EventType.OPTIMIZE,
+                OptimizeConstants.EventSource.RESPONSE_CONTENT)
+                .setEventData(responseEventData)
+                .build();
+        if (propositionsSharingEnabled) {
+            sharedPropositions.put(responseEvent, result.getPropositions());
+        }
+
+        MobileCore.dispatchResponseEvent(responseEvent, event, new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                        String.format("Failed to dispatch optimize response event due to an error (%s)!", extensionError.getErrorName()));
+            }
+        });
+    }
+
+    /**
+     * Requests the propositions for the scopes missing from the given {@code result} and defers the response to the get propositions
+     * request {@code event} until they are cached or {@code timeoutMillis} has elapsed.
+     * <p>
+     * The personalization query request is sent with {@link #fetchPropositions(Event, List, Runnable)}, so that the response is dispatched
+     * without waiting if the request is dropped by the executor, cannot be sent as the Configuration shared state is not available, or is
+     * short-circuited by the circuit breaker.
+     *
+     * @param event {@link Event} containing the get propositions request.
+     * @param scopes {@code List<DecisionScope>} containing all the requested scopes.
+     * @param result {@link PropositionsCache.Result} of the cache lookup for the requested {@code scopes}.
+     * @param timeoutMillis {@code long} containing the maximum time to wait for the missing propositions, in milliseconds.
+     */
+    private void fetchMissingPropositions(final Event event, final List<DecisionScope> scopes, final PropositionsCache.Result result,
+                                          final long timeoutMillis) {
+        final List<DecisionScope> missingScopes = new ArrayList<>();
+        for (final DecisionScope scope : scopes) {
+            if (!result.getPropositions().containsKey(scope)) {
+                missingScopes.add(scope);
+            }
+        }
+
+        final PendingGetRequest pendingRequest = new PendingGetRequest(event, scopes, missingScopes);
+        pendingGetRequests.add(pendingRequest);
+        pendingRequest.setDeadline(getScheduledExecutor().schedule(new Runnable() {
+            @Override
+            public void run() {
+                completePendingGetRequest(pendingRequest);
+            }
+        }, Math.max(timeoutMillis, 0), TimeUnit.MILLISECONDS));
+
+        // Propositions may have been cached by another request since the lookup.
+        if (pendingRequest.onPropositionsCached(cachedPropositions.getAll(missingScopes).getPropositions().keySet())) {
+            completePendingGetRequest(pendingRequest);
+            return;
+        }
+
+        MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                String.format("Fetching (%d) propositions missing from the cache for the get propositions request.", missingScopes.size()));
+        fetchPropositions(event, missingScopes, new Runnable() {
+            @Override
+            public void run() {
+                completePendingGetRequest(pendingRequest);
+            }
+        });
+    }
+
+    /**
+     * Completes the pending get propositions requests for which propositions have been cached for all the requested scopes.
+     *
+     * @param cachedScopes {@code Collection<DecisionScope>} for which propositions were cached.
+     */
+    private void completeFilledGetRequests(final Collection<DecisionScope> cachedScopes) {
+        for (final PendingGetRequest pendingRequest : pendingGetRequests) {
+            if (pendingRequest.onPropositionsCached(cachedScopes)) {
+                completePendingGetRequest(pendingRequest);
+            }
+        }
+    }
+
+    /**
+     * Answers the pending get propositions requests waiting for the propositions of any of the given {@code scopes} with the given {@code error}.
+     *
+     * @param scopes {@code Collection<DecisionScope>} for which the personalization query request failed.
+     * @param error {@link AdobeError} returned to the get propositions requests.
+     */
+    private void failWaitingGetRequests(final Collection<DecisionScope> scopes, final AdobeError error) {
+        for (final PendingGetRequest pendingRequest : pendingGetRequests) {
+            if (pendingRequest.isWaitingFor(scopes)) {
+                completePendingGetRequest(pendingRequest, error);
+            }
+        }
+    }
+
+    /**
+     * Dispatches the response to the given pending get propositions request with the currently cached propositions, unless already dispatched.
+     *
+     * @param pendingRequest {@link PendingGetRequest} to be completed.
+     */
+    private void completePendingGetRequest(final PendingGetRequest pendingRequest) {
+        completePendingGetRequest(pendingRequest, null);
+    }
+
+    /**
+     * Dispatches the response to the given pending get propositions request, unless already dispatched.
+     *
+     * @param pendingRequest {@link PendingGetRequest} to be completed.
+     * @param error {@link AdobeError} returned to the request, or null to return the currently cached propositions.
+     */
+    private void completePendingGetRequest(final PendingGetRequest pendingRequest, final AdobeError error) {
+        if (!pendingRequest.complete()) {
+            return;
+        }
+
+        pendingGetRequests.remove(pendingRequest);
+        if (error == null) {
+            dispatchGetPropositionsResponse(pendingRequest.getEvent(), cachedPropositions.getAll(pendingRequest.getScopes()));
+            return;
+        }
+        dispatchGetPropositionsError(pendingRequest.getEvent(), error);
+    }
+
+    /**
+     * Dispatches the optimize response event with the given {@code error} for the given get propositions request {@code event}.
+     *
+     * @param event {@link Event} containing the get propositions request.
+     * @param error {@link AdobeError} returned to the request.
+     */
+    private void dispatchGetPropositionsError(final Event event, final AdobeError error) {
+        MobileCore.dispatchResponseEvent(createResponseEventWithError(error), event, new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                        String.format("Failed to dispatch optimize response event due to an error (%s)!", extensionError.getErrorName()));
+            }
+        });
+    }
+
+    /**
+     * Requests updated propositions for the scopes in the given {@code result} which are expired or were cached at least {@code maxAgeMillis} ago.
+     * <p>
+     * A scope is not refreshed again until {@code maxAgeMillis} has elapsed since its previous refresh request, so that repeated reads do not
+     * issue duplicate requests while a refresh is pending. If the refresh request is not sent, the scopes may be refreshed by the next read.
+     *
+     * @param event {@link Event} containing the get propositions request.
+     * @param result {@link PropositionsCache.Result} of the cache lookup for the requested scopes.
+     * @param maxAgeMillis {@code long} containing the age in milliseconds after which a cached proposition is stale.
+     */
+    private void revalidateStalePropositions(final Event event, final PropositionsCache.Result result, final long maxAgeMillis) {
+        final long now = System.currentTimeMillis();
+        final List<DecisionScope> staleScopes = new ArrayList<>(result.getExpiredScopes());
+        for (final DecisionScope scope : result.getPropositions().keySet()) {
+            if (now - result.getWriteTimeMillis(scope) >= maxAgeMillis) {
+                staleScopes.add(scope);
+            }
+        }
+
+        final List<DecisionScope> revalidatedScopes = new ArrayList<>();
+        for (final DecisionScope scope : staleScopes) {
+            final Long previousRequestTime = revalidationRequestTimes.get(scope);
+            if (previousRequestTime != null && now - previousRequestTime < maxAgeMillis) {
+                continue;
+            }
+            revalidationRequestTimes.put(scope, now);
+            revalidatedScopes.add(scope);
+        }
+
+        if (revalidatedScopes.isEmpty()) {
+            return;
+        }
+
+        MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                String.format("Refreshing (%d) stale propositions in the background.", revalidatedScopes.size()));
+        fetchPropositions(event, revalidatedScopes, new Runnable() {
+            @Override
+            public void run() {
+                for (final DecisionScope scope : revalidatedScopes) {
+                    revalidationRequestTimes.remove(scope, now);
+                }
+            }
+        });
+    }
+
+    /**
+     * Requests the propositions for the given {@code scopes} from the Edge network on the extension executor, without update propositions event.
+     * <p>
+     * The request is not sent if the extension executor drops it, if the Configuration shared state versioned at the given {@code event} is
+     * not available, or if it is short-circuited by the circuit breaker. The given {@code notSentCallback} is then invoked, if any.
+     *
+     * @param event {@link Event} at which the Configuration shared state is read, or null to read the latest one.
+     * @param scopes {@code List<DecisionScope>} containing the valid decision scopes.
+     * @param notSentCallback {@link Runnable} invoked if the request is not sent, may be null.
+     */
+    private void fetchPropositions(final Event event, final List<DecisionScope> scopes, final Runnable notSentCallback) {
+        final List<String> scopeNames = new ArrayList<>();
+        for (final DecisionScope scope : scopes) {
+            scopeNames.add(scope.getName());
+        }
+        execute(ExecutorTaskMetrics.TASK_UPDATE, new DroppableTask() {
+            @Override
+            public void onDropped() {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot fetch the propositions, the extension executor dropped the request.");
+                notifyNotSent();
+            }
+
+            @Override
+            public void run() {
+                final Map<String, Object> configData = retrieveConfigurationSharedState(event);
+                if (OptimizeUtils.isNullOrEmpty(configData)) {
+                    MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot fetch the propositions, Configuration shared state is not available.");
+                    notifyNotSent();
+                    return;
+                }
+
+                final String overrideDatasetId = configData.containsKey(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID)
+                        ? (String) configData.get(OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID) : null;
+                if (!dispatchEdgePersonalizationRequest(scopeNames, null, null, overrideDatasetId, 1,
+                        Collections.<PersonalizationRequestTrace>emptyList())) {
+                    notifyNotSent();
+                }
+            }
+
+            private void notifyNotSent() {
+                if (notSentCallback != null) {
+                    notSentCallback.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Retrieves the requested {@code scopes}, neither cached in memory nor expired, for which propositions may be persisted on disk.
+     *
+     * @param scopes {@code List<DecisionScope>} containing the requested scopes.
+     * @param result {@link PropositionsCache.Result} of the in-memory cache lookup for the requested {@code scopes}.
+     * @return {@code List<DecisionScope>} containing the scopes to be restored, empty if persistence is disabled.
+     */
+    private List<DecisionScope> retrievePersistedScopes(final List<DecisionScope> scopes, final PropositionsCache.Result result) {
+        final List<DecisionScope> persistedScopes = new ArrayList<>();
+        if (!persistenceEnabled || propositionsStore == null) {
+            return persistedScopes;
+        }
+
+        for (final DecisionScope scope : scopes) {
+            if (!result.getPropositions().containsKey(scope) && !result.getExpiredScopes().contains(scope)
+                    && propositionsStore.mayContain(scope)) {
+                persistedScopes.add(scope);
+            }
+        }
+        return persistedScopes;
+    }
+
+    /**
+     * Reads the persisted propositions for the given {@code persistedScopes} on the storage executor, adds them to the cache and completes
+     * the get propositions request {@code event} on the extension executor.
+     * <p>
+     * The persisted propositions are not restored if the cache was cleared since the request was received, and they do not replace the
+     * propositions cached in the meantime.
+     *
+     * @param event {@link Event} containing the get propositions request.
+     * @param scopes {@code List<DecisionScope>} containing the valid requested scopes.
+     * @param persistedScopes {@code List<DecisionScope>} containing the requested scopes to be restored.
+     */
+    private void restorePersistedPropositions(final Event event, final List<DecisionScope> scopes, final List<DecisionScope> persistedScopes) {
+        final long requestClearCount = clearCount.get();
+        propositionsStore.load(persistedScopes, new AdobeCallback<Map<DecisionScope, PropositionsStore.Record>>() {
+            @Override
+            public void call(final Map<DecisionScope, PropositionsStore.Record> records) {
+                execute(ExecutorTaskMetrics.TASK_GET, new DroppableTask() {
+                    @Override
+                    public void onDropped() {
+                        dispatchGetPropositionsError(event, AdobeError.UNEXPECTED_ERROR);
+                    }
+
+                    @Override
+                    public void run() {
+                        if (clearCount.get() == requestClearCount) {
+                            for (final Map.Entry<DecisionScope, PropositionsStore.Record> record : records.entrySet()) {
+                                if (cachedPropositions.get(record.getKey()) != null) {
+                                    continue;
+                                }
+                                final Map<DecisionScope, Proposition> proposition = new HashMap<>();
+                                proposition.put(record.getKey(), record.getValue().getProposition());
+                                cachedPropositions.putAll(proposition, record.getValue().getWriteTimeMillis());
+                            }
+                        }
+                        completeGetPropositions(event, scopes, cachedPropositions.getAll(scopes));
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Invoked when the extension is unregistered, stops the propositions cache sweeper and the scheduled tasks, and shuts down the extension executors.
+     * <p>
+     * The tasks already queued on the extension, tracking, storage and journal executors are run, followed by the dispatch of the batched
+     * proposition interactions, and the tasks submitted afterwards are dropped. The get propositions requests still waiting for missing
+     * propositions are then answered with the cached propositions, and the get propositions requests dropped afterwards with an error. An executor provided with
+     * {@link Optimize#registerExtension(ExecutorService)} is not shut down, as it is owned by the app, only the serial lane running the
+     * extension tasks on it is.
+     */
+    @Override
+    protected void onUnregistered() {
+        if (registeredExtension == this) {
+            registeredExtension = null;
+        }
+        scheduleCacheSweeper(0);
+        synchronized (executorMutex) {
+            prefetchPaused = true;
+        }
+        schedulePrefetch();
+        if (trackingBatchWindowMillis > 0) {
+            execute(ExecutorTaskMetrics.TASK_TRACK, new Runnable() {
+                @Override
+                public void run() {
+                    flushInteractionBatches();
+                }
+            });
+        }
+        // The deadlines of the get propositions requests waiting for missing propositions are cancelled with the scheduled tasks.
+        execute(ExecutorTaskMetrics.TASK_OTHER, true, new Runnable() {
+            @Override
+            public void run() {
+                for (final PendingGetRequest pendingRequest : pendingGetRequests) {
+                    completePendingGetRequest(pendingRequest);
+                }
+            }
+        });
+
+        synchronized (executorMutex) {
+            if (executorService != null) {
+                executorService.shutdown();
+            }
+            if (trackingExecutorService != null) {
+                trackingExecutorService.shutdown();
+            }
+            if (scheduledExecutorService != null) {
+                scheduledExecutorService.shutdownNow();
+            }
+        }
+        storageExecutorService.shutdown();
+        journalExecutorService.shutdown();
+    }
+
+    /**
+     * Schedules the task removing the expired propositions from the cache, replacing any previously scheduled one.
+     * <p>
+     * The task is not rescheduled if the interval has not changed.
+     *
+     * @param intervalSeconds {@code long} containing the sweep interval in seconds, or 0 to stop the sweeper.
+     */
+    private void scheduleCacheSweeper(final long intervalSeconds) {
+        synchronized (executorMutex) {
+            if (cacheSweeper != null && intervalSeconds == cacheSweepIntervalSeconds) {
+                return;
+            }
+
+            if (cacheSweeper != null) {
+                cacheSweeper.cancel(false);
+                cacheSweeper = null;
+            }
+            cacheSweepIntervalSeconds = intervalSeconds;
+            if (intervalSeconds <= 0) {
+                return;
+            }
+
+            cacheSweeper = getScheduledExecutor().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    cachedPropositions.removeExpired();
+                }
+            }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Schedules the background prefetch of the decision scopes due next, replacing any previously scheduled one.
+     * <p>
+     * Nothing is scheduled while the prefetch is paused or if no decision scope is registered.
+     */
+    private void schedulePrefetch() {
+        synchronized (executorMutex) {
+            if (prefetchTask != null) {
+                prefetchTask.cancel(false);
+                prefetchTask = null;
+            }
+
+            final long nextFetchMillis = prefetchScheduler.getNextFetchMillis();
+            if (prefetchPaused || nextFetchMillis == PrefetchScheduler.NOT_SCHEDULED) {
+                return;
+            }
+
+            prefetchTask = getScheduledExecutor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    // The prefetch task schedules the next one, dropping it would stop the prefetch.
+                    execute(ExecutorTaskMetrics.TASK_OTHER, true, new Runnable() {
+                        @Override
+                        public void run() {
+                            prefetchDuePropositions();
+                        }
+                    });
+                }
+            }, Math.max(nextFetchMillis - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Requests the propositions for the decision scopes due for prefetch, and schedules the next prefetch.
+     * <p>
+     * The propositions are requested with the latest Configuration shared state, without update propositions event.
+     */
+    private void prefetchDuePropositions() {
+        synchronized (executorMutex) {
+            if (prefetchPaused) {
+                return;
+            }
+        }
+
+        final List<DecisionScope> dueScopes = prefetchScheduler.pollDue(System.currentTimeMillis());
+        if (!dueScopes.isEmpty()) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                    String.format("Prefetching propositions for (%d) decision scopes.", dueScopes.size()));
+            fetchPropositions(null, dueScopes, null);
+        }
+        schedulePrefetch();
+    }
+
+    /**
+     * Retrieves the valid decision scopes from the prefetch request {@code event}.
+     *
+     * @param event incoming prefetch request {@link Event}.
+     * @return {@code List<DecisionScope>} containing the valid decision scopes, or null if there is none.
+     */
+    private List<DecisionScope> retrievePrefetchDecisionScopes(final Event event) {
+        if (event == null || OptimizeUtils.isNullOrEmpty(event.getEventData())) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot process the prefetch request event, event is null or event data is null/ empty.");
+            return null;
+        }
+
+        final List<Map<String, Object>> decisionScopesData = (List<Map<String, Object>>) event.getEventData().get(OptimizeConstants.EventDataKeys.DECISION_SCOPES);
+        final List<String> validScopeNames = retrieveValidDecisionScopes(decisionScopesData);
+        if (OptimizeUtils.isNullOrEmpty(validScopeNames)) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot process the prefetch request event, provided list of decision scopes has no valid scope.");
+            return null;
+        }
+        return toDecisionScopes(validScopeNames);
+    }
+
+    /**
+     * Creates the {@code DecisionScope} objects for the given {@code scopeNames}.
+     *
+     * @param scopeNames {@code Collection<String>} containing the decision scope names.
+     * @return {@code List<DecisionScope>} containing the decision scopes.
+     */
+    private static List<DecisionScope> toDecisionScopes(final Collection<String> scopeNames) {
+        final List<DecisionScope> scopes = new ArrayList<>();
+        for (final String scopeName : scopeNames) {
+            scopes.add(new DecisionScope(scopeName));
+        }
+        return scopes;
+    }
+
+    /**
+     * Retrieves the {@code Configuration} shared state versioned at the current {@code event}.
+     *
+     * @param event incoming {@link Event} instance.
+     * @return {@code Map<String, Object>} containing configuration data.
+     */
+    Map<String, Object> retrieveConfigurationSharedState(final Event event) {
+        final ExtensionErrorCallback<ExtensionError> errorCallback = new ExtensionErrorCallback<ExtensionError>() {
+            @Override
+            public void error(final ExtensionError extensionError) {
+                MobileCore.log(LoggingMode.ERROR, LOG_TAG,
+                        String.format("Failed to read Configuration shared state due to an error (%s)!",
+                                extensionError.getErrorName()));
+            }
+        };
+
+        return getApi().getSharedEventState(OptimizeConstants.Configuration.EXTENSION_NAME, event, errorCallback);
+    }
+
+    /**
+     * Gets the {@code ExecutorService} instance that can execute this extension's tasks on a separate thread.
+     * <p>
+     * This prevents blocking the {@code EventHub} thread for long running extension tasks such as processing
+     * of incoming events.
+     *
+     * <p>
+     * Unless an executor was provided with {@link Optimize#registerExtension(ExecutorService)}, a single thread executor is created, queueing up
+     * to {@value #DEFAULT_EXECUTOR_QUEUE_CAPACITY} tasks. The tasks submitted while the queue is full are handled by the {@link TaskOverflowHandler}
+     * according to the configured overflow policy. The Edge response, clear and configuration tasks are never dropped, they are queued
+     * beyond the capacity instead, so that the submitting thread is never blocked.
+     * <p>
+     * A provided executor is wrapped in a {@link SerialExecutorService}, which runs the tasks one at a time and in submission order even if
+     * the executor has several threads. It queues up to {@value #DEFAULT_EXECUTOR_QUEUE_CAPACITY} tasks as well, and hands the tasks
+     * submitted while its queue is full to the same {@link TaskOverflowHandler}.
+     *
+     * @return {@link ExecutorService} instance for this extension.
+     */
+    ExecutorService getExecutor() {
+        synchronized (executorMutex) {
+            if (executorService == null) {
+                executorService = createBoundedExecutor(overflowHandler);
+            }
+
+            return executorService;
+        }
+    }
+
+    /**
+     * Gets the {@code ExecutorService} instance that runs this extension's proposition interaction tracking tasks.
+     * <p>
+     * Tracking runs in its own lane, so that a burst of proposition interactions does not delay the personalization requests and the Edge
+     * responses processing. Tracking tasks do not read or write the cached propositions, and they are run in submission order with respect
+     * to each other. Like the default extension executor, it queues up to {@value #DEFAULT_EXECUTOR_QUEUE_CAPACITY} tasks, and the reset
+     * task discarding the pending interactions is never dropped.
+     *
+     * @return {@link ExecutorService} instance for the tracking tasks.
+     */
+    ExecutorService getTrackingExecutor() {
+        synchronized (executorMutex) {
+            if (trackingExecutorService == null) {
+                trackingExecutorService = createBoundedExecutor(trackingOverflowHandler);
+            }
+
+            return trackingExecutorService;
+        }
+    }
+
+    private static ThreadPoolExecutor createBoundedExecutor(final TaskOverflowHandler overflowHandler) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ExecutorLaneQueue(DEFAULT_EXECUTOR_QUEUE_CAPACITY), Executors.defaultThreadFactory(), overflowHandler);
+    }
+
+    /**
+     * Submits the given {@code task} to the extension executor, recording its wait and run time under the given {@code taskType}.
+     * <p>
+     * Tasks of type {@value ExecutorTaskMetrics#TASK_TRACK} are submitted to the tracking executor, all the other tasks are submitted to
+     * the extension executor in order. A {@link DroppableTask} is notified if it is dropped, whether the executor rejects it or evicts it
+     * from its queue later on.
+     *
+     * @param taskType {@link String} containing the task type, one of the {@code ExecutorTaskMetrics} task types.
+     * @param task {@link Runnable} to be executed.
+     * @return {@code boolean} indicating whether the executor accepted the task, false if it threw a {@link RejectedExecutionException}.
+     * @see ExecutorMetrics#instrument(String, Runnable)
+     */
+    private boolean execute(final String taskType, final Runnable task) {
+        return executeInstrumented(taskType, executorMetrics.instrument(taskType, task));
+    }
+
+    /**
+     * Submits the given {@code task} to the extension executor, recording its wait and run time under the given {@code taskType}.
+     *
+     * @param taskType {@link String} containing the task type, one of the {@code ExecutorTaskMetrics} task types.
+     * @param critical {@code boolean} indicating whether the task must not be dropped when the executor queue is full.
+     * @param task {@link Runnable} to be executed.
+     * @return {@code boolean} indicating whether the executor accepted the task, false if it threw a {@link RejectedExecutionException}.
+     */
+    private boolean execute(final String taskType, final boolean critical, final Runnable task) {
+        return executeInstrumented(taskType, executorMetrics.instrument(taskType, task, critical));
+    }
+
+    private boolean executeInstrumented(final String taskType, final ExecutorMetrics.InstrumentedTask instrumentedTask) {
+        try {
+            (ExecutorTaskMetrics.TASK_TRACK.equals(taskType) ? getTrackingExecutor() : getExecutor()).execute(instrumentedTask);
+            return true;
+        } catch (final RejectedExecutionException e) {
+            executorMetrics.onRejected(instrumentedTask);
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                    String.format("Dropped an Optimize extension task of type (%s), the extension executor rejected it.", taskType));
+            instrumentedTask.onDropped();
+            return false;
+        }
+    }
+
+    /**
+     * Sets the {@code ExecutorService} used by the extension instances created from now on, instead of the default single thread executor.
+     *
+     * @param executor {@link ExecutorService} to run the extension tasks, or null to use the default executor.
+     */
+    static void setExecutorService(final ExecutorService executor) {
+        injectedExecutorService = executor;
+    }
+
+    /**
+     * Gets the {@code ScheduledExecutorService} instance that runs this extension's periodic tasks on a separate daemon thread.
+     * <p>
+     * The tasks scheduled after the extension is unregistered are dropped.
+     *
+     * @return {@link ScheduledExecutorService} instance for this extension.
+     */
+    ScheduledExecutorService getScheduledExecutor() {
+        synchronized (executorMutex) {
+            if (scheduledExecutorService == null) {
+                scheduledExecutorService = new ScheduledThreadPoolExecutor(1, OptimizeUtils.daemonThreadFactory("Optimize Scheduler"),
+                        new ThreadPoolExecutor.DiscardPolicy());
+            }
+
+            return scheduledExecutorService;
         }
     }
 
@@ -0,0 +1,287 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code OptimizeMetrics} class contains the propositions cache and personalization request counters of the Optimize extension, along with
+ * the extension executor queue metrics.
+ * <p>
+ * The counters and histograms are cumulative since the extension was registered; the number of cached entries, their estimated size and
+ * the number of queued tasks reflect the current state of the extension.
+ */
+public class OptimizeMetrics {
+    final private long cacheHits;
+    final private long cacheMisses;
+    final private long cacheEvictions;
+    final private int cacheEntries;
+    final private long cacheSizeBytes;
+    final private long requestsSent;
+    final private long responsesParsed;
+    final private long propositionsDropped;
+    final private long clears;
+    final private int queuedTasks;
+    final private int maxQueuedTasks;
+    final private Map<String, ExecutorTaskMetrics> taskMetrics;
+    final private long rejectedTasks;
+    final private long suppressedDisplays;
+
+    /**
+     * Constructor creates an {@code OptimizeMetrics} using the provided attributes.
+     *
+     * @param cacheHits {@code long} containing the number of requested decision scopes served from the cache.
+     * @param cacheMisses {@code long} containing the number of requested decision scopes without a cached proposition.
+     * @param cacheEvictions {@code long} containing the number of propositions evicted from the cache.
+     * @param cacheEntries {@code int} containing the number of cached propositions.
+     * @param cacheSizeBytes {@code long} containing the estimated size of the cached propositions in bytes.
+     * @param requestsSent {@code long} containing the number of personalization query requests sent to the Edge network.
+     * @param responsesParsed {@code long} containing the number of Edge personalization responses parsed.
+     * @param propositionsDropped {@code long} containing the number of received propositions dropped for having no valid offers.
+     * @param clears {@code long} containing the number of times the cached propositions were cleared.
+     * @param queuedTasks {@code int} containing the number of tasks waiting in the extension executor queue.
+     * @param maxQueuedTasks {@code int} containing the greatest number of tasks waiting in the extension executor queue at the same time.
+     * @param taskMetrics {@code Map<String, ExecutorTaskMetrics>} containing the wait and run time of the extension tasks by type.
+     * @param rejectedTasks {@code long} containing the number of extension tasks dropped as the extension executor queue was full or shut down.
+     * @param suppressedDisplays {@code long} containing the number of duplicate offer display interactions which were not sent.
+     */
+    OptimizeMetrics(final long cacheHits, final long cacheMisses, final long cacheEvictions, final int cacheEntries, final long cacheSizeBytes,
+                    final long requestsSent, final long responsesParsed, final long propositionsDropped, final long clears,
+                    final int queuedTasks, final int maxQueuedTasks, final Map<String, ExecutorTaskMetrics> taskMetrics,
+                    final long rejectedTasks, final long suppressedDisplays) {
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.cacheEvictions = cacheEvictions;
+        this.cacheEntries = cacheEntries;
+        this.cacheSizeBytes = cacheSizeBytes;
+        this.requestsSent = requestsSent;
+        this.responsesParsed = responsesParsed;
+        this.propositionsDropped = propositionsDropped;
+        this.clears = clears;
+        this.queuedTasks = queuedTasks;
+        this.maxQueuedTasks = maxQueuedTasks;
+        this.taskMetrics = taskMetrics != null ? Collections.unmodifiableMap(taskMetrics) : Collections.<String, ExecutorTaskMetrics>emptyMap();
+        this.rejectedTasks = rejectedTasks;
+        this.suppressedDisplays = suppressedDisplays;
+    }
+
+    /**
+     * Gets the number of decision scopes, requested through the get propositions APIs, which were served from the cache.
+     *
+     * @return {@code long} containing the number of cache hits.
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Gets the number of decision scopes, requested through the get propositions APIs, which had no unexpired cached proposition.
+     *
+     * @return {@code long} containing the number of cache misses.
+     */
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Gets the number of propositions evicted to keep the cache within its configured limits.
+     *
+     * @return {@code long} containing the number of evictions.
+     */
+    public long getCacheEvictions() {
+        return cacheEvictions;
+    }
+
+    /**
+     * Gets the number of propositions currently cached.
+     *
+     * @return {@code int} containing the number of cache entries.
+     */
+    public int getCacheEntries() {
+        return cacheEntries;
+    }
+
+    /**
+     * Gets the estimated retained size of the propositions currently cached.
+     *
+     * @return {@code long} containing the estimated size in bytes.
+     */
+    public long getCacheSizeBytes() {
+        return cacheSizeBytes;
+    }
+
+    /**
+     * Gets the number of personalization query requests sent to the Edge network, including the retries.
+     *
+     * @return {@code long} containing the number of requests.
+     */
+    public long getRequestsSent() {
+        return requestsSent;
+    }
+
+    /**
+     * Gets the number of Edge personalization responses parsed.
+     *
+     * @return {@code long} containing the number of responses.
+     */
+    public long getResponsesParsed() {
+        return responsesParsed;
+    }
+
+    /**
+     * Gets the number of propositions received from the Edge network which were not cached, as they were invalid or had no valid offers.
+     *
+     * @return {@code long} containing the number of dropped propositions.
+     */
+    public long getPropositionsDropped() {
+        return propositionsDropped;
+    }
+
+    /**
+     * Gets the number of times the cached propositions were cleared.
+     *
+     * @return {@code long} containing the number of clears.
+     */
+    public long getClears() {
+        return clears;
+    }
+
+    /**
+     * Gets the number of tasks waiting in the extension executor queue.
+     *
+     * @return {@code int} containing the number of queued tasks.
+     */
+    public int getQueuedTasks() {
+        return queuedTasks;
+    }
+
+    /**
+     * Gets the greatest number of tasks which waited in the extension executor queue at the same time.
+     *
+     * @return {@code int} containing the maximum number of queued tasks.
+     */
+    public int getMaxQueuedTasks() {
+        return maxQueuedTasks;
+    }
+
+    /**
+     * Gets the number of extension tasks which were dropped, as the extension executor queue was full or the executor was shut down.
+     *
+     * @return {@code long} containing the number of rejected tasks.
+     */
+    public long getRejectedTasks() {
+        return rejectedTasks;
+    }
+
+    /**
+     * Gets the number of offer display interactions which were not sent to the Edge network, as the offer was already displayed within the
+     * configured deduplication window.
+     *
+     * @return {@code long} containing the number of suppressed displays.
+     */
+    public long getSuppressedDisplays() {
+        return suppressedDisplays;
+    }
+
+    /**
+     * Gets the wait and run time of the extension tasks, keyed by task type.
+     *
+     * @return unmodifiable {@code Map<String, ExecutorTaskMetrics>} keyed by the {@code ExecutorTaskMetrics} task types.
+     */
+    public Map<String, ExecutorTaskMetrics> getTaskMetrics() {
+        return taskMetrics;
+    }
+
+    /**
+     * Gets the wait and run time of the extension tasks of the given type.
+     *
+     * @param taskType {@link String} containing one of the {@code ExecutorTaskMetrics} task types.
+     * @return {@link ExecutorTaskMetrics} for the given type, or null if not available.
+     */
+    public ExecutorTaskMetrics getTaskMetrics(final String taskType) {
+        return taskMetrics.get(taskType);
+    }
+
+    /**
+     * Creates an {@code OptimizeMetrics} object using information provided in {@code data} map.
+     * <p>
+     * This method returns null if the provided {@code data} is empty or null or if it does not contain the cache counters.
+     *
+     * @param data {@code Map<String, Object>} containing this {@code OptimizeMetrics} object's attributes.
+     * @return {@code OptimizeMetrics} object or null.
+     */
+    static OptimizeMetrics fromEventData(final Map<String, Object> data) {
+        if (OptimizeUtils.isNullOrEmpty(data)
+                || !data.containsKey(OptimizeConstants.EventDataKeys.CACHE_HITS)
+                || !data.containsKey(OptimizeConstants.EventDataKeys.CACHE_MISSES)) {
+            return null;
+        }
+
+        final Map<String, ExecutorTaskMetrics> taskMetrics = new HashMap<>();
+        for (final Map.Entry<String, Object> entry : OptimizeUtils.getMap(data, OptimizeConstants.EventDataKeys.EXECUTOR_TASKS).entrySet()) {
+            if (!(entry.getValue() instanceof Map)) {
+                continue;
+            }
+            final ExecutorTaskMetrics metrics = ExecutorTaskMetrics.fromEventData((Map<String, Object>) entry.getValue());
+            if (metrics != null) {
+                taskMetrics.put(entry.getKey(), metrics);
+            }
+        }
+
+        return new OptimizeMetrics(OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.CACHE_HITS, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.CACHE_MISSES, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.CACHE_EVICTIONS, 0),
+                (int) OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.CACHE_ENTRIES, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.CACHE_SIZE_BYTES, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.REQUESTS_SENT, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.RESPONSES_PARSED, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.PROPOSITIONS_DROPPED, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.CLEARS, 0),
+                (int) OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.QUEUED_TASKS, 0),
+                (int) OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.MAX_QUEUED_TASKS, 0),
+                taskMetrics,
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.REJECTED_TASKS, 0),
+                OptimizeUtils.getLong(data, OptimizeConstants.EventDataKeys.SUPPRESSED_DISPLAYS, 0));
+    }
+
+    /**
+     * Returns a {@code Map<String, Object>} containing this {@code OptimizeMetrics} object's attributes.
+     *
+     * @return {@code Map<String, Object>} containing {@link OptimizeMetrics} data.
+     */
+    Map<String, Object> toEventData() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(OptimizeConstants.EventDataKeys.CACHE_HITS, cacheHits);
+        map.put(OptimizeConstants.EventDataKeys.CACHE_MISSES, cacheMisses);
+        map.put(OptimizeConstants.EventDataKeys.CACHE_EVICTIONS, cacheEvictions);
+        map.put(OptimizeConstants.EventDataKeys.CACHE_ENTRIES, cacheEntries);
+        map.put(OptimizeConstants.EventDataKeys.CACHE_SIZE_BYTES, cacheSizeBytes);
+        map.put(OptimizeConstants.EventDataKeys.REQUESTS_SENT, requestsSent);
+        map.put(OptimizeConstants.EventDataKeys.RESPONSES_PARSED, responsesParsed);
+        map.put(OptimizeConstants.EventDataKeys.PROPOSITIONS_DROPPED, propositionsDropped);
+        map.put(OptimizeConstants.EventDataKeys.CLEARS, clears);
+        map.put(OptimizeConstants.EventDataKeys.QUEUED_TASKS, queuedTasks);
+        map.put(OptimizeConstants.EventDataKeys.MAX_QUEUED_TASKS, maxQueuedTasks);
+        map.put(OptimizeConstants.EventDataKeys.REJECTED_TASKS, rejectedTasks);
+        map.put(OptimizeConstants.EventDataKeys.SUPPRESSED_DISPLAYS, suppressedDisplays);
+
+        final Map<String, Object> executorTasks = new HashMap<>();
+        for (final Map.Entry<String, ExecutorTaskMetrics> entry : taskMetrics.entrySet()) {
+            executorTasks.put(entry.getKey(), entry.getValue().toEventData());
+        }
+        map.put(OptimizeConstants.EventDataKeys.EXECUTOR_TASKS, executorTasks);
+        return map;
+    }
+}
@@ -12,13 +12,31 @@
 
 package com.adobe.marketing.mobile.optimize;
 
+import android.Manifest;
+import android.annotation.TargetApi;
+import android.app.Application;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkInfo;
+import android.os.Build;
 import android.util.Base64;
 
 import com.adobe.marketing.mobile.LoggingMode;
 import com.adobe.marketing.mobile.MobileCore;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 
 import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
 
@@ -89,4 +107,243 @@ class OptimizeUtils {
         }
         return output;
     }
+
+    /**
+     * Gets the {@code long} value for the given {@code key} from the provided {@code map}.
+     * <p>
+     * This method returns the provided {@code defaultValue} if the {@code map} is null, or if the value for the {@code key} is absent or not a number.
+     *
+     * @param map input {@code Map<String, Object>}, for example configuration data.
+     * @param key {@link String} containing the key to be looked up.
+     * @param defaultValue {@code long} value to be returned if no valid value is found.
+     * @return {@code long} containing the value for the given {@code key}.
+     */
+    static long getLong(final Map<String, Object> map, final String key, final long defaultValue) {
+        if (map == null) {
+            return defaultValue;
+        }
+
+        final Object value = map.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+
+        if (value instanceof String) {
+            try {
+                return Long.parseLong((String) value);
+            } catch (final NumberFormatException ex) {
+                MobileCore.log(LoggingMode.DEBUG, LOG_TAG, String.format("Value (%s) for key (%s) is not a valid number.", value, key));
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Gets the {@code boolean} value for the given {@code key} from the provided {@code map}.
+     * <p>
+     * This method returns the provided {@code defaultValue} if the {@code map} is null, or if the value for the {@code key} is absent or not a boolean.
+     *
+     * @param map input {@code Map<String, Object>}, for example configuration data.
+     * @param key {@link String} containing the key to be looked up.
+     * @param defaultValue {@code boolean} value to be returned if no valid value is found.
+     * @return {@code boolean} containing the value for the given {@code key}.
+     */
+    static boolean getBoolean(final Map<String, Object> map, final String key, final boolean defaultValue) {
+        if (map == null) {
+            return defaultValue;
+        }
+
+        final Object value = map.get(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+
+        if (value instanceof String) {
+            return Boolean.parseBoolean((String) value);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Gets the {@code String} value for the given {@code key} from the provided {@code map}.
+     * <p>
+     * This method returns null if the {@code map} is null, or if the value for the {@code key} is absent or not a {@code String}.
+     *
+     * @param map input {@code Map<String, Object>}, for example configuration data.
+     * @param key {@link String} containing the key to be looked up.
+     * @return {@code String} containing the value for the given {@code key} or null.
+     */
+    static String getString(final Map<String, Object> map, final String key) {
+        if (map == null) {
+            return null;
+        }
+
+        final Object value = map.get(key);
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * Gets the {@code List<String>} value for the given {@code key} from the provided {@code map}.
+     * <p>
+     * Non-string elements in the list are ignored. This method returns an empty list if the {@code map} is null, or if the value
+     * for the {@code key} is absent or not a list.
+     *
+     * @param map input {@code Map<String, Object>}, for example configuration data.
+     * @param key {@link String} containing the key to be looked up.
+     * @return {@code List<String>} containing the values for the given {@code key}.
+     */
+    static List<String> getStringList(final Map<String, Object> map, final String key) {
+        final List<String> values = new ArrayList<>();
+        if (map == null || !(map.get(key) instanceof List)) {
+            return values;
+        }
+
+        for (final Object value : (List<?>) map.get(key)) {
+            if (value instanceof String) {
+                values.add((String) value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gets the {@code Map<String, Object>} value for the given {@code key} from the provided {@code map}.
+     * <p>
+     * Entries with non-string keys are ignored. This method returns an empty map if the {@code map} is null, or if the value
+     * for the {@code key} is absent or not a map.
+     *
+     * @param map input {@code Map<String, Object>}, for example configuration data.
+     * @param key {@link String} containing the key to be looked up.
+     * @return {@code Map<String, Object>} containing the value for the given {@code key}.
+     */
+    static Map<String, Object> getMap(final Map<String, Object> map, final String key) {
+        final Map<String, Object> values = new HashMap<>();
+        if (map == null || !(map.get(key) instanceof Map)) {
+            return values;
+        }
+
+        for (final Map.Entry<?, ?> entry : ((Map<?, ?>) map.get(key)).entrySet()) {
+            if (entry.getKey() instanceof String) {
+                values.put((String) entry.getKey(), entry.getValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Creates a deep copy of the given {@code value} which cannot be modified, the nested maps and lists being copied and wrapped as well.
+     *
+     * @param value {@link Object} to be copied, may be null.
+     * @return {@code Object} containing the unmodifiable copy, or the given {@code value} if it is neither a map nor a list.
+     */
+    static Object unmodifiableDeepCopy(final Object value) {
+        if (value instanceof Map) {
+            final Map<Object, Object> copy = new LinkedHashMap<>();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), unmodifiableDeepCopy(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List) {
+            final List<Object> copy = new ArrayList<>();
+            for (final Object item : (List<?>) value) {
+                copy.add(unmodifiableDeepCopy(item));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    /**
+     * Creates a {@code ThreadFactory} for daemon threads, which do not prevent the application process from exiting.
+     *
+     * @param name {@link String} containing the thread name.
+     * @return {@link ThreadFactory} instance.
+     */
+    static ThreadFactory daemonThreadFactory(final String name) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Checks whether the device is connected to a network.
+     * <p>
+     * The {@code ACCESS_NETWORK_STATE} permission is declared in the extension manifest. This method returns true if the connectivity cannot
+     * be determined, for instance if the application context is not available or the permission has been removed by the app manifest.
+     *
+     * @return {@code boolean} indicating whether a network connection is available.
+     */
+    static boolean isNetworkAvailable() {
+        final Application application = MobileCore.getApplication();
+        final Context context = application != null ? application.getApplicationContext() : null;
+        if (context == null || context.checkCallingOrSelfPermission(Manifest.permission.ACCESS_NETWORK_STATE) != PackageManager.PERMISSION_GRANTED) {
+            return true;
+        }
+
+        final ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return true;
+        }
+
+        try {
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                    ? hasInternetCapability(connectivityManager) : isActiveNetworkConnected(connectivityManager);
+        } catch (final SecurityException e) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Cannot read the network connectivity, assuming it is available.");
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether the active network provides internet access, on API level 23 and above.
+     *
+     * @param connectivityManager {@link ConnectivityManager} instance.
+     * @return {@code boolean} indicating whether a network connection is available.
+     */
+    @TargetApi(Build.VERSION_CODES.M)
+    private static boolean hasInternetCapability(final ConnectivityManager connectivityManager) {
+        final Network network = connectivityManager.getActiveNetwork();
+        final NetworkCapabilities capabilities = network != null ? connectivityManager.getNetworkCapabilities(network) : null;
+        return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    }
+
+    /**
+     * Checks whether the active network is connected, below API level 23 where the network capabilities are not available.
+     *
+     * @param connectivityManager {@link ConnectivityManager} instance.
+     * @return {@code boolean} indicating whether a network connection is available.
+     */
+    @SuppressWarnings("deprecation")
+    private static boolean isActiveNetworkConnected(final ConnectivityManager connectivityManager) {
+        final NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+        return networkInfo != null && networkInfo.isConnected();
+    }
+
+    /**
+     * Runs the given {@code task} using the provided {@code executor}.
+     * <p>
+     * The task is run on the calling thread if the {@code executor} is null or if it rejects the task, so that it is never dropped.
+     *
+     * @param executor {@link Executor} to run the task, may be null.
+     * @param task {@link Runnable} to be run.
+     */
+    static void execute(final Executor executor, final Runnable task) {
+        if (executor == null) {
+            task.run();
+            return;
+        }
+
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "The provided callback executor rejected the callback, it is invoked on the calling thread.");
+            task.run();
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.Event;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code PendingGetRequest} class tracks a get propositions request waiting for the propositions of some of its decision scopes
+ * to be fetched from the Experience Edge network.
+ */
+class PendingGetRequest {
+    private final Event event;
+    private final List<DecisionScope> scopes;
+    private final Set<DecisionScope> missingScopes;
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile ScheduledFuture<?> deadline;
+
+    /**
+     * Constructor creates a {@code PendingGetRequest} for the given request {@code event}.
+     *
+     * @param event {@link Event} containing the get propositions request.
+     * @param scopes {@code List<DecisionScope>} containing all the requested scopes.
+     * @param missingScopes {@code Collection<DecisionScope>} containing the requested scopes not yet cached.
+     */
+    PendingGetRequest(final Event event, final List<DecisionScope> scopes, final Collection<DecisionScope> missingScopes) {
+        this.event = event;
+        this.scopes = scopes;
+        this.missingScopes = new HashSet<>(missingScopes);
+    }
+
+    /**
+     * Gets the get propositions request event.
+     *
+     * @return {@link Event} containing the request.
+     */
+    Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Gets all the requested scopes.
+     *
+     * @return {@code List<DecisionScope>} containing the requested scopes.
+     */
+    List<DecisionScope> getScopes() {
+        return scopes;
+    }
+
+    /**
+     * Sets the task completing this request once its deadline has passed, which is cancelled if the request completes earlier.
+     *
+     * @param deadline {@link ScheduledFuture} for the deadline task.
+     */
+    void setDeadline(final ScheduledFuture<?> deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Records that propositions were cached for the given {@code scopes}.
+     *
+     * @param cachedScopes {@code Collection<DecisionScope>} for which propositions were cached.
+     * @return {@code boolean} indicating whether propositions have been cached for all the requested scopes.
+     */
+    boolean onPropositionsCached(final Collection<DecisionScope> cachedScopes) {
+        synchronized (missingScopes) {
+            missingScopes.removeAll(cachedScopes);
+            return missingScopes.isEmpty();
+        }
+    }
+
+    /**
+     * Checks whether this request is waiting for the propositions of any of the given {@code scopes}.
+     *
+     * @param scopes {@code Collection<DecisionScope>} to be checked.
+     * @return {@code boolean} indicating whether propositions are still missing for one of the {@code scopes}.
+     */
+    boolean isWaitingFor(final Collection<DecisionScope> scopes) {
+        synchronized (missingScopes) {
+            for (final DecisionScope scope : scopes) {
+                if (missingScopes.contains(scope)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Marks this request as completed, cancelling its deadline.
+     *
+     * @return {@code boolean} indicating whether the request was completed by this call, false if it had already been completed.
+     */
+    boolean complete() {
+        if (!completed.compareAndSet(false, true)) {
+            return false;
+        }
+
+        final ScheduledFuture<?> scheduledDeadline = deadline;
+        if (scheduledDeadline != null) {
+            scheduledDeadline.cancel(false);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+/**
+ * {@code PersonalizationRequestTrace} class contains the timestamps, in milliseconds, at which an update propositions request went through
+ * each stage of its lifecycle.
+ * <p>
+ * The stages are, in order: the request event dispatch by {@link Optimize#updatePropositions(java.util.List, java.util.Map, java.util.Map)},
+ * the start of its processing on the extension thread, the personalization query event dispatch to the Edge network, the Edge response receipt,
+ * the start of the response processing on the extension thread, the propositions cache write and the propositions notification dispatch.
+ * A stage which the request did not reach has a timestamp of {@value #NOT_RECORDED}, for instance when no propositions are returned or when
+ * the Edge request fails.
+ */
+public class PersonalizationRequestTrace {
+    /** Timestamp of a stage which has not been reached. */
+    public static final long NOT_RECORDED = 0;
+
+    private final String requestId;
+    private final long requestDispatchMillis;
+    private final long requestStartMillis;
+    private String edgeRequestId;
+    private long edgeRequestDispatchMillis;
+    private long edgeResponseReceiptMillis;
+    private long edgeResponseStartMillis;
+    private long cacheWriteMillis;
+    private long notificationDispatchMillis;
+
+    /**
+     * Constructor creates a {@code PersonalizationRequestTrace} for a request whose processing has started.
+     *
+     * @param requestId {@link String} containing the unique identifier of the update propositions request event.
+     * @param requestDispatchMillis {@code long} containing the time at which the request event was dispatched.
+     * @param requestStartMillis {@code long} containing the time at which the request processing started.
+     */
+    PersonalizationRequestTrace(final String requestId, final long requestDispatchMillis, final long requestStartMillis) {
+        this.requestId = requestId;
+        this.requestDispatchMillis = requestDispatchMillis;
+        this.requestStartMillis = requestStartMillis;
+    }
+
+    /**
+     * Gets the unique identifier of the update propositions request event.
+     *
+     * @return {@link String} containing the request identifier.
+     */
+    public String getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Gets the unique identifier of the personalization query event dispatched to the Edge network.
+     * <p>
+     * Update propositions requests merged into a single Edge request share the same identifier.
+     *
+     * @return {@link String} containing the Edge request identifier, or null if no Edge request was dispatched.
+     */
+    public String getEdgeRequestId() {
+        return edgeRequestId;
+    }
+
+    /**
+     * Gets the time at which the update propositions request event was dispatched.
+     *
+     * @return {@code long} containing the timestamp in milliseconds.
+     */
+    public long getRequestDispatchMillis() {
+        return requestDispatchMillis;
+    }
+
+    /**
+     * Gets the time at which the update propositions request processing started on the extension thread.
+     *
+     * @return {@code long} containing the timestamp in milliseconds.
+     */
+    public long getRequestStartMillis() {
+        return requestStartMillis;
+    }
+
+    /**
+     * Gets the time at which the personalization query event was dispatched to the Edge network.
+     * <p>
+     * If the request was retried, this is the dispatch time of the last attempt.
+     *
+     * @return {@code long} containing the timestamp in milliseconds, or {@value #NOT_RECORDED}.
+     */
+    public long getEdgeRequestDispatchMillis() {
+        return edgeRequestDispatchMillis;
+    }
+
+    /**
+     * Gets the time at which the Edge personalization response was received.
+     *
+     * @return {@code long} containing the timestamp in milliseconds, or {@value #NOT_RECORDED}.
+     */
+    public long getEdgeResponseReceiptMillis() {
+        return edgeResponseReceiptMillis;
+    }
+
+    /**
+     * Gets the time at which the Edge personalization response processing started on the extension thread.
+     *
+     * @return {@code long} containing the timestamp in milliseconds, or {@value #NOT_RECORDED}.
+     */
+    public long getEdgeResponseStartMillis() {
+        return edgeResponseStartMillis;
+    }
+
+    /**
+     * Gets the time at which the received propositions were written to the cache.
+     *
+     * @return {@code long} containing the timestamp in milliseconds, or {@value #NOT_RECORDED}.
+     */
+    public long getCacheWriteMillis() {
+        return cacheWriteMillis;
+    }
+
+    /**
+     * Gets the time at which the propositions notification event was dispatched.
+     *
+     * @return {@code long} containing the timestamp in milliseconds, or {@value #NOT_RECORDED}.
+     */
+    public long getNotificationDispatchMillis() {
+        return notificationDispatchMillis;
+    }
+
+    /**
+     * Gets the time the request event waited in the extension queue before being processed.
+     *
+     * @return {@code long} containing the duration in milliseconds, or -1 if not available.
+     */
+    public long getRequestQueueMillis() {
+        return duration(requestDispatchMillis, requestStartMillis);
+    }
+
+    /**
+     * Gets the time between the start of the request processing and the Edge request dispatch, including any coalescing window
+     * and retry delay.
+     *
+     * @return {@code long} containing the duration in milliseconds, or -1 if not available.
+     */
+    public long getEdgeRequestPreparationMillis() {
+        return duration(requestStartMillis, edgeRequestDispatchMillis);
+    }
+
+    /**
+     * Gets the time the Edge network took to respond to the personalization query.
+     *
+     * @return {@code long} containing the duration in milliseconds, or -1 if not available.
+     */
+    public long getEdgeLatencyMillis() {
+        return duration(edgeRequestDispatchMillis, edgeResponseReceiptMillis);
+    }
+
+    /**
+     * Gets the time the Edge response waited in the extension queue before being processed.
+     *
+     * @return {@code long} containing the duration in milliseconds, or -1 if not available.
+     */
+    public long getEdgeResponseQueueMillis() {
+        return duration(edgeResponseReceiptMillis, edgeResponseStartMillis);
+    }
+
+    /**
+     * Gets the time taken to parse the Edge response and write the propositions to the cache.
+     *
+     * @return {@code long} containing the duration in milliseconds, or -1 if not available.
+     */
+    public long getCacheWriteDurationMillis() {
+        return duration(edgeResponseStartMillis, cacheWriteMillis);
+    }
+
+    /**
+     * Gets the time between the cache write and the propositions notification dispatch.
+     *
+     * @return {@code long} containing the duration in milliseconds, or -1 if not available.
+     */
+    public long getNotificationDurationMillis() {
+        return duration(cacheWriteMillis, notificationDispatchMillis);
+    }
+
+    /**
+     * Gets the time between the request event dispatch and the propositions notification dispatch.
+     *
+     * @return {@code long} containing the duration in milliseconds, or -1 if not available.
+     */
+    public long getTotalDurationMillis() {
+        return duration(requestDispatchMillis, notificationDispatchMillis);
+    }
+
+    void setEdgeRequestDispatched(final String edgeRequestId, final long timeMillis) {
+        this.edgeRequestId = edgeRequestId;
+        this.edgeRequestDispatchMillis = timeMillis;
+    }
+
+    void setEdgeResponseReceiptMillis(final long timeMillis) {
+        this.edgeResponseReceiptMillis = timeMillis;
+    }
+
+    void setEdgeResponseStartMillis(final long timeMillis) {
+        this.edgeResponseStartMillis = timeMillis;
+    }
+
+    void setCacheWriteMillis(final long timeMillis) {
+        this.cacheWriteMillis = timeMillis;
+    }
+
+    void setNotificationDispatchMillis(final long timeMillis) {
+        this.notificationDispatchMillis = timeMillis;
+    }
+
+    private static long duration(final long startMillis, final long endMillis) {
+        if (startMillis == NOT_RECORDED || endMillis == NOT_RECORDED) {
+            return -1;
+        }
+        return endMillis - startMillis;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+/**
+ * {@code PersonalizationRequestTracer} interface can be set using {@link Optimize#setTracer(PersonalizationRequestTracer)} to receive
+ * the stage timestamps of the update propositions requests.
+ */
+public interface PersonalizationRequestTracer {
+    /**
+     * Invoked once the propositions notification has been dispatched for a traced request, or once the request has ended without it.
+     * <p>
+     * This method is called on the Optimize extension thread, or on the thread submitting a request which the extension dropped, and
+     * should return quickly.
+     *
+     * @param trace {@link PersonalizationRequestTrace} containing the stage timestamps of the request.
+     */
+    void onRequestTraced(final PersonalizationRequestTrace trace);
+}
@@ -0,0 +1,163 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * {@code PrefetchScheduler} class keeps track of the decision scopes registered for background prefetch and computes when their
+ * propositions should be fetched again.
+ * <p>
+ * Each refresh is delayed by the scope's refresh interval, randomized by up to {@value #JITTER_PERCENT} percent so that the requests
+ * of many clients are spread out. After consecutive failed requests for a scope, the delay is doubled for each failure, up to
+ * {@value #MAX_BACKOFF_MILLIS} milliseconds or the refresh interval, whichever is greater.
+ */
+class PrefetchScheduler {
+    static final long NOT_SCHEDULED = -1;
+    private static final int JITTER_PERCENT = 10;
+    private static final long MAX_BACKOFF_MILLIS = 3600000;
+    private static final int MAX_BACKOFF_EXPONENT = 16;
+
+    private final Random random;
+    private final Map<DecisionScope, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Constructor creates {@code PrefetchScheduler} using the provided {@code random} to compute the jitter.
+     *
+     * @param random {@link Random} instance.
+     */
+    PrefetchScheduler(final Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Registers the given decision scopes for prefetch with the given refresh interval.
+     * <p>
+     * The newly registered scopes are due immediately, whereas the scopes already registered keep their next fetch time.
+     *
+     * @param scopes {@code Collection<DecisionScope>} containing the decision scopes to be prefetched.
+     * @param intervalMillis {@code long} containing the refresh interval in milliseconds.
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     */
+    synchronized void register(final Collection<DecisionScope> scopes, final long intervalMillis, final long nowMillis) {
+        for (final DecisionScope scope : scopes) {
+            final Entry entry = entries.get(scope);
+            if (entry != null) {
+                entry.intervalMillis = intervalMillis;
+            } else {
+                entries.put(scope, new Entry(intervalMillis, nowMillis));
+            }
+        }
+    }
+
+    /**
+     * Unregisters the given decision scopes from prefetch.
+     *
+     * @param scopes {@code Collection<DecisionScope>} containing the decision scopes to be removed.
+     */
+    synchronized void unregister(final Collection<DecisionScope> scopes) {
+        entries.keySet().removeAll(scopes);
+    }
+
+    /**
+     * Returns the decision scopes due for fetch, scheduling their next fetch after their refresh interval.
+     *
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     * @return {@code List<DecisionScope>} containing the decision scopes to be fetched.
+     */
+    synchronized List<DecisionScope> pollDue(final long nowMillis) {
+        final List<DecisionScope> dueScopes = new ArrayList<>();
+        for (final Map.Entry<DecisionScope, Entry> entry : entries.entrySet()) {
+            final Entry scheduledEntry = entry.getValue();
+            if (scheduledEntry.nextFetchMillis <= nowMillis) {
+                dueScopes.add(entry.getKey());
+                scheduledEntry.nextFetchMillis = nowMillis + jitter(scheduledEntry.intervalMillis);
+            }
+        }
+        return dueScopes;
+    }
+
+    /**
+     * Resets the backoff of the given decision scopes after their propositions have been received.
+     *
+     * @param scopes {@code Collection<DecisionScope>} containing the fetched decision scopes.
+     */
+    synchronized void onSuccess(final Collection<DecisionScope> scopes) {
+        for (final DecisionScope scope : scopes) {
+            final Entry entry = entries.get(scope);
+            if (entry != null) {
+                entry.failures = 0;
+            }
+        }
+    }
+
+    /**
+     * Backs off the next fetch of the given decision scopes after their request has failed.
+     *
+     * @param scopes {@code Collection<DecisionScope>} containing the decision scopes of the failed request.
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     */
+    synchronized void onFailure(final Collection<DecisionScope> scopes, final long nowMillis) {
+        for (final DecisionScope scope : scopes) {
+            final Entry entry = entries.get(scope);
+            if (entry == null) {
+                continue;
+            }
+
+            if (entry.failures < MAX_BACKOFF_EXPONENT) {
+                entry.failures++;
+            }
+            final long backoffMillis = Math.max(entry.intervalMillis, Math.min(entry.intervalMillis << entry.failures, MAX_BACKOFF_MILLIS));
+            entry.nextFetchMillis = nowMillis + jitter(backoffMillis);
+        }
+    }
+
+    /**
+     * Returns the earliest next fetch time of the registered decision scopes.
+     *
+     * @return {@code long} containing the next fetch time in milliseconds, or {@value #NOT_SCHEDULED} if no scope is registered.
+     */
+    synchronized long getNextFetchMillis() {
+        long nextFetchMillis = NOT_SCHEDULED;
+        for (final Entry entry : entries.values()) {
+            if (nextFetchMillis == NOT_SCHEDULED || entry.nextFetchMillis < nextFetchMillis) {
+                nextFetchMillis = entry.nextFetchMillis;
+            }
+        }
+        return nextFetchMillis;
+    }
+
+    private long jitter(final long delayMillis) {
+        final long maxJitterMillis = delayMillis * JITTER_PERCENT / 100;
+        if (maxJitterMillis <= 0) {
+            return delayMillis;
+        }
+        return delayMillis - maxJitterMillis + (long) (random.nextDouble() * 2 * maxJitterMillis);
+    }
+
+    private static final class Entry {
+        private long intervalMillis;
+        private long nextFetchMillis;
+        private int failures;
+
+        private Entry(final long intervalMillis, final long nextFetchMillis) {
+            this.intervalMillis = intervalMillis;
+            this.nextFetchMillis = nextFetchMillis;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import com.adobe.marketing.mobile.MobileCore;
 
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,7 @@ public class Proposition {
     final private List<Offer> offers;
     final private String scope;
     final private Map<String, Object> scopeDetails;
+    final private boolean immutable;
 
     /**
      * Constructor creates a {@code Proposition} using the provided proposition {@code id}, {@code offers}, {@code scope} and {@code scopeDetails}.
@@ -39,9 +41,14 @@ public class Proposition {
      * @param scopeDetails {@code Map<String, Object>} containing scope details.
      */
     Proposition(final String id, final List<Offer> offers, final String scope, final Map<String, Object> scopeDetails) {
+        this(id, offers, scope, scopeDetails, false);
+    }
+
+    private Proposition(final String id, final List<Offer> offers, final String scope, final Map<String, Object> scopeDetails, final boolean immutable) {
         this.id = id != null ? id : "";
         this.scope = scope != null ? scope : "";
         this.scopeDetails = scopeDetails != null ? scopeDetails : new HashMap<String, Object>();
+        this.immutable = immutable;
 
         this.offers = offers != null ? offers : new ArrayList<Offer>();
         // Setting a soft reference to Proposition in each Offer
@@ -153,6 +160,28 @@ public class Proposition {
         }
     }
 
+    /**
+     * Creates a copy of this {@code Proposition} which cannot be modified, so that it can be shared between the cache and the API callbacks.
+     * <p>
+     * The offers and the scope details are not modifiable in the copy, including the offers' metadata, language and characteristics and
+     * the nested maps and lists. This {@code Proposition} is returned if it cannot be modified already.
+     *
+     * @return {@link Proposition} immutable copy.
+     */
+    @SuppressWarnings("unchecked")
+    Proposition freeze() {
+        if (immutable) {
+            return this;
+        }
+
+        final List<Offer> immutableOffers = new ArrayList<>();
+        for (final Offer offer : offers) {
+            immutableOffers.add(offer.freeze());
+        }
+        return new Proposition(id, Collections.unmodifiableList(immutableOffers), scope,
+                (Map<String, Object>) OptimizeUtils.unmodifiableDeepCopy(scopeDetails), true);
+    }
+
     /**
      * Creates a {@code Map<String, Object>} using this {@code Proposition}'s attributes.
      *
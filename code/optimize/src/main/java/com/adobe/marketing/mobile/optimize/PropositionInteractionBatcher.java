@@ -0,0 +1,182 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@code PropositionInteractionBatcher} class collects the proposition interactions tracked within a time window, merging the interactions
+ * with the same Experience Event type and override {@code datasetId} into a single Experience Event listing all their propositions under
+ * {@code _experience.decisioning.propositions}.
+ * <p>
+ * Only the interaction XDM generated by {@link Offer#displayed()} and {@link Offer#tapped()}, containing nothing but the event type and
+ * the decisioning propositions, can be merged.
+ */
+class PropositionInteractionBatcher {
+    static final int NOT_BATCHABLE = -1;
+
+    private final Map<Key, Batch> pendingBatches = new LinkedHashMap<>();
+    private int pendingCount;
+
+    /**
+     * Adds a proposition interaction to be merged with the pending interactions of the same type.
+     *
+     * @param interactionXdm {@code Map<String, Object>} containing the XDM data for the proposition interaction.
+     * @param datasetId {@link String} containing the override dataset identifier, may be null.
+     * @return {@code int} containing the number of pending interactions including this one, or {@value #NOT_BATCHABLE} if the
+     * interaction XDM cannot be merged and should be sent on its own.
+     */
+    synchronized int add(final Map<String, Object> interactionXdm, final String datasetId) {
+        final List<Object> propositions = getBatchablePropositions(interactionXdm);
+        if (propositions == null) {
+            return NOT_BATCHABLE;
+        }
+
+        final Key key = new Key((String) interactionXdm.get(OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE), datasetId);
+        Batch batch = pendingBatches.get(key);
+        if (batch == null) {
+            batch = new Batch(key.eventType, key.datasetId);
+            pendingBatches.put(key, batch);
+        }
+        batch.propositions.addAll(propositions);
+        batch.interactionCount++;
+        return ++pendingCount;
+    }
+
+    /**
+     * Removes and returns the merged pending interactions, in the order they were first added.
+     *
+     * @return {@code List<Batch>} containing the merged interactions.
+     */
+    synchronized List<Batch> drain() {
+        final List<Batch> batches = new ArrayList<>(pendingBatches.values());
+        pendingBatches.clear();
+        pendingCount = 0;
+        return batches;
+    }
+
+    /**
+     * Gets the number of interactions waiting to be sent.
+     *
+     * @return {@code int} containing the number of pending interactions.
+     */
+    synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Retrieves the decisioning propositions from the given {@code interactionXdm}, if it contains no other data to be preserved.
+     *
+     * @param interactionXdm {@code Map<String, Object>} containing the XDM data for the proposition interaction.
+     * @return {@code List<Object>} containing the decisioning propositions, or null if the interaction cannot be merged.
+     */
+    private static List<Object> getBatchablePropositions(final Map<String, Object> interactionXdm) {
+        if (interactionXdm == null || interactionXdm.size() != 2
+                || !(interactionXdm.get(OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE) instanceof String)
+                || !(interactionXdm.get(OptimizeConstants.JsonKeys.EXPERIENCE) instanceof Map)) {
+            return null;
+        }
+
+        final Map<?, ?> experience = (Map<?, ?>) interactionXdm.get(OptimizeConstants.JsonKeys.EXPERIENCE);
+        if (experience.size() != 1 || !(experience.get(OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING) instanceof Map)) {
+            return null;
+        }
+
+        final Map<?, ?> decisioning = (Map<?, ?>) experience.get(OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING);
+        if (decisioning.size() != 1 || !(decisioning.get(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS) instanceof List)) {
+            return null;
+        }
+
+        return (List<Object>) decisioning.get(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS);
+    }
+
+    private static final class Key {
+        private final String eventType;
+        private final String datasetId;
+
+        private Key(final String eventType, final String datasetId) {
+            this.eventType = eventType;
+            this.datasetId = datasetId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            final Key that = (Key) o;
+            return eventType.equals(that.eventType) && Objects.equals(datasetId, that.datasetId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventType, datasetId);
+        }
+    }
+
+    /**
+     * {@code Batch} class contains the merged proposition interactions of the same Experience Event type.
+     */
+    static final class Batch {
+        private final String eventType;
+        private final String datasetId;
+        private final List<Object> propositions = new ArrayList<>();
+        private int interactionCount;
+
+        private Batch(final String eventType, final String datasetId) {
+            this.eventType = eventType;
+            this.datasetId = datasetId;
+        }
+
+        /**
+         * Gets the XDM data for the Experience Event containing the propositions of all the merged interactions.
+         *
+         * @return {@code Map<String, Object>} containing the merged XDM data.
+         */
+        Map<String, Object> getXdm() {
+            final Map<String, Object> experienceDecisioning = new HashMap<>();
+            experienceDecisioning.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS, new ArrayList<>(propositions));
+
+            final Map<String, Object> experience = new HashMap<>();
+            experience.put(OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING, experienceDecisioning);
+
+            final Map<String, Object> xdm = new HashMap<>();
+            xdm.put(OptimizeConstants.JsonKeys.EXPERIENCE, experience);
+            xdm.put(OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE, eventType);
+            return xdm;
+        }
+
+        /**
+         * Gets the override dataset identifier shared by the merged interactions.
+         *
+         * @return {@link String} containing the dataset identifier, or null.
+         */
+        String getDatasetId() {
+            return datasetId;
+        }
+
+        /**
+         * Gets the number of merged interactions.
+         *
+         * @return {@code int} containing the number of interactions.
+         */
+        int getInteractionCount() {
+            return interactionCount;
+        }
+    }
+}
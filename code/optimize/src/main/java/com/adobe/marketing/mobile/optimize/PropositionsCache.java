@@ -0,0 +1,563 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
+
+/**
+ * {@code PropositionsCache} class holds the propositions previously fetched from the Experience Edge network.
+ * <p>
+ * The cache content is published as immutable, versioned {@link Snapshot}s. Readers obtain the current snapshot without locking
+ * and writers publish a new snapshot atomically, so a reader never observes a partially applied update.
+ * <p>
+ * The cache can be bounded by number of entries and by estimated retained size. When a bound is exceeded, the configured
+ * {@link CacheEvictionPolicy} selects the propositions to be evicted. Pinned scopes are never evicted.
+ * <p>
+ * Cached propositions can also expire after a time-to-live, configured globally or per scope. Expired propositions are never
+ * returned and are purged by {@link #removeExpired()}; the most recently expired scopes are remembered so that callers can tell
+ * an expired scope from one that was never fetched.
+ */
+class PropositionsCache {
+    static final int UNBOUNDED = 0;
+    static final long NO_EXPIRY = 0;
+
+    private static final int MAX_EXPIRED_SCOPES = 100;
+
+    // Approximate JVM object overhead figures used for estimating the retained size of a proposition.
+    private static final int OBJECT_OVERHEAD_BYTES = 16;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private static final int MAP_ENTRY_OVERHEAD_BYTES = 32;
+
+    private final Object writeMutex = new Object();
+    private volatile Snapshot snapshot;
+    private volatile CacheEvictionPolicy evictionPolicy;
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    // Guarded by writeMutex
+    private int maxEntries = UNBOUNDED;
+    private long maxSizeBytes = UNBOUNDED;
+    private Set<DecisionScope> pinnedScopes = Collections.emptySet();
+    private long defaultTtlMillis = NO_EXPIRY;
+    private Map<DecisionScope, Long> scopeTtlMillis = Collections.emptyMap();
+
+    /**
+     * Constructor creates an empty, unbounded {@code PropositionsCache} using the least recently used eviction policy.
+     */
+    PropositionsCache() {
+        snapshot = new Snapshot(0, Collections.<DecisionScope, Entry>emptyMap(), 0, Collections.<DecisionScope>emptySet());
+        evictionPolicy = new LruEvictionPolicy();
+    }
+
+    /**
+     * Gets the current immutable snapshot of the cache.
+     *
+     * @return {@link Snapshot} containing the cached propositions.
+     */
+    Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the cached {@code Proposition} for the given {@code scope}.
+     *
+     * @param scope {@link DecisionScope} to be looked up.
+     * @return {@link Proposition} instance or null, if no proposition is cached for the given {@code scope} or if it has expired.
+     */
+    Proposition get(final DecisionScope scope) {
+        evictionPolicy.recordAccess(scope);
+        final Entry entry = snapshot.entries.get(scope);
+        return entry != null && !entry.isExpired(System.currentTimeMillis()) ? entry.proposition : null;
+    }
+
+    /**
+     * Gets the cached propositions for the given {@code scopes} from a single consistent snapshot.
+     *
+     * @param scopes {@code Collection<DecisionScope>} to be looked up.
+     * @return {@link Result} containing the cached propositions, in the order of the provided {@code scopes}, and the requested scopes whose propositions have expired.
+     */
+    Result getAll(final Collection<DecisionScope> scopes) {
+        final Snapshot current = snapshot;
+        final CacheEvictionPolicy policy = evictionPolicy;
+        final long now = System.currentTimeMillis();
+
+        final Map<DecisionScope, Proposition> propositions = new LinkedHashMap<>();
+        final List<DecisionScope> expiredScopes = new ArrayList<>();
+        final Map<DecisionScope, Long> writeTimes = new HashMap<>();
+        for (final DecisionScope scope : scopes) {
+            policy.recordAccess(scope);
+            final Entry entry = current.entries.get(scope);
+            if (entry != null && !entry.isExpired(now)) {
+                propositions.put(scope, entry.proposition);
+                writeTimes.put(scope, entry.writeTimeMillis);
+            } else if (entry != null || current.expiredScopes.contains(scope)) {
+                expiredScopes.add(scope);
+            }
+        }
+        return new Result(propositions, expiredScopes, writeTimes);
+    }
+
+    /**
+     * Updates the cache limits, eviction policy and pinned scopes.
+     * <p>
+     * The cache is trimmed immediately if it exceeds the new limits. If the eviction policy changes, the access history
+     * collected by the previous policy is discarded.
+     *
+     * @param maxEntries {@code int} containing the maximum number of cached propositions, or {@value #UNBOUNDED} for no limit.
+     * @param maxSizeBytes {@code long} containing the maximum estimated retained size in bytes, or {@value #UNBOUNDED} for no limit.
+     * @param evictionPolicyName {@link String} containing the eviction policy name.
+     * @param pinnedScopes {@code Collection<DecisionScope>} containing the scopes which should never be evicted.
+     * @see CacheEvictionPolicy#fromName(String)
+     */
+    void configure(final int maxEntries,
+                   final long maxSizeBytes,
+                   final String evictionPolicyName,
+                   final Collection<DecisionScope> pinnedScopes) {
+        synchronized (writeMutex) {
+            this.maxEntries = Math.max(maxEntries, UNBOUNDED);
+            this.maxSizeBytes = Math.max(maxSizeBytes, UNBOUNDED);
+            this.pinnedScopes = pinnedScopes != null ? new HashSet<>(pinnedScopes) : Collections.<DecisionScope>emptySet();
+
+            final CacheEvictionPolicy policy = CacheEvictionPolicy.fromName(evictionPolicyName);
+            if (policy.getClass() != evictionPolicy.getClass()) {
+                for (final DecisionScope scope : snapshot.entries.keySet()) {
+                    policy.recordWrite(scope);
+                }
+                evictionPolicy = policy;
+            }
+
+            final Snapshot current = snapshot;
+            final Map<DecisionScope, Entry> entries = new HashMap<>(current.entries);
+            final long sizeBytes = evict(entries, current.sizeBytes, Collections.<DecisionScope>emptySet(), 0, 0);
+            if (entries.size() != current.entries.size()) {
+                snapshot = new Snapshot(current.getVersion() + 1, entries, sizeBytes, current.expiredScopes);
+            }
+        }
+    }
+
+    /**
+     * Updates the time-to-live of cached propositions.
+     * <p>
+     * The new time-to-live also applies to the propositions already in the cache, relative to the time they were cached.
+     *
+     * @param defaultTtlMillis {@code long} containing the time-to-live in milliseconds for all scopes, or {@value #NO_EXPIRY} if propositions should not expire.
+     * @param scopeTtlMillis {@code Map<DecisionScope, Long>} containing the time-to-live in milliseconds for specific scopes, overriding {@code defaultTtlMillis}.
+     */
+    void configureExpiry(final long defaultTtlMillis, final Map<DecisionScope, Long> scopeTtlMillis) {
+        synchronized (writeMutex) {
+            this.defaultTtlMillis = Math.max(defaultTtlMillis, NO_EXPIRY);
+            this.scopeTtlMillis = scopeTtlMillis != null ? new HashMap<>(scopeTtlMillis) : Collections.<DecisionScope, Long>emptyMap();
+
+            final Snapshot current = snapshot;
+            final Map<DecisionScope, Entry> entries = new HashMap<>();
+            for (final Map.Entry<DecisionScope, Entry> entry : current.entries.entrySet()) {
+                final Entry cached = entry.getValue();
+                entries.put(entry.getKey(), new Entry(cached.proposition, cached.sizeBytes, cached.writeTimeMillis, ttlFor(entry.getKey())));
+            }
+            snapshot = new Snapshot(current.getVersion() + 1, entries, current.sizeBytes, current.expiredScopes);
+        }
+    }
+
+    /**
+     * Determines whether any cached proposition can expire with the current configuration.
+     *
+     * @return {@code boolean} indicating whether a time-to-live is configured.
+     */
+    boolean isExpiryEnabled() {
+        synchronized (writeMutex) {
+            return defaultTtlMillis != NO_EXPIRY || !scopeTtlMillis.isEmpty();
+        }
+    }
+
+    /**
+     * Removes the expired propositions from the cache.
+     * <p>
+     * The removed scopes are remembered as expired until they are cached again or the cache is cleared.
+     *
+     * @return {@code int} containing the number of removed propositions.
+     */
+    int removeExpired() {
+        synchronized (writeMutex) {
+            final Snapshot current = snapshot;
+            final long now = System.currentTimeMillis();
+
+            final Map<DecisionScope, Entry> entries = new HashMap<>(current.entries);
+            final Set<DecisionScope> expiredScopes = new LinkedHashSet<>(current.expiredScopes);
+            long sizeBytes = current.sizeBytes;
+            for (final Map.Entry<DecisionScope, Entry> entry : current.entries.entrySet()) {
+                if (entry.getValue().isExpired(now)) {
+                    entries.remove(entry.getKey());
+                    sizeBytes -= entry.getValue().sizeBytes;
+                    evictionPolicy.recordRemoval(entry.getKey());
+
+                    // Re-insert to keep the most recently expired scopes last.
+                    expiredScopes.remove(entry.getKey());
+                    expiredScopes.add(entry.getKey());
+                }
+            }
+
+            final int removedCount = current.entries.size() - entries.size();
+            if (removedCount == 0) {
+                return 0;
+            }
+
+            final Iterator<DecisionScope> iterator = expiredScopes.iterator();
+            while (expiredScopes.size() > MAX_EXPIRED_SCOPES && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+
+            snapshot = new Snapshot(current.getVersion() + 1, entries, sizeBytes, expiredScopes);
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, String.format("Removed (%d) expired propositions from the cache.", removedCount));
+            return removedCount;
+        }
+    }
+
+    /**
+     * Adds the given {@code propositions} to the cache, replacing any previously cached propositions for the same scopes.
+     * <p>
+     * If the cache is full, existing propositions are evicted to make room. A new scope is not cached if the eviction policy
+     * does not admit it, or if it cannot fit in the cache on its own.
+     * The update is published as a new snapshot with an incremented version.
+     *
+     * @param propositions {@code Map<DecisionScope, Proposition>} containing propositions to be cached.
+     */
+    void putAll(final Map<DecisionScope, Proposition> propositions) {
+        putAll(propositions, System.currentTimeMillis());
+    }
+
+    /**
+     * Adds the given {@code propositions} to the cache as if they were cached at {@code writeTimeMillis}, for example when restoring
+     * persisted propositions. Their time-to-live is counted from {@code writeTimeMillis}.
+     *
+     * @param propositions {@code Map<DecisionScope, Proposition>} containing propositions to be cached.
+     * @param writeTimeMillis {@code long} containing the time the propositions were originally cached.
+     * @see #putAll(Map)
+     */
+    void putAll(final Map<DecisionScope, Proposition> propositions, final long writeTimeMillis) {
+        if (OptimizeUtils.isNullOrEmpty(propositions)) {
+            return;
+        }
+
+        synchronized (writeMutex) {
+            final Snapshot current = snapshot;
+            final Map<DecisionScope, Entry> entries = new HashMap<>(current.entries);
+            final Set<DecisionScope> expiredScopes = new LinkedHashSet<>(current.expiredScopes);
+            long sizeBytes = current.sizeBytes;
+
+            for (final Map.Entry<DecisionScope, Proposition> proposition : propositions.entrySet()) {
+                final DecisionScope scope = proposition.getKey();
+                final Entry entry = new Entry(proposition.getValue(), estimateSizeBytes(proposition.getValue()), writeTimeMillis, ttlFor(scope));
+
+                final Entry replaced = entries.remove(scope);
+                if (replaced != null) {
+                    sizeBytes -= replaced.sizeBytes;
+                } else if (!pinnedScopes.contains(scope)) {
+                    if (maxSizeBytes != UNBOUNDED && entry.sizeBytes > maxSizeBytes) {
+                        MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                                String.format("Not caching proposition for scope (%s), its estimated size (%d bytes) exceeds the cache size limit.", scope.getName(), entry.sizeBytes));
+                        continue;
+                    }
+
+                    if (isFull(entries.size() + 1, sizeBytes + entry.sizeBytes)) {
+                        final DecisionScope victim = evictionPolicy.selectVictim(evictableScopes(entries, propositions.keySet()));
+                        if (victim == null) {
+                            MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                                    String.format("Not caching proposition for scope (%s), the cache is full and has no evictable proposition.", scope.getName()));
+                            continue;
+                        }
+
+                        if (!evictionPolicy.shouldAdmit(scope, victim)) {
+                            MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                                    String.format("Not caching proposition for scope (%s), it is not admitted by the eviction policy.", scope.getName()));
+                            continue;
+                        }
+                    }
+                }
+
+                sizeBytes = evict(entries, sizeBytes, propositions.keySet(), 1, entry.sizeBytes);
+                entries.put(scope, entry);
+                sizeBytes += entry.sizeBytes;
+                expiredScopes.remove(scope);
+                evictionPolicy.recordWrite(scope);
+            }
+
+            snapshot = new Snapshot(current.getVersion() + 1, entries, sizeBytes, expiredScopes);
+        }
+    }
+
+    /**
+     * Gets the number of propositions evicted to keep the cache within its limits, since the cache was created.
+     *
+     * @return {@code long} containing the number of evicted propositions.
+     */
+    long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Removes all the propositions from the cache.
+     */
+    void clear() {
+        synchronized (writeMutex) {
+            evictionPolicy.clear();
+            snapshot = new Snapshot(snapshot.getVersion() + 1, Collections.<DecisionScope, Entry>emptyMap(), 0, Collections.<DecisionScope>emptySet());
+        }
+    }
+
+    /**
+     * Evicts entries from the given {@code entries} map until it can hold {@code additionalEntries} more entries of
+     * {@code additionalSizeBytes} total size, or until there is no evictable entry left.
+     *
+     * @return {@code long} containing the estimated size of the remaining entries.
+     */
+    private long evict(final Map<DecisionScope, Entry> entries,
+                       final long sizeBytes,
+                       final Set<DecisionScope> protectedScopes,
+                       final int additionalEntries,
+                       final long additionalSizeBytes) {
+        long remainingSizeBytes = sizeBytes;
+        while (isFull(entries.size() + additionalEntries, remainingSizeBytes + additionalSizeBytes)) {
+            final DecisionScope victim = evictionPolicy.selectVictim(evictableScopes(entries, protectedScopes));
+            if (victim == null) {
+                break;
+            }
+
+            remainingSizeBytes -= entries.remove(victim).sizeBytes;
+            evictionPolicy.recordRemoval(victim);
+            evictionCount.incrementAndGet();
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, String.format("Evicted cached proposition for scope (%s).", victim.getName()));
+        }
+        return remainingSizeBytes;
+    }
+
+    private long ttlFor(final DecisionScope scope) {
+        final Long ttl = scopeTtlMillis.get(scope);
+        return ttl != null ? Math.max(ttl, NO_EXPIRY) : defaultTtlMillis;
+    }
+
+    private boolean isFull(final int entryCount, final long sizeBytes) {
+        return (maxEntries != UNBOUNDED && entryCount > maxEntries)
+                || (maxSizeBytes != UNBOUNDED && sizeBytes > maxSizeBytes);
+    }
+
+    private List<DecisionScope> evictableScopes(final Map<DecisionScope, Entry> entries, final Set<DecisionScope> protectedScopes) {
+        final List<DecisionScope> scopes = new ArrayList<>();
+        for (final DecisionScope scope : entries.keySet()) {
+            if (!pinnedScopes.contains(scope) && !protectedScopes.contains(scope)) {
+                scopes.add(scope);
+            }
+        }
+        return scopes;
+    }
+
+    /**
+     * Estimates the number of bytes retained by the given {@code proposition}, including its offers' content, metadata and scope details.
+     * <p>
+     * The estimate is based on typical object overheads and is meant for enforcing cache limits, not for exact memory accounting.
+     *
+     * @param proposition {@link Proposition} instance.
+     * @return {@code long} containing the estimated retained size in bytes.
+     */
+    static long estimateSizeBytes(final Proposition proposition) {
+        if (proposition == null) {
+            return 0;
+        }
+
+        long size = OBJECT_OVERHEAD_BYTES + 4 * REFERENCE_BYTES;
+        size += estimateSizeBytes(proposition.getId());
+        size += estimateSizeBytes(proposition.getScope());
+        size += estimateSizeBytes(proposition.getScopeDetails());
+
+        final List<Offer> offers = proposition.getOffers();
+        if (offers != null) {
+            size += OBJECT_OVERHEAD_BYTES + (long) offers.size() * REFERENCE_BYTES;
+            for (final Offer offer : offers) {
+                size += OBJECT_OVERHEAD_BYTES + 10 * REFERENCE_BYTES;
+                size += estimateSizeBytes(offer.getId());
+                size += estimateSizeBytes(offer.getEtag());
+                size += estimateSizeBytes(offer.getSchema());
+                size += estimateSizeBytes(offer.getMeta());
+                size += estimateSizeBytes(offer.getLanguage());
+                size += estimateSizeBytes(offer.getContent());
+                size += estimateSizeBytes(offer.getCharacteristics());
+            }
+        }
+        return size;
+    }
+
+    private static long estimateSizeBytes(final Object value) {
+        if (value == null) {
+            return 0;
+        }
+
+        if (value instanceof String) {
+            return STRING_OVERHEAD_BYTES + 2L * ((String) value).length();
+        }
+
+        if (value instanceof Map) {
+            long size = OBJECT_OVERHEAD_BYTES;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += MAP_ENTRY_OVERHEAD_BYTES + estimateSizeBytes(entry.getKey()) + estimateSizeBytes(entry.getValue());
+            }
+            return size;
+        }
+
+        if (value instanceof Collection) {
+            long size = OBJECT_OVERHEAD_BYTES;
+            for (final Object element : (Collection<?>) value) {
+                size += REFERENCE_BYTES + estimateSizeBytes(element);
+            }
+            return size;
+        }
+
+        return OBJECT_OVERHEAD_BYTES + REFERENCE_BYTES;
+    }
+
+    /**
+     * {@code Entry} class holds a cached proposition along with its bookkeeping data.
+     */
+    private static final class Entry {
+        private final Proposition proposition;
+        private final long sizeBytes;
+        private final long writeTimeMillis;
+        private final long expiryTimeMillis;
+
+        private Entry(final Proposition proposition, final long sizeBytes, final long writeTimeMillis, final long ttlMillis) {
+            this.proposition = proposition;
+            this.sizeBytes = sizeBytes;
+            this.writeTimeMillis = writeTimeMillis;
+            this.expiryTimeMillis = ttlMillis != NO_EXPIRY ? writeTimeMillis + ttlMillis : Long.MAX_VALUE;
+        }
+
+        private boolean isExpired(final long nowMillis) {
+            return nowMillis >= expiryTimeMillis;
+        }
+    }
+
+    /**
+     * {@code Result} class contains the outcome of a cache lookup for multiple scopes.
+     */
+    static final class Result {
+        private final Map<DecisionScope, Proposition> propositions;
+        private final List<DecisionScope> expiredScopes;
+        private final Map<DecisionScope, Long> writeTimes;
+
+        private Result(final Map<DecisionScope, Proposition> propositions, final List<DecisionScope> expiredScopes,
+                       final Map<DecisionScope, Long> writeTimes) {
+            this.propositions = propositions;
+            this.expiredScopes = expiredScopes;
+            this.writeTimes = writeTimes;
+        }
+
+        /**
+         * Gets the cached, unexpired propositions.
+         *
+         * @return {@code Map<DecisionScope, Proposition>} containing the cached propositions.
+         */
+        Map<DecisionScope, Proposition> getPropositions() {
+            return propositions;
+        }
+
+        /**
+         * Gets the looked up scopes whose propositions were cached but have expired.
+         *
+         * @return {@code List<DecisionScope>} containing the expired scopes.
+         */
+        List<DecisionScope> getExpiredScopes() {
+            return expiredScopes;
+        }
+
+        /**
+         * Gets the time the proposition for the given {@code scope} was cached.
+         *
+         * @param scope {@link DecisionScope} contained in {@link #getPropositions()}.
+         * @return {@code long} containing the time in milliseconds since epoch, or 0 if no proposition was returned for the given {@code scope}.
+         */
+        long getWriteTimeMillis(final DecisionScope scope) {
+            final Long writeTime = writeTimes.get(scope);
+            return writeTime != null ? writeTime : 0;
+        }
+    }
+
+    /**
+     * {@code Snapshot} class represents an immutable, versioned view of the propositions cache.
+     */
+    static final class Snapshot {
+        private final long version;
+        private final Map<DecisionScope, Entry> entries;
+        private final Map<DecisionScope, Proposition> propositions;
+        private final long sizeBytes;
+        private final Set<DecisionScope> expiredScopes;
+
+        private Snapshot(final long version, final Map<DecisionScope, Entry> entries, final long sizeBytes, final Set<DecisionScope> expiredScopes) {
+            this.version = version;
+            this.entries = entries;
+            this.sizeBytes = sizeBytes;
+            this.expiredScopes = Collections.unmodifiableSet(expiredScopes);
+
+            final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+            for (final Map.Entry<DecisionScope, Entry> entry : entries.entrySet()) {
+                propositions.put(entry.getKey(), entry.getValue().proposition);
+            }
+            this.propositions = Collections.unmodifiableMap(propositions);
+        }
+
+        /**
+         * Gets the version of this snapshot.
+         * <p>
+         * The version is incremented each time a cache update is published.
+         *
+         * @return {@code long} containing the snapshot version.
+         */
+        long getVersion() {
+            return version;
+        }
+
+        /**
+         * Gets the cached propositions in this snapshot.
+         * <p>
+         * The returned map may contain expired propositions which have not been removed yet.
+         *
+         * @return unmodifiable {@code Map<DecisionScope, Proposition>} containing the cached propositions.
+         */
+        Map<DecisionScope, Proposition> getPropositions() {
+            return propositions;
+        }
+
+        /**
+         * Gets the estimated retained size of the cached propositions in this snapshot.
+         *
+         * @return {@code long} containing the estimated size in bytes.
+         */
+        long getSizeBytes() {
+            return sizeBytes;
+        }
+    }
+}
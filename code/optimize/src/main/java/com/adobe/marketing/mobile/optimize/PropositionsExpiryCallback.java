@@ -0,0 +1,33 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code PropositionsExpiryCallback} interface can be passed to {@link Optimize#getPropositions(List, com.adobe.marketing.mobile.AdobeCallback)}
+ * to be notified of the requested decision scopes whose cached propositions have expired.
+ */
+public interface PropositionsExpiryCallback extends AdobeCallbackWithError<Map<DecisionScope, Proposition>> {
+    /**
+     * Invoked before {@link #call(Object)} if the cached propositions for some of the requested decision scopes have expired.
+     * <p>
+     * Expired propositions are not returned in {@code call(Object)}, they can be fetched again using {@link Optimize#updatePropositions(List, Map, Map)}.
+     *
+     * @param expiredScopes {@code List<DecisionScope>} containing the decision scopes whose cached propositions have expired.
+     */
+    void expired(final List<DecisionScope> expiredScopes);
+}
@@ -0,0 +1,539 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import android.app.Application;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
+
+/**
+ * {@code PropositionsStore} class persists the cached propositions on disk, so that they can be served after the application restarts.
+ * <p>
+ * Propositions are appended to a single file, one record per line, containing the decision scope name, the time the proposition was
+ * cached and the proposition data. An in-memory index maps each scope to the location of its latest record, so that propositions are
+ * read from disk only for the requested scopes. The file is compacted once most of its records have been superseded.
+ * <p>
+ * Writes are performed asynchronously on the provided {@code Executor}, in the order they were requested. Reads are performed either
+ * on the calling thread or, with {@link #load(Collection, AdobeCallback)}, on the provided {@code Executor}. The set of persisted scopes
+ * is published once the index is read, so that callers can check it without blocking on the disk I/O.
+ */
+class PropositionsStore {
+    private static final String DIRECTORY_NAME = "com.adobe.optimize";
+    private static final String FILE_NAME = "propositions.log";
+    private static final String COMPACTION_FILE_NAME = "propositions.log.tmp";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final byte SEPARATOR = '\t';
+    private static final byte NEWLINE = '\n';
+    private static final int COMPACTION_MIN_RECORDS = 64;
+
+    private final File file;
+    private final File compactionFile;
+    private final Executor executor;
+    private final Object mutex = new Object();
+
+    // Location of the latest record for each scope, null until the file is first read.
+    private Map<DecisionScope, Location> index;
+    private int recordCount;
+    private long generation;
+    // Scopes in the index, null until the file is first read.
+    private volatile Set<DecisionScope> persistedScopes;
+
+    /**
+     * Constructor creates a {@code PropositionsStore} persisting propositions in the given {@code directory}.
+     *
+     * @param directory {@link File} containing the directory where propositions are persisted.
+     * @param executor {@link Executor} performing the disk writes.
+     */
+    PropositionsStore(final File directory, final Executor executor) {
+        this.file = new File(directory, FILE_NAME);
+        this.compactionFile = new File(directory, COMPACTION_FILE_NAME);
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a {@code PropositionsStore} in the application's files directory.
+     *
+     * @param executor {@link Executor} performing the disk writes.
+     * @return {@link PropositionsStore} instance or null, if the application's files directory is not available.
+     */
+    static PropositionsStore create(final Executor executor) {
+        final Application application = MobileCore.getApplication();
+        final File filesDir = application != null ? application.getFilesDir() : null;
+        return filesDir != null ? new PropositionsStore(new File(filesDir, DIRECTORY_NAME), executor) : null;
+    }
+
+    /**
+     * Determines whether there are persisted propositions, from a previous or the current application session.
+     *
+     * @return {@code boolean} indicating whether the propositions file exists.
+     */
+    boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Reads the index of the persisted propositions in the background, so that subsequent lookups only read the requested records.
+     */
+    void preload() {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (mutex) {
+                    loadIndex();
+                }
+            }
+        });
+    }
+
+    /**
+     * Determines whether a proposition may be persisted for the given {@code scope}, without blocking.
+     * <p>
+     * This method returns true until the index is read, see {@link #preload()}.
+     *
+     * @param scope {@link DecisionScope} to be looked up.
+     * @return {@code boolean} indicating whether {@link #load(Collection)} may return a proposition for the {@code scope}.
+     */
+    boolean mayContain(final DecisionScope scope) {
+        final Set<DecisionScope> scopes = persistedScopes;
+        return scopes == null || scopes.contains(scope);
+    }
+
+    /**
+     * Reads the persisted propositions for the given {@code scopes} in the background, after the writes requested so far.
+     *
+     * @param scopes {@code Collection<DecisionScope>} to be looked up.
+     * @param callback {@code AdobeCallback<Map<DecisionScope, Record>>} invoked on the executor thread with the persisted propositions,
+     *                 in the order of the provided {@code scopes}.
+     */
+    void load(final Collection<DecisionScope> scopes, final AdobeCallback<Map<DecisionScope, Record>> callback) {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                callback.call(load(scopes));
+            }
+        });
+    }
+
+    /**
+     * Reads the persisted propositions for the given {@code scopes} on the calling thread.
+     * <p>
+     * This method blocks while a write or a compaction is in progress, so it must not be called on the {@code EventHub} thread.
+     *
+     * @param scopes {@code Collection<DecisionScope>} to be looked up.
+     * @return {@code Map<DecisionScope, Record>} containing the persisted propositions, in the order of the provided {@code scopes}.
+     */
+    Map<DecisionScope, Record> load(final Collection<DecisionScope> scopes) {
+        final Map<DecisionScope, Record> records = new LinkedHashMap<>();
+        synchronized (mutex) {
+            loadIndex();
+            if (index.isEmpty()) {
+                return records;
+            }
+
+            RandomAccessFile randomAccessFile = null;
+            try {
+                randomAccessFile = new RandomAccessFile(file, "r");
+                for (final DecisionScope scope : scopes) {
+                    final Location location = index.get(scope);
+                    if (location == null) {
+                        continue;
+                    }
+
+                    final byte[] line = new byte[location.length];
+                    randomAccessFile.seek(location.offset);
+                    randomAccessFile.readFully(line);
+                    final Record record = parseRecord(line);
+                    if (record != null) {
+                        records.put(scope, record);
+                    }
+                }
+            } catch (final IOException e) {
+                MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                        String.format("Failed to read the persisted propositions due to an exception (%s)!", e.getLocalizedMessage()));
+            } finally {
+                close(randomAccessFile);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Persists the given {@code propositions} in the background, replacing any previously persisted propositions for the same scopes.
+     *
+     * @param propositions {@code Map<DecisionScope, Proposition>} to be persisted.
+     * @param writeTimeMillis {@code long} containing the time the propositions were cached.
+     */
+    void write(final Map<DecisionScope, Proposition> propositions, final long writeTimeMillis) {
+        if (OptimizeUtils.isNullOrEmpty(propositions)) {
+            return;
+        }
+
+        final Map<DecisionScope, byte[]> lines = new LinkedHashMap<>();
+        for (final Map.Entry<DecisionScope, Proposition> entry : propositions.entrySet()) {
+            lines.put(entry.getKey(), formatRecord(entry.getKey(), writeTimeMillis, entry.getValue()));
+        }
+
+        final long writeGeneration;
+        synchronized (mutex) {
+            writeGeneration = generation;
+        }
+
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (mutex) {
+                    if (writeGeneration != generation) {
+                        // The store was cleared after this write was requested.
+                        return;
+                    }
+
+                    loadIndex();
+                    append(lines);
+                    if (recordCount > COMPACTION_MIN_RECORDS && recordCount > 2 * index.size()) {
+                        compact();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes all the persisted propositions.
+     * <p>
+     * Lookups made after this method returns do not return any previously persisted proposition, the file is deleted in the background.
+     */
+    void clear() {
+        synchronized (mutex) {
+            generation++;
+            index = new HashMap<>();
+            recordCount = 0;
+            persistedScopes = Collections.emptySet();
+        }
+
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (mutex) {
+                    if (file.exists() && !file.delete()) {
+                        MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Failed to delete the persisted propositions file!");
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Builds the index by scanning the propositions file, if not already built.
+     * <p>
+     * An incomplete trailing record, left by an interrupted write, is truncated.
+     */
+    private void loadIndex() {
+        if (index != null) {
+            return;
+        }
+
+        index = new HashMap<>();
+        recordCount = 0;
+        if (!file.exists()) {
+            publishIndex();
+            return;
+        }
+
+        InputStream inputStream = null;
+        long offset = 0;
+        try {
+            inputStream = new BufferedInputStream(new FileInputStream(file));
+            final ByteArrayOutputStream scope = new ByteArrayOutputStream();
+            boolean inScope = true;
+            long length = 0;
+            int b;
+            while ((b = inputStream.read()) != -1) {
+                length++;
+                if (b == NEWLINE) {
+                    final DecisionScope decisionScope = parseScope(scope.toByteArray());
+                    if (decisionScope != null) {
+                        index.put(decisionScope, new Location(offset, (int) length - 1));
+                        recordCount++;
+                    }
+                    offset += length;
+                    length = 0;
+                    scope.reset();
+                    inScope = true;
+                } else if (b == SEPARATOR) {
+                    inScope = false;
+                } else if (inScope) {
+                    scope.write(b);
+                }
+            }
+        } catch (final IOException e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to read the persisted propositions due to an exception (%s)!", e.getLocalizedMessage()));
+        } finally {
+            close(inputStream);
+        }
+
+        if (offset < file.length()) {
+            truncate(offset);
+        }
+        publishIndex();
+    }
+
+    private void append(final Map<DecisionScope, byte[]> lines) {
+        final File directory = file.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Failed to create the directory for persisted propositions!");
+            return;
+        }
+
+        OutputStream outputStream = null;
+        long offset = file.length();
+        try {
+            outputStream = new BufferedOutputStream(new FileOutputStream(file, true));
+            for (final Map.Entry<DecisionScope, byte[]> line : lines.entrySet()) {
+                outputStream.write(line.getValue());
+                outputStream.write(NEWLINE);
+                index.put(line.getKey(), new Location(offset, line.getValue().length));
+                offset += line.getValue().length + 1;
+                recordCount++;
+            }
+            outputStream.flush();
+        } catch (final IOException e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to persist propositions due to an exception (%s)!", e.getLocalizedMessage()));
+            // Drop the index so that it is rebuilt from what was actually written.
+            index = null;
+        } finally {
+            close(outputStream);
+            publishIndex();
+        }
+    }
+
+    /**
+     * Rewrites the propositions file keeping only the latest record for each scope.
+     */
+    private void compact() {
+        RandomAccessFile source = null;
+        OutputStream outputStream = null;
+        final Map<DecisionScope, Location> compactedIndex = new HashMap<>();
+        try {
+            source = new RandomAccessFile(file, "r");
+            outputStream = new BufferedOutputStream(new FileOutputStream(compactionFile, false));
+            long offset = 0;
+            for (final Map.Entry<DecisionScope, Location> entry : index.entrySet()) {
+                final byte[] line = new byte[entry.getValue().length];
+                source.seek(entry.getValue().offset);
+                source.readFully(line);
+                outputStream.write(line);
+                outputStream.write(NEWLINE);
+                compactedIndex.put(entry.getKey(), new Location(offset, line.length));
+                offset += line.length + 1;
+            }
+            outputStream.flush();
+        } catch (final IOException e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to compact the persisted propositions due to an exception (%s)!", e.getLocalizedMessage()));
+            return;
+        } finally {
+            close(source);
+            close(outputStream);
+        }
+
+        if (!compactionFile.renameTo(file)) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG, "Failed to replace the persisted propositions file with the compacted one!");
+            return;
+        }
+        index = compactedIndex;
+        recordCount = compactedIndex.size();
+    }
+
+    private void publishIndex() {
+        persistedScopes = index != null ? Collections.unmodifiableSet(new HashSet<>(index.keySet())) : null;
+    }
+
+    private void submit(final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Dropped a persisted propositions task, the storage executor has been shut down.");
+        }
+    }
+
+    private void truncate(final long length) {
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            randomAccessFile.setLength(length);
+        } catch (final IOException e) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Failed to truncate the persisted propositions due to an exception (%s)!", e.getLocalizedMessage()));
+        } finally {
+            close(randomAccessFile);
+        }
+    }
+
+    private static byte[] formatRecord(final DecisionScope scope, final long writeTimeMillis, final Proposition proposition) {
+        final String line = JSONObject.quote(scope.getName())
+                + (char) SEPARATOR
+                + writeTimeMillis
+                + (char) SEPARATOR
+                + new JSONObject(proposition.toEventData()).toString();
+        return line.getBytes(UTF_8);
+    }
+
+    private static DecisionScope parseScope(final byte[] bytes) {
+        try {
+            final Object name = new JSONTokener(new String(bytes, UTF_8)).nextValue();
+            return name instanceof String ? new DecisionScope((String) name) : null;
+        } catch (final JSONException e) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Skipping persisted proposition record, scope name is not valid.");
+            return null;
+        }
+    }
+
+    private static Record parseRecord(final byte[] bytes) {
+        final String line = new String(bytes, UTF_8);
+        final int timeStart = line.indexOf(SEPARATOR) + 1;
+        final int dataStart = line.indexOf(SEPARATOR, timeStart) + 1;
+        if (timeStart == 0 || dataStart == 0) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG, "Skipping persisted proposition record, record is malformed.");
+            return null;
+        }
+
+        try {
+            final long writeTimeMillis = Long.parseLong(line.substring(timeStart, dataStart - 1));
+            final Proposition proposition = Proposition.fromEventData(toMap(new JSONObject(line.substring(dataStart))));
+            return proposition != null ? new Record(proposition, writeTimeMillis) : null;
+        } catch (final NumberFormatException | JSONException e) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                    String.format("Skipping persisted proposition record due to an exception (%s).", e.getLocalizedMessage()));
+            return null;
+        }
+    }
+
+    private static Map<String, Object> toMap(final JSONObject jsonObject) throws JSONException {
+        final Map<String, Object> map = new HashMap<>();
+        final Iterator<String> keys = jsonObject.keys();
+        while (keys.hasNext()) {
+            final String key = keys.next();
+            map.put(key, fromJson(jsonObject.get(key)));
+        }
+        return map;
+    }
+
+    private static List<Object> toList(final JSONArray jsonArray) throws JSONException {
+        final List<Object> list = new ArrayList<>();
+        for (int i = 0; i < jsonArray.length(); i++) {
+            list.add(fromJson(jsonArray.get(i)));
+        }
+        return list;
+    }
+
+    private static Object fromJson(final Object value) throws JSONException {
+        if (value instanceof JSONObject) {
+            return toMap((JSONObject) value);
+        } else if (value instanceof JSONArray) {
+            return toList((JSONArray) value);
+        } else if (value == JSONObject.NULL) {
+            return null;
+        }
+        return value;
+    }
+
+    private static void close(final Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+
+        try {
+            closeable.close();
+        } catch (final IOException e) {
+            MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                    String.format("Failed to close the persisted propositions file due to an exception (%s).", e.getLocalizedMessage()));
+        }
+    }
+
+    private static final class Location {
+        private final long offset;
+        private final int length;
+
+        private Location(final long offset, final int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * {@code Record} class contains a persisted proposition and the time it was cached.
+     */
+    static final class Record {
+        private final Proposition proposition;
+        private final long writeTimeMillis;
+
+        private Record(final Proposition proposition, final long writeTimeMillis) {
+            this.proposition = proposition;
+            this.writeTimeMillis = writeTimeMillis;
+        }
+
+        /**
+         * Gets the persisted proposition.
+         *
+         * @return {@link Proposition} instance.
+         */
+        Proposition getProposition() {
+            return proposition;
+        }
+
+        /**
+         * Gets the time the proposition was cached.
+         *
+         * @return {@code long} containing the time in milliseconds since epoch.
+         */
+        long getWriteTimeMillis() {
+            return writeTimeMillis;
+        }
+    }
+}
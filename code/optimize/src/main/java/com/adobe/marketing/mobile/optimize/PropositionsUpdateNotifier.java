@@ -0,0 +1,261 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
+
+/**
+ * {@code PropositionsUpdateNotifier} class delivers the propositions in the optimize notification events to the callbacks registered using
+ * {@link Optimize#onPropositionsUpdate(AdobeCallback)} and {@link Optimize#onPropositionsUpdate(List, AdobeCallback)} APIs.
+ * <p>
+ * A single event listener is registered with the Mobile Core, along with the first callback. The propositions in each notification event
+ * are retrieved once and then handed to every callback, each receiving its own map of the same {@link Proposition} instances.
+ * <p>
+ * The callbacks registered for specific decision scopes are indexed by scope, so that each notification only looks up the subscribers
+ * of the scopes it contains. If no callback is registered for all the scopes, only the propositions for the subscribed scopes are parsed.
+ * <p>
+ * The callbacks registered with an {@link java.util.concurrent.Executor} are invoked using it, the other ones on the thread delivering the notification.
+ */
+class PropositionsUpdateNotifier {
+    private final List<Subscription> allScopesSubscriptions = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<DecisionScope, List<Subscription>> scopeSubscriptions = new ConcurrentHashMap<>();
+    private final AtomicBoolean listenerRegistered = new AtomicBoolean();
+
+    /**
+     * Adds the given {@code callback} for all the decision scopes, registering the notification event listener if not done yet.
+     *
+     * @param callback {@code AdobeCallback<Map<DecisionScope, Proposition>>} to be invoked with the updated propositions.
+     */
+    void add(final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        add(null, null, callback);
+    }
+
+    /**
+     * Adds the given {@code callback} for the given {@code decisionScopes}, registering the notification event listener if not done yet.
+     *
+     * @param decisionScopes {@code Collection<DecisionScope>} containing the scopes of interest, or null for all the scopes.
+     * @param callback {@code AdobeCallback<Map<DecisionScope, Proposition>>} to be invoked with the updated propositions.
+     */
+    void add(final Collection<DecisionScope> decisionScopes, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        add(decisionScopes, null, callback);
+    }
+
+    /**
+     * Adds the given {@code callback} for the given {@code decisionScopes}, registering the notification event listener if not done yet.
+     *
+     * @param decisionScopes {@code Collection<DecisionScope>} containing the scopes of interest, or null for all the scopes.
+     * @param executor {@link Executor} to invoke the callback, or null to invoke it on the thread delivering the notification.
+     * @param callback {@code AdobeCallback<Map<DecisionScope, Proposition>>} to be invoked with the updated propositions.
+     */
+    void add(final Collection<DecisionScope> decisionScopes, final Executor executor, final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        if (callback == null) {
+            return;
+        }
+
+        final Subscription subscription = new Subscription(callback, decisionScopes, executor);
+        synchronized (scopeSubscriptions) {
+            if (subscription.scopes == null) {
+                allScopesSubscriptions.add(subscription);
+            } else {
+                for (final DecisionScope scope : subscription.scopes) {
+                    List<Subscription> subscriptions = scopeSubscriptions.get(scope);
+                    if (subscriptions == null) {
+                        subscriptions = new CopyOnWriteArrayList<>();
+                        scopeSubscriptions.put(scope, subscriptions);
+                    }
+                    subscriptions.add(subscription);
+                }
+            }
+        }
+
+        if (listenerRegistered.compareAndSet(false, true)) {
+            MobileCore.registerEventListener(OptimizeConstants.EventType.OPTIMIZE, OptimizeConstants.EventSource.NOTIFICATION, new AdobeCallbackWithError<Event>() {
+                @Override
+                public void fail(final AdobeError error) {}
+
+                @Override
+                public void call(final Event event) {
+                    notifyCallbacks(event);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes the given {@code callback}, so that it is no longer invoked with the updated propositions.
+     * <p>
+     * If the callback was added several times, only one of its registrations is removed.
+     *
+     * @param callback {@code AdobeCallback<Map<DecisionScope, Proposition>>} previously added.
+     * @return {@code boolean} indicating whether the callback was removed.
+     */
+    boolean remove(final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        if (callback == null) {
+            return false;
+        }
+
+        synchronized (scopeSubscriptions) {
+            for (final Subscription subscription : allScopesSubscriptions) {
+                if (subscription.callback == callback) {
+                    allScopesSubscriptions.remove(subscription);
+                    return true;
+                }
+            }
+
+            for (final List<Subscription> subscriptions : scopeSubscriptions.values()) {
+                for (final Subscription subscription : subscriptions) {
+                    if (subscription.callback == callback) {
+                        removeFromIndex(subscription);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of callbacks currently added.
+     *
+     * @return {@code int} containing the number of callbacks.
+     */
+    int getCallbackCount() {
+        synchronized (scopeSubscriptions) {
+            final Set<Subscription> subscriptions = Collections.newSetFromMap(new IdentityHashMap<Subscription, Boolean>());
+            subscriptions.addAll(allScopesSubscriptions);
+            for (final List<Subscription> scopedSubscriptions : scopeSubscriptions.values()) {
+                subscriptions.addAll(scopedSubscriptions);
+            }
+            return subscriptions.size();
+        }
+    }
+
+    /**
+     * Invokes the callbacks with the propositions in the given notification {@code event}.
+     * <p>
+     * The callbacks added for all the scopes receive all the propositions, the other callbacks receive the propositions for their scopes,
+     * if any. An exception thrown by a callback is logged and does not prevent the other callbacks from being invoked.
+     *
+     * @param event {@link Event} containing the optimize notification.
+     */
+    void notifyCallbacks(final Event event) {
+        if ((allScopesSubscriptions.isEmpty() && scopeSubscriptions.isEmpty())
+                || event == null || OptimizeUtils.isNullOrEmpty(event.getEventData())) {
+            return;
+        }
+
+        final Map<DecisionScope, Proposition> propositionsMap = Optimize.retrievePropositions(event,
+                allScopesSubscriptions.isEmpty() ? scopeSubscriptions.keySet() : null);
+        if (propositionsMap.isEmpty()) {
+            return;
+        }
+
+        for (final Subscription subscription : allScopesSubscriptions) {
+            subscription.call(new HashMap<>(propositionsMap));
+        }
+
+        final Map<Subscription, Map<DecisionScope, Proposition>> scopedPropositions = new IdentityHashMap<>();
+        for (final Map.Entry<DecisionScope, Proposition> entry : propositionsMap.entrySet()) {
+            final List<Subscription> subscriptions = scopeSubscriptions.get(entry.getKey());
+            if (subscriptions == null) {
+                continue;
+            }
+            for (final Subscription subscription : subscriptions) {
+                Map<DecisionScope, Proposition> propositions = scopedPropositions.get(subscription);
+                if (propositions == null) {
+                    propositions = new HashMap<>();
+                    scopedPropositions.put(subscription, propositions);
+                }
+                propositions.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (final Map.Entry<Subscription, Map<DecisionScope, Proposition>> entry : scopedPropositions.entrySet()) {
+            entry.getKey().call(entry.getValue());
+        }
+    }
+
+    /**
+     * Removes all the callbacks and forgets the event listener registration, so that the listener is registered again along with the next callback.
+     */
+    void reset() {
+        synchronized (scopeSubscriptions) {
+            allScopesSubscriptions.clear();
+            scopeSubscriptions.clear();
+        }
+        listenerRegistered.set(false);
+    }
+
+    private void removeFromIndex(final Subscription subscription) {
+        for (final DecisionScope scope : subscription.scopes) {
+            final List<Subscription> subscriptions = scopeSubscriptions.get(scope);
+            if (subscriptions == null) {
+                continue;
+            }
+            subscriptions.remove(subscription);
+            if (subscriptions.isEmpty()) {
+                scopeSubscriptions.remove(scope);
+            }
+        }
+    }
+
+    /**
+     * {@code Subscription} class contains a callback along with the decision scopes it was added for and the executor invoking it.
+     */
+    private static final class Subscription {
+        private final AdobeCallback<Map<DecisionScope, Proposition>> callback;
+        private final Set<DecisionScope> scopes;
+        private final Executor executor;
+
+        private Subscription(final AdobeCallback<Map<DecisionScope, Proposition>> callback, final Collection<DecisionScope> scopes,
+                             final Executor executor) {
+            this.callback = callback;
+            this.scopes = scopes != null ? new LinkedHashSet<>(scopes) : null;
+            this.executor = executor;
+        }
+
+        private void call(final Map<DecisionScope, Proposition> propositions) {
+            OptimizeUtils.execute(executor, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        callback.call(propositions);
+                    } catch (final Exception e) {
+                        MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                                String.format("The propositions update callback failed with an exception (%s)!", e.getLocalizedMessage()));
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code RequestTraceRecorder} class records the {@link PersonalizationRequestTrace} of the update propositions requests while a
+ * {@link PersonalizationRequestTracer} is set, joining them with their Edge response using the Edge request event identifier.
+ * <p>
+ * At most {@value #MAX_PENDING_EDGE_REQUESTS} Edge requests are awaiting a response at any time, the traces of the oldest ones are dropped,
+ * as the Edge network does not return a personalization response for the scopes without any qualified content.
+ */
+class RequestTraceRecorder {
+    private static final int MAX_PENDING_EDGE_REQUESTS = 64;
+    private static volatile PersonalizationRequestTracer tracer;
+
+    private final Map<String, List<PersonalizationRequestTrace>> pendingTraces =
+            new LinkedHashMap<String, List<PersonalizationRequestTrace>>() {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, List<PersonalizationRequestTrace>> eldest) {
+                    return size() > MAX_PENDING_EDGE_REQUESTS;
+                }
+            };
+
+    /**
+     * Sets the tracer to be notified of the completed request traces.
+     *
+     * @param requestTracer {@link PersonalizationRequestTracer} instance, or null to stop tracing.
+     */
+    static void setTracer(final PersonalizationRequestTracer requestTracer) {
+        tracer = requestTracer;
+    }
+
+    /**
+     * Gets the tracer to be notified of the completed request traces.
+     *
+     * @return {@link PersonalizationRequestTracer} instance, or null if tracing is disabled.
+     */
+    static PersonalizationRequestTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Starts the trace of the given update propositions request {@code event}, if tracing is enabled.
+     *
+     * @param event {@link Event} containing the update propositions request.
+     * @param nowMillis {@code long} containing the time at which the request processing started.
+     * @return {@link PersonalizationRequestTrace} for the request, or null if tracing is disabled.
+     */
+    PersonalizationRequestTrace start(final Event event, final long nowMillis) {
+        if (tracer == null) {
+            return null;
+        }
+        return new PersonalizationRequestTrace(event.getUniqueIdentifier(), event.getTimestamp(), nowMillis);
+    }
+
+    /**
+     * Records the dispatch of the Edge request for the given {@code traces}, which then await its response.
+     *
+     * @param edgeRequestId {@link String} containing the unique identifier of the Edge request event.
+     * @param traces {@code List<PersonalizationRequestTrace>} of the requests merged into the Edge request.
+     * @param nowMillis {@code long} containing the current time in milliseconds.
+     */
+    synchronized void onEdgeRequestDispatched(final String edgeRequestId, final List<PersonalizationRequestTrace> traces, final long nowMillis) {
+        if (traces.isEmpty()) {
+            return;
+        }
+        for (final PersonalizationRequestTrace trace : traces) {
+            trace.setEdgeRequestDispatched(edgeRequestId, nowMillis);
+        }
+        pendingTraces.put(edgeRequestId, new ArrayList<>(traces));
+    }
+
+    /**
+     * Removes the traces awaiting the response of the Edge request with the given {@code edgeRequestId}.
+     *
+     * @param edgeRequestId {@link String} containing the unique identifier of the Edge request event, may be null.
+     * @return {@code List<PersonalizationRequestTrace>} containing the removed traces, empty if none.
+     */
+    synchronized List<PersonalizationRequestTrace> remove(final String edgeRequestId) {
+        final List<PersonalizationRequestTrace> traces = edgeRequestId != null ? pendingTraces.remove(edgeRequestId) : null;
+        return traces != null ? traces : Collections.<PersonalizationRequestTrace>emptyList();
+    }
+
+    /**
+     * Removes all the traces awaiting an Edge response.
+     */
+    synchronized void clear() {
+        pendingTraces.clear();
+    }
+
+    /**
+     * Notifies the tracer of the given completed {@code traces}.
+     *
+     * @param traces {@code List<PersonalizationRequestTrace>} containing the completed traces.
+     */
+    static void report(final List<PersonalizationRequestTrace> traces) {
+        final PersonalizationRequestTracer requestTracer = tracer;
+        if (requestTracer == null || traces.isEmpty()) {
+            return;
+        }
+
+        for (final PersonalizationRequestTrace trace : traces) {
+            try {
+                requestTracer.onRequestTraced(trace);
+            } catch (final Exception e) {
+                MobileCore.log(LoggingMode.WARNING, OptimizeConstants.LOG_TAG,
+                        String.format("Personalization request tracer failed due to an exception (%s)!", e.getLocalizedMessage()));
+            }
+        }
+    }
+}
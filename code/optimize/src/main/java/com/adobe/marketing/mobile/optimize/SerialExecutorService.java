@@ -0,0 +1,183 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
+
+/**
+ * {@code SerialExecutorService} class runs the submitted tasks one at a time, in submission order, on the threads of the given executor.
+ * <p>
+ * It makes an executor provided by the app, which may run several tasks concurrently, safe to use as the extension lane. The tasks are queued
+ * in an {@link ExecutorLaneQueue}, and a single task at a time is handed to the provided executor, once the previous one has completed.
+ * The tasks which are not critical, submitted while the queue is full, are handed to the {@link TaskOverflowHandler} of the lane, so that
+ * the configured overflow policy applies as it does on the default executor. The queued tasks are dropped if the provided executor no
+ * longer accepts tasks.
+ * <p>
+ * Shutting down this executor does not shut down the provided executor, it only stops accepting new tasks.
+ */
+class SerialExecutorService extends AbstractExecutorService {
+    private final Executor executor;
+    private final ExecutorLaneQueue tasks;
+    private final TaskOverflowHandler overflowHandler;
+    private final Object mutex = new Object();
+    private boolean running;
+    private boolean shutdown;
+
+    private final Runnable nextTaskRunner = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                final Runnable task = tasks.poll();
+                if (task != null) {
+                    task.run();
+                }
+            } finally {
+                runNextTask();
+            }
+        }
+    };
+
+    /**
+     * Constructor creates a {@code SerialExecutorService} running the tasks on the given {@code executor}.
+     *
+     * @param executor {@link Executor} running the tasks, may run several tasks concurrently.
+     * @param capacity {@code int} containing the maximum number of queued tasks which are not critical.
+     * @param overflowHandler {@link TaskOverflowHandler} handling the tasks submitted while the queue is full, and the dropped tasks.
+     */
+    SerialExecutorService(final Executor executor, final int capacity, final TaskOverflowHandler overflowHandler) {
+        this.executor = executor;
+        this.tasks = new ExecutorLaneQueue(capacity);
+        this.overflowHandler = overflowHandler;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        synchronized (mutex) {
+            if (shutdown) {
+                throw new RejectedExecutionException("The serial executor is shut down.");
+            }
+            if (!tasks.offer(task)) {
+                overflowHandler.onQueueFull(task, tasks);
+            }
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+
+        try {
+            executor.execute(nextTaskRunner);
+        } catch (final RejectedExecutionException e) {
+            onExecutorRejected(task);
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (mutex) {
+            shutdown = true;
+            mutex.notifyAll();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> pendingTasks = new ArrayList<>();
+        synchronized (mutex) {
+            shutdown = true;
+            tasks.drainTo(pendingTasks);
+            mutex.notifyAll();
+        }
+        return pendingTasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        synchronized (mutex) {
+            return shutdown;
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        synchronized (mutex) {
+            return shutdown && !running;
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (mutex) {
+            while (!(shutdown && !running)) {
+                final long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(mutex, remainingNanos);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Hands the next queued task to the executor once the previous one has completed, or stops running if no task is queued.
+     */
+    private void runNextTask() {
+        synchronized (mutex) {
+            if (tasks.isEmpty()) {
+                running = false;
+                mutex.notifyAll();
+                return;
+            }
+        }
+
+        try {
+            executor.execute(nextTaskRunner);
+        } catch (final RejectedExecutionException e) {
+            onExecutorRejected(null);
+        }
+    }
+
+    /**
+     * Drops the queued tasks, as the provided executor no longer accepts tasks, for instance after the app has shut it down.
+     *
+     * @param rejectedTask {@link Runnable} whose submission is being rejected, left to its submitter, or null.
+     */
+    private void onExecutorRejected(final Runnable rejectedTask) {
+        final List<Runnable> droppedTasks = new ArrayList<>();
+        synchronized (mutex) {
+            tasks.drainTo(droppedTasks);
+            running = false;
+            mutex.notifyAll();
+        }
+        MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                String.format("Dropped (%d) Optimize extension tasks, the provided executor rejected them.", droppedTasks.size()));
+        for (final Runnable droppedTask : droppedTasks) {
+            if (droppedTask != rejectedTask) {
+                overflowHandler.drop(droppedTask);
+            }
+        }
+    }
+}
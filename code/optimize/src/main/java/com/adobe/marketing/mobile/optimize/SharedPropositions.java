@@ -0,0 +1,92 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.Event;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code SharedPropositions} class hands the {@link Proposition} objects held by the extension to the public API callbacks, alongside the
+ * event carrying their event data, so that the callbacks do not parse them again from the event data.
+ * <p>
+ * The extension owns an instance, reached by the API through the registered extension, and only shares the propositions if
+ * {@value OptimizeConstants.Configuration#OPTIMIZE_PROPOSITIONS_SHARING_ENABLED} is set to true. The shared propositions cannot be modified,
+ * as the same instances are handed to all the callbacks.
+ * <p>
+ * The propositions are keyed by the unique identifier of the optimize response or notification event. Only the propositions of the
+ * {@value #MAX_SHARED_EVENTS} most recent events are kept, the callbacks receiving an older event parse its event data instead.
+ */
+class SharedPropositions {
+    private static final int MAX_SHARED_EVENTS = 16;
+
+    private final Map<String, Map<DecisionScope, Proposition>> sharedPropositions =
+            new LinkedHashMap<String, Map<DecisionScope, Proposition>>() {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Map<DecisionScope, Proposition>> eldest) {
+                    return size() > MAX_SHARED_EVENTS;
+                }
+            };
+
+    /**
+     * Shares the given {@code propositions} with the consumers of the given {@code event}.
+     * <p>
+     * The propositions which can be modified are shared as immutable copies.
+     *
+     * @param event {@link Event} containing the propositions event data.
+     * @param propositions {@code Map<DecisionScope, Proposition>} containing the propositions in the event data.
+     * @see Proposition#freeze()
+     */
+    void put(final Event event, final Map<DecisionScope, Proposition> propositions) {
+        if (event == null || event.getUniqueIdentifier() == null || propositions == null) {
+            return;
+        }
+
+        final Map<DecisionScope, Proposition> immutablePropositions = new LinkedHashMap<>();
+        for (final Map.Entry<DecisionScope, Proposition> entry : propositions.entrySet()) {
+            immutablePropositions.put(entry.getKey(), entry.getValue().freeze());
+        }
+        synchronized (sharedPropositions) {
+            sharedPropositions.put(event.getUniqueIdentifier(), Collections.unmodifiableMap(immutablePropositions));
+        }
+    }
+
+    /**
+     * Gets the propositions shared with the consumers of the given {@code event}.
+     *
+     * @param event {@link Event} containing the propositions event data.
+     * @return {@code Map<DecisionScope, Proposition>} containing a new map of the shared propositions, or null if they are no longer available.
+     */
+    Map<DecisionScope, Proposition> get(final Event event) {
+        if (event == null || event.getUniqueIdentifier() == null) {
+            return null;
+        }
+
+        final Map<DecisionScope, Proposition> propositions;
+        synchronized (sharedPropositions) {
+            propositions = sharedPropositions.get(event.getUniqueIdentifier());
+        }
+        return propositions != null ? new LinkedHashMap<>(propositions) : null;
+    }
+
+    /**
+     * Removes all the shared propositions.
+     */
+    void clear() {
+        synchronized (sharedPropositions) {
+            sharedPropositions.clear();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static com.adobe.marketing.mobile.optimize.OptimizeConstants.LOG_TAG;
+
+/**
+ * {@code TaskOverflowHandler} class handles the extension tasks submitted while the bounded executor queue is full, according to the
+ * configured overflow policy.
+ * <ul>
+ *     <li>{@value OptimizeConstants.ExecutorOverflowPolicies#DROP_OLDEST_TRACKING} drops the oldest queued track propositions task to make room
+ *     for the new task. The new task is dropped if no track task is queued. The extension lane runs no track task, so on that lane this
+ *     policy drops the new update, get and other tasks just like {@value OptimizeConstants.ExecutorOverflowPolicies#REJECT_NEW}.</li>
+ *     <li>{@value OptimizeConstants.ExecutorOverflowPolicies#REJECT_NEW} drops the new task.</li>
+ * </ul>
+ * No policy runs the new task on the submitting thread, as the tasks of a lane rely on running one at a time and in submission order,
+ * for instance for the update requests coalescing, the in-flight requests tracking, the clears applying after the earlier writes and the
+ * interaction batches scheduling.
+ * <p>
+ * The critical tasks, such as the Edge responses, the clears and the configuration updates, are always accepted by the {@link ExecutorLaneQueue},
+ * so they never reach this handler and are never dropped. The submitting thread is never blocked.
+ * <p>
+ * Tasks submitted after the executor has been shut down are always dropped. A dropped new task is signaled to the submitter with a
+ * {@link RejectedExecutionException}, as {@link ThreadPoolExecutor#execute(Runnable)} would, and a dropped {@link DroppableTask} is notified,
+ * so that the tasks answering a caller fail explicitly. For instance, a dropped get propositions request is answered with an error.
+ */
+class TaskOverflowHandler implements RejectedExecutionHandler {
+    private final ExecutorMetrics executorMetrics;
+    private volatile String policy = OptimizeConstants.ExecutorOverflowPolicies.DROP_OLDEST_TRACKING;
+
+    /**
+     * Constructor creates {@code TaskOverflowHandler} using the {@value OptimizeConstants.ExecutorOverflowPolicies#DROP_OLDEST_TRACKING} policy.
+     *
+     * @param executorMetrics {@link ExecutorMetrics} recording the dropped tasks.
+     */
+    TaskOverflowHandler(final ExecutorMetrics executorMetrics) {
+        this.executorMetrics = executorMetrics;
+    }
+
+    /**
+     * Sets the overflow policy.
+     * <p>
+     * The {@value OptimizeConstants.ExecutorOverflowPolicies#DROP_OLDEST_TRACKING} policy is used if the provided {@code name} is null, empty or not supported.
+     *
+     * @param name {@link String} containing the policy name, either {@value OptimizeConstants.ExecutorOverflowPolicies#DROP_OLDEST_TRACKING}
+     *             or {@value OptimizeConstants.ExecutorOverflowPolicies#REJECT_NEW}.
+     */
+    void setPolicy(final String name) {
+        if (OptimizeConstants.ExecutorOverflowPolicies.REJECT_NEW.equalsIgnoreCase(name)) {
+            policy = OptimizeConstants.ExecutorOverflowPolicies.REJECT_NEW;
+            return;
+        }
+
+        if (!OptimizeUtils.isNullOrEmpty(name) && !OptimizeConstants.ExecutorOverflowPolicies.DROP_OLDEST_TRACKING.equalsIgnoreCase(name)) {
+            MobileCore.log(LoggingMode.WARNING, LOG_TAG,
+                    String.format("Executor overflow policy (%s) is not supported, defaulting to (%s).", name, OptimizeConstants.ExecutorOverflowPolicies.DROP_OLDEST_TRACKING));
+        }
+        policy = OptimizeConstants.ExecutorOverflowPolicies.DROP_OLDEST_TRACKING;
+    }
+
+    /**
+     * Gets the overflow policy.
+     *
+     * @return {@link String} containing the policy name.
+     */
+    String getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Handles the given {@code task} refused by the full queue of the given {@code executor}, or submitted after it was shut down.
+     *
+     * @param task {@link Runnable} which the executor did not accept.
+     * @param executor {@link ThreadPoolExecutor} to which the task was submitted.
+     * @throws RejectedExecutionException if the task is dropped.
+     * @see #onQueueFull(Runnable, BlockingQueue)
+     */
+    @Override
+    public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("The Optimize extension executor is shut down.");
+        }
+
+        onQueueFull(task, executor.getQueue());
+    }
+
+    /**
+     * Handles the given {@code task} refused by the given full {@code queue}, according to the overflow policy.
+     * <p>
+     * The task queued instead of the oldest track task is accepted. Otherwise the task is dropped and a {@link RejectedExecutionException}
+     * is thrown, so that the submitter knows the task will not run and records it. The evicted track task is dropped by this handler.
+     * <p>
+     * It is used by both the default executor lanes and the {@link SerialExecutorService} running the tasks on a provided executor, so
+     * that the overflow policy applies the same way to both.
+     *
+     * @param task {@link Runnable} which the queue did not accept.
+     * @param queue {@code BlockingQueue<Runnable>} containing the tasks waiting to run.
+     * @throws RejectedExecutionException if the task is dropped.
+     */
+    void onQueueFull(final Runnable task, final BlockingQueue<Runnable> queue) {
+        if (OptimizeConstants.ExecutorOverflowPolicies.DROP_OLDEST_TRACKING.equals(policy)) {
+            final Iterator<Runnable> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                final Runnable queuedTask = iterator.next();
+                if (isTrackTask(queuedTask) && queue.remove(queuedTask)) {
+                    drop(queuedTask);
+                    if (queue.offer(task)) {
+                        return;
+                    }
+                    break;
+                }
+            }
+        }
+
+        throw new RejectedExecutionException(String.format("The Optimize extension queue is full, dropped a task of type (%s).", getTaskType(task)));
+    }
+
+    /**
+     * Drops the given {@code task} removed from the executor queue without being run, recording it and notifying it if it is a {@link DroppableTask}.
+     *
+     * @param task {@link Runnable} which will not run.
+     */
+    void drop(final Runnable task) {
+        executorMetrics.onRejected(task);
+        MobileCore.log(LoggingMode.DEBUG, LOG_TAG,
+                String.format("Dropped a queued Optimize extension task of type (%s).", getTaskType(task)));
+        if (task instanceof ExecutorMetrics.InstrumentedTask) {
+            ((ExecutorMetrics.InstrumentedTask) task).onDropped();
+        }
+    }
+
+    private static String getTaskType(final Runnable task) {
+        return task instanceof ExecutorMetrics.InstrumentedTask ? ((ExecutorMetrics.InstrumentedTask) task).getTaskType() : ExecutorTaskMetrics.TASK_OTHER;
+    }
+
+    private static boolean isTrackTask(final Runnable task) {
+        return task instanceof ExecutorMetrics.InstrumentedTask
+                && !((ExecutorMetrics.InstrumentedTask) task).isCritical()
+                && ExecutorTaskMetrics.TASK_TRACK.equals(((ExecutorMetrics.InstrumentedTask) task).getTaskType());
+    }
+}
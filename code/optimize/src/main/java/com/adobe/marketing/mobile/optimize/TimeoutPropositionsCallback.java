@@ -0,0 +1,111 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code TimeoutPropositionsCallback} class wraps a get propositions callback, failing it with {@link AdobeError#CALLBACK_TIMEOUT} if no
+ * response is received before the deadline.
+ * <p>
+ * The wrapped callback is invoked at most once, either with the response or with the timeout error. The timeout error is only reported
+ * if the wrapped callback is an {@link AdobeCallbackWithError}.
+ */
+class TimeoutPropositionsCallback implements PropositionsExpiryCallback {
+    private static final Object timerMutex = new Object();
+    private static ScheduledExecutorService timer;
+
+    private final AdobeCallback<Map<DecisionScope, Proposition>> callback;
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+    private volatile ScheduledFuture<?> timeout;
+
+    /**
+     * Constructor creates a {@code TimeoutPropositionsCallback} wrapping the provided {@code callback}.
+     *
+     * @param callback {@code AdobeCallback<Map<DecisionScope, Proposition>>} to be invoked with the response or the timeout error.
+     */
+    TimeoutPropositionsCallback(final AdobeCallback<Map<DecisionScope, Proposition>> callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * Starts the timer which fails the callback once {@code timeoutMillis} has elapsed.
+     *
+     * @param timeoutMillis {@code long} containing the timeout in milliseconds.
+     */
+    void start(final long timeoutMillis) {
+        timeout = getTimer().schedule(new Runnable() {
+            @Override
+            public void run() {
+                fail(AdobeError.CALLBACK_TIMEOUT);
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+
+        // The callback may have completed before the timer was set.
+        if (completed.get()) {
+            timeout.cancel(false);
+        }
+    }
+
+    @Override
+    public void expired(final List<DecisionScope> expiredScopes) {
+        if (!completed.get() && callback instanceof PropositionsExpiryCallback) {
+            ((PropositionsExpiryCallback) callback).expired(expiredScopes);
+        }
+    }
+
+    @Override
+    public void call(final Map<DecisionScope, Proposition> propositions) {
+        if (complete()) {
+            callback.call(propositions);
+        }
+    }
+
+    @Override
+    public void fail(final AdobeError error) {
+        if (complete() && callback instanceof AdobeCallbackWithError) {
+            ((AdobeCallbackWithError<?>) callback).fail(error);
+        }
+    }
+
+    private boolean complete() {
+        if (!completed.compareAndSet(false, true)) {
+            return false;
+        }
+
+        final ScheduledFuture<?> scheduledTimeout = timeout;
+        if (scheduledTimeout != null) {
+            scheduledTimeout.cancel(false);
+        }
+        return true;
+    }
+
+    private static ScheduledExecutorService getTimer() {
+        synchronized (timerMutex) {
+            if (timer == null) {
+                timer = Executors.newSingleThreadScheduledExecutor(OptimizeUtils.daemonThreadFactory("Optimize Callback Timeout"));
+            }
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+/**
+ * {@code TinyLfuEvictionPolicy} class evicts the least recently used cached proposition, but only admits a new scope to a full cache
+ * if it has been requested more often than the proposition it would evict.
+ * <p>
+ * Request frequencies, including those of scopes not present in the cache, are estimated using a {@link FrequencySketch}.
+ */
+class TinyLfuEvictionPolicy extends LruEvictionPolicy {
+    private static final int SKETCH_CAPACITY = 256;
+
+    private final FrequencySketch sketch = new FrequencySketch(SKETCH_CAPACITY);
+
+    @Override
+    void recordAccess(final DecisionScope scope) {
+        sketch.increment(scope);
+        super.recordAccess(scope);
+    }
+
+    @Override
+    void recordWrite(final DecisionScope scope) {
+        sketch.increment(scope);
+        super.recordWrite(scope);
+    }
+
+    @Override
+    boolean shouldAdmit(final DecisionScope candidate, final DecisionScope victim) {
+        return sketch.frequency(candidate) > sketch.frequency(victim);
+    }
+
+    @Override
+    void clear() {
+        sketch.clear();
+        super.clear();
+    }
+}
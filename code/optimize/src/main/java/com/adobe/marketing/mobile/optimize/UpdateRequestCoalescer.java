@@ -0,0 +1,174 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@code UpdateRequestCoalescer} class collects the update propositions requests received within a time window, merging the requests
+ * with the same {@code xdm}, {@code data} and override {@code datasetId} into a single request for the union of their decision scopes.
+ */
+class UpdateRequestCoalescer {
+    private final Map<Key, Set<String>> pendingRequests = new LinkedHashMap<>();
+    private final Map<Key, List<PersonalizationRequestTrace>> pendingTraces = new LinkedHashMap<>();
+
+    /**
+     * Adds an update propositions request to be merged with the compatible pending requests.
+     *
+     * @param scopeNames {@code Collection<String>} containing the requested decision scope names.
+     * @param xdm {@code Map<String, Object>} containing the request XDM, may be null.
+     * @param data {@code Map<String, Object>} containing the request free-form data, may be null.
+     * @param datasetId {@link String} containing the override dataset identifier, may be null.
+     * @param trace {@link PersonalizationRequestTrace} of the request, or null if tracing is disabled.
+     * @return {@code boolean} indicating whether this is the first pending request, in which case the caller should schedule a {@link #drain()}.
+     */
+    synchronized boolean add(final Collection<String> scopeNames, final Map<String, Object> xdm, final Map<String, Object> data, final String datasetId,
+                             final PersonalizationRequestTrace trace) {
+        final boolean first = pendingRequests.isEmpty();
+
+        final Key key = new Key(xdm, data, datasetId);
+        Set<String> mergedScopeNames = pendingRequests.get(key);
+        if (mergedScopeNames == null) {
+            mergedScopeNames = new LinkedHashSet<>();
+            pendingRequests.put(key, mergedScopeNames);
+        }
+        mergedScopeNames.addAll(scopeNames);
+
+        if (trace != null) {
+            List<PersonalizationRequestTrace> traces = pendingTraces.get(key);
+            if (traces == null) {
+                traces = new ArrayList<>();
+                pendingTraces.put(key, traces);
+            }
+            traces.add(trace);
+        }
+        return first;
+    }
+
+    /**
+     * Removes and returns the merged pending requests, in the order they were first added.
+     *
+     * @return {@code List<Request>} containing the merged requests.
+     */
+    synchronized List<Request> drain() {
+        final List<Request> requests = new ArrayList<>();
+        for (final Map.Entry<Key, Set<String>> pendingRequest : pendingRequests.entrySet()) {
+            final Key key = pendingRequest.getKey();
+            final List<PersonalizationRequestTrace> traces = pendingTraces.get(key);
+            requests.add(new Request(new ArrayList<>(pendingRequest.getValue()), key.xdm, key.data, key.datasetId,
+                    traces != null ? traces : Collections.<PersonalizationRequestTrace>emptyList()));
+        }
+        pendingRequests.clear();
+        pendingTraces.clear();
+        return requests;
+    }
+
+    private static final class Key {
+        private final Map<String, Object> xdm;
+        private final Map<String, Object> data;
+        private final String datasetId;
+
+        private Key(final Map<String, Object> xdm, final Map<String, Object> data, final String datasetId) {
+            this.xdm = xdm != null ? xdm : Collections.<String, Object>emptyMap();
+            this.data = data != null ? data : Collections.<String, Object>emptyMap();
+            this.datasetId = datasetId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            final Key that = (Key) o;
+            return xdm.equals(that.xdm) && data.equals(that.data) && Objects.equals(datasetId, that.datasetId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(xdm, data, datasetId);
+        }
+    }
+
+    /**
+     * {@code Request} class contains a merged update propositions request.
+     */
+    static final class Request {
+        private final List<String> scopeNames;
+        private final Map<String, Object> xdm;
+        private final Map<String, Object> data;
+        private final String datasetId;
+        private final List<PersonalizationRequestTrace> traces;
+
+        private Request(final List<String> scopeNames, final Map<String, Object> xdm, final Map<String, Object> data, final String datasetId,
+                        final List<PersonalizationRequestTrace> traces) {
+            this.scopeNames = scopeNames;
+            this.xdm = xdm;
+            this.data = data;
+            this.datasetId = datasetId;
+            this.traces = traces;
+        }
+
+        /**
+         * Gets the union of the decision scope names of the merged requests.
+         *
+         * @return {@code List<String>} containing the decision scope names.
+         */
+        List<String> getScopeNames() {
+            return scopeNames;
+        }
+
+        /**
+         * Gets the XDM shared by the merged requests.
+         *
+         * @return {@code Map<String, Object>} containing the request XDM.
+         */
+        Map<String, Object> getXdm() {
+            return xdm;
+        }
+
+        /**
+         * Gets the free-form data shared by the merged requests.
+         *
+         * @return {@code Map<String, Object>} containing the request data.
+         */
+        Map<String, Object> getData() {
+            return data;
+        }
+
+        /**
+         * Gets the override dataset identifier shared by the merged requests.
+         *
+         * @return {@link String} containing the dataset identifier, or null.
+         */
+        String getDatasetId() {
+            return datasetId;
+        }
+
+        /**
+         * Gets the traces of the merged requests.
+         *
+         * @return {@code List<PersonalizationRequestTrace>} containing the traces, empty if tracing is disabled.
+         */
+        List<PersonalizationRequestTrace> getTraces() {
+            return traces;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CacheEvictionPolicyTests {
+    private final DecisionScope scope1 = new DecisionScope("scope1");
+    private final DecisionScope scope2 = new DecisionScope("scope2");
+    private final DecisionScope scope3 = new DecisionScope("scope3");
+
+    @Test
+    public void testFromName() {
+        // test
+        assertTrue(CacheEvictionPolicy.fromName("lru") instanceof LruEvictionPolicy);
+        assertTrue(CacheEvictionPolicy.fromName("LFU") instanceof LfuEvictionPolicy);
+        assertTrue(CacheEvictionPolicy.fromName("tinylfu") instanceof TinyLfuEvictionPolicy);
+        assertTrue(CacheEvictionPolicy.fromName(null) instanceof LruEvictionPolicy);
+        assertTrue(CacheEvictionPolicy.fromName("unsupported") instanceof LruEvictionPolicy);
+    }
+
+    @Test
+    public void testLruSelectVictim() {
+        // setup
+        final CacheEvictionPolicy policy = new LruEvictionPolicy();
+        policy.recordWrite(scope1);
+        policy.recordWrite(scope2);
+        policy.recordWrite(scope3);
+        policy.recordAccess(scope1);
+
+        // test
+        assertEquals(scope2, policy.selectVictim(Arrays.asList(scope1, scope2, scope3)));
+        assertEquals(scope3, policy.selectVictim(Arrays.asList(scope1, scope3)));
+        assertNull(policy.selectVictim(new ArrayList<DecisionScope>()));
+    }
+
+    @Test
+    public void testLruRecordRemoval() {
+        // setup
+        final CacheEvictionPolicy policy = new LruEvictionPolicy();
+        policy.recordWrite(scope1);
+        policy.recordWrite(scope2);
+
+        // test
+        policy.recordRemoval(scope1);
+        policy.recordAccess(scope1);
+
+        // verify, removed scope is no longer tracked
+        assertEquals(scope1, policy.selectVictim(Arrays.asList(scope1, scope2)));
+    }
+
+    @Test
+    public void testLfuSelectVictim() {
+        // setup
+        final CacheEvictionPolicy policy = new LfuEvictionPolicy();
+        policy.recordWrite(scope1);
+        policy.recordWrite(scope2);
+        policy.recordWrite(scope3);
+        policy.recordAccess(scope1);
+        policy.recordAccess(scope1);
+        policy.recordAccess(scope3);
+
+        // test
+        assertEquals(scope2, policy.selectVictim(Arrays.asList(scope1, scope2, scope3)));
+        assertEquals(scope3, policy.selectVictim(Arrays.asList(scope1, scope3)));
+    }
+
+    @Test
+    public void testLfuSelectVictim_tieBrokenByWriteOrder() {
+        // setup
+        final CacheEvictionPolicy policy = new LfuEvictionPolicy();
+        policy.recordWrite(scope1);
+        policy.recordWrite(scope2);
+
+        // test
+        assertEquals(scope1, policy.selectVictim(Arrays.asList(scope2, scope1)));
+    }
+
+    @Test
+    public void testDefaultPoliciesAlwaysAdmit() {
+        // test
+        assertTrue(new LruEvictionPolicy().shouldAdmit(scope1, scope2));
+        assertTrue(new LfuEvictionPolicy().shouldAdmit(scope1, scope2));
+    }
+
+    @Test
+    public void testTinyLfuShouldAdmit() {
+        // setup
+        final CacheEvictionPolicy policy = new TinyLfuEvictionPolicy();
+        policy.recordWrite(scope1);
+        policy.recordAccess(scope2);
+        policy.recordAccess(scope2);
+
+        // test
+        assertTrue(policy.shouldAdmit(scope2, scope1));
+        assertFalse(policy.shouldAdmit(scope1, scope2));
+        assertFalse(policy.shouldAdmit(scope3, scope1));
+    }
+
+    @Test
+    public void testTinyLfuClear() {
+        // setup
+        final CacheEvictionPolicy policy = new TinyLfuEvictionPolicy();
+        policy.recordAccess(scope2);
+        policy.recordAccess(scope2);
+
+        // test
+        policy.clear();
+
+        // verify
+        assertFalse(policy.shouldAdmit(scope2, scope1));
+    }
+}
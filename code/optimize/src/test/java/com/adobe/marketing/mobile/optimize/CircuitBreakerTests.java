@@ -0,0 +1,168 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTests {
+    @Test
+    public void testOnFailure_opensAfterThreshold() {
+        // setup
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(3, 30000L, 10000L);
+
+        // test & verify
+        assertFalse(circuitBreaker.onFailure(0L));
+        assertFalse(circuitBreaker.onFailure(0L));
+        assertTrue(circuitBreaker.allowRequest(0L));
+        assertTrue(circuitBreaker.onFailure(0L));
+        assertEquals("open", circuitBreaker.getState());
+        assertEquals(3, circuitBreaker.getConsecutiveFailures());
+        assertTrue(circuitBreaker.isOpen(29999L));
+        assertFalse(circuitBreaker.allowRequest(29999L));
+    }
+
+    @Test
+    public void testOnSuccess_resetsFailures() {
+        // setup
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(3, 30000L, 10000L);
+        circuitBreaker.onFailure(0L);
+        circuitBreaker.onFailure(0L);
+
+        // test
+        final boolean circuitClosed = circuitBreaker.onSuccess();
+
+        // verify
+        assertFalse(circuitClosed);
+        assertEquals(0, circuitBreaker.getConsecutiveFailures());
+        assertFalse(circuitBreaker.onFailure(0L));
+        assertEquals("closed", circuitBreaker.getState());
+    }
+
+    @Test
+    public void testAllowRequest_singleProbeAfterOpenDuration() {
+        // setup
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(1, 30000L, 10000L);
+        circuitBreaker.onFailure(0L);
+
+        // test & verify
+        assertTrue(circuitBreaker.allowRequest(30000L));
+        assertEquals("halfopen", circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest(30001L));
+        assertTrue(circuitBreaker.isOpen(30001L));
+
+        assertTrue(circuitBreaker.onSuccess());
+        assertEquals("closed", circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest(30002L));
+    }
+
+    @Test
+    public void testOnFailure_probeFailureReopens() {
+        // setup
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(1, 30000L, 10000L);
+        circuitBreaker.onFailure(0L);
+        circuitBreaker.allowRequest(30000L);
+
+        // test
+        assertTrue(circuitBreaker.onFailure(31000L));
+
+        // verify
+        assertEquals("open", circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest(60999L));
+        assertTrue(circuitBreaker.allowRequest(61000L));
+    }
+
+    @Test
+    public void testAllowRequest_probeWithoutFailureCloses() {
+        // setup
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(1, 30000L, 10000L);
+        circuitBreaker.onFailure(0L);
+        circuitBreaker.allowRequest(30000L);
+
+        // test & verify
+        assertFalse(circuitBreaker.isOpen(40000L));
+        assertTrue(circuitBreaker.allowRequest(40000L));
+        assertEquals("closed", circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getConsecutiveFailures());
+    }
+
+    @Test
+    public void testConfigure_disabled() {
+        // setup
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(1, 30000L, 10000L);
+        circuitBreaker.onFailure(0L);
+
+        // test
+        final boolean circuitClosed = circuitBreaker.configure(0, 30000L);
+
+        // verify
+        assertTrue(circuitClosed);
+        assertEquals("closed", circuitBreaker.getState());
+        assertFalse(circuitBreaker.onFailure(0L));
+        assertTrue(circuitBreaker.allowRequest(0L));
+    }
+
+    @Test
+    public void testConfigure_enabledKeepsCircuitOpen() {
+        // setup
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(1, 30000L, 10000L);
+        circuitBreaker.onFailure(0L);
+
+        // test
+        final boolean circuitClosed = circuitBreaker.configure(2, 60000L);
+
+        // verify
+        assertFalse(circuitClosed);
+        assertEquals("open", circuitBreaker.getState());
+        assertTrue(circuitBreaker.configure(0, 60000L));
+        assertFalse(circuitBreaker.configure(0, 60000L));
+    }
+
+    @Test
+    public void testCloseListener_notifiedOnEveryClose() {
+        // setup
+        final AtomicInteger closeCount = new AtomicInteger();
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(1, 30000L, 10000L, new CircuitBreaker.CloseListener() {
+            @Override
+            public void onClose() {
+                closeCount.incrementAndGet();
+            }
+        });
+
+        // test & verify
+        circuitBreaker.onSuccess();
+        assertEquals(0, closeCount.get());
+
+        circuitBreaker.onFailure(0L);
+        circuitBreaker.onSuccess();
+        assertEquals(1, closeCount.get());
+
+        circuitBreaker.onFailure(0L);
+        assertTrue(circuitBreaker.allowRequest(30000L));
+        assertFalse(circuitBreaker.allowRequest(39999L));
+        assertEquals(1, closeCount.get());
+        assertTrue(circuitBreaker.allowRequest(40000L));
+        assertEquals(2, closeCount.get());
+
+        circuitBreaker.onFailure(50000L);
+        circuitBreaker.configure(0, 30000L);
+        assertEquals(3, closeCount.get());
+        circuitBreaker.configure(0, 30000L);
+        assertEquals(3, closeCount.get());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DisplayImpressionDeduplicatorTests {
+    private final DisplayImpressionDeduplicator deduplicator = new DisplayImpressionDeduplicator(3);
+
+    @Test
+    public void testFilter_disabled() {
+        // setup
+        final Map<String, Object> xdm = createInteractionXdm("decisioning.propositionDisplay", "propositionId", "offer1");
+
+        // test
+        assertSame(xdm, deduplicator.filter(xdm, 1000));
+        assertSame(xdm, deduplicator.filter(xdm, 1000));
+
+        // verify
+        assertEquals(0, deduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void testFilter_duplicateWithinWindow() {
+        // setup
+        deduplicator.configure(1000);
+        final Map<String, Object> xdm = createInteractionXdm("decisioning.propositionDisplay", "propositionId", "offer1");
+
+        // test
+        assertSame(xdm, deduplicator.filter(xdm, 1000));
+        assertNull(deduplicator.filter(xdm, 1999));
+        assertSame("The display should be tracked again once the window has elapsed.", xdm, deduplicator.filter(xdm, 2000));
+
+        // verify
+        assertEquals(1, deduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void testFilter_removesOnlyDuplicateOffers() {
+        // setup
+        deduplicator.configure(1000);
+        deduplicator.filter(createInteractionXdm("decisioning.propositionDisplay", "propositionId", "offer1"), 1000);
+
+        // test
+        final Map<String, Object> filteredXdm = deduplicator.filter(createInteractionXdm("decisioning.propositionDisplay", "propositionId", "offer1", "offer2"), 1100);
+
+        // verify
+        final List<Map<String, Object>> propositions = getPropositions(filteredXdm);
+        assertEquals(1, propositions.size());
+        final List<Map<String, Object>> items = (List<Map<String, Object>>) propositions.get(0).get("items");
+        assertEquals(1, items.size());
+        assertEquals("offer2", items.get(0).get("id"));
+        assertEquals("decisioning.propositionDisplay", filteredXdm.get("eventType"));
+    }
+
+    @Test
+    public void testFilter_sameOfferInOtherProposition() {
+        // setup
+        deduplicator.configure(1000);
+        final Map<String, Object> xdm = createInteractionXdm("decisioning.propositionDisplay", "otherPropositionId", "offer1");
+        deduplicator.filter(createInteractionXdm("decisioning.propositionDisplay", "propositionId", "offer1"), 1000);
+
+        // test
+        assertSame(xdm, deduplicator.filter(xdm, 1100));
+    }
+
+    @Test
+    public void testFilter_tapNotDeduplicated() {
+        // setup
+        deduplicator.configure(DisplayImpressionDeduplicator.SESSION);
+        final Map<String, Object> xdm = createInteractionXdm("decisioning.propositionInteract", "propositionId", "offer1");
+
+        // test
+        assertSame(xdm, deduplicator.filter(xdm, 1000));
+        assertSame(xdm, deduplicator.filter(xdm, 1100));
+    }
+
+    @Test
+    public void testFilter_sessionUntilCleared() {
+        // setup
+        deduplicator.configure(-5);
+        final Map<String, Object> xdm = createInteractionXdm("decisioning.propositionDisplay", "propositionId", "offer1");
+
+        // test
+        deduplicator.filter(xdm, 1000);
+        assertTrue(deduplicator.isSessionMode());
+        assertNull(deduplicator.filter(xdm, Long.MAX_VALUE));
+        deduplicator.clear();
+
+        // verify
+        assertSame(xdm, deduplicator.filter(xdm, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testFilter_boundedEntries() {
+        // setup
+        deduplicator.configure(DisplayImpressionDeduplicator.SESSION);
+        final Map<String, Object> firstXdm = createInteractionXdm("decisioning.propositionDisplay", "propositionId", "offer1");
+
+        // test
+        deduplicator.filter(firstXdm, 1000);
+        deduplicator.filter(createInteractionXdm("decisioning.propositionDisplay", "propositionId", "offer2", "offer3", "offer4"), 1000);
+
+        // verify
+        assertSame("The offer displayed first should be forgotten first.", firstXdm, deduplicator.filter(firstXdm, 1000));
+    }
+
+    @Test
+    public void testConfigure_changedWindowForgetsOffers() {
+        // setup
+        deduplicator.configure(1000);
+        final Map<String, Object> xdm = createInteractionXdm("decisioning.propositionDisplay", "propositionId", "offer1");
+        deduplicator.filter(xdm, 1000);
+
+        // test
+        deduplicator.configure(1000);
+        assertNull(deduplicator.filter(xdm, 1100));
+        deduplicator.configure(5000);
+
+        // verify
+        assertFalse(deduplicator.isSessionMode());
+        assertSame(xdm, deduplicator.filter(xdm, 1200));
+    }
+
+    private Map<String, Object> createInteractionXdm(final String eventType, final String propositionId, final String... itemIds) {
+        final List<Map<String, Object>> items = new ArrayList<>();
+        for (final String itemId : Arrays.asList(itemIds)) {
+            final Map<String, Object> item = new HashMap<>();
+            item.put("id", itemId);
+            items.add(item);
+        }
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put("id", propositionId);
+        proposition.put("scope", "myMbox");
+        proposition.put("items", items);
+        final Map<String, Object> decisioning = new HashMap<>();
+        decisioning.put("propositions", new ArrayList<>(Arrays.asList(proposition)));
+        final Map<String, Object> experience = new HashMap<>();
+        experience.put("decisioning", decisioning);
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("_experience", experience);
+        xdm.put("eventType", eventType);
+        return xdm;
+    }
+
+    private List<Map<String, Object>> getPropositions(final Map<String, Object> xdm) {
+        final Map<String, Object> experience = (Map<String, Object>) xdm.get("_experience");
+        final Map<String, Object> decisioning = (Map<String, Object>) experience.get("decisioning");
+        return (List<Map<String, Object>>) decisioning.get("propositions");
+    }
+}
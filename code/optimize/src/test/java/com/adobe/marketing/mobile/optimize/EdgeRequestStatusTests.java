@@ -0,0 +1,67 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class EdgeRequestStatusTests {
+    @Test
+    public void testFromEventData_validStatus() {
+        // setup
+        final Map<String, Object> data = new HashMap<>();
+        data.put("circuitstate", "halfopen");
+        data.put("consecutivefailures", 3);
+        data.put("retrycount", 7L);
+        data.put("rejectedretrycount", 4L);
+
+        // test
+        final EdgeRequestStatus status = EdgeRequestStatus.fromEventData(data);
+
+        // verify
+        assertEquals(EdgeRequestStatus.CIRCUIT_HALF_OPEN, status.getCircuitState());
+        assertEquals(3, status.getConsecutiveFailures());
+        assertEquals(7L, status.getRetryCount());
+        assertEquals(4L, status.getRejectedRetryCount());
+    }
+
+    @Test
+    public void testFromEventData_missingCircuitState() {
+        // test
+        final EdgeRequestStatus status = EdgeRequestStatus.fromEventData(new HashMap<String, Object>());
+
+        // verify
+        assertNull(status);
+        assertNull(EdgeRequestStatus.fromEventData(null));
+    }
+
+    @Test
+    public void testToEventData() {
+        // setup
+        final EdgeRequestStatus status = new EdgeRequestStatus(EdgeRequestStatus.CIRCUIT_CLOSED, 0, 2L, 1L);
+
+        // test
+        final EdgeRequestStatus restoredStatus = EdgeRequestStatus.fromEventData(status.toEventData());
+
+        // verify
+        assertEquals("closed", restoredStatus.getCircuitState());
+        assertEquals(0, restoredStatus.getConsecutiveFailures());
+        assertEquals(2L, restoredStatus.getRetryCount());
+        assertEquals(1L, restoredStatus.getRejectedRetryCount());
+    }
+}
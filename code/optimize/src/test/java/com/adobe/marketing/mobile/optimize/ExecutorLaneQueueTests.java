@@ -0,0 +1,85 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExecutorLaneQueueTests {
+    private final ExecutorMetrics executorMetrics = new ExecutorMetrics();
+
+    @Test
+    public void testOffer_boundsTasksWhichAreNotCritical() {
+        // setup
+        final ExecutorLaneQueue queue = new ExecutorLaneQueue(1);
+        final Runnable update = task(ExecutorTaskMetrics.TASK_UPDATE);
+        final Runnable clear = task(ExecutorTaskMetrics.TASK_CLEAR);
+        final Runnable configuration = executorMetrics.instrument(ExecutorTaskMetrics.TASK_OTHER, noOpTask(), true);
+
+        // test
+        assertTrue(queue.offer(update));
+        assertFalse(queue.offer(task(ExecutorTaskMetrics.TASK_GET)));
+        assertTrue(queue.offer(clear));
+        assertTrue(queue.offer(configuration));
+
+        // verify
+        assertEquals(3, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertSame(update, queue.poll());
+        assertEquals(1, queue.remainingCapacity());
+        assertSame(clear, queue.poll());
+        assertSame(configuration, queue.poll());
+    }
+
+    @Test
+    public void testRemoveAndDrainTo_releaseCapacity() {
+        // setup
+        final ExecutorLaneQueue queue = new ExecutorLaneQueue(2);
+        final Runnable track1 = task(ExecutorTaskMetrics.TASK_TRACK);
+        final Runnable track2 = task(ExecutorTaskMetrics.TASK_TRACK);
+        final Runnable edgeResponse = task(ExecutorTaskMetrics.TASK_EDGE_RESPONSE);
+        queue.offer(track1);
+        queue.offer(edgeResponse);
+        queue.offer(track2);
+
+        // test
+        assertTrue(queue.remove(track1));
+        assertEquals(1, queue.remainingCapacity());
+        final List<Runnable> drainedTasks = new ArrayList<>();
+        queue.drainTo(drainedTasks);
+
+        // verify
+        assertEquals(Arrays.asList(edgeResponse, track2), drainedTasks);
+        assertEquals(2, queue.remainingCapacity());
+        assertTrue(queue.isEmpty());
+    }
+
+    private Runnable task(final String taskType) {
+        return executorMetrics.instrument(taskType, noOpTask());
+    }
+
+    private static Runnable noOpTask() {
+        return new Runnable() {
+            @Override
+            public void run() {}
+        };
+    }
+}
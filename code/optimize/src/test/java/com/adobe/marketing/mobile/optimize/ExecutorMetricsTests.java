@@ -0,0 +1,140 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExecutorMetricsTests {
+    @Test
+    public void testInstrument_countsQueuedTasks() {
+        // setup
+        final ExecutorMetrics metrics = new ExecutorMetrics();
+        final AtomicInteger runCount = new AtomicInteger();
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                runCount.incrementAndGet();
+            }
+        };
+
+        // test
+        final Runnable instrumentedTask1 = metrics.instrument(ExecutorTaskMetrics.TASK_UPDATE, task);
+        final Runnable instrumentedTask2 = metrics.instrument(ExecutorTaskMetrics.TASK_TRACK, task);
+
+        // verify
+        assertEquals(2, metrics.getQueuedTaskCount());
+        instrumentedTask1.run();
+        assertEquals(1, metrics.getQueuedTaskCount());
+        instrumentedTask2.run();
+        assertEquals(0, metrics.getQueuedTaskCount());
+        assertEquals(2, metrics.getMaxQueuedTaskCount());
+        assertEquals(2, runCount.get());
+    }
+
+    @Test
+    public void testOnRejected_countsRejectedTasks() {
+        // setup
+        final ExecutorMetrics metrics = new ExecutorMetrics();
+        final Runnable instrumentedTask = metrics.instrument(ExecutorTaskMetrics.TASK_TRACK, new Runnable() {
+            @Override
+            public void run() {}
+        });
+
+        // test
+        metrics.onRejected(instrumentedTask);
+        metrics.onRejected(instrumentedTask);
+
+        // verify
+        assertEquals(0, metrics.getQueuedTaskCount());
+        assertEquals(2L, metrics.getRejectedTaskCount());
+        assertEquals(0, metrics.getTaskMetrics().get(ExecutorTaskMetrics.TASK_TRACK).getTaskCount());
+    }
+
+    @Test
+    public void testInstrument_recordsWaitAndRunTimeByType() throws Exception {
+        // setup
+        final ExecutorMetrics metrics = new ExecutorMetrics();
+        final Runnable instrumentedTask = metrics.instrument(ExecutorTaskMetrics.TASK_EDGE_RESPONSE, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(20);
+                } catch (final InterruptedException e) {
+                    fail();
+                }
+            }
+        });
+        Thread.sleep(10);
+
+        // test
+        instrumentedTask.run();
+
+        // verify
+        final Map<String, ExecutorTaskMetrics> taskMetrics = metrics.getTaskMetrics();
+        assertEquals(ExecutorMetrics.TASK_TYPES.size(), taskMetrics.size());
+
+        final ExecutorTaskMetrics edgeResponseMetrics = taskMetrics.get(ExecutorTaskMetrics.TASK_EDGE_RESPONSE);
+        assertEquals(1, edgeResponseMetrics.getTaskCount());
+        assertEquals(1, edgeResponseMetrics.getWaitTime().getCount());
+        assertTrue(edgeResponseMetrics.getWaitTime().getMaxMicros() >= TimeUnit.MILLISECONDS.toMicros(10));
+        assertTrue(edgeResponseMetrics.getRunTime().getMaxMicros() >= TimeUnit.MILLISECONDS.toMicros(20));
+        assertEquals(0, taskMetrics.get(ExecutorTaskMetrics.TASK_UPDATE).getTaskCount());
+    }
+
+    @Test
+    public void testInstrument_recordsRunTimeWhenTaskThrows() {
+        // setup
+        final ExecutorMetrics metrics = new ExecutorMetrics();
+        final Runnable instrumentedTask = metrics.instrument(ExecutorTaskMetrics.TASK_CLEAR, new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        });
+
+        // test
+        try {
+            instrumentedTask.run();
+            fail();
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+
+        // verify
+        assertEquals(0, metrics.getQueuedTaskCount());
+        assertEquals(1, metrics.getTaskMetrics().get(ExecutorTaskMetrics.TASK_CLEAR).getTaskCount());
+    }
+
+    @Test
+    public void testInstrument_unknownTypeRecordedAsOther() {
+        // setup
+        final ExecutorMetrics metrics = new ExecutorMetrics();
+
+        // test
+        metrics.instrument("unknown", new Runnable() {
+            @Override
+            public void run() {}
+        }).run();
+
+        // verify
+        assertEquals(1, metrics.getTaskMetrics().get(ExecutorTaskMetrics.TASK_OTHER).getTaskCount());
+    }
+}
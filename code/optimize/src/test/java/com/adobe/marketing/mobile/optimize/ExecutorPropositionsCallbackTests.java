@@ -0,0 +1,159 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.AdobeError;
+import com.adobe.marketing.mobile.MobileCore;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({MobileCore.class})
+public class ExecutorPropositionsCallbackTests {
+    private final List<Object> results = new ArrayList<>();
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final Executor recordingExecutor = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+        }
+    };
+
+    private final PropositionsExpiryCallback recordingCallback = new PropositionsExpiryCallback() {
+        @Override
+        public void expired(final List<DecisionScope> expiredScopes) {
+            results.add(expiredScopes);
+        }
+
+        @Override
+        public void fail(final AdobeError error) {
+            results.add(error);
+        }
+
+        @Override
+        public void call(final Map<DecisionScope, Proposition> propositions) {
+            results.add(propositions);
+        }
+    };
+
+    @Before
+    public void setup() {
+        PowerMockito.mockStatic(MobileCore.class);
+    }
+
+    @Test
+    public void testCall_runsOnExecutor() {
+        // setup
+        final ExecutorPropositionsCallback callback = new ExecutorPropositionsCallback(recordingExecutor, recordingCallback);
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+
+        // test
+        callback.expired(Arrays.asList(new DecisionScope("myMbox")));
+        callback.call(propositions);
+
+        // verify
+        assertTrue("The callback should not be invoked before the executor runs the task.", results.isEmpty());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals(2, results.size());
+        assertEquals(Arrays.asList(new DecisionScope("myMbox")), results.get(0));
+        assertSame("The propositions should be handed over without copying.", propositions, results.get(1));
+    }
+
+    @Test
+    public void testCall_withoutExpiredScopes() {
+        // setup
+        final ExecutorPropositionsCallback callback = new ExecutorPropositionsCallback(recordingExecutor, recordingCallback);
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+
+        // test
+        callback.call(propositions);
+        tasks.get(0).run();
+
+        // verify
+        assertEquals(1, results.size());
+        assertSame(propositions, results.get(0));
+    }
+
+    @Test
+    public void testFail_runsOnExecutor() {
+        // setup
+        final ExecutorPropositionsCallback callback = new ExecutorPropositionsCallback(recordingExecutor, recordingCallback);
+
+        // test
+        callback.fail(AdobeError.CALLBACK_TIMEOUT);
+
+        // verify
+        assertTrue(results.isEmpty());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals(1, results.size());
+        assertEquals(AdobeError.CALLBACK_TIMEOUT, results.get(0));
+    }
+
+    @Test
+    public void testFail_withoutErrorCallback() {
+        // setup
+        final ExecutorPropositionsCallback callback = new ExecutorPropositionsCallback(recordingExecutor, new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositions) {
+                results.add(propositions);
+            }
+        });
+
+        // test
+        callback.fail(AdobeError.CALLBACK_TIMEOUT);
+
+        // verify
+        assertTrue(tasks.isEmpty());
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void testCall_rejectingExecutorRunsOnCallingThread() {
+        // setup
+        final ExecutorPropositionsCallback callback = new ExecutorPropositionsCallback(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                throw new RejectedExecutionException("shut down");
+            }
+        }, recordingCallback);
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+
+        // test
+        callback.call(propositions);
+
+        // verify
+        assertEquals(1, results.size());
+        assertSame(propositions, results.get(0));
+    }
+}
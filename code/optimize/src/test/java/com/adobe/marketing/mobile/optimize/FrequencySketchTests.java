@@ -0,0 +1,90 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FrequencySketchTests {
+    @Test
+    public void testFrequency_unseenItem() {
+        // setup
+        final FrequencySketch sketch = new FrequencySketch(16);
+
+        // test
+        assertEquals(0, sketch.frequency(new DecisionScope("scope1")));
+        assertEquals(0, sketch.frequency(null));
+    }
+
+    @Test
+    public void testIncrement() {
+        // setup
+        final FrequencySketch sketch = new FrequencySketch(16);
+
+        // test
+        sketch.increment(new DecisionScope("scope1"));
+        sketch.increment(new DecisionScope("scope1"));
+        sketch.increment(new DecisionScope("scope2"));
+
+        // verify
+        assertTrue(sketch.frequency(new DecisionScope("scope1")) >= 2);
+        assertTrue(sketch.frequency(new DecisionScope("scope2")) >= 1);
+        assertTrue(sketch.frequency(new DecisionScope("scope1")) > sketch.frequency(new DecisionScope("scope3")));
+    }
+
+    @Test
+    public void testIncrement_saturates() {
+        // setup
+        final FrequencySketch sketch = new FrequencySketch(16);
+
+        // test
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("item");
+        }
+
+        // verify
+        assertEquals(15, sketch.frequency("item"));
+    }
+
+    @Test
+    public void testIncrement_halvesCountersAfterSampleSize() {
+        // setup
+        final FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("item");
+        }
+
+        // test
+        for (int i = 0; i < 160; i++) {
+            sketch.increment("other" + i);
+        }
+
+        // verify
+        assertTrue(sketch.frequency("item") < 8);
+    }
+
+    @Test
+    public void testClear() {
+        // setup
+        final FrequencySketch sketch = new FrequencySketch(16);
+        sketch.increment("item");
+
+        // test
+        sketch.clear();
+
+        // verify
+        assertEquals(0, sketch.frequency("item"));
+    }
+}
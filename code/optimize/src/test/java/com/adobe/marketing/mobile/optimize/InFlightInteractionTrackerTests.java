@@ -0,0 +1,88 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class InFlightInteractionTrackerTests {
+    @Test
+    public void testComplete_requestEventId() {
+        // setup
+        final InFlightInteractionTracker tracker = new InFlightInteractionTracker(InFlightInteractionTracker.DEFAULT_MAX_ENTRIES);
+        final Map<String, Object> xdm = Collections.<String, Object>singletonMap("eventType", "decisioning.propositionDisplay");
+        tracker.add("requestEventId1", xdm, "datasetId");
+        tracker.add("requestEventId2", xdm, null);
+
+        // test
+        final InFlightInteractionTracker.Interaction interaction = tracker.complete("requestEventId1");
+
+        // verify
+        assertNotNull(interaction);
+        assertEquals(xdm, interaction.getXdm());
+        assertEquals("datasetId", interaction.getDatasetId());
+        assertNull(tracker.complete("requestEventId1"));
+        assertNull(tracker.complete("unknownEventId"));
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    public void testAdd_nullRequestEventId() {
+        // setup
+        final InFlightInteractionTracker tracker = new InFlightInteractionTracker(InFlightInteractionTracker.DEFAULT_MAX_ENTRIES);
+
+        // test
+        tracker.add(null, Collections.<String, Object>emptyMap(), null);
+
+        // verify
+        assertEquals(0, tracker.size());
+        assertNull(tracker.complete(null));
+    }
+
+    @Test
+    public void testAdd_maxEntriesEvictsOldest() {
+        // setup
+        final InFlightInteractionTracker tracker = new InFlightInteractionTracker(2);
+
+        // test
+        tracker.add("requestEventId1", Collections.<String, Object>emptyMap(), null);
+        tracker.add("requestEventId2", Collections.<String, Object>emptyMap(), null);
+        tracker.add("requestEventId3", Collections.<String, Object>emptyMap(), null);
+
+        // verify
+        assertEquals(2, tracker.size());
+        assertNull(tracker.complete("requestEventId1"));
+        assertNotNull(tracker.complete("requestEventId2"));
+        assertNotNull(tracker.complete("requestEventId3"));
+    }
+
+    @Test
+    public void testClear() {
+        // setup
+        final InFlightInteractionTracker tracker = new InFlightInteractionTracker(InFlightInteractionTracker.DEFAULT_MAX_ENTRIES);
+        tracker.add("requestEventId", Collections.<String, Object>emptyMap(), null);
+
+        // test
+        tracker.clear();
+
+        // verify
+        assertEquals(0, tracker.size());
+        assertNull(tracker.complete("requestEventId"));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class InFlightRequestTrackerTests {
+    @Test
+    public void testFilter_scopesInFlight() {
+        // setup
+        final InFlightRequestTracker tracker = new InFlightRequestTracker(1000L);
+        tracker.add("requestEventId", Arrays.asList("scope1", "scope2"), null, null, null, 1, 0L);
+
+        // test & verify
+        assertTrue(tracker.filter(Arrays.asList("scope1", "scope2"), Collections.<String, Object>emptyMap(), null, null, 500L).isEmpty());
+        assertEquals(Arrays.asList("scope3"), tracker.filter(Arrays.asList("scope1", "scope3"), null, null, null, 500L));
+    }
+
+    @Test
+    public void testFilter_differentRequestData() {
+        // setup
+        final InFlightRequestTracker tracker = new InFlightRequestTracker(1000L);
+        tracker.add("requestEventId", Arrays.asList("scope1"), null, null, null, 1, 0L);
+        final Map<String, Object> data = new HashMap<>();
+        data.put("key", "value");
+
+        // test & verify
+        assertEquals(Arrays.asList("scope1"), tracker.filter(Arrays.asList("scope1"), null, data, null, 500L));
+        assertEquals(Arrays.asList("scope1"), tracker.filter(Arrays.asList("scope1"), null, null, "datasetId", 500L));
+    }
+
+    @Test
+    public void testFilter_timedOut() {
+        // setup
+        final InFlightRequestTracker tracker = new InFlightRequestTracker(1000L);
+        tracker.add("requestEventId", Arrays.asList("scope1"), null, null, null, 1, 0L);
+
+        // test & verify
+        assertEquals(Arrays.asList("scope1"), tracker.filter(Arrays.asList("scope1"), null, null, null, 1000L));
+    }
+
+    @Test
+    public void testComplete_requestEventId() {
+        // setup
+        final InFlightRequestTracker tracker = new InFlightRequestTracker(1000L);
+        tracker.add("requestEventId1", Arrays.asList("scope1"), null, null, null, 1, 0L);
+        tracker.add("requestEventId2", Arrays.asList("scope2"), null, null, null, 1, 0L);
+
+        // test
+        final InFlightRequestTracker.Request request = tracker.complete("requestEventId1");
+
+        // verify
+        assertEquals(Arrays.asList("scope1"), request.getScopeNames());
+        assertEquals(1, request.getAttempt());
+        assertNull(tracker.complete("requestEventId1"));
+        assertNull(tracker.complete((String) null));
+        assertEquals(Arrays.asList("scope1"), tracker.filter(Arrays.asList("scope1", "scope2"), null, null, null, 500L));
+    }
+
+    @Test
+    public void testComplete_requestEventIdPartiallyAnswered() {
+        // setup
+        final InFlightRequestTracker tracker = new InFlightRequestTracker(1000L);
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("myXdmKey", "myXdmValue");
+        tracker.add("requestEventId", Arrays.asList("scope1", "scope2", "scope3"), xdm, null, "datasetId", 2, 0L);
+        tracker.complete(Arrays.asList("scope2"));
+
+        // test
+        final InFlightRequestTracker.Request request = tracker.complete("requestEventId");
+
+        // verify
+        assertEquals(Arrays.asList("scope1", "scope3"), request.getScopeNames());
+        assertEquals(xdm, request.getXdm());
+        assertTrue(request.getData().isEmpty());
+        assertEquals("datasetId", request.getDatasetId());
+        assertEquals(2, request.getAttempt());
+    }
+
+    @Test
+    public void testComplete_scopeNames() {
+        // setup
+        final InFlightRequestTracker tracker = new InFlightRequestTracker(1000L);
+        tracker.add("requestEventId", Arrays.asList("scope1", "scope2"), null, null, null, 1, 0L);
+
+        // test
+        tracker.complete(Arrays.asList("scope2"));
+
+        // verify
+        assertEquals(Arrays.asList("scope2"), tracker.filter(Arrays.asList("scope1", "scope2"), null, null, null, 500L));
+    }
+
+    @Test
+    public void testClear() {
+        // setup
+        final InFlightRequestTracker tracker = new InFlightRequestTracker(1000L);
+        tracker.add("requestEventId", Arrays.asList("scope1"), null, null, null, 1, 0L);
+
+        // test
+        tracker.clear();
+
+        // verify
+        assertEquals(Arrays.asList("scope1"), tracker.filter(Arrays.asList("scope1"), null, null, null, 500L));
+    }
+}
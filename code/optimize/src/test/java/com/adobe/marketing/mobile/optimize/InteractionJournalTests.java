@@ -0,0 +1,265 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.MobileCore;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({MobileCore.class})
+@PowerMockIgnore("javax.*")
+public class InteractionJournalTests {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Executor directExecutor = new Executor() {
+        @Override
+        public void execute(final Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private File directory;
+    private final List<List<String>> replayedBatches = new ArrayList<>();
+
+    @Before
+    public void setup() throws Exception {
+        PowerMockito.mockStatic(MobileCore.class);
+        directory = new File(temporaryFolder.newFolder(), "com.adobe.optimize");
+    }
+
+    @Test
+    public void testReplay_afterRestartInOrder() {
+        // setup
+        final InteractionJournal journal = new InteractionJournal(directory, directExecutor);
+        journal.append(createInteractionXdm("id1"), null);
+        journal.append(createInteractionXdm("id2"), "datasetId");
+        assertTrue(journal.exists());
+
+        // test
+        final InteractionJournal restoredJournal = new InteractionJournal(directory, directExecutor);
+        final List<InteractionJournal.Record> records = new ArrayList<>();
+        restoredJournal.replay(10, new InteractionJournal.ReplayHandler() {
+            @Override
+            public boolean replay(final List<InteractionJournal.Record> batch) {
+                records.addAll(batch);
+                return true;
+            }
+        });
+
+        // verify
+        assertEquals(2, records.size());
+        assertEquals("id1", getPropositionId(records.get(0).getXdm()));
+        assertNull(records.get(0).getDatasetId());
+        assertEquals("id2", getPropositionId(records.get(1).getXdm()));
+        assertEquals("datasetId", records.get(1).getDatasetId());
+        assertFalse("The journal should be removed once replayed.", restoredJournal.exists());
+    }
+
+    @Test
+    public void testReplay_inBatches() {
+        // setup
+        final InteractionJournal journal = new InteractionJournal(directory, directExecutor);
+        for (int i = 1; i <= 5; i++) {
+            journal.append(createInteractionXdm("id" + i), null);
+        }
+
+        // test
+        journal.replay(2, createRecordingHandler(Integer.MAX_VALUE));
+
+        // verify
+        assertEquals(3, replayedBatches.size());
+        assertEquals(2, replayedBatches.get(0).size());
+        assertEquals(2, replayedBatches.get(1).size());
+        assertEquals(1, replayedBatches.get(2).size());
+        assertEquals("id5", replayedBatches.get(2).get(0));
+    }
+
+    @Test
+    public void testReplay_resumesFromCheckpoint() {
+        // setup
+        final InteractionJournal journal = new InteractionJournal(directory, directExecutor);
+        for (int i = 1; i <= 3; i++) {
+            journal.append(createInteractionXdm("id" + i), null);
+        }
+
+        // test
+        journal.replay(2, createRecordingHandler(1));
+        replayedBatches.clear();
+        new InteractionJournal(directory, directExecutor).replay(2, createRecordingHandler(Integer.MAX_VALUE));
+
+        // verify
+        assertEquals(1, replayedBatches.size());
+        assertEquals(1, replayedBatches.get(0).size());
+        assertEquals("id3", replayedBatches.get(0).get(0));
+    }
+
+    @Test
+    public void testReplay_stoppedByHandler() {
+        // setup
+        final InteractionJournal journal = new InteractionJournal(directory, directExecutor);
+        journal.append(createInteractionXdm("id1"), null);
+
+        // test
+        journal.replay(2, createRecordingHandler(0));
+
+        // verify
+        assertTrue(journal.exists());
+        replayedBatches.clear();
+        journal.replay(2, createRecordingHandler(Integer.MAX_VALUE));
+        assertEquals(1, replayedBatches.size());
+        assertEquals("id1", replayedBatches.get(0).get(0));
+    }
+
+    @Test
+    public void testReplay_drainedCallbackRunOnceAllRecordsReplayed() {
+        // setup
+        final InteractionJournal journal = new InteractionJournal(directory, directExecutor);
+        journal.append(createInteractionXdm("id1"), null);
+        final AtomicInteger drainedCount = new AtomicInteger();
+        final Runnable drainedCallback = new Runnable() {
+            @Override
+            public void run() {
+                drainedCount.incrementAndGet();
+            }
+        };
+
+        // test
+        journal.replay(2, createRecordingHandler(0), drainedCallback);
+        assertEquals("The callback should not run while records are left.", 0, drainedCount.get());
+        journal.replay(2, createRecordingHandler(Integer.MAX_VALUE), drainedCallback);
+
+        // verify
+        assertEquals(1, drainedCount.get());
+        assertFalse(journal.exists());
+    }
+
+    @Test
+    public void testAppend_dropsOldestWhenFull() {
+        // setup
+        final InteractionJournal journal = new InteractionJournal(directory, directExecutor);
+        journal.append(createInteractionXdm("id1"), null);
+        final long recordSize = new File(directory, "interactions.log").length();
+        journal.setMaxSizeBytes(2 * recordSize);
+
+        // test
+        journal.append(createInteractionXdm("id2"), null);
+        journal.append(createInteractionXdm("id3"), null);
+
+        // verify
+        new InteractionJournal(directory, directExecutor).replay(10, createRecordingHandler(Integer.MAX_VALUE));
+        assertEquals(1, replayedBatches.size());
+        assertEquals(2, replayedBatches.get(0).size());
+        assertEquals("id2", replayedBatches.get(0).get(0));
+        assertEquals("id3", replayedBatches.get(0).get(1));
+    }
+
+    @Test
+    public void testAppend_afterIncompleteTrailingRecord() throws Exception {
+        // setup
+        new InteractionJournal(directory, directExecutor).append(createInteractionXdm("id1"), null);
+        final FileOutputStream outputStream = new FileOutputStream(new File(directory, "interactions.log"), true);
+        outputStream.write("2\tnull\t{\"eventType\":".getBytes("UTF-8"));
+        outputStream.close();
+
+        // test
+        final InteractionJournal journal = new InteractionJournal(directory, directExecutor);
+        journal.append(createInteractionXdm("id3"), null);
+        new InteractionJournal(directory, directExecutor).replay(10, createRecordingHandler(Integer.MAX_VALUE));
+
+        // verify
+        assertEquals(1, replayedBatches.size());
+        assertEquals(2, replayedBatches.get(0).size());
+        assertEquals("id1", replayedBatches.get(0).get(0));
+        assertEquals("id3", replayedBatches.get(0).get(1));
+    }
+
+    @Test
+    public void testClear() {
+        // setup
+        final InteractionJournal journal = new InteractionJournal(directory, directExecutor);
+        journal.append(createInteractionXdm("id1"), null);
+
+        // test
+        journal.clear();
+
+        // verify
+        assertFalse(journal.exists());
+        journal.replay(10, createRecordingHandler(Integer.MAX_VALUE));
+        assertTrue(replayedBatches.isEmpty());
+    }
+
+    private InteractionJournal.ReplayHandler createRecordingHandler(final int maxBatches) {
+        return new InteractionJournal.ReplayHandler() {
+            private int batches;
+
+            @Override
+            public boolean replay(final List<InteractionJournal.Record> records) {
+                if (batches++ >= maxBatches) {
+                    return false;
+                }
+                final List<String> propositionIds = new ArrayList<>();
+                for (final InteractionJournal.Record record : records) {
+                    propositionIds.add(getPropositionId(record.getXdm()));
+                }
+                replayedBatches.add(propositionIds);
+                return true;
+            }
+        };
+    }
+
+    private Map<String, Object> createInteractionXdm(final String propositionId) {
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put("id", propositionId);
+        proposition.put("scope", "myMbox");
+        final List<Map<String, Object>> propositions = new ArrayList<>();
+        propositions.add(proposition);
+        final Map<String, Object> decisioning = new HashMap<>();
+        decisioning.put("propositions", propositions);
+        final Map<String, Object> experience = new HashMap<>();
+        experience.put("decisioning", decisioning);
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("_experience", experience);
+        xdm.put("eventType", "decisioning.propositionDisplay");
+        return xdm;
+    }
+
+    private String getPropositionId(final Map<String, Object> xdm) {
+        final Map<String, Object> experience = (Map<String, Object>) xdm.get("_experience");
+        final Map<String, Object> decisioning = (Map<String, Object>) experience.get("decisioning");
+        return (String) ((List<Map<String, Object>>) decisioning.get("propositions")).get(0).get("id");
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LatencyHistogramTests {
+    @Test
+    public void testBucketIndex() {
+        // test and verify
+        assertEquals(0, LatencyHistogram.bucketIndex(0));
+        assertEquals(0, LatencyHistogram.bucketIndex(100));
+        assertEquals(1, LatencyHistogram.bucketIndex(101));
+        assertEquals(3, LatencyHistogram.bucketIndex(1000));
+        assertEquals(LatencyHistogram.bucketCount() - 1, LatencyHistogram.bucketIndex(10000000));
+        assertEquals(LatencyHistogram.bucketCount() - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testGetPercentileMicros() {
+        // setup
+        final long[] bucketCounts = new long[LatencyHistogram.bucketCount()];
+        bucketCounts[0] = 90;
+        bucketCounts[3] = 9;
+        bucketCounts[5] = 1;
+        final LatencyHistogram histogram = new LatencyHistogram(bucketCounts, 20000, 4200);
+
+        // test and verify
+        assertEquals(100, histogram.getCount());
+        assertEquals(200, histogram.getMeanMicros());
+        assertEquals(100, histogram.getPercentileMicros(50));
+        assertEquals(100, histogram.getPercentileMicros(90));
+        assertEquals(1000, histogram.getPercentileMicros(99));
+        assertEquals(4200, histogram.getPercentileMicros(100));
+        assertEquals(100, histogram.getPercentileMicros(0));
+    }
+
+    @Test
+    public void testGetPercentileMicros_empty() {
+        // setup
+        final LatencyHistogram histogram = new LatencyHistogram(new long[LatencyHistogram.bucketCount()], 0, 0);
+
+        // test and verify
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMicros());
+        assertEquals(0, histogram.getPercentileMicros(99));
+    }
+
+    @Test
+    public void testGetBucketCounts_returnsCopy() {
+        // setup
+        final long[] bucketCounts = new long[LatencyHistogram.bucketCount()];
+        bucketCounts[1] = 2;
+        final LatencyHistogram histogram = new LatencyHistogram(bucketCounts, 400, 220);
+
+        // test
+        histogram.getBucketCounts()[1] = 5;
+        histogram.getBucketUpperBoundsMicros()[0] = 0;
+
+        // verify
+        assertEquals(2, histogram.getBucketCounts()[1]);
+        assertEquals(100, histogram.getBucketUpperBoundsMicros()[0]);
+        assertEquals(Long.MAX_VALUE, histogram.getBucketUpperBoundsMicros()[LatencyHistogram.bucketCount() - 1]);
+    }
+
+    @Test
+    public void testToEventData() {
+        // setup
+        final long[] bucketCounts = new long[LatencyHistogram.bucketCount()];
+        bucketCounts[2] = 4;
+        final LatencyHistogram histogram = new LatencyHistogram(bucketCounts, 1600, 480);
+
+        // test
+        final LatencyHistogram restoredHistogram = LatencyHistogram.fromEventData(histogram.toEventData());
+
+        // verify
+        assertEquals(4, restoredHistogram.getCount());
+        assertEquals(1600, restoredHistogram.getTotalMicros());
+        assertEquals(480, restoredHistogram.getMaxMicros());
+        assertArrayEquals(bucketCounts, restoredHistogram.getBucketCounts());
+    }
+
+    @Test
+    public void testFromEventData_invalidBuckets() {
+        // setup
+        final Map<String, Object> data = new HashMap<>();
+        data.put("buckets", Arrays.asList(1L, 2L));
+
+        // test and verify
+        assertNull(LatencyHistogram.fromEventData(data));
+        assertNull(LatencyHistogram.fromEventData(new HashMap<String, Object>()));
+        assertNull(LatencyHistogram.fromEventData(null));
+    }
+}
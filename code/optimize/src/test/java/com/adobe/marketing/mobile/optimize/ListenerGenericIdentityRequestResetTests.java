@@ -60,7 +60,7 @@ public class ListenerGenericIdentityRequestResetTests {
         listener.hear(testEvent);
 
         // verify
-        verify(mockOptimizeExtension, Mockito.times(1)).handleClearPropositions(testEvent);
+        verify(mockOptimizeExtension, Mockito.times(1)).handleResetIdentities(testEvent);
     }
 
     @Test
@@ -72,7 +72,7 @@ public class ListenerGenericIdentityRequestResetTests {
         listener.hear(null);
 
         // verify
-        verify(mockOptimizeExtension, Mockito.never()).handleClearPropositions(any(Event.class));
+        verify(mockOptimizeExtension, Mockito.never()).handleResetIdentities(any(Event.class));
     }
 
     @Test
@@ -89,7 +89,7 @@ public class ListenerGenericIdentityRequestResetTests {
         listener.hear(testEvent);
 
         // verify
-        verify(mockOptimizeExtension, Mockito.times(1)).handleClearPropositions(testEvent);
+        verify(mockOptimizeExtension, Mockito.times(1)).handleResetIdentities(testEvent);
     }
 
     @Test
@@ -106,7 +106,7 @@ public class ListenerGenericIdentityRequestResetTests {
         listener.hear(testEvent);
 
         // verify
-        verify(mockOptimizeExtension, Mockito.times(1)).handleClearPropositions(testEvent);
+        verify(mockOptimizeExtension, Mockito.times(1)).handleResetIdentities(testEvent);
     }
 
     @Test
@@ -122,6 +122,6 @@ public class ListenerGenericIdentityRequestResetTests {
         listener.hear(testEvent);
 
         // verify
-        verify(mockOptimizeExtension, Mockito.never()).handleClearPropositions(any(Event.class));
+        verify(mockOptimizeExtension, Mockito.never()).handleResetIdentities(any(Event.class));
     }
 }
@@ -73,6 +73,100 @@ public class ListenerOptimizeRequestContentTests {
         verify(mockOptimizeExtension, Mockito.never()).handleTrackPropositions(any(Event.class));
     }
 
+    @Test
+    public void testHear_requestTypeRegisterPrefetch() {
+        // setup
+        when(listener.getOptimizeExtension()).thenReturn(mockOptimizeExtension);
+        Map<String, Object> eventData = new HashMap<String, Object>() {
+            {
+                put("requesttype", "registerprefetch");
+            }
+        };
+        Event testEvent = new Event.Builder("Optimize Register Prefetch Request",
+                "com.adobe.eventType.optimize",
+                "com.adobe.eventSource.requestContent")
+                .setEventData(eventData)
+                .build();
+
+        // test
+        listener.hear(testEvent);
+
+        // verify
+        verify(mockOptimizeExtension, Mockito.times(1)).handleRegisterPrefetch(testEvent);
+        verify(mockOptimizeExtension, Mockito.never()).handleUnregisterPrefetch(any(Event.class));
+        verify(mockOptimizeExtension, Mockito.never()).handleUpdatePropositions(any(Event.class));
+    }
+
+    @Test
+    public void testHear_requestTypeUnregisterPrefetch() {
+        // setup
+        when(listener.getOptimizeExtension()).thenReturn(mockOptimizeExtension);
+        Map<String, Object> eventData = new HashMap<String, Object>() {
+            {
+                put("requesttype", "unregisterprefetch");
+            }
+        };
+        Event testEvent = new Event.Builder("Optimize Unregister Prefetch Request",
+                "com.adobe.eventType.optimize",
+                "com.adobe.eventSource.requestContent")
+                .setEventData(eventData)
+                .build();
+
+        // test
+        listener.hear(testEvent);
+
+        // verify
+        verify(mockOptimizeExtension, Mockito.times(1)).handleUnregisterPrefetch(testEvent);
+        verify(mockOptimizeExtension, Mockito.never()).handleRegisterPrefetch(any(Event.class));
+        verify(mockOptimizeExtension, Mockito.never()).handleUpdatePropositions(any(Event.class));
+    }
+
+    @Test
+    public void testHear_requestTypeGetEdgeRequestStatus() {
+        // setup
+        when(listener.getOptimizeExtension()).thenReturn(mockOptimizeExtension);
+        Map<String, Object> eventData = new HashMap<String, Object>() {
+            {
+                put("requesttype", "getedgerequeststatus");
+            }
+        };
+        Event testEvent = new Event.Builder("Optimize Get Edge Request Status Request",
+                "com.adobe.eventType.optimize",
+                "com.adobe.eventSource.requestContent")
+                .setEventData(eventData)
+                .build();
+
+        // test
+        listener.hear(testEvent);
+
+        // verify
+        verify(mockOptimizeExtension, Mockito.times(1)).handleGetEdgeRequestStatus(testEvent);
+        verify(mockOptimizeExtension, Mockito.never()).handleGetPropositions(any(Event.class));
+    }
+
+    @Test
+    public void testHear_requestTypeGetMetrics() {
+        // setup
+        when(listener.getOptimizeExtension()).thenReturn(mockOptimizeExtension);
+        Map<String, Object> eventData = new HashMap<String, Object>() {
+            {
+                put("requesttype", "getmetrics");
+            }
+        };
+        Event testEvent = new Event.Builder("Optimize Get Metrics Request",
+                "com.adobe.eventType.optimize",
+                "com.adobe.eventSource.requestContent")
+                .setEventData(eventData)
+                .build();
+
+        // test
+        listener.hear(testEvent);
+
+        // verify
+        verify(mockOptimizeExtension, Mockito.times(1)).handleGetMetrics(testEvent);
+        verify(mockOptimizeExtension, Mockito.never()).handleGetPropositions(any(Event.class));
+    }
+
     @Test
     public void testHear_requestTypeGetPropositions() {
         // setup
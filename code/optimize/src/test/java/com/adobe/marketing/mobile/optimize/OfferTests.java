@@ -28,6 +28,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -724,4 +725,69 @@ public class OfferTests {
         PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
         MobileCore.log(any(LoggingMode.class), anyString(), anyString());
     }
+    @Test
+    public void testGenerateInteractionXdm_multipleOffers() {
+        // setup
+        final Offer offer1 = new Offer.Builder("offer1", OfferType.TEXT, "content1").build();
+        final Offer offer2 = new Offer.Builder("offer2", OfferType.TEXT, "content2").build();
+        final Offer otherOffer = new Offer.Builder("otherOffer", OfferType.TEXT, "content").build();
+        final Proposition proposition = new Proposition("propositionId", Arrays.asList(offer1, offer2), "myMbox", new HashMap<String, Object>());
+        final Proposition otherProposition = new Proposition("otherPropositionId", Arrays.asList(otherOffer), "otherMbox", new HashMap<String, Object>());
+        final Offer detachedOffer = new Offer.Builder("detachedOffer", OfferType.TEXT, "content").build();
+
+        // test
+        final Map<String, Object> propositionInteractionXdm = Offer.generateInteractionXdm(Arrays.asList(offer1, otherOffer, detachedOffer, offer2),
+                "decisioning.propositionDisplay");
+
+        // verify
+        assertNotNull(propositionInteractionXdm);
+        assertEquals("decisioning.propositionDisplay", propositionInteractionXdm.get("eventType"));
+        final Map<String, Object> experience = (Map<String, Object>)propositionInteractionXdm.get("_experience");
+        final Map<String, Object> decisioning = (Map<String, Object>)experience.get("decisioning");
+        final List<Map<String, Object>> propositionInteractionDetailsList = (List<Map<String, Object>>)decisioning.get("propositions");
+        assertEquals(2, propositionInteractionDetailsList.size());
+        assertEquals("propositionId", propositionInteractionDetailsList.get(0).get("id"));
+        assertEquals("myMbox", propositionInteractionDetailsList.get(0).get("scope"));
+        final List<Map<String, Object>> items = (List<Map<String, Object>>)propositionInteractionDetailsList.get(0).get("items");
+        assertEquals(2, items.size());
+        assertEquals("offer1", items.get(0).get("id"));
+        assertEquals("offer2", items.get(1).get("id"));
+        assertEquals("otherPropositionId", propositionInteractionDetailsList.get(1).get("id"));
+        final List<Map<String, Object>> otherItems = (List<Map<String, Object>>)propositionInteractionDetailsList.get(1).get("items");
+        assertEquals(1, otherItems.size());
+        assertEquals("otherOffer", otherItems.get(0).get("id"));
+    }
+
+    @Test
+    public void testGenerateInteractionXdm_equalPropositionsNotMerged() {
+        // setup
+        final Offer offer = new Offer.Builder("offer", OfferType.TEXT, "content").build();
+        final Offer equalOffer = new Offer.Builder("offer", OfferType.TEXT, "content").build();
+        final Proposition proposition = new Proposition("propositionId", Arrays.asList(offer), "myMbox", new HashMap<String, Object>());
+        final Proposition equalProposition = new Proposition("propositionId", Arrays.asList(equalOffer), "myMbox", new HashMap<String, Object>());
+        assertEquals(proposition, equalProposition);
+
+        // test
+        final Map<String, Object> propositionInteractionXdm = Offer.generateInteractionXdm(Arrays.asList(offer, equalOffer, offer),
+                "decisioning.propositionDisplay");
+
+        // verify
+        assertNotNull(propositionInteractionXdm);
+        final Map<String, Object> experience = (Map<String, Object>)propositionInteractionXdm.get("_experience");
+        final Map<String, Object> decisioning = (Map<String, Object>)experience.get("decisioning");
+        final List<Map<String, Object>> propositionInteractionDetailsList = (List<Map<String, Object>>)decisioning.get("propositions");
+        assertEquals(2, propositionInteractionDetailsList.size());
+        assertEquals(2, ((List<Map<String, Object>>)propositionInteractionDetailsList.get(0).get("items")).size());
+        assertEquals(1, ((List<Map<String, Object>>)propositionInteractionDetailsList.get(1).get("items")).size());
+    }
+
+    @Test
+    public void testGenerateInteractionXdm_noValidOffers() {
+        // setup
+        final Offer detachedOffer = new Offer.Builder("detachedOffer", OfferType.TEXT, "content").build();
+
+        // test
+        assertNull(Offer.generateInteractionXdm(Arrays.asList(detachedOffer, null), "decisioning.propositionDisplay"));
+        assertNull(Offer.generateInteractionXdm(null, "decisioning.propositionDisplay"));
+    }
 }
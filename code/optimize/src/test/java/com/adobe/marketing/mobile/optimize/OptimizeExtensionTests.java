@@ -14,6 +14,8 @@ package com.adobe.marketing.mobile.optimize;
 
 import android.app.Application;
 import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
 import android.util.Base64;
 
 import com.adobe.marketing.mobile.AdobeError;
@@ -28,7 +30,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.After;
 import org.junit.runner.RunWith;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -39,23 +43,35 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.spy;
@@ -68,6 +84,9 @@ public class OptimizeExtensionTests {
     private OptimizeExtension extension;
     private ExecutorService testExecutor;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     // Mocks
     @Mock
     ExtensionApi mockExtensionApi;
@@ -87,6 +106,7 @@ public class OptimizeExtensionTests {
         extension = spy(new OptimizeExtension(mockExtensionApi));
         testExecutor = Executors.newSingleThreadExecutor();
         when(extension.getExecutor()).thenReturn(testExecutor);
+        when(extension.getTrackingExecutor()).thenReturn(testExecutor);
 
         PowerMockito.mockStatic(Base64.class);
         Mockito.when(Base64.encodeToString((byte[]) any(), anyInt())).thenAnswer(new Answer<String>() {
@@ -105,6 +125,8 @@ public class OptimizeExtensionTests {
 
     @After
     public void teardown() {
+        RequestTraceRecorder.setTracer(null);
+        OptimizeExtension.setExecutorService(null);
         if (!testExecutor.isShutdown()) {
             testExecutor.shutdownNow();
         }
@@ -137,6 +159,12 @@ public class OptimizeExtensionTests {
         verify(mockExtensionApi, Mockito.times(1)).registerEventListener(eq("com.adobe.eventType.optimize"),
                 eq("com.adobe.eventSource.requestContent"), eq(ListenerOptimizeRequestContent.class),
                 callbackCaptor.capture());
+        verify(mockExtensionApi, Mockito.times(1)).registerEventListener(eq("com.adobe.eventType.configuration"),
+                eq("com.adobe.eventSource.responseContent"), eq(ListenerConfigurationResponseContent.class),
+                any(ExtensionErrorCallback.class));
+        verify(mockExtensionApi, Mockito.times(1)).registerEventListener(eq("com.adobe.eventType.generic.lifecycle"),
+                eq("com.adobe.eventSource.requestContent"), eq(ListenerGenericLifecycleRequestContent.class),
+                any(ExtensionErrorCallback.class));
 
         final ExtensionErrorCallback<ExtensionError> errorCallback = callbackCaptor.getValue();
         assertNotNull(errorCallback);
@@ -674,10 +702,56 @@ public class OptimizeExtensionTests {
         assertEquals("true", offer.getCharacteristics().get("testing"));
         assertNull(offer.getLanguage());
 
-        final Map<DecisionScope, Proposition> cachedPropositions = Whitebox.getInternalState(extension, "cachedPropositions");
+        final Map<DecisionScope, Proposition> cachedPropositions = ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).getSnapshot().getPropositions();
         assertEquals(1, cachedPropositions.size());
         final DecisionScope cachedScope = new DecisionScope("eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
         assertEquals(proposition, cachedPropositions.get(cachedScope));
+
+        // the propositions are not shared unless enabled, the consumers parse their own copies
+        assertNull(extension.getSharedPropositions().get(dispatchedEvent));
+    }
+
+    @Test
+    public void testHandleEdgeResponse_sharingEnabled() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.propositions.sharing.enabled", true);
+        extension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+
+        final Map<String, Object> edgeResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"), HashMap.class);
+        final Event testEvent = new Event.Builder("AEP Response Event Handle", "com.adobe.eventType.edge", "personalization:decisions")
+                .setEventData(edgeResponseData)
+                .build();
+
+        // test
+        extension.handleEdgeResponse(testEvent);
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Map<DecisionScope, Proposition> cachedPropositions = ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).getSnapshot().getPropositions();
+        final DecisionScope cachedScope = new DecisionScope("eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+        final Map<DecisionScope, Proposition> sharedPropositions = extension.getSharedPropositions().get(eventCaptor.getValue());
+        assertNotNull(sharedPropositions);
+        // the cached proposition instance is shared with the notification consumers, frozen
+        assertSame(cachedPropositions.get(cachedScope), sharedPropositions.get(cachedScope));
+        try {
+            sharedPropositions.get(cachedScope).getOffers().get(0).getCharacteristics().clear();
+            fail("The shared offer characteristics should not be modifiable.");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
     }
 
     @Test
@@ -770,7 +844,7 @@ public class OptimizeExtensionTests {
         assertNull(offer.getCharacteristics());
         assertNull(offer.getLanguage());
 
-        final Map<DecisionScope, Proposition> cachedPropositions = Whitebox.getInternalState(extension, "cachedPropositions");
+        final Map<DecisionScope, Proposition> cachedPropositions = ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).getSnapshot().getPropositions();
         assertEquals(1, cachedPropositions.size());
         final DecisionScope cachedScope = new DecisionScope("myMbox");
         assertEquals(proposition, cachedPropositions.get(cachedScope));
@@ -797,7 +871,7 @@ public class OptimizeExtensionTests {
         testExecutor.awaitTermination(1, TimeUnit.SECONDS);
         PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
         MobileCore.log(any(LoggingMode.class), anyString(), anyString());
-        final Map<DecisionScope, Proposition> cachedPropositions = Whitebox.getInternalState(extension, "cachedPropositions");
+        final Map<DecisionScope, Proposition> cachedPropositions = ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).getSnapshot().getPropositions();
         assertTrue(cachedPropositions.isEmpty());
     }
 
@@ -822,7 +896,7 @@ public class OptimizeExtensionTests {
         testExecutor.awaitTermination(1, TimeUnit.SECONDS);
         PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
         MobileCore.log(any(LoggingMode.class), anyString(), anyString());
-        final Map<DecisionScope, Proposition> cachedPropositions = Whitebox.getInternalState(extension, "cachedPropositions");
+        final Map<DecisionScope, Proposition> cachedPropositions = ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).getSnapshot().getPropositions();
         assertTrue(cachedPropositions.isEmpty());
     }
 
@@ -847,7 +921,7 @@ public class OptimizeExtensionTests {
         testExecutor.awaitTermination(1, TimeUnit.SECONDS);
         PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
         MobileCore.log(any(LoggingMode.class), anyString(), anyString());
-        final Map<DecisionScope, Proposition> cachedPropositions = Whitebox.getInternalState(extension, "cachedPropositions");
+        final Map<DecisionScope, Proposition> cachedPropositions = ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).getSnapshot().getPropositions();
         assertTrue(cachedPropositions.isEmpty());
     }
 
@@ -872,7 +946,7 @@ public class OptimizeExtensionTests {
         testExecutor.awaitTermination(1, TimeUnit.SECONDS);
         PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
         MobileCore.log(any(LoggingMode.class), anyString(), anyString());
-        final Map<DecisionScope, Proposition> cachedPropositions = Whitebox.getInternalState(extension, "cachedPropositions");
+        final Map<DecisionScope, Proposition> cachedPropositions = ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).getSnapshot().getPropositions();
         assertTrue(cachedPropositions.isEmpty());
     }
 
@@ -890,7 +964,7 @@ public class OptimizeExtensionTests {
         assertNotNull(testProposition);
         final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
         cachedPropositions.put(new DecisionScope(testProposition.getScope()), testProposition);
-        Whitebox.setInternalState(extension, "cachedPropositions", cachedPropositions);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
 
         final DecisionScope testScope = new DecisionScope("eydhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
         final Map<String, Object> testEventData = new HashMap<>();
@@ -960,7 +1034,7 @@ public class OptimizeExtensionTests {
         assertNotNull(testProposition);
         final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
         cachedPropositions.put(new DecisionScope(testProposition.getScope()), testProposition);
-        Whitebox.setInternalState(extension, "cachedPropositions", cachedPropositions);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
 
         final DecisionScope testScope1 = new DecisionScope("eydhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
         final DecisionScope testScope2 = new DecisionScope("myMbox");
@@ -1018,6 +1092,54 @@ public class OptimizeExtensionTests {
         assertNull(offer.getCharacteristics());
     }
 
+    @Test
+    public void testGetCachedPropositions() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition testProposition = Proposition.fromEventData(testPropositionData);
+        assertNotNull(testProposition);
+        final DecisionScope testScope1 = new DecisionScope(testProposition.getScope());
+        final DecisionScope testScope2 = new DecisionScope("myMbox");
+        final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(testScope1, testProposition);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
+
+        // test
+        final Map<DecisionScope, Proposition> propositions = extension.getCachedPropositions(Arrays.asList(testScope2, testScope1));
+
+        // verify
+        assertEquals(1, propositions.size());
+        assertEquals(testProposition, propositions.get(testScope1));
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchResponseEvent(any(Event.class), any(Event.class), any(ExtensionErrorCallback.class));
+
+        final ExecutorMetrics executorMetrics = (ExecutorMetrics) Whitebox.getInternalState(extension, "executorMetrics");
+        assertEquals(0L, executorMetrics.getTaskMetrics().get(ExecutorTaskMetrics.TASK_GET).getTaskCount());
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        final Event metricsEvent = new Event.Builder("Optimize Get Metrics Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .build();
+        extension.handleGetMetrics(metricsEvent);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(eventCaptor.capture(), eq(metricsEvent), any(ExtensionErrorCallback.class));
+        final OptimizeMetrics metrics = OptimizeMetrics.fromEventData(eventCaptor.getValue().getEventData());
+        assertEquals(1L, metrics.getCacheHits());
+        assertEquals(1L, metrics.getCacheMisses());
+    }
+
+    @Test
+    public void testGetRegisteredExtension() {
+        // setup
+        final OptimizeExtension optimizeExtension = new OptimizeExtension(mockExtensionApi);
+
+        // test
+        assertEquals(optimizeExtension, OptimizeExtension.getRegisteredExtension());
+        optimizeExtension.onUnregistered();
+
+        // verify
+        assertNull(OptimizeExtension.getRegisteredExtension());
+    }
+
     @Test
     public void testHandleGetPropositions_noDecisionScopeInCache() throws Exception {
         // setup
@@ -1032,7 +1154,7 @@ public class OptimizeExtensionTests {
         assertNotNull(testProposition);
         final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
         cachedPropositions.put(new DecisionScope(testProposition.getScope()), testProposition);
-        Whitebox.setInternalState(extension, "cachedPropositions", cachedPropositions);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
 
         final DecisionScope testScope1 = new DecisionScope("myMbox1");
         final DecisionScope testScope2 = new DecisionScope("myMbox2");
@@ -1085,7 +1207,7 @@ public class OptimizeExtensionTests {
         assertNotNull(testProposition);
         final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
         cachedPropositions.put(new DecisionScope(testProposition.getScope()), testProposition);
-        Whitebox.setInternalState(extension, "cachedPropositions", cachedPropositions);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
 
         final Map<String, Object> testEventData = new HashMap<>();
         testEventData.put("requesttype", "getpropositions");
@@ -1130,7 +1252,7 @@ public class OptimizeExtensionTests {
         });
 
         final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
-        Whitebox.setInternalState(extension, "cachedPropositions", cachedPropositions);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
 
         final DecisionScope testScope = new DecisionScope("eydhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
         final Map<String, Object> testEventData = new HashMap<>();
@@ -1404,6 +1526,373 @@ public class OptimizeExtensionTests {
         MobileCore.log(any(LoggingMode.class), anyString(), anyString());
     }
 
+    @Test
+    public void testHandleTrackPropositions_batchesInteractionsWithinWindow() throws Exception {
+        // setup
+        configureTrackingBatch(100, 50, false);
+
+        // test
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_TAP.json"));
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        Thread.sleep(500);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final List<Event> dispatchedEvents = eventCaptor.getAllValues();
+        final Map<String, Object> displayXdm = (Map<String, Object>) dispatchedEvents.get(0).getEventData().get("xdm");
+        assertEquals("decisioning.propositionDisplay", displayXdm.get("eventType"));
+        assertEquals(2, getInteractionPropositions(displayXdm).size());
+        final Map<String, Object> tapXdm = (Map<String, Object>) dispatchedEvents.get(1).getEventData().get("xdm");
+        assertEquals("decisioning.propositionInteract", tapXdm.get("eventType"));
+        assertEquals(1, getInteractionPropositions(tapXdm).size());
+    }
+
+    @Test
+    public void testHandleTrackPropositions_batchFlushedOnTap() throws Exception {
+        // setup
+        configureTrackingBatch(60000, 50, true);
+
+        // test
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_TAP.json"));
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("decisioning.propositionDisplay", ((Map<String, Object>) eventCaptor.getAllValues().get(0).getEventData().get("xdm")).get("eventType"));
+        assertEquals("decisioning.propositionInteract", ((Map<String, Object>) eventCaptor.getAllValues().get(1).getEventData().get("xdm")).get("eventType"));
+    }
+
+    @Test
+    public void testHandleTrackPropositions_batchFlushedAtMaxSize() throws Exception {
+        // setup
+        configureTrackingBatch(60000, 2, false);
+
+        // test
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_TAP.json"));
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals(2, getInteractionPropositions((Map<String, Object>) eventCaptor.getValue().getEventData().get("xdm")).size());
+    }
+
+    @Test
+    public void testHandleTrackPropositions_duplicateDisplaySuppressed() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.tracking.displayDedupeWindowSeconds", 60);
+        extension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+
+        // test
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_TAP.json"));
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_TAP.json"));
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(3));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("decisioning.propositionDisplay", ((Map<String, Object>) eventCaptor.getAllValues().get(0).getEventData().get("xdm")).get("eventType"));
+        assertEquals("decisioning.propositionInteract", ((Map<String, Object>) eventCaptor.getAllValues().get(1).getEventData().get("xdm")).get("eventType"));
+        assertEquals("decisioning.propositionInteract", ((Map<String, Object>) eventCaptor.getAllValues().get(2).getEventData().get("xdm")).get("eventType"));
+    }
+
+    @Test
+    public void testHandleTrackPropositions_journaledWhileCircuitOpenAndReplayed() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final File journalFile = new File(new File(filesDir, "com.adobe.optimize"), "interactions.log");
+        Mockito.when(mockApplication.getFilesDir()).thenReturn(filesDir);
+        final OptimizeExtension journalingExtension = spy(new OptimizeExtension(mockExtensionApi));
+        when(journalingExtension.getExecutor()).thenReturn(testExecutor);
+        when(journalingExtension.getTrackingExecutor()).thenReturn(testExecutor);
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.edge.maxRetries", 0);
+        configData.put("optimize.edge.circuitBreaker.failureThreshold", 1);
+        configData.put("optimize.tracking.journal.enabled", true);
+        journalingExtension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+
+        journalingExtension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final ArgumentCaptor<Event> requestEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(requestEventCaptor.capture(), any(ExtensionErrorCallback.class));
+        journalingExtension.handleEdgeErrorResponse(createEdgeErrorEvent(requestEventCaptor.getValue().getUniqueIdentifier(), 503));
+
+        // test
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        for (int i = 0; i < 100 && !journalFile.exists(); i++) {
+            Thread.sleep(10);
+        }
+
+        // verify
+        assertTrue("The interaction should be journaled while the circuit is open.", journalFile.exists());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+
+        // the probe request is allowed once the open duration has elapsed, and its response closes the circuit
+        configData.put("optimize.edge.circuitBreaker.openSeconds", 0);
+        journalingExtension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+        journalingExtension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
+        MobileCore.dispatchEvent(requestEventCaptor.capture(), any(ExtensionErrorCallback.class));
+        final Map<String, Object> edgeResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"), HashMap.class);
+        edgeResponseData.put("requestEventId", requestEventCaptor.getValue().getUniqueIdentifier());
+        journalingExtension.handleEdgeResponse(new Event.Builder("AEP Response Event Handle", "com.adobe.eventType.edge", "personalization:decisions")
+                .setEventData(edgeResponseData)
+                .build());
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        for (int i = 0; i < 100 && journalFile.exists(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertFalse("The journal should be removed once replayed.", journalFile.exists());
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(4));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        Event replayedEvent = null;
+        for (final Event event : eventCaptor.getAllValues()) {
+            if ("Edge Optimize Proposition Interaction Request".equals(event.getName())) {
+                replayedEvent = event;
+            }
+        }
+        assertNotNull(replayedEvent);
+        final Map<String, Object> xdm = (Map<String, Object>) replayedEvent.getEventData().get("xdm");
+        assertEquals("decisioning.propositionDisplay", xdm.get("eventType"));
+        assertEquals(1, getInteractionPropositions(xdm).size());
+    }
+
+    @Test
+    public void testHandleTrackPropositions_journaledWhileOffline() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final OptimizeExtension journalingExtension = createJournalingExtension(filesDir);
+        final ConnectivityManager mockConnectivityManager = Mockito.mock(ConnectivityManager.class);
+        Mockito.when(mockContext.getSystemService(Context.CONNECTIVITY_SERVICE)).thenReturn(mockConnectivityManager);
+        Mockito.when(mockConnectivityManager.getActiveNetworkInfo()).thenReturn(null);
+
+        // test
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        awaitStorageTasks(journalingExtension);
+        assertTrue("The interaction should be journaled while the device is offline.",
+                new File(new File(filesDir, "com.adobe.optimize"), "interactions.log").exists());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleTrackPropositions_journalReplayedOnceBackOnline() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final File journalFile = new File(new File(filesDir, "com.adobe.optimize"), "interactions.log");
+        final OptimizeExtension journalingExtension = createJournalingExtension(filesDir);
+        final ConnectivityManager mockConnectivityManager = Mockito.mock(ConnectivityManager.class);
+        final NetworkInfo mockNetworkInfo = Mockito.mock(NetworkInfo.class);
+        Mockito.when(mockContext.getSystemService(Context.CONNECTIVITY_SERVICE)).thenReturn(mockConnectivityManager);
+        Mockito.when(mockConnectivityManager.getActiveNetworkInfo()).thenReturn(null);
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        awaitExtensionTasks();
+        Mockito.when(mockConnectivityManager.getActiveNetworkInfo()).thenReturn(mockNetworkInfo);
+        Mockito.when(mockNetworkInfo.isConnected()).thenReturn(true);
+
+        // test
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_TAP.json"));
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        awaitStorageTasks(journalingExtension);
+        assertFalse("The journal should be replayed once an interaction is tracked online.", journalFile.exists());
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        final List<Object> eventTypes = new ArrayList<>();
+        for (final Event event : eventCaptor.getAllValues()) {
+            eventTypes.add(((Map<String, Object>) event.getEventData().get("xdm")).get("eventType"));
+        }
+        // the interaction tracked online is sent after the journaled one
+        assertEquals(Arrays.<Object>asList("decisioning.propositionDisplay", "decisioning.propositionInteract"), eventTypes);
+    }
+
+    @Test
+    public void testHandleTrackPropositions_journalReplayedOnReconnectWithoutTracking() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final File journalFile = new File(new File(filesDir, "com.adobe.optimize"), "interactions.log");
+        final OptimizeExtension journalingExtension = createJournalingExtension(filesDir);
+        final ScheduledExecutorService mockScheduledExecutor = Mockito.mock(ScheduledExecutorService.class);
+        when(journalingExtension.getScheduledExecutor()).thenReturn(mockScheduledExecutor);
+        final ConnectivityManager mockConnectivityManager = Mockito.mock(ConnectivityManager.class);
+        final NetworkInfo mockNetworkInfo = Mockito.mock(NetworkInfo.class);
+        Mockito.when(mockContext.getSystemService(Context.CONNECTIVITY_SERVICE)).thenReturn(mockConnectivityManager);
+        Mockito.when(mockConnectivityManager.getActiveNetworkInfo()).thenReturn(null);
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        awaitExtensionTasks();
+        final ArgumentCaptor<Runnable> reachabilityCheckCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockScheduledExecutor, Mockito.times(1)).scheduleWithFixedDelay(reachabilityCheckCaptor.capture(), eq(30L), eq(30L), eq(TimeUnit.SECONDS));
+
+        // test
+        reachabilityCheckCaptor.getValue().run();
+        awaitExtensionTasks();
+        assertTrue("The journal should not be replayed while the device is offline.", journalFile.exists());
+        Mockito.when(mockConnectivityManager.getActiveNetworkInfo()).thenReturn(mockNetworkInfo);
+        Mockito.when(mockNetworkInfo.isConnected()).thenReturn(true);
+        reachabilityCheckCaptor.getValue().run();
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        awaitStorageTasks(journalingExtension);
+        assertFalse("The journal should be replayed once the device is back online.", journalFile.exists());
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("decisioning.propositionDisplay", ((Map<String, Object>) eventCaptor.getValue().getEventData().get("xdm")).get("eventType"));
+    }
+
+    @Test
+    public void testHandleEdgeResponse_doesNotReplayJournal() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final File journalFile = new File(new File(filesDir, "com.adobe.optimize"), "interactions.log");
+        final OptimizeExtension journalingExtension = createJournalingExtension(filesDir);
+        final ConnectivityManager mockConnectivityManager = Mockito.mock(ConnectivityManager.class);
+        final NetworkInfo mockNetworkInfo = Mockito.mock(NetworkInfo.class);
+        Mockito.when(mockContext.getSystemService(Context.CONNECTIVITY_SERVICE)).thenReturn(mockConnectivityManager);
+        Mockito.when(mockConnectivityManager.getActiveNetworkInfo()).thenReturn(null);
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        awaitExtensionTasks();
+        Mockito.when(mockConnectivityManager.getActiveNetworkInfo()).thenReturn(mockNetworkInfo);
+        Mockito.when(mockNetworkInfo.isConnected()).thenReturn(true);
+
+        // test
+        final Map<String, Object> edgeResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"), HashMap.class);
+        journalingExtension.handleEdgeResponse(new Event.Builder("AEP Response Event Handle", "com.adobe.eventType.edge", "personalization:decisions")
+                .setEventData(edgeResponseData)
+                .build());
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        awaitStorageTasks(journalingExtension);
+        assertTrue("The journal should be left to the reachability check while the circuit is closed.", journalFile.exists());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleConfigurationResponse_journalReplayedOnceCircuitBreakerDisabled() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final File journalFile = new File(new File(filesDir, "com.adobe.optimize"), "interactions.log");
+        final OptimizeExtension journalingExtension = createJournalingExtension(filesDir);
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.edge.maxRetries", 0);
+        configData.put("optimize.edge.circuitBreaker.failureThreshold", 1);
+        configData.put("optimize.tracking.journal.enabled", true);
+        journalingExtension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+        journalingExtension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        awaitExtensionTasks();
+        final ArgumentCaptor<Event> requestEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(requestEventCaptor.capture(), any(ExtensionErrorCallback.class));
+        journalingExtension.handleEdgeErrorResponse(createEdgeErrorEvent(requestEventCaptor.getValue().getUniqueIdentifier(), 503));
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+
+        // test
+        configData.put("optimize.edge.circuitBreaker.failureThreshold", 0);
+        journalingExtension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        awaitStorageTasks(journalingExtension);
+        assertFalse("The journal should be replayed once the circuit breaker is disabled.", journalFile.exists());
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("Edge Optimize Proposition Interaction Request", eventCaptor.getAllValues().get(1).getName());
+    }
+
+    @Test
+    public void testHandleEdgeErrorResponse_failedInteractionJournaled() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final OptimizeExtension journalingExtension = createJournalingExtension(filesDir);
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_TAP.json"));
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_TAP.json"));
+        awaitExtensionTasks();
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(3));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        // test
+        journalingExtension.handleEdgeErrorResponse(createEdgeErrorEvent(eventCaptor.getAllValues().get(0).getUniqueIdentifier(), 503));
+        journalingExtension.handleEdgeErrorResponse(createEdgeErrorEvent(eventCaptor.getAllValues().get(1).getUniqueIdentifier(), 400));
+        journalingExtension.handleEdgeErrorResponse(createEdgeWarningEvent(eventCaptor.getAllValues().get(2).getUniqueIdentifier()));
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        awaitStorageTasks(journalingExtension);
+        final List<InteractionJournal.Record> journaledRecords = new ArrayList<>();
+        final ExecutorService journalExecutor = Executors.newSingleThreadExecutor();
+        new InteractionJournal(new File(filesDir, "com.adobe.optimize"), journalExecutor).replay(10, new InteractionJournal.ReplayHandler() {
+            @Override
+            public boolean replay(final List<InteractionJournal.Record> records) {
+                journaledRecords.addAll(records);
+                return false;
+            }
+        });
+        journalExecutor.shutdown();
+        assertTrue(journalExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(1, journaledRecords.size());
+        assertEquals("decisioning.propositionDisplay", journaledRecords.get(0).getXdm().get("eventType"));
+        final InFlightInteractionTracker inFlightInteractions = Whitebox.getInternalState(journalingExtension, "inFlightInteractions");
+        assertEquals(0, inFlightInteractions.size());
+    }
+
     @Test
     public void testHandleClearPropositions() throws Exception {
         // setup
@@ -1418,7 +1907,7 @@ public class OptimizeExtensionTests {
         assertNotNull(testProposition);
         final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
         cachedPropositions.put(new DecisionScope(testProposition.getScope()), testProposition);
-        Whitebox.setInternalState(extension, "cachedPropositions", cachedPropositions);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
 
         final Event testEvent = new Event.Builder("Optimize Clear Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestReset")
                 .build();
@@ -1428,12 +1917,12 @@ public class OptimizeExtensionTests {
 
         // verify
         testExecutor.awaitTermination(1, TimeUnit.SECONDS);
-        final Map<DecisionScope, Proposition> actualCachedPropositions = Whitebox.getInternalState(extension, "cachedPropositions");
+        final Map<DecisionScope, Proposition> actualCachedPropositions = ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).getSnapshot().getPropositions();
         assertTrue(actualCachedPropositions.isEmpty());
     }
 
     @Test
-    public void testHandleClearPropositions_coreResetIdentities() throws Exception {
+    public void testHandleResetIdentities() throws Exception {
         // setup
         setConfigurationSharedState(new HashMap<String, Object>() {
             {
@@ -1446,23 +1935,1815 @@ public class OptimizeExtensionTests {
         assertNotNull(testProposition);
         final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
         cachedPropositions.put(new DecisionScope(testProposition.getScope()), testProposition);
-        Whitebox.setInternalState(extension, "cachedPropositions", cachedPropositions);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
 
         final Event testEvent = new Event.Builder("Reset Identities Request", "com.adobe.eventType.generic.identity", "com.adobe.eventSource.requestReset")
                 .build();
 
         // test
-        extension.handleClearPropositions(testEvent);
+        extension.handleResetIdentities(testEvent);
 
         // verify
         testExecutor.awaitTermination(1, TimeUnit.SECONDS);
-        final Map<DecisionScope, Proposition> actualCachedPropositions = Whitebox.getInternalState(extension, "cachedPropositions");
+        final Map<DecisionScope, Proposition> actualCachedPropositions = ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).getSnapshot().getPropositions();
         assertTrue(actualCachedPropositions.isEmpty());
     }
 
-    // Helper methods
+    @Test
+    public void testHandleResetIdentities_discardsBatchedInteractions() throws Exception {
+        // setup
+        configureTrackingBatch(60000L, 10, false);
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        final Event testEvent = new Event.Builder("Reset Identities Request", "com.adobe.eventType.generic.identity", "com.adobe.eventSource.requestReset")
+                .build();
+
+        // test
+        extension.handleResetIdentities(testEvent);
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        final PropositionInteractionBatcher interactionBatcher = Whitebox.getInternalState(extension, "interactionBatcher");
+        assertTrue(interactionBatcher.drain().isEmpty());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleResetIdentities_clearsInteractionJournal() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final OptimizeExtension journalingExtension = createJournalingExtension(filesDir);
+        final ConnectivityManager mockConnectivityManager = Mockito.mock(ConnectivityManager.class);
+        Mockito.when(mockContext.getSystemService(Context.CONNECTIVITY_SERVICE)).thenReturn(mockConnectivityManager);
+        Mockito.when(mockConnectivityManager.getActiveNetworkInfo()).thenReturn(null);
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        final Event testEvent = new Event.Builder("Reset Identities Request", "com.adobe.eventType.generic.identity", "com.adobe.eventSource.requestReset")
+                .build();
+
+        // test
+        journalingExtension.handleResetIdentities(testEvent);
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        awaitStorageTasks(journalingExtension);
+        assertFalse("The interactions journaled before the reset should be discarded.",
+                new File(new File(filesDir, "com.adobe.optimize"), "interactions.log").exists());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleClearPropositions_sendsBatchedInteractions() throws Exception {
+        // setup
+        configureTrackingBatch(60000L, 10, false);
+        extension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        final Event testEvent = new Event.Builder("Optimize Clear Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestReset")
+                .build();
+
+        // test
+        extension.handleClearPropositions(testEvent);
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("Edge Optimize Proposition Interaction Request", eventCaptor.getValue().getName());
+    }
+
+    @Test
+    public void testHandleClearPropositions_keepsInteractionJournal() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final File journalFile = new File(new File(filesDir, "com.adobe.optimize"), "interactions.log");
+        final OptimizeExtension journalingExtension = createJournalingExtension(filesDir);
+        final ConnectivityManager mockConnectivityManager = Mockito.mock(ConnectivityManager.class);
+        Mockito.when(mockContext.getSystemService(Context.CONNECTIVITY_SERVICE)).thenReturn(mockConnectivityManager);
+        Mockito.when(mockConnectivityManager.getActiveNetworkInfo()).thenReturn(null);
+        journalingExtension.handleTrackPropositions(createTrackPropositionsEvent("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"));
+        final Event testEvent = new Event.Builder("Optimize Clear Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestReset")
+                .build();
+
+        // test
+        journalingExtension.handleClearPropositions(testEvent);
+
+        // verify
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        awaitStorageTasks(journalingExtension);
+        assertTrue("The interactions journaled before the cache clear should be kept.", journalFile.exists());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleClearPropositions_droppedAfterUnregistered() throws Exception {
+        // setup
+        testExecutor.shutdown();
+        final Event testEvent = createFetchMissingPropositionsEvent("myMbox", 5000L);
+
+        // test
+        extension.handleClearPropositions(new Event.Builder("Optimize Clear Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestReset")
+                .build());
+        extension.handleGetPropositions(testEvent);
+
+        // verify
+        assertEquals(0, ((AtomicInteger) Whitebox.getInternalState(extension, "pendingClears")).get());
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        assertNotNull(responseEventCaptor.getValue().getEventData().get("propositions"));
+    }
+
+    @Test
+    public void testHandleGetPropositions_droppedBehindPendingClear() throws Exception {
+        // setup
+        final CountDownLatch laneBlocked = new CountDownLatch(1);
+        final ThreadPoolExecutor fullLane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ExecutorLaneQueue(1),
+                (TaskOverflowHandler) Whitebox.getInternalState(extension, "overflowHandler"));
+        fullLane.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    laneBlocked.await(1, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        fullLane.execute(new Runnable() {
+            @Override
+            public void run() {}
+        });
+        when(extension.getExecutor()).thenReturn(fullLane);
+        extension.handleClearPropositions(new Event.Builder("Optimize Clear Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestReset")
+                .build());
+        final Event testEvent = createFetchMissingPropositionsEvent("myMbox", 5000L);
+
+        // test
+        extension.handleGetPropositions(testEvent);
+
+        // verify
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        assertEquals(AdobeError.UNEXPECTED_ERROR, responseEventCaptor.getValue().getEventData().get("responseerror"));
+
+        laneBlocked.countDown();
+        fullLane.shutdown();
+        assertTrue(fullLane.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(0, ((AtomicInteger) Whitebox.getInternalState(extension, "pendingClears")).get());
+    }
+
+    @Test
+    public void testHandleGetPropositions_afterPendingClear() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition testProposition = Proposition.fromEventData(testPropositionData);
+        assertNotNull(testProposition);
+        final DecisionScope testScope = new DecisionScope(testProposition.getScope());
+        final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(testScope, testProposition);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
+
+        // Keep the clear task queued until the get propositions request has been received.
+        final CountDownLatch executorBlocked = new CountDownLatch(1);
+        testExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    executorBlocked.await(1, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(testScope.toEventData());
+            }
+        });
+        final Event testEvent = new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+
+        // test
+        extension.handleClearPropositions(new Event.Builder("Reset Identities Request", "com.adobe.eventType.generic.identity", "com.adobe.eventSource.requestReset")
+                .build());
+        extension.handleGetPropositions(testEvent);
+        final Map<DecisionScope, Proposition> synchronousPropositions = extension.getCachedPropositions(Collections.singletonList(testScope));
+        executorBlocked.countDown();
+
+        // verify
+        testExecutor.shutdown();
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        assertTrue(synchronousPropositions.isEmpty());
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(eventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) eventCaptor.getValue().getEventData().get("propositions");
+        assertNotNull(propositionsList);
+        assertTrue(propositionsList.isEmpty());
+    }
+
+    @Test
+    public void testHandleConfigurationResponse_cacheLimits() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition testProposition = Proposition.fromEventData(testPropositionData);
+        assertNotNull(testProposition);
+        final Map<String, Object> testPropositionTargetData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID_TARGET.json"), HashMap.class);
+        final Proposition testPropositionTarget = Proposition.fromEventData(testPropositionTargetData);
+        assertNotNull(testPropositionTarget);
+
+        final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(new DecisionScope(testProposition.getScope()), testProposition);
+        cachedPropositions.put(new DecisionScope(testPropositionTarget.getScope()), testPropositionTarget);
+        final PropositionsCache cache = Whitebox.getInternalState(extension, "cachedPropositions");
+        cache.putAll(cachedPropositions);
+
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+        configData.put("optimize.cache.maxEntries", 1);
+        configData.put("optimize.cache.pinnedScopes", Arrays.asList("myMbox"));
+        final Event testEvent = new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build();
+
+        // test
+        extension.handleConfigurationResponse(testEvent);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final Map<DecisionScope, Proposition> actualCachedPropositions = cache.getSnapshot().getPropositions();
+        assertEquals(1, actualCachedPropositions.size());
+        assertEquals(testPropositionTarget, actualCachedPropositions.get(new DecisionScope("myMbox")));
+    }
+
+    @Test
+    public void testHandleConfigurationResponse_cacheExpiry() throws Exception {
+        // setup
+        final ScheduledExecutorService mockScheduledExecutor = Mockito.mock(ScheduledExecutorService.class);
+        when(extension.getScheduledExecutor()).thenReturn(mockScheduledExecutor);
+
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+        configData.put("optimize.cache.ttlSeconds", 300);
+        configData.put("optimize.cache.scopeTtlSeconds", new HashMap<String, Object>() {
+            {
+                put("myMbox", 0);
+            }
+        });
+        configData.put("optimize.cache.sweepIntervalSeconds", 30);
+        final Event testEvent = new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build();
+
+        // test
+        extension.handleConfigurationResponse(testEvent);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final PropositionsCache cache = Whitebox.getInternalState(extension, "cachedPropositions");
+        assertTrue(cache.isExpiryEnabled());
+        verify(mockScheduledExecutor, Mockito.times(1)).scheduleWithFixedDelay(any(Runnable.class), eq(30L), eq(30L), eq(TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHandleConfigurationResponse_noCacheExpiry() throws Exception {
+        // setup
+        final ScheduledExecutorService mockScheduledExecutor = Mockito.mock(ScheduledExecutorService.class);
+        when(extension.getScheduledExecutor()).thenReturn(mockScheduledExecutor);
+
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+        final Event testEvent = new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build();
+
+        // test
+        extension.handleConfigurationResponse(testEvent);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final PropositionsCache cache = Whitebox.getInternalState(extension, "cachedPropositions");
+        assertFalse(cache.isExpiryEnabled());
+        Mockito.verifyZeroInteractions(mockScheduledExecutor);
+    }
+
+    @Test
+    public void testHandleGetPropositions_expiredDecisionScope() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition testProposition = Proposition.fromEventData(testPropositionData);
+        assertNotNull(testProposition);
+        final DecisionScope testScope = new DecisionScope(testProposition.getScope());
+        final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(testScope, testProposition);
+
+        final PropositionsCache cache = Whitebox.getInternalState(extension, "cachedPropositions");
+        cache.configureExpiry(1, null);
+        cache.putAll(cachedPropositions);
+        Thread.sleep(10);
+
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(testScope.toEventData());
+                add(new DecisionScope("myMbox").toEventData());
+            }
+        });
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+        final Event testEvent = new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+
+        // test
+        extension.handleGetPropositions(testEvent);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(eventCaptor.capture(), any(Event.class), any(ExtensionErrorCallback.class));
+
+        final Event dispatchedEvent = eventCaptor.getValue();
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) dispatchedEvent.getEventData().get("propositions");
+        assertNotNull(propositionsList);
+        assertTrue(propositionsList.isEmpty());
+
+        final List<Map<String, Object>> expiredScopesList = (List<Map<String, Object>>) dispatchedEvent.getEventData().get("expireddecisionscopes");
+        assertNotNull(expiredScopesList);
+        assertEquals(1, expiredScopesList.size());
+        assertEquals(testScope, DecisionScope.fromEventData(expiredScopesList.get(0)));
+    }
+
+    @Test
+    public void testHandleGetPropositions_restoresPersistedPropositions() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        Mockito.when(mockApplication.getFilesDir()).thenReturn(filesDir);
+        final OptimizeExtension persistingExtension = spy(new OptimizeExtension(mockExtensionApi));
+        when(persistingExtension.getExecutor()).thenReturn(testExecutor);
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.cache.persistence.enabled", true);
+        persistingExtension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+
+        final Map<String, Object> edgeResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"), HashMap.class);
+        persistingExtension.handleEdgeResponse(new Event.Builder("AEP Response Event Handle", "com.adobe.eventType.edge", "personalization:decisions")
+                .setEventData(edgeResponseData)
+                .build());
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final DecisionScope testScope = new DecisionScope("eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+        final PropositionsStore store = new PropositionsStore(new File(filesDir, "com.adobe.optimize"), testExecutor);
+        for (int i = 0; i < 100 && store.load(Arrays.asList(testScope)).isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+
+        // test
+        final OptimizeExtension restartedExtension = spy(new OptimizeExtension(mockExtensionApi));
+        when(restartedExtension.getExecutor()).thenReturn(testExecutor);
+        restartedExtension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+        awaitExtensionTasks();
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(testScope.toEventData());
+            }
+        });
+        restartedExtension.handleGetPropositions(new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build());
+
+        // verify
+        final ExecutorService storageExecutor = Whitebox.getInternalState(restartedExtension, "storageExecutorService");
+        storageExecutor.shutdown();
+        assertTrue(storageExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        testExecutor.shutdown();
+        assertTrue(testExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(eventCaptor.capture(), any(Event.class), any(ExtensionErrorCallback.class));
+
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) eventCaptor.getValue().getEventData().get("propositions");
+        assertNotNull(propositionsList);
+        assertEquals(1, propositionsList.size());
+        final Proposition proposition = Proposition.fromEventData(propositionsList.get(0));
+        assertNotNull(proposition);
+        assertEquals("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa", proposition.getId());
+
+        final PropositionsCache restoredCache = Whitebox.getInternalState(restartedExtension, "cachedPropositions");
+        assertEquals(proposition, restoredCache.getSnapshot().getPropositions().get(testScope));
+    }
+
+    @Test
+    public void testHandleGetPropositions_persistenceDisabled() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final DecisionScope testScope = new DecisionScope("myMbox");
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Map<DecisionScope, Proposition> persistedPropositions = new HashMap<>();
+        persistedPropositions.put(testScope, Proposition.fromEventData(testPropositionData));
+        final ExecutorService directExecutor = Executors.newSingleThreadExecutor();
+        new PropositionsStore(new File(filesDir, "com.adobe.optimize"), directExecutor).write(persistedPropositions, System.currentTimeMillis());
+        directExecutor.shutdown();
+        assertTrue(directExecutor.awaitTermination(1, TimeUnit.SECONDS));
+
+        Mockito.when(mockApplication.getFilesDir()).thenReturn(filesDir);
+        final OptimizeExtension restartedExtension = spy(new OptimizeExtension(mockExtensionApi));
+        when(restartedExtension.getExecutor()).thenReturn(testExecutor);
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(testScope.toEventData());
+            }
+        });
+
+        // test
+        restartedExtension.handleGetPropositions(new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build());
+
+        // verify
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(eventCaptor.capture(), any(Event.class), any(ExtensionErrorCallback.class));
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) eventCaptor.getValue().getEventData().get("propositions");
+        assertNotNull(propositionsList);
+        assertTrue(propositionsList.isEmpty());
+    }
+
+    @Test
+    public void testHandleClearPropositions_removesPersistedPropositions() throws Exception {
+        // setup
+        final File filesDir = temporaryFolder.newFolder();
+        final File directory = new File(filesDir, "com.adobe.optimize");
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition testProposition = Proposition.fromEventData(testPropositionData);
+        assertNotNull(testProposition);
+        final Map<DecisionScope, Proposition> persistedPropositions = new HashMap<>();
+        persistedPropositions.put(new DecisionScope(testProposition.getScope()), testProposition);
+        new PropositionsStore(directory, testExecutor).write(persistedPropositions, System.currentTimeMillis());
+        testExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get();
+        assertTrue(new File(directory, "propositions.log").exists());
+
+        Mockito.when(mockApplication.getFilesDir()).thenReturn(filesDir);
+        final OptimizeExtension persistingExtension = spy(new OptimizeExtension(mockExtensionApi));
+        when(persistingExtension.getExecutor()).thenReturn(testExecutor);
+
+        // test
+        persistingExtension.handleClearPropositions(new Event.Builder("Optimize Clear Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestReset")
+                .build());
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        // verify
+        final PropositionsStore store = Whitebox.getInternalState(persistingExtension, "propositionsStore");
+        assertTrue(store.load(Arrays.asList(new DecisionScope(testProposition.getScope()))).isEmpty());
+        for (int i = 0; i < 100 && store.exists(); i++) {
+            Thread.sleep(10);
+        }
+        assertFalse(store.exists());
+    }
+
+    @Test
+    public void testHandleGetPropositions_revalidatesStalePropositions() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition testProposition = Proposition.fromEventData(testPropositionData);
+        assertNotNull(testProposition);
+        final DecisionScope staleScope = new DecisionScope(testProposition.getScope());
+        final Map<DecisionScope, Proposition> stalePropositions = new HashMap<>();
+        stalePropositions.put(staleScope, testProposition);
+        final Map<String, Object> testPropositionTargetData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID_TARGET.json"), HashMap.class);
+        final Proposition testPropositionTarget = Proposition.fromEventData(testPropositionTargetData);
+        assertNotNull(testPropositionTarget);
+        final DecisionScope freshScope = new DecisionScope(testPropositionTarget.getScope());
+        final Map<DecisionScope, Proposition> freshPropositions = new HashMap<>();
+        freshPropositions.put(freshScope, testPropositionTarget);
+
+        final PropositionsCache cache = Whitebox.getInternalState(extension, "cachedPropositions");
+        cache.putAll(stalePropositions, System.currentTimeMillis() - 60000);
+        cache.putAll(freshPropositions);
+
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("revalidateafter", 30000L);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(staleScope.toEventData());
+                add(freshScope.toEventData());
+            }
+        });
+        final Event testEvent = new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+
+        // test
+        extension.handleGetPropositions(testEvent);
+        extension.handleGetPropositions(testEvent);
+        awaitExtensionTasks();
+
+        // verify
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), any(Event.class), any(ExtensionErrorCallback.class));
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) responseEventCaptor.getValue().getEventData().get("propositions");
+        assertEquals(2, propositionsList.size());
+
+        // the stale propositions are requested from the Edge network directly, without update propositions event
+        final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(edgeEventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("Edge Optimize Personalization Request", edgeEventCaptor.getValue().getName());
+        final Map<String, Object> query = (Map<String, Object>) edgeEventCaptor.getValue().getEventData().get("query");
+        final List<String> scopesList = (List<String>) ((Map<String, Object>) query.get("personalization")).get("decisionScopes");
+        assertEquals(Collections.singletonList(staleScope.getName()), scopesList);
+    }
+
+    @Test
+    public void testHandleGetPropositions_revalidationNotSentRetriedOnNextRead() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition testProposition = Proposition.fromEventData(testPropositionData);
+        assertNotNull(testProposition);
+        final DecisionScope staleScope = new DecisionScope(testProposition.getScope());
+        final Map<DecisionScope, Proposition> stalePropositions = new HashMap<>();
+        stalePropositions.put(staleScope, testProposition);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(stalePropositions, System.currentTimeMillis() - 60000);
+
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("revalidateafter", 30000L);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(staleScope.toEventData());
+            }
+        });
+        final Event testEvent = new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+
+        // test
+        extension.handleGetPropositions(testEvent);
+        awaitExtensionTasks();
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        extension.handleGetPropositions(testEvent);
+        awaitExtensionTasks();
+
+        // verify
+        final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(edgeEventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("Edge Optimize Personalization Request", edgeEventCaptor.getValue().getName());
+    }
+
+    @Test
+    public void testHandleGetPropositions_noRevalidationWithoutMaxAge() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition testProposition = Proposition.fromEventData(testPropositionData);
+        assertNotNull(testProposition);
+        final DecisionScope testScope = new DecisionScope(testProposition.getScope());
+        final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(testScope, testProposition);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions, System.currentTimeMillis() - 60000);
+
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(testScope.toEventData());
+            }
+        });
+
+        // test
+        extension.handleGetPropositions(new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build());
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleGetPropositions_fetchMissingPropositions() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final DecisionScope testScope = new DecisionScope("eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("fetchtimeout", 5000L);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(testScope.toEventData());
+            }
+        });
+        final Event testEvent = new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+
+        // test
+        extension.handleGetPropositions(testEvent);
+        awaitExtensionTasks();
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchResponseEvent(any(Event.class), any(Event.class), any(ExtensionErrorCallback.class));
+
+        final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(edgeEventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("Edge Optimize Personalization Request", edgeEventCaptor.getValue().getName());
+        final Map<String, Object> query = (Map<String, Object>) edgeEventCaptor.getValue().getEventData().get("query");
+        final List<String> scopesList = (List<String>) ((Map<String, Object>) query.get("personalization")).get("decisionScopes");
+        assertEquals(Collections.singletonList(testScope.getName()), scopesList);
+
+        // test
+        final Map<String, Object> edgeResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"), HashMap.class);
+        extension.handleEdgeResponse(new Event.Builder("AEP Response Event Handle", "com.adobe.eventType.edge", "personalization:decisions")
+                .setEventData(edgeResponseData)
+                .build());
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        // verify
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        final ArgumentCaptor<Event> triggerEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), triggerEventCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals(testEvent, triggerEventCaptor.getValue());
+
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) responseEventCaptor.getValue().getEventData().get("propositions");
+        assertEquals(1, propositionsList.size());
+        assertEquals("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa", Proposition.fromEventData(propositionsList.get(0)).getId());
+    }
+
+    @Test
+    public void testHandleGetPropositions_fetchMissingPropositionsTimeout() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("fetchtimeout", 50L);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(new DecisionScope("myMbox").toEventData());
+            }
+        });
+        final Event testEvent = new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+
+        // test
+        extension.handleGetPropositions(testEvent);
+        Thread.sleep(500);
+
+        // verify
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) responseEventCaptor.getValue().getEventData().get("propositions");
+        assertTrue(propositionsList.isEmpty());
+    }
+
+    @Test
+    public void testHandleGetPropositions_fetchMissingPropositionsEdgeError() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Event testEvent = createFetchMissingPropositionsEvent("myMbox", 5000L);
+        extension.handleGetPropositions(testEvent);
+        awaitExtensionTasks();
+        final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(edgeEventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        // test
+        extension.handleEdgeErrorResponse(createEdgeErrorEvent(edgeEventCaptor.getValue().getUniqueIdentifier(), 503));
+        awaitExtensionTasks();
+
+        // verify
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        assertNull(responseEventCaptor.getValue().getEventData().get("propositions"));
+        assertEquals(AdobeError.UNEXPECTED_ERROR, responseEventCaptor.getValue().getEventData().get("responseerror"));
+        final List<PendingGetRequest> pendingGetRequests = Whitebox.getInternalState(extension, "pendingGetRequests");
+        assertTrue(pendingGetRequests.isEmpty());
+    }
+
+    @Test
+    public void testHandleGetPropositions_fetchMissingPropositionsNotSent() throws Exception {
+        // setup
+        final Event testEvent = createFetchMissingPropositionsEvent("myMbox", 5000L);
+
+        // test
+        extension.handleGetPropositions(testEvent);
+        awaitExtensionTasks();
+
+        // verify
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) responseEventCaptor.getValue().getEventData().get("propositions");
+        assertTrue(propositionsList.isEmpty());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleGetPropositions_fetchMissingPropositionsRejected() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        testExecutor.shutdown();
+        final Event testEvent = createFetchMissingPropositionsEvent("myMbox", 5000L);
+
+        // test
+        extension.handleGetPropositions(testEvent);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(any(Event.class), eq(testEvent), any(ExtensionErrorCallback.class));
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleGetPropositions_fetchMissingPropositionsLaneFull() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final CountDownLatch laneBlocked = new CountDownLatch(1);
+        final ThreadPoolExecutor fullLane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ExecutorLaneQueue(1),
+                (TaskOverflowHandler) Whitebox.getInternalState(extension, "overflowHandler"));
+        fullLane.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    laneBlocked.await(1, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        fullLane.execute(new Runnable() {
+            @Override
+            public void run() {}
+        });
+        when(extension.getExecutor()).thenReturn(fullLane);
+        final Event testEvent = createFetchMissingPropositionsEvent("myMbox", 5000L);
+
+        // test
+        extension.handleGetPropositions(testEvent);
+
+        // verify
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) responseEventCaptor.getValue().getEventData().get("propositions");
+        assertNotNull(propositionsList);
+        assertTrue(propositionsList.isEmpty());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+
+        laneBlocked.countDown();
+        fullLane.shutdown();
+        assertTrue(fullLane.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHandleGetPropositions_fetchMissingPropositionsAllCached() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition testProposition = Proposition.fromEventData(testPropositionData);
+        assertNotNull(testProposition);
+        final DecisionScope testScope = new DecisionScope(testProposition.getScope());
+        final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(testScope, testProposition);
+        ((PropositionsCache) Whitebox.getInternalState(extension, "cachedPropositions")).putAll(cachedPropositions);
+
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("fetchtimeout", 5000L);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(testScope.toEventData());
+            }
+        });
+
+        // test
+        extension.handleGetPropositions(new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build());
+
+        // verify
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), any(Event.class), any(ExtensionErrorCallback.class));
+        final List<Map<String, Object>> propositionsList = (List<Map<String, Object>>) responseEventCaptor.getValue().getEventData().get("propositions");
+        assertEquals(1, propositionsList.size());
+
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_coalescesRequestsWithinWindow() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.update.coalescingWindowMillis", 100);
+        extension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+
+        final List<Event> testEvents = new ArrayList<>();
+        for (final String scopeName : Arrays.asList("myMbox1", "myMbox2", "myMbox1")) {
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+                {
+                    add(new DecisionScope(scopeName).toEventData());
+                }
+            });
+            testEvents.add(new Event.Builder("Optimize Update Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                    .setEventData(testEventData)
+                    .build());
+        }
+
+        // test
+        for (final Event testEvent : testEvents) {
+            extension.handleUpdatePropositions(testEvent);
+        }
+        Thread.sleep(500);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Event dispatchedEvent = eventCaptor.getValue();
+        assertEquals("com.adobe.eventType.edge".toLowerCase(), dispatchedEvent.getType());
+        final Map<String, Object> query = (Map<String, Object>) dispatchedEvent.getEventData().get("query");
+        final Map<String, Object> queryPersonalization = (Map<String, Object>) query.get("personalization");
+        assertEquals(Arrays.asList("myMbox1", "myMbox2"), queryPersonalization.get("decisionScopes"));
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_requestInFlight() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Event testEvent = createUpdatePropositionsEvent("myMbox");
+
+        // test
+        extension.handleUpdatePropositions(testEvent);
+        extension.handleUpdatePropositions(testEvent);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_requestInFlightCompletedByErrorResponse() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Event testEvent = createUpdatePropositionsEvent("myMbox");
+        extension.handleUpdatePropositions(testEvent);
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Map<String, Object> edgeErrorResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_ERROR_RESPONSE.json"), HashMap.class);
+        edgeErrorResponseData.put("requestEventId", eventCaptor.getValue().getUniqueIdentifier());
+        final Event testErrorEvent = new Event.Builder("AEP Error Response", "com.adobe.eventType.edge", "com.adobe.eventSource.errorResponseContent")
+                .setEventData(edgeErrorResponseData)
+                .build();
+
+        // test
+        extension.handleEdgeErrorResponse(testErrorEvent);
+        extension.handleUpdatePropositions(testEvent);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_requestInFlightForOtherScope() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox1"));
+
+        // test
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox1", "myMbox2"));
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Map<String, Object> query = (Map<String, Object>) eventCaptor.getAllValues().get(1).getEventData().get("query");
+        final Map<String, Object> queryPersonalization = (Map<String, Object>) query.get("personalization");
+        assertEquals(Arrays.asList("myMbox2"), queryPersonalization.get("decisionScopes"));
+    }
+
+    @Test
+    public void testHandleRegisterPrefetch() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "registerprefetch");
+        testEventData.put("refreshinterval", 60000L);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(new DecisionScope("myMbox").toEventData());
+            }
+        });
+        final Event testEvent = new Event.Builder("Optimize Register Prefetch Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+
+        // test
+        extension.handleRegisterPrefetch(testEvent);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Event dispatchedEvent = eventCaptor.getValue();
+        assertEquals("Edge Optimize Personalization Request", dispatchedEvent.getName());
+        final Map<String, Object> query = (Map<String, Object>) dispatchedEvent.getEventData().get("query");
+        final List<String> scopesList = (List<String>) ((Map<String, Object>) query.get("personalization")).get("decisionScopes");
+        assertEquals(Collections.singletonList("myMbox"), scopesList);
+    }
+
+    @Test
+    public void testHandleRegisterPrefetch_pausedInBackground() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "registerprefetch");
+        testEventData.put("refreshinterval", 60000L);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(new DecisionScope("myMbox").toEventData());
+            }
+        });
+        final Event testEvent = new Event.Builder("Optimize Register Prefetch Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+        extension.handleLifecycleRequest(createLifecycleEvent("pause"));
+
+        // test
+        extension.handleRegisterPrefetch(testEvent);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+
+        // test
+        extension.handleLifecycleRequest(createLifecycleEvent("start"));
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testOnUnregistered_shutsDownExecutors() {
+        // setup
+        final OptimizeExtension optimizeExtension = new OptimizeExtension(mockExtensionApi);
+        final ExecutorService executor = optimizeExtension.getExecutor();
+        final ExecutorService trackingExecutor = optimizeExtension.getTrackingExecutor();
+        final ScheduledExecutorService scheduledExecutor = optimizeExtension.getScheduledExecutor();
+        final ExecutorService storageExecutor = Whitebox.getInternalState(optimizeExtension, "storageExecutorService");
+
+        // test
+        optimizeExtension.onUnregistered();
+
+        // verify
+        assertTrue(executor.isShutdown());
+        assertTrue(trackingExecutor.isShutdown());
+        assertTrue(scheduledExecutor.isShutdown());
+        assertTrue(storageExecutor.isShutdown());
+
+        // tasks submitted after unregistration are dropped
+        optimizeExtension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        final ExecutorMetrics executorMetrics = (ExecutorMetrics) Whitebox.getInternalState(optimizeExtension, "executorMetrics");
+        assertEquals(1L, executorMetrics.getRejectedTaskCount());
+        assertEquals(0, executorMetrics.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testTrackingLane_doesNotDelayExtensionTasks() throws Exception {
+        // setup
+        final OptimizeExtension optimizeExtension = new OptimizeExtension(mockExtensionApi);
+        final ExecutorService executor = optimizeExtension.getExecutor();
+        final ExecutorService trackingExecutor = optimizeExtension.getTrackingExecutor();
+        final CountDownLatch trackingLatch = new CountDownLatch(1);
+        trackingExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    trackingLatch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        optimizeExtension.handleTrackPropositions(new Event.Builder("Optimize Track Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"), HashMap.class))
+                .build());
+
+        // test
+        optimizeExtension.handleClearPropositions(new Event.Builder("Optimize Clear Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestReset")
+                .build());
+        optimizeExtension.onUnregistered();
+
+        // verify
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertFalse(trackingExecutor.isTerminated());
+        final ExecutorMetrics executorMetrics = (ExecutorMetrics) Whitebox.getInternalState(optimizeExtension, "executorMetrics");
+        assertEquals(1L, executorMetrics.getTaskMetrics().get(ExecutorTaskMetrics.TASK_CLEAR).getTaskCount());
+        // the track request and the flush of the pending interactions on clear wait on the tracking lane
+        assertEquals(2, executorMetrics.getQueuedTaskCount());
+
+        trackingLatch.countDown();
+        assertTrue(trackingExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(2L, executorMetrics.getTaskMetrics().get(ExecutorTaskMetrics.TASK_TRACK).getTaskCount());
+    }
+
+    @Test
+    public void testGetExecutor_injectedExecutor() throws Exception {
+        // setup
+        final ExecutorService injectedExecutor = Executors.newFixedThreadPool(4);
+        OptimizeExtension.setExecutorService(injectedExecutor);
+        final OptimizeExtension optimizeExtension = new OptimizeExtension(mockExtensionApi);
+        final List<Integer> runOrder = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger runningTasks = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+
+        // test
+        final ExecutorService executor = optimizeExtension.getExecutor();
+        for (int i = 0; i < 100; i++) {
+            final int taskIndex = i;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (runningTasks.incrementAndGet() > 1) {
+                        overlapped.set(true);
+                    }
+                    Thread.yield();
+                    runOrder.add(taskIndex);
+                    runningTasks.decrementAndGet();
+                }
+            });
+        }
+        optimizeExtension.onUnregistered();
+
+        // verify
+        assertTrue(executor instanceof SerialExecutorService);
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertFalse("The extension tasks should not run concurrently on the injected executor.", overlapped.get());
+        assertEquals(100, runOrder.size());
+        for (int i = 0; i < runOrder.size(); i++) {
+            assertEquals(Integer.valueOf(i), runOrder.get(i));
+        }
+        assertFalse("The injected executor should not be shut down.", injectedExecutor.isShutdown());
+        injectedExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testHandleUnregisterPrefetch() throws Exception {
+        // setup
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(new DecisionScope("myMbox").toEventData());
+            }
+        });
+        testEventData.put("requesttype", "unregisterprefetch");
+        final Event testEvent = new Event.Builder("Optimize Unregister Prefetch Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+        extension.handleLifecycleRequest(createLifecycleEvent("pause"));
+        final PrefetchScheduler prefetchScheduler = (PrefetchScheduler) Whitebox.getInternalState(extension, "prefetchScheduler");
+        prefetchScheduler.register(Arrays.asList(new DecisionScope("myMbox")), 60000L, 0L);
+
+        // test
+        extension.handleUnregisterPrefetch(testEvent);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        assertEquals(PrefetchScheduler.NOT_SCHEDULED, prefetchScheduler.getNextFetchMillis());
+    }
+
+    @Test
+    public void testHandleEdgeErrorResponse_retriesFailedRequest() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox1", "myMbox2"));
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        // test
+        extension.handleEdgeErrorResponse(createEdgeErrorEvent(eventCaptor.getValue().getUniqueIdentifier(), 503));
+        Thread.sleep(1500);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(2));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Event retriedEvent = eventCaptor.getAllValues().get(eventCaptor.getAllValues().size() - 1);
+        final Map<String, Object> query = (Map<String, Object>) retriedEvent.getEventData().get("query");
+        final Map<String, Object> queryPersonalization = (Map<String, Object>) query.get("personalization");
+        assertEquals(Arrays.asList("myMbox1", "myMbox2"), queryPersonalization.get("decisionScopes"));
+        assertEquals(1, ((CircuitBreaker) Whitebox.getInternalState(extension, "circuitBreaker")).getConsecutiveFailures());
+    }
+
+    @Test
+    public void testHandleEdgeErrorResponse_clientErrorNotRetried() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        // test
+        extension.handleEdgeErrorResponse(createEdgeErrorEvent(eventCaptor.getValue().getUniqueIdentifier(), 400));
+        Thread.sleep(1500);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+        assertEquals(0, ((CircuitBreaker) Whitebox.getInternalState(extension, "circuitBreaker")).getConsecutiveFailures());
+    }
+
+    @Test
+    public void testHandleEdgeErrorResponse_warningWithoutStatusNotRetried() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        // test
+        extension.handleEdgeErrorResponse(createEdgeWarningEvent(eventCaptor.getValue().getUniqueIdentifier()));
+        Thread.sleep(1500);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+        final CircuitBreaker circuitBreaker = Whitebox.getInternalState(extension, "circuitBreaker");
+        assertEquals(0, circuitBreaker.getConsecutiveFailures());
+        assertEquals(0L, ((AtomicLong) Whitebox.getInternalState(extension, "retryCount")).get());
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_circuitBreakerOpen() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.edge.maxRetries", 0);
+        configData.put("optimize.edge.circuitBreaker.failureThreshold", 1);
+        extension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        extension.handleEdgeErrorResponse(createEdgeErrorEvent(eventCaptor.getValue().getUniqueIdentifier(), 503));
+
+        // test
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final Event testStatusEvent = new Event.Builder("Optimize Get Edge Request Status Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .build();
+        extension.handleGetEdgeRequestStatus(testStatusEvent);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), eq(testStatusEvent), any(ExtensionErrorCallback.class));
+        final EdgeRequestStatus status = EdgeRequestStatus.fromEventData(responseEventCaptor.getValue().getEventData());
+        assertEquals(EdgeRequestStatus.CIRCUIT_OPEN, status.getCircuitState());
+        assertEquals(1, status.getConsecutiveFailures());
+        assertEquals(0L, status.getRetryCount());
+    }
+
+    @Test
+    public void testHandleEdgeResponse_untrackedResponseDoesNotCloseCircuit() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.edge.maxRetries", 0);
+        configData.put("optimize.edge.circuitBreaker.failureThreshold", 1);
+        extension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        awaitExtensionTasks();
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        extension.handleEdgeErrorResponse(createEdgeErrorEvent(eventCaptor.getValue().getUniqueIdentifier(), 503));
+
+        // test
+        final Map<String, Object> edgeResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"), HashMap.class);
+        extension.handleEdgeResponse(new Event.Builder("AEP Response Event Handle", "com.adobe.eventType.edge", "personalization:decisions")
+                .setEventData(edgeResponseData)
+                .build());
+        awaitExtensionTasks();
+
+        // verify
+        final CircuitBreaker circuitBreaker = Whitebox.getInternalState(extension, "circuitBreaker");
+        assertEquals(CircuitBreaker.STATE_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testHandleEdgeErrorResponse_retryRejectedWhileCircuitOpen() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.edge.maxRetries", 1);
+        configData.put("optimize.edge.circuitBreaker.failureThreshold", 1);
+        extension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        awaitExtensionTasks();
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        // test
+        extension.handleEdgeErrorResponse(createEdgeErrorEvent(eventCaptor.getValue().getUniqueIdentifier(), 408));
+        Thread.sleep(1500);
+        awaitExtensionTasks();
+        final Event testStatusEvent = new Event.Builder("Optimize Get Edge Request Status Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .build();
+        extension.handleGetEdgeRequestStatus(testStatusEvent);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+
+        final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(responseEventCaptor.capture(), eq(testStatusEvent), any(ExtensionErrorCallback.class));
+        final EdgeRequestStatus status = EdgeRequestStatus.fromEventData(responseEventCaptor.getValue().getEventData());
+        assertEquals(EdgeRequestStatus.CIRCUIT_OPEN, status.getCircuitState());
+        assertEquals(1L, status.getRetryCount());
+        assertEquals(1L, status.getRejectedRetryCount());
+    }
+
+    @Test
+    public void testHandleGetPropositions_deadlinePassed() throws Exception {
+        // setup
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("requestdeadline", System.currentTimeMillis() - 1);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(new DecisionScope("myMbox").toEventData());
+            }
+        });
+        final Event testEvent = new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+
+        // test
+        extension.handleGetPropositions(testEvent);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchResponseEvent(any(Event.class), any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleGetPropositions_deadlineNotPassed() throws Exception {
+        // setup
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("requestdeadline", System.currentTimeMillis() + 10000);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(new DecisionScope("myMbox").toEventData());
+            }
+        });
+        final Event testEvent = new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+
+        // test
+        extension.handleGetPropositions(testEvent);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(any(Event.class), eq(testEvent), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleEdgeResponse_tracesRequest() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final List<PersonalizationRequestTrace> traces = new ArrayList<>();
+        RequestTraceRecorder.setTracer(new PersonalizationRequestTracer() {
+            @Override
+            public void onRequestTraced(final PersonalizationRequestTrace trace) {
+                traces.add(trace);
+            }
+        });
+        final Event testEvent = createUpdatePropositionsEvent("myMbox");
+        extension.handleUpdatePropositions(testEvent);
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        final String edgeRequestId = eventCaptor.getValue().getUniqueIdentifier();
+
+        final Map<String, Object> edgeResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"), HashMap.class);
+        edgeResponseData.put("requestEventId", edgeRequestId);
+        final Event testResponseEvent = new Event.Builder("AEP Response Event Handle", "com.adobe.eventType.edge", "personalization:decisions")
+                .setEventData(edgeResponseData)
+                .build();
+
+        // test
+        extension.handleEdgeResponse(testResponseEvent);
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        assertEquals(1, traces.size());
+        final PersonalizationRequestTrace trace = traces.get(0);
+        assertEquals(testEvent.getUniqueIdentifier(), trace.getRequestId());
+        assertEquals(edgeRequestId, trace.getEdgeRequestId());
+        assertEquals(testEvent.getTimestamp(), trace.getRequestDispatchMillis());
+        assertTrue(trace.getRequestQueueMillis() >= 0);
+        assertTrue(trace.getEdgeRequestPreparationMillis() >= 0);
+        assertTrue(trace.getEdgeLatencyMillis() >= 0);
+        assertTrue(trace.getEdgeResponseQueueMillis() >= 0);
+        assertTrue(trace.getCacheWriteDurationMillis() >= 0);
+        assertTrue(trace.getNotificationDurationMillis() >= 0);
+        assertTrue(trace.getTotalDurationMillis() >= 0);
+    }
+
+    @Test
+    public void testHandleEdgeErrorResponse_reportsTraceOfFailedRequest() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final List<PersonalizationRequestTrace> traces = new ArrayList<>();
+        RequestTraceRecorder.setTracer(new PersonalizationRequestTracer() {
+            @Override
+            public void onRequestTraced(final PersonalizationRequestTrace trace) {
+                traces.add(trace);
+            }
+        });
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        // test
+        extension.handleEdgeErrorResponse(createEdgeErrorEvent(eventCaptor.getValue().getUniqueIdentifier(), 400));
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        assertEquals(1, traces.size());
+        final PersonalizationRequestTrace trace = traces.get(0);
+        assertEquals(eventCaptor.getValue().getUniqueIdentifier(), trace.getEdgeRequestId());
+        assertTrue(trace.getEdgeRequestDispatchMillis() > 0);
+        assertEquals(PersonalizationRequestTrace.NOT_RECORDED, trace.getEdgeResponseReceiptMillis());
+        assertEquals(-1, trace.getTotalDurationMillis());
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_droppedReportsTrace() throws Exception {
+        // setup
+        final List<PersonalizationRequestTrace> traces = new ArrayList<>();
+        RequestTraceRecorder.setTracer(new PersonalizationRequestTracer() {
+            @Override
+            public void onRequestTraced(final PersonalizationRequestTrace trace) {
+                traces.add(trace);
+            }
+        });
+        testExecutor.shutdown();
+        final Event testEvent = createUpdatePropositionsEvent("myMbox");
+
+        // test
+        extension.handleUpdatePropositions(testEvent);
+
+        // verify
+        assertEquals(1, traces.size());
+        assertEquals(testEvent.getUniqueIdentifier(), traces.get(0).getRequestId());
+        assertNull(traces.get(0).getEdgeRequestId());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_noTraceWithoutTracer() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+
+        // test
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+
+        // verify
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        final RequestTraceRecorder traceRecorder = (RequestTraceRecorder) Whitebox.getInternalState(extension, "traceRecorder");
+        assertTrue(traceRecorder.remove(eventCaptor.getValue().getUniqueIdentifier()).isEmpty());
+    }
+
+    @Test
+    public void testHandleGetMetrics() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+
+        final Map<String, Object> edgeResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"), HashMap.class);
+        extension.handleEdgeResponse(new Event.Builder("AEP Response Event Handle", "com.adobe.eventType.edge", "personalization:decisions")
+                .setEventData(edgeResponseData)
+                .build());
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(new DecisionScope("eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==").toEventData());
+                add(new DecisionScope("myMbox").toEventData());
+            }
+        });
+        extension.handleGetPropositions(new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build());
+
+        final Event testEvent = new Event.Builder("Optimize Get Metrics Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .build();
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+        // test
+        extension.handleGetMetrics(testEvent);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(eventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        final OptimizeMetrics metrics = OptimizeMetrics.fromEventData(eventCaptor.getValue().getEventData());
+        assertNotNull(metrics);
+        assertEquals(1L, metrics.getCacheHits());
+        assertEquals(1L, metrics.getCacheMisses());
+        assertEquals(0L, metrics.getCacheEvictions());
+        assertEquals(1, metrics.getCacheEntries());
+        assertTrue(metrics.getCacheSizeBytes() > 0);
+        assertEquals(1L, metrics.getRequestsSent());
+        assertEquals(1L, metrics.getResponsesParsed());
+        assertEquals(0L, metrics.getPropositionsDropped());
+        assertEquals(0L, metrics.getClears());
+    }
+
+    @Test
+    public void testHandleGetMetrics_droppedPropositionsAndClears() throws Exception {
+        // setup
+        final Map<String, Object> edgeResponseData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/EVENT_DATA_EDGE_RESPONSE_UNSUPPORTED_ITEM_IN_PAYLOAD.json"), HashMap.class);
+        extension.handleEdgeResponse(new Event.Builder("AEP Response Event Handle", "com.adobe.eventType.edge", "personalization:decisions")
+                .setEventData(edgeResponseData)
+                .build());
+        extension.handleClearPropositions(new Event.Builder("Optimize Clear Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestReset")
+                .build());
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final Event testEvent = new Event.Builder("Optimize Get Metrics Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .build();
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+        // test
+        extension.handleGetMetrics(testEvent);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(eventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        final OptimizeMetrics metrics = OptimizeMetrics.fromEventData(eventCaptor.getValue().getEventData());
+        assertNotNull(metrics);
+        assertEquals(1L, metrics.getResponsesParsed());
+        assertEquals(1L, metrics.getPropositionsDropped());
+        assertEquals(1L, metrics.getClears());
+        assertEquals(0, metrics.getCacheEntries());
+    }
+
+    @Test
+    public void testHandleGetMetrics_executorTaskMetrics() throws Exception {
+        // setup
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        extension.handleUpdatePropositions(createUpdatePropositionsEvent("myMbox"));
+        extension.handleClearPropositions(new Event.Builder("Optimize Clear Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestReset")
+                .build());
+        testExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        extension.handleGetPropositions(null);
+
+        final Event testEvent = new Event.Builder("Optimize Get Metrics Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .build();
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+        // test
+        extension.handleGetMetrics(testEvent);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.dispatchResponseEvent(eventCaptor.capture(), eq(testEvent), any(ExtensionErrorCallback.class));
+        final OptimizeMetrics metrics = OptimizeMetrics.fromEventData(eventCaptor.getValue().getEventData());
+        assertNotNull(metrics);
+        assertEquals(0, metrics.getQueuedTasks());
+        assertTrue(metrics.getMaxQueuedTasks() >= 1);
+        assertEquals(1L, metrics.getTaskMetrics(ExecutorTaskMetrics.TASK_UPDATE).getTaskCount());
+        assertEquals(1L, metrics.getTaskMetrics(ExecutorTaskMetrics.TASK_UPDATE).getWaitTime().getCount());
+        assertEquals(1L, metrics.getTaskMetrics(ExecutorTaskMetrics.TASK_CLEAR).getTaskCount());
+        // the get answered on the calling thread is not an extension task
+        assertEquals(0L, metrics.getTaskMetrics(ExecutorTaskMetrics.TASK_GET).getTaskCount());
+        // the clear sends the batched proposition interactions on the tracking lane
+        assertEquals(1L, metrics.getTaskMetrics(ExecutorTaskMetrics.TASK_TRACK).getTaskCount());
+    }
+
+    // Helper methods
+    private OptimizeExtension createJournalingExtension(final File filesDir) {
+        Mockito.when(mockApplication.getFilesDir()).thenReturn(filesDir);
+        final OptimizeExtension journalingExtension = spy(new OptimizeExtension(mockExtensionApi));
+        when(journalingExtension.getExecutor()).thenReturn(testExecutor);
+        when(journalingExtension.getTrackingExecutor()).thenReturn(testExecutor);
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.tracking.journal.enabled", true);
+        journalingExtension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+        return journalingExtension;
+    }
+
+    private void awaitExtensionTasks() throws Exception {
+        testExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get(1, TimeUnit.SECONDS);
+    }
+
+    private void awaitStorageTasks(final OptimizeExtension optimizeExtension) throws InterruptedException {
+        for (final String executorName : Arrays.asList("storageExecutorService", "journalExecutorService")) {
+            final ExecutorService storageExecutor = Whitebox.getInternalState(optimizeExtension, executorName);
+            storageExecutor.shutdown();
+            assertTrue(storageExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+
+    private Event createEdgeErrorEvent(final String requestEventId, final int status) {
+        final Map<String, Object> edgeErrorResponseData = new HashMap<>();
+        edgeErrorResponseData.put("type", "https://ns.adobe.com/aep/errors/EXEG-0201-503");
+        edgeErrorResponseData.put("detail", "The service is temporarily unable to serve this request.");
+        edgeErrorResponseData.put("status", status);
+        edgeErrorResponseData.put("requestEventId", requestEventId);
+        return new Event.Builder("AEP Error Response", "com.adobe.eventType.edge", "com.adobe.eventSource.errorResponseContent")
+                .setEventData(edgeErrorResponseData)
+                .build();
+    }
+
+    private Event createEdgeWarningEvent(final String requestEventId) {
+        final Map<String, Object> edgeErrorResponseData = new HashMap<>();
+        edgeErrorResponseData.put("type", "https://ns.adobe.com/aep/errors/EXEG-0204-200");
+        edgeErrorResponseData.put("detail", "A warning occurred while calling the 'com.adobe.target' service for this request.");
+        edgeErrorResponseData.put("requestEventId", requestEventId);
+        return new Event.Builder("AEP Error Response", "com.adobe.eventType.edge", "com.adobe.eventSource.errorResponseContent")
+                .setEventData(edgeErrorResponseData)
+                .build();
+    }
+
+    private Event createLifecycleEvent(final String action) {
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("action", action);
+        return new Event.Builder("Lifecycle Request", "com.adobe.eventType.generic.lifecycle", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+    }
+
+    private Event createUpdatePropositionsEvent(final String... scopeNames) {
+        final List<Map<String, Object>> decisionScopesData = new ArrayList<>();
+        for (final String scopeName : scopeNames) {
+            decisionScopesData.add(new DecisionScope(scopeName).toEventData());
+        }
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "updatepropositions");
+        testEventData.put("decisionscopes", decisionScopesData);
+        return new Event.Builder("Optimize Update Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+    }
+
+    private void configureTrackingBatch(final long windowMillis, final int maxSize, final boolean flushOnTap) {
+        setConfigurationSharedState(new HashMap<String, Object>() {
+            {
+                put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+            }
+        });
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.tracking.batchWindowMillis", windowMillis);
+        configData.put("optimize.tracking.batchMaxSize", maxSize);
+        configData.put("optimize.tracking.flushOnTap", flushOnTap);
+        extension.handleConfigurationResponse(new Event.Builder("Configuration Response Event", "com.adobe.eventType.configuration", "com.adobe.eventSource.responseContent")
+                .setEventData(configData)
+                .build());
+    }
+
+    private Event createTrackPropositionsEvent(final String resourcePath) throws Exception {
+        final Map<String, Object> optimizeTrackRequestData = new ObjectMapper().readValue(getClass().getClassLoader().getResource(resourcePath), HashMap.class);
+        return new Event.Builder("Optimize Track Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(optimizeTrackRequestData)
+                .build();
+    }
+
+    private List<Map<String, Object>> getInteractionPropositions(final Map<String, Object> xdm) {
+        final Map<String, Object> experience = (Map<String, Object>) xdm.get("_experience");
+        final Map<String, Object> decisioning = (Map<String, Object>) experience.get("decisioning");
+        return (List<Map<String, Object>>) decisioning.get("propositions");
+    }
+
+    private Event createFetchMissingPropositionsEvent(final String scopeName, final long fetchTimeoutMillis) {
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put("fetchtimeout", fetchTimeoutMillis);
+        testEventData.put("decisionscopes", new ArrayList<Map<String, Object>>() {
+            {
+                add(new DecisionScope(scopeName).toEventData());
+            }
+        });
+        return new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+    }
+
     private void setConfigurationSharedState(final Map<String, Object> data) {
-        when(mockExtensionApi.getSharedEventState(eq("com.adobe.module.configuration"), any(Event.class), any(ExtensionErrorCallback.class)))
+        when(mockExtensionApi.getSharedEventState(eq("com.adobe.module.configuration"), nullable(Event.class), any(ExtensionErrorCallback.class)))
                 .thenReturn(data);
     }
 }
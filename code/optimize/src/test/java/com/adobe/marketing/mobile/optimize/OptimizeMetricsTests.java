@@ -0,0 +1,127 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OptimizeMetricsTests {
+    @Test
+    public void testFromEventData_validMetrics() {
+        // setup
+        final Map<String, Object> data = new HashMap<>();
+        data.put("cachehits", 10L);
+        data.put("cachemisses", 2);
+        data.put("cacheevictions", 1L);
+        data.put("cacheentries", 4);
+        data.put("cachesizebytes", 2048L);
+        data.put("requestssent", 5L);
+        data.put("responsesparsed", 3L);
+        data.put("propositionsdropped", 1L);
+        data.put("clears", 0L);
+
+        // test
+        final OptimizeMetrics metrics = OptimizeMetrics.fromEventData(data);
+
+        // verify
+        assertEquals(10L, metrics.getCacheHits());
+        assertEquals(2L, metrics.getCacheMisses());
+        assertEquals(1L, metrics.getCacheEvictions());
+        assertEquals(4, metrics.getCacheEntries());
+        assertEquals(2048L, metrics.getCacheSizeBytes());
+        assertEquals(5L, metrics.getRequestsSent());
+        assertEquals(3L, metrics.getResponsesParsed());
+        assertEquals(1L, metrics.getPropositionsDropped());
+        assertEquals(0L, metrics.getClears());
+    }
+
+    @Test
+    public void testFromEventData_missingCounters() {
+        // setup
+        final Map<String, Object> data = new HashMap<>();
+        data.put("requestssent", 5L);
+
+        // test
+        final OptimizeMetrics metrics = OptimizeMetrics.fromEventData(data);
+
+        // verify
+        assertNull(metrics);
+        assertNull(OptimizeMetrics.fromEventData(null));
+    }
+
+    @Test
+    public void testToEventData() {
+        // setup
+        final Map<String, ExecutorTaskMetrics> taskMetrics = new HashMap<>();
+        taskMetrics.put(ExecutorTaskMetrics.TASK_UPDATE, new ExecutorTaskMetrics(
+                histogram(2, 1000, 600), histogram(3, 300, 200)));
+        final OptimizeMetrics metrics = new OptimizeMetrics(1L, 2L, 3L, 4, 5L, 6L, 7L, 8L, 9L, 10, 11, taskMetrics, 12L, 13L);
+
+        // test
+        final OptimizeMetrics restoredMetrics = OptimizeMetrics.fromEventData(metrics.toEventData());
+
+        // verify
+        assertEquals(1L, restoredMetrics.getCacheHits());
+        assertEquals(2L, restoredMetrics.getCacheMisses());
+        assertEquals(3L, restoredMetrics.getCacheEvictions());
+        assertEquals(4, restoredMetrics.getCacheEntries());
+        assertEquals(5L, restoredMetrics.getCacheSizeBytes());
+        assertEquals(6L, restoredMetrics.getRequestsSent());
+        assertEquals(7L, restoredMetrics.getResponsesParsed());
+        assertEquals(8L, restoredMetrics.getPropositionsDropped());
+        assertEquals(9L, restoredMetrics.getClears());
+        assertEquals(10, restoredMetrics.getQueuedTasks());
+        assertEquals(11, restoredMetrics.getMaxQueuedTasks());
+        assertEquals(12L, restoredMetrics.getRejectedTasks());
+        assertEquals(13L, restoredMetrics.getSuppressedDisplays());
+        assertEquals(1, restoredMetrics.getTaskMetrics().size());
+
+        final ExecutorTaskMetrics updateMetrics = restoredMetrics.getTaskMetrics(ExecutorTaskMetrics.TASK_UPDATE);
+        assertEquals(3L, updateMetrics.getTaskCount());
+        assertEquals(2L, updateMetrics.getWaitTime().getCount());
+        assertEquals(1000L, updateMetrics.getWaitTime().getTotalMicros());
+        assertEquals(600L, updateMetrics.getWaitTime().getMaxMicros());
+        assertArrayEquals(histogram(3, 300, 200).getBucketCounts(), updateMetrics.getRunTime().getBucketCounts());
+        assertNull(restoredMetrics.getTaskMetrics(ExecutorTaskMetrics.TASK_GET));
+    }
+
+    @Test
+    public void testFromEventData_invalidTaskMetrics() {
+        // setup
+        final Map<String, Object> data = new OptimizeMetrics(1L, 2L, 3L, 4, 5L, 6L, 7L, 8L, 9L, 0, 0, null, 0L, 0L).toEventData();
+        final Map<String, Object> executorTasks = new HashMap<>();
+        executorTasks.put("update", "invalid");
+        executorTasks.put("track", new HashMap<String, Object>());
+        data.put("executortasks", executorTasks);
+
+        // test
+        final OptimizeMetrics metrics = OptimizeMetrics.fromEventData(data);
+
+        // verify
+        assertEquals(1L, metrics.getCacheHits());
+        assertTrue(metrics.getTaskMetrics().isEmpty());
+    }
+
+    private LatencyHistogram histogram(final int count, final long totalMicros, final long maxMicros) {
+        final long[] bucketCounts = new long[LatencyHistogram.bucketCount()];
+        bucketCounts[LatencyHistogram.bucketIndex(maxMicros)] = count;
+        return new LatencyHistogram(bucketCounts, totalMicros, maxMicros);
+    }
+}
@@ -14,6 +14,7 @@ package com.adobe.marketing.mobile.optimize;
 
 import android.util.Base64;
 
+import com.adobe.marketing.mobile.AdobeCallback;
 import com.adobe.marketing.mobile.AdobeCallbackWithError;
 import com.adobe.marketing.mobile.AdobeError;
 import com.adobe.marketing.mobile.Event;
@@ -34,16 +35,23 @@ import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -78,6 +86,8 @@ public class OptimizeTests {
     public void teardown() {
         responseMap = null;
         responseError = null;
+        Whitebox.setInternalState(OptimizeExtension.class, "registeredExtension", (OptimizeExtension) null);
+        ((PropositionsUpdateNotifier) Whitebox.getInternalState(Optimize.class, "propositionsUpdateNotifier")).reset();
     }
 
     @Test
@@ -106,6 +116,66 @@ public class OptimizeTests {
         // extensionErrorCallback.error(ExtensionError.UNEXPECTED_ERROR);
     }
 
+    @Test
+    public void test_registerExtension_withExecutorService() {
+        // setup
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        // test
+        Optimize.registerExtension(executorService);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.registerExtension(eq(OptimizeExtension.class), any(ExtensionErrorCallback.class));
+        assertEquals(executorService, Whitebox.getInternalState(OptimizeExtension.class, "injectedExecutorService"));
+
+        // registering without an executor restores the default executor
+        Optimize.registerExtension();
+        assertNull(Whitebox.getInternalState(OptimizeExtension.class, "injectedExecutorService"));
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testGetCachedPropositions() {
+        // setup
+        final OptimizeExtension mockExtension = Mockito.mock(OptimizeExtension.class);
+        final List<DecisionScope> scopes = Arrays.asList(new DecisionScope("myMbox"));
+        final Map<DecisionScope, Proposition> cachedPropositions = new HashMap<>();
+        Mockito.when(mockExtension.getCachedPropositions(scopes)).thenReturn(cachedPropositions);
+        Whitebox.setInternalState(OptimizeExtension.class, "registeredExtension", mockExtension);
+
+        // test
+        final Map<DecisionScope, Proposition> propositions = Optimize.getCachedPropositions(scopes);
+
+        // verify
+        assertEquals(cachedPropositions, propositions);
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+        Whitebox.setInternalState(OptimizeExtension.class, "registeredExtension", (OptimizeExtension) null);
+    }
+
+    @Test
+    public void testGetCachedPropositions_extensionNotRegistered() {
+        // setup
+        Whitebox.setInternalState(OptimizeExtension.class, "registeredExtension", (OptimizeExtension) null);
+
+        // test
+        final Map<DecisionScope, Proposition> propositions = Optimize.getCachedPropositions(Arrays.asList(new DecisionScope("myMbox")));
+
+        // verify
+        assertNotNull(propositions);
+        assertTrue(propositions.isEmpty());
+    }
+
+    @Test
+    public void testGetCachedPropositions_emptyDecisionScopes() {
+        // test
+        final Map<DecisionScope, Proposition> propositions = Optimize.getCachedPropositions(new ArrayList<DecisionScope>());
+
+        // verify
+        assertTrue(propositions.isEmpty());
+    }
+
     @Test
     public void testUpdatePropositions_validDecisionScope() {
         // test
@@ -322,6 +392,236 @@ public class OptimizeTests {
         assertEquals(proposition, actualProposition);
     }
 
+    @Test
+    public void testGetPropositions_sharedPropositions() throws Exception {
+        // test
+        Optimize.getPropositions(Arrays.asList(new DecisionScope("eydhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==")),
+                new AdobeCallbackWithError<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(Map<DecisionScope, Proposition> propositionsMap) {
+                responseMap = propositionsMap;
+            }
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.dispatchEventWithResponseCallback(any(Event.class), callbackCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Map<String, Object> propositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition proposition = Proposition.fromEventData(propositionData).freeze();
+        final DecisionScope scope = new DecisionScope(proposition.getScope());
+
+        final Map<String, Object> responseEventData = new HashMap<>();
+        responseEventData.put("propositions", Arrays.asList(proposition.toEventData()));
+        final Event responseEvent = new Event.Builder("Optimize Response", "com.adobe.eventType.optimize", "com.adobe.eventSource.responseContent")
+                .setEventData(responseEventData).build();
+        final Map<DecisionScope, Proposition> sharedPropositions = new HashMap<>();
+        sharedPropositions.put(scope, proposition);
+        registerSharingExtension().put(responseEvent, sharedPropositions);
+        callbackCaptor.getValue().call(responseEvent);
+
+        assertNull(responseError);
+        assertEquals(1, responseMap.size());
+        assertSame("The shared proposition should not be parsed again.", proposition, responseMap.get(scope));
+    }
+
+    @Test
+    public void testGetPropositions_executor() throws Exception {
+        // setup
+        final List<Runnable> tasks = new ArrayList<>();
+        final Executor executor = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                tasks.add(command);
+            }
+        };
+
+        // test
+        Optimize.getPropositions(Arrays.asList(new DecisionScope("myMbox")), executor, new AdobeCallbackWithError<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(Map<DecisionScope, Proposition> propositionsMap) {
+                responseMap = propositionsMap;
+            }
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.dispatchEventWithResponseCallback(any(Event.class), callbackCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Map<String, Object> responseEventData = new HashMap<>();
+        responseEventData.put("propositions", new ArrayList<Map<String, Object>>());
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Response", "com.adobe.eventType.optimize", "com.adobe.eventSource.responseContent")
+                .setEventData(responseEventData).build());
+
+        assertNull("The callback should not be invoked on the thread delivering the response.", responseMap);
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertNull(responseError);
+        assertNotNull(responseMap);
+        assertTrue(responseMap.isEmpty());
+    }
+
+    @Test
+    public void testGetPropositions_timeout() throws Exception {
+        // test
+        Optimize.getPropositions(Arrays.asList(new DecisionScope("myMbox")), 100, new AdobeCallbackWithError<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(Map<DecisionScope, Proposition> propositionsMap) {
+                responseMap = propositionsMap;
+            }
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.dispatchEventWithResponseCallback(eventCaptor.capture(), callbackCaptor.capture(), any(ExtensionErrorCallback.class));
+        final long deadline = (long) eventCaptor.getValue().getEventData().get("requestdeadline");
+        assertTrue(deadline > System.currentTimeMillis() - 1000 && deadline <= System.currentTimeMillis() + 100);
+
+        Thread.sleep(300);
+        assertEquals(AdobeError.CALLBACK_TIMEOUT, responseError);
+
+        // late response is ignored
+        final Map<String, Object> responseEventData = new HashMap<>();
+        responseEventData.put("propositions", new ArrayList<Map<String, Object>>());
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Response", "com.adobe.eventType.optimize", "com.adobe.eventSource.responseContent")
+                .setEventData(responseEventData).build());
+        assertNull(responseMap);
+    }
+
+    @Test
+    public void testGetPropositions_expiredDecisionScope() {
+        // test
+        final List<DecisionScope> scopes = new ArrayList<>();
+        scopes.add(new DecisionScope("myMbox"));
+        final List<DecisionScope> expiredScopes = new ArrayList<>();
+
+        Optimize.getPropositions(scopes, new PropositionsExpiryCallback() {
+            @Override
+            public void expired(final List<DecisionScope> scopes) {
+                expiredScopes.addAll(scopes);
+            }
+
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(Map<DecisionScope, Proposition> propositionsMap) {
+                responseMap = propositionsMap;
+            }
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.dispatchEventWithResponseCallback(any(Event.class), callbackCaptor.capture(), any(ExtensionErrorCallback.class));
+        final AdobeCallbackWithError<Event> callbackWithError = callbackCaptor.getValue();
+
+        // verify callback response
+        final List<Map<String, Object>> expiredScopesList = new ArrayList<>();
+        expiredScopesList.add(new DecisionScope("myMbox").toEventData());
+
+        final Map<String, Object> responseEventData = new HashMap<>();
+        responseEventData.put("propositions", new ArrayList<Map<String, Object>>());
+        responseEventData.put("expireddecisionscopes", expiredScopesList);
+        final Event responseEvent = new Event.Builder("Optimize Response", "com.adobe.eventType.optimize", "com.adobe.eventSource.responseContent")
+                .setEventData(responseEventData).build();
+        callbackWithError.call(responseEvent);
+
+        assertNull(responseError);
+        assertNotNull(responseMap);
+        assertTrue(responseMap.isEmpty());
+        assertEquals(1, expiredScopes.size());
+        assertEquals(new DecisionScope("myMbox"), expiredScopes.get(0));
+    }
+
+    @Test
+    public void testGetPropositionsAndRevalidate_validDecisionScope() {
+        // test
+        final List<DecisionScope> scopes = new ArrayList<>();
+        scopes.add(new DecisionScope("myMbox"));
+
+        Optimize.getPropositionsAndRevalidate(scopes, 30, new AdobeCallbackWithError<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(Map<DecisionScope, Proposition> propositionsMap) {
+                responseMap = propositionsMap;
+            }
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        MobileCore.dispatchEventWithResponseCallback(eventCaptor.capture(), any(AdobeCallbackWithError.class), any(ExtensionErrorCallback.class));
+        final Event event = eventCaptor.getValue();
+
+        assertNotNull(event);
+        assertEquals("com.adobe.eventType.optimize".toLowerCase(), event.getType());
+        assertEquals("com.adobe.eventSource.requestContent".toLowerCase(), event.getSource());
+        final Map<String, Object> eventData = event.getEventData();
+        assertEquals("getpropositions", eventData.get("requesttype"));
+        assertEquals(30000L, eventData.get("revalidateafter"));
+
+        final List<Map<String, Object>> scopesList = (List<Map<String, Object>>)eventData.get("decisionscopes");
+        assertEquals(1, scopesList.size());
+        assertEquals("myMbox", scopesList.get(0).get("name"));
+    }
+
+    @Test
+    public void testGetPropositionsAndFetchMissing_validDecisionScope() {
+        // test
+        final List<DecisionScope> scopes = new ArrayList<>();
+        scopes.add(new DecisionScope("myMbox"));
+
+        Optimize.getPropositionsAndFetchMissing(scopes, 2000, new AdobeCallbackWithError<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(Map<DecisionScope, Proposition> propositionsMap) {
+                responseMap = propositionsMap;
+            }
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        MobileCore.dispatchEventWithResponseCallback(eventCaptor.capture(), any(AdobeCallbackWithError.class), any(ExtensionErrorCallback.class));
+        final Map<String, Object> eventData = eventCaptor.getValue().getEventData();
+        assertEquals("getpropositions", eventData.get("requesttype"));
+        assertEquals(2000L, eventData.get("fetchtimeout"));
+
+        final List<Map<String, Object>> scopesList = (List<Map<String, Object>>)eventData.get("decisionscopes");
+        assertEquals(1, scopesList.size());
+        assertEquals("myMbox", scopesList.get(0).get("name"));
+    }
+
     @Test
     public void testGetPropositions_multipleValidDecisionScopes() {
         // test
@@ -433,6 +733,209 @@ public class OptimizeTests {
         assertEquals(AdobeError.UNEXPECTED_ERROR, responseError);
     }
 
+    @Test
+    public void testOnPropositionsUpdate_singleListenerForAllCallbacks() throws Exception {
+        // setup
+        final List<Map<DecisionScope, Proposition>> firstCallbackMaps = new ArrayList<>();
+        final List<Map<DecisionScope, Proposition>> secondCallbackMaps = new ArrayList<>();
+        final AdobeCallback<Map<DecisionScope, Proposition>> firstCallback = new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {
+                firstCallbackMaps.add(propositionsMap);
+            }
+        };
+        final AdobeCallback<Map<DecisionScope, Proposition>> secondCallback = new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {
+                secondCallbackMaps.add(propositionsMap);
+            }
+        };
+
+        // test
+        Optimize.onPropositionsUpdate(firstCallback);
+        Optimize.onPropositionsUpdate(secondCallback);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.registerEventListener(eq("com.adobe.eventType.optimize"), eq("com.adobe.eventSource.notification"),
+                callbackCaptor.capture());
+
+        final Map<String, Object> propositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("propositions", Arrays.asList(propositionData));
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Notification", "com.adobe.eventType.optimize", "com.adobe.eventSource.notification")
+                .setEventData(eventData).build());
+
+        assertEquals(1, firstCallbackMaps.size());
+        assertEquals(1, secondCallbackMaps.size());
+        final DecisionScope scope = new DecisionScope("eydhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+        assertSame("The propositions should be parsed once for all the callbacks.", firstCallbackMaps.get(0).get(scope), secondCallbackMaps.get(0).get(scope));
+
+        // test removal
+        Optimize.removeOnPropositionsUpdate(firstCallback);
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Notification", "com.adobe.eventType.optimize", "com.adobe.eventSource.notification")
+                .setEventData(eventData).build());
+
+        assertEquals(1, firstCallbackMaps.size());
+        assertEquals(2, secondCallbackMaps.size());
+    }
+
+    @Test
+    public void testOnPropositionsUpdate_decisionScopes() throws Exception {
+        // setup
+        final DecisionScope scope = new DecisionScope("eydhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+        final List<Map<DecisionScope, Proposition>> receivedMaps = new ArrayList<>();
+
+        // test
+        Optimize.onPropositionsUpdate(Arrays.asList(new DecisionScope("myMbox")), new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {
+                fail("The callback should not be invoked for the other scopes.");
+            }
+        });
+        Optimize.onPropositionsUpdate(Arrays.asList(scope), new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {
+                receivedMaps.add(propositionsMap);
+            }
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.registerEventListener(eq("com.adobe.eventType.optimize"), eq("com.adobe.eventSource.notification"),
+                callbackCaptor.capture());
+
+        final Map<String, Object> propositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("propositions", Arrays.asList(propositionData));
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Notification", "com.adobe.eventType.optimize", "com.adobe.eventSource.notification")
+                .setEventData(eventData).build());
+
+        assertEquals(1, receivedMaps.size());
+        assertEquals(1, receivedMaps.get(0).size());
+        assertEquals("de03ac85-802a-4331-a905-a57053164d35", receivedMaps.get(0).get(scope).getId());
+    }
+
+    @Test
+    public void testOnPropositionsUpdate_emptyDecisionScopes() {
+        // test
+        Optimize.onPropositionsUpdate(new ArrayList<DecisionScope>(), new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {}
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.registerEventListener(anyString(), anyString(), any(AdobeCallbackWithError.class));
+    }
+
+    @Test
+    public void testRetrievePropositions_parsesOnlyRequestedScopes() throws Exception {
+        // setup
+        final Map<String, Object> propositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("propositions", Arrays.asList(propositionData));
+        final Event event = new Event.Builder("Optimize Notification", "com.adobe.eventType.optimize", "com.adobe.eventSource.notification")
+                .setEventData(eventData).build();
+
+        // test
+        final Map<DecisionScope, Proposition> propositions = Optimize.retrievePropositions(event, Arrays.asList(new DecisionScope("myMbox")));
+
+        // verify
+        assertTrue(propositions.isEmpty());
+        assertEquals(1, Optimize.retrievePropositions(event).size());
+    }
+
+    @Test
+    public void testOnPropositionsUpdate_nullCallback() {
+        // test
+        Optimize.onPropositionsUpdate(null);
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.registerEventListener(anyString(), anyString(), any(AdobeCallbackWithError.class));
+    }
+
+    @Test
+    public void testOnPropositionsUpdate_sharedPropositions() throws Exception {
+        // test
+        Optimize.onPropositionsUpdate(new AdobeCallbackWithError<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void fail(final AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {
+                responseMap = propositionsMap;
+            }
+        });
+
+        //verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.registerEventListener(eq("com.adobe.eventType.optimize"), eq("com.adobe.eventSource.notification"),
+                callbackCaptor.capture());
+
+        final Map<String, Object> propositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID.json"), HashMap.class);
+        final Proposition proposition = Proposition.fromEventData(propositionData).freeze();
+        final DecisionScope scope = new DecisionScope(proposition.getScope());
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("propositions", Arrays.asList(proposition.toEventData()));
+        final Event event = new Event.Builder("Optimize Notification", "com.adobe.eventType.optimize", "com.adobe.eventSource.notification")
+                .setEventData(eventData).build();
+        final Map<DecisionScope, Proposition> sharedPropositions = new HashMap<>();
+        sharedPropositions.put(scope, proposition);
+        registerSharingExtension().put(event, sharedPropositions);
+        callbackCaptor.getValue().call(event);
+
+        assertNull(responseError);
+        assertEquals(1, responseMap.size());
+        assertSame("The shared proposition should not be parsed again.", proposition, responseMap.get(scope));
+    }
+
+    @Test
+    public void testOnPropositionsUpdate_executor() throws Exception {
+        // setup
+        final List<Runnable> tasks = new ArrayList<>();
+        final Executor executor = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                tasks.add(command);
+            }
+        };
+
+        // test
+        Optimize.onPropositionsUpdate(Arrays.asList(new DecisionScope("myMbox")), executor, new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {
+                responseMap = propositionsMap;
+            }
+        });
+
+        //verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.registerEventListener(eq("com.adobe.eventType.optimize"), eq("com.adobe.eventSource.notification"),
+                callbackCaptor.capture());
+
+        final Proposition proposition = new Proposition("id", Arrays.asList(new Offer.Builder("offerId", OfferType.TEXT, "content").build()),
+                "myMbox", new HashMap<String, Object>());
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("propositions", Arrays.asList(proposition.toEventData()));
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Notification", "com.adobe.eventType.optimize", "com.adobe.eventSource.notification")
+                .setEventData(eventData).build());
+
+        assertNull("The callback should not be invoked on the thread delivering the notification.", responseMap);
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals(1, responseMap.size());
+        assertEquals(proposition, responseMap.get(new DecisionScope("myMbox")));
+    }
+
     @Test
     public void testOnPropositionsUpdate_validProposition() throws Exception {
         // test
@@ -545,6 +1048,266 @@ public class OptimizeTests {
         assertNull(responseMap);
     }
 
+    @Test
+    public void testTrackDisplayed_multipleOffers() {
+        // setup
+        final Offer offer1 = new Offer.Builder("offer1", OfferType.TEXT, "content1").build();
+        final Offer offer2 = new Offer.Builder("offer2", OfferType.TEXT, "content2").build();
+        new Proposition("propositionId", Arrays.asList(offer1, offer2), "myMbox", new HashMap<String, Object>());
+
+        // test
+        Optimize.trackDisplayed(Arrays.asList(offer1, offer2));
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Event event = eventCaptor.getValue();
+        assertEquals("com.adobe.eventType.optimize".toLowerCase(), event.getType());
+        assertEquals("com.adobe.eventSource.requestContent".toLowerCase(), event.getSource());
+        assertEquals("trackpropositions", event.getEventData().get("requesttype"));
+        final Map<String, Object> xdm = (Map<String, Object>) event.getEventData().get("propositioninteractions");
+        assertEquals("decisioning.propositionDisplay", xdm.get("eventType"));
+        final Map<String, Object> decisioning = (Map<String, Object>) ((Map<String, Object>) xdm.get("_experience")).get("decisioning");
+        final List<Map<String, Object>> propositions = (List<Map<String, Object>>) decisioning.get("propositions");
+        assertEquals(1, propositions.size());
+        assertEquals(2, ((List<Map<String, Object>>) propositions.get(0).get("items")).size());
+    }
+
+    @Test
+    public void testTrackTapped_multipleOffers() {
+        // setup
+        final Offer offer1 = new Offer.Builder("offer1", OfferType.TEXT, "content1").build();
+        final Offer offer2 = new Offer.Builder("offer2", OfferType.TEXT, "content2").build();
+        new Proposition("propositionId", Arrays.asList(offer1), "myMbox", new HashMap<String, Object>());
+        new Proposition("otherPropositionId", Arrays.asList(offer2), "otherMbox", new HashMap<String, Object>());
+
+        // test
+        Optimize.trackTapped(Arrays.asList(offer1, offer2));
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+
+        final Map<String, Object> xdm = (Map<String, Object>) eventCaptor.getValue().getEventData().get("propositioninteractions");
+        assertEquals("decisioning.propositionInteract", xdm.get("eventType"));
+        final Map<String, Object> decisioning = (Map<String, Object>) ((Map<String, Object>) xdm.get("_experience")).get("decisioning");
+        assertEquals(2, ((List<Map<String, Object>>) decisioning.get("propositions")).size());
+    }
+
+    @Test
+    public void testTrackDisplayed_invalidOffers() {
+        // test
+        Optimize.trackDisplayed(null);
+        Optimize.trackDisplayed(new ArrayList<Offer>());
+        Optimize.trackDisplayed(Arrays.asList(new Offer.Builder("offer1", OfferType.TEXT, "content1").build()));
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testRegisterPrefetch_validDecisionScope() {
+        // test
+        final List<DecisionScope> scopes = new ArrayList<>();
+        scopes.add(new DecisionScope("myMbox"));
+        scopes.add(new DecisionScope(""));
+
+        Optimize.registerPrefetch(scopes, 300);
+
+        //verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        final Event event = eventCaptor.getValue();
+
+        assertNotNull(event);
+        assertEquals("com.adobe.eventType.optimize".toLowerCase(), event.getType());
+        assertEquals("com.adobe.eventSource.requestContent".toLowerCase(), event.getSource());
+
+        final Map<String, Object> eventData = event.getEventData();
+        assertEquals("registerprefetch", eventData.get("requesttype"));
+        assertEquals(300000L, eventData.get("refreshinterval"));
+        final List<Map<String, Object>> scopesList = (List<Map<String, Object>>)eventData.get("decisionscopes");
+        assertEquals(1, scopesList.size());
+        assertEquals("myMbox", scopesList.get(0).get("name"));
+    }
+
+    @Test
+    public void testRegisterPrefetch_invalidRefreshInterval() {
+        // test
+        Optimize.registerPrefetch(Arrays.asList(new DecisionScope("myMbox")), 0);
+
+        //verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testUnregisterPrefetch_validDecisionScope() {
+        // test
+        Optimize.unregisterPrefetch(Arrays.asList(new DecisionScope("myMbox")));
+
+        //verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        MobileCore.dispatchEvent(eventCaptor.capture(), any(ExtensionErrorCallback.class));
+        final Map<String, Object> eventData = eventCaptor.getValue().getEventData();
+        assertEquals("unregisterprefetch", eventData.get("requesttype"));
+        assertNull(eventData.get("refreshinterval"));
+        assertEquals(1, ((List<Map<String, Object>>) eventData.get("decisionscopes")).size());
+    }
+
+    @Test
+    public void testUnregisterPrefetch_emptyDecisionScopes() {
+        // test
+        Optimize.unregisterPrefetch(new ArrayList<DecisionScope>());
+
+        //verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.never());
+        MobileCore.dispatchEvent(any(Event.class), any(ExtensionErrorCallback.class));
+    }
+
+    @Test
+    public void testGetEdgeRequestStatus() {
+        // test
+        final List<EdgeRequestStatus> statuses = new ArrayList<>();
+        Optimize.getEdgeRequestStatus(new AdobeCallbackWithError<EdgeRequestStatus>() {
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(EdgeRequestStatus status) {
+                statuses.add(status);
+            }
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.dispatchEventWithResponseCallback(eventCaptor.capture(), callbackCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("getedgerequeststatus", eventCaptor.getValue().getEventData().get("requesttype"));
+
+        final Map<String, Object> responseEventData = new HashMap<>();
+        responseEventData.put("circuitstate", "open");
+        responseEventData.put("consecutivefailures", 5);
+        responseEventData.put("retrycount", 12L);
+        responseEventData.put("rejectedretrycount", 3L);
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Response", "com.adobe.eventType.optimize", "com.adobe.eventSource.responseContent")
+                .setEventData(responseEventData).build());
+
+        assertNull(responseError);
+        assertEquals(1, statuses.size());
+        assertEquals(EdgeRequestStatus.CIRCUIT_OPEN, statuses.get(0).getCircuitState());
+        assertEquals(5, statuses.get(0).getConsecutiveFailures());
+        assertEquals(12L, statuses.get(0).getRetryCount());
+        assertEquals(3L, statuses.get(0).getRejectedRetryCount());
+    }
+
+    @Test
+    public void testGetEdgeRequestStatus_invalidResponse() {
+        // test
+        Optimize.getEdgeRequestStatus(new AdobeCallbackWithError<EdgeRequestStatus>() {
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(EdgeRequestStatus status) {}
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.dispatchEventWithResponseCallback(any(Event.class), callbackCaptor.capture(), any(ExtensionErrorCallback.class));
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Response", "com.adobe.eventType.optimize", "com.adobe.eventSource.responseContent")
+                .setEventData(new HashMap<String, Object>()).build());
+
+        assertEquals(AdobeError.UNEXPECTED_ERROR, responseError);
+    }
+
+    @Test
+    public void testGetMetrics() {
+        // test
+        final List<OptimizeMetrics> metricsList = new ArrayList<>();
+        Optimize.getMetrics(new AdobeCallbackWithError<OptimizeMetrics>() {
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(OptimizeMetrics metrics) {
+                metricsList.add(metrics);
+            }
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.dispatchEventWithResponseCallback(eventCaptor.capture(), callbackCaptor.capture(), any(ExtensionErrorCallback.class));
+        assertEquals("getmetrics", eventCaptor.getValue().getEventData().get("requesttype"));
+
+        final Map<String, Object> responseEventData = new OptimizeMetrics(3L, 1L, 0L, 2, 512L, 1L, 1L, 0L, 0L, 0, 1, null, 0L, 0L).toEventData();
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Response", "com.adobe.eventType.optimize", "com.adobe.eventSource.responseContent")
+                .setEventData(responseEventData).build());
+
+        assertNull(responseError);
+        assertEquals(1, metricsList.size());
+        assertEquals(3L, metricsList.get(0).getCacheHits());
+        assertEquals(1L, metricsList.get(0).getCacheMisses());
+        assertEquals(2, metricsList.get(0).getCacheEntries());
+        assertEquals(512L, metricsList.get(0).getCacheSizeBytes());
+    }
+
+    @Test
+    public void testGetMetrics_invalidResponse() {
+        // test
+        Optimize.getMetrics(new AdobeCallbackWithError<OptimizeMetrics>() {
+            @Override
+            public void fail(AdobeError adobeError) {
+                responseError = adobeError;
+            }
+
+            @Override
+            public void call(OptimizeMetrics metrics) {}
+        });
+
+        // verify
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor = ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+        MobileCore.dispatchEventWithResponseCallback(any(Event.class), callbackCaptor.capture(), any(ExtensionErrorCallback.class));
+        callbackCaptor.getValue().call(new Event.Builder("Optimize Response", "com.adobe.eventType.optimize", "com.adobe.eventSource.responseContent")
+                .setEventData(new HashMap<String, Object>()).build());
+
+        assertEquals(AdobeError.UNEXPECTED_ERROR, responseError);
+    }
+
+    @Test
+    public void testSetTracer() {
+        // setup
+        final PersonalizationRequestTracer tracer = new PersonalizationRequestTracer() {
+            @Override
+            public void onRequestTraced(final PersonalizationRequestTrace trace) {}
+        };
+
+        // test
+        Optimize.setTracer(tracer);
+
+        // verify
+        assertEquals(tracer, RequestTraceRecorder.getTracer());
+        Optimize.setTracer(null);
+        assertNull(RequestTraceRecorder.getTracer());
+    }
+
     @Test
     public void test_clearCachedPropositions() {
         // test
@@ -561,4 +1324,12 @@ public class OptimizeTests {
         assertEquals("com.adobe.eventSource.requestReset".toLowerCase(), event.getSource());
         assertTrue(event.getEventData().isEmpty());
     }
+
+    private SharedPropositions registerSharingExtension() {
+        final OptimizeExtension mockExtension = Mockito.mock(OptimizeExtension.class);
+        final SharedPropositions sharedPropositions = new SharedPropositions();
+        Mockito.when(mockExtension.getSharedPropositions()).thenReturn(sharedPropositions);
+        Whitebox.setInternalState(OptimizeExtension.class, "registeredExtension", mockExtension);
+        return sharedPropositions;
+    }
 }
@@ -158,4 +158,98 @@ public class OptimizeUtilsTest {
         final String input = "VGhp=";
         assertNull(OptimizeUtils.base64Decode(input));
     }
+
+    @Test
+    public void testGetLong_validValues() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        map.put("int", 10);
+        map.put("double", 20.0);
+        map.put("string", "30");
+
+        // test
+        assertEquals(10, OptimizeUtils.getLong(map, "int", 0));
+        assertEquals(20, OptimizeUtils.getLong(map, "double", 0));
+        assertEquals(30, OptimizeUtils.getLong(map, "string", 0));
+    }
+
+    @Test
+    public void testGetLong_invalidValues() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        map.put("string", "abc");
+        map.put("boolean", true);
+
+        // test
+        assertEquals(5, OptimizeUtils.getLong(map, "string", 5));
+        assertEquals(5, OptimizeUtils.getLong(map, "boolean", 5));
+        assertEquals(5, OptimizeUtils.getLong(map, "missing", 5));
+        assertEquals(5, OptimizeUtils.getLong(null, "missing", 5));
+    }
+
+    @Test
+    public void testGetBoolean() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        map.put("boolean", true);
+        map.put("string", "true");
+        map.put("number", 1);
+
+        // test
+        assertTrue(OptimizeUtils.getBoolean(map, "boolean", false));
+        assertTrue(OptimizeUtils.getBoolean(map, "string", false));
+        assertFalse(OptimizeUtils.getBoolean(map, "number", false));
+        assertTrue(OptimizeUtils.getBoolean(null, "missing", true));
+    }
+
+    @Test
+    public void testGetString() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        map.put("string", "value");
+        map.put("number", 1);
+
+        // test
+        assertEquals("value", OptimizeUtils.getString(map, "string"));
+        assertNull(OptimizeUtils.getString(map, "number"));
+        assertNull(OptimizeUtils.getString(null, "string"));
+    }
+
+    @Test
+    public void testGetStringList() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        final List<Object> values = new ArrayList<>();
+        values.add("value1");
+        values.add(2);
+        values.add("value3");
+        map.put("list", values);
+        map.put("string", "value");
+
+        // test
+        final List<String> list = OptimizeUtils.getStringList(map, "list");
+        assertEquals(2, list.size());
+        assertEquals("value1", list.get(0));
+        assertEquals("value3", list.get(1));
+        assertTrue(OptimizeUtils.getStringList(map, "string").isEmpty());
+        assertTrue(OptimizeUtils.getStringList(null, "list").isEmpty());
+    }
+
+    @Test
+    public void testGetMap() {
+        // setup
+        final Map<Object, Object> value = new HashMap<>();
+        value.put("key1", 1);
+        value.put(2, "value2");
+        final Map<String, Object> map = new HashMap<>();
+        map.put("map", value);
+        map.put("string", "value");
+
+        // test
+        final Map<String, Object> result = OptimizeUtils.getMap(map, "map");
+        assertEquals(1, result.size());
+        assertEquals(1, result.get("key1"));
+        assertTrue(OptimizeUtils.getMap(map, "string").isEmpty());
+        assertTrue(OptimizeUtils.getMap(null, "map").isEmpty());
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.Event;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PendingGetRequestTests {
+    @Test
+    public void testOnPropositionsCached() {
+        // setup
+        final PendingGetRequest pendingRequest = new PendingGetRequest(new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent").build(),
+                Arrays.asList(new DecisionScope("scope1"), new DecisionScope("scope2"), new DecisionScope("scope3")),
+                Arrays.asList(new DecisionScope("scope2"), new DecisionScope("scope3")));
+
+        // test & verify
+        assertFalse(pendingRequest.onPropositionsCached(Arrays.asList(new DecisionScope("scope1"), new DecisionScope("scope2"))));
+        assertTrue(pendingRequest.onPropositionsCached(Arrays.asList(new DecisionScope("scope3"))));
+        assertEquals(3, pendingRequest.getScopes().size());
+    }
+
+    @Test
+    public void testComplete_onlyOnce() {
+        // setup
+        final ScheduledFuture<?> mockDeadline = Mockito.mock(ScheduledFuture.class);
+        final PendingGetRequest pendingRequest = new PendingGetRequest(new Event.Builder("Optimize Get Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent").build(),
+                Arrays.asList(new DecisionScope("scope1")), Arrays.asList(new DecisionScope("scope1")));
+        pendingRequest.setDeadline(mockDeadline);
+
+        // test & verify
+        assertTrue(pendingRequest.complete());
+        assertFalse(pendingRequest.complete());
+        Mockito.verify(mockDeadline, Mockito.times(1)).cancel(false);
+    }
+}
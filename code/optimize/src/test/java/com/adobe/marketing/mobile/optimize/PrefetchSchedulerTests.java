@@ -0,0 +1,128 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrefetchSchedulerTests {
+    // Random returning the midpoint of the jitter range, so that no jitter is applied.
+    private final Random noJitter = new Random() {
+        @Override
+        public double nextDouble() {
+            return 0.5;
+        }
+    };
+
+    @Test
+    public void testRegister_dueImmediately() {
+        // setup
+        final PrefetchScheduler scheduler = new PrefetchScheduler(noJitter);
+
+        // test
+        scheduler.register(Arrays.asList(new DecisionScope("scope1"), new DecisionScope("scope2")), 60000L, 1000L);
+
+        // verify
+        assertEquals(1000L, scheduler.getNextFetchMillis());
+        assertEquals(Arrays.asList(new DecisionScope("scope1"), new DecisionScope("scope2")), scheduler.pollDue(1000L));
+        assertEquals(61000L, scheduler.getNextFetchMillis());
+        assertTrue(scheduler.pollDue(60999L).isEmpty());
+        assertEquals(2, scheduler.pollDue(61000L).size());
+    }
+
+    @Test
+    public void testRegister_alreadyRegisteredKeepsNextFetch() {
+        // setup
+        final PrefetchScheduler scheduler = new PrefetchScheduler(noJitter);
+        scheduler.register(Arrays.asList(new DecisionScope("scope1")), 60000L, 0L);
+        scheduler.pollDue(0L);
+
+        // test
+        scheduler.register(Arrays.asList(new DecisionScope("scope1")), 120000L, 1000L);
+
+        // verify
+        assertEquals(60000L, scheduler.getNextFetchMillis());
+        scheduler.pollDue(60000L);
+        assertEquals(180000L, scheduler.getNextFetchMillis());
+    }
+
+    @Test
+    public void testUnregister() {
+        // setup
+        final PrefetchScheduler scheduler = new PrefetchScheduler(noJitter);
+        scheduler.register(Arrays.asList(new DecisionScope("scope1")), 60000L, 0L);
+
+        // test
+        scheduler.unregister(Arrays.asList(new DecisionScope("scope1")));
+
+        // verify
+        assertEquals(PrefetchScheduler.NOT_SCHEDULED, scheduler.getNextFetchMillis());
+        assertTrue(scheduler.pollDue(0L).isEmpty());
+    }
+
+    @Test
+    public void testOnFailure_exponentialBackoff() {
+        // setup
+        final PrefetchScheduler scheduler = new PrefetchScheduler(noJitter);
+        final DecisionScope scope = new DecisionScope("scope1");
+        scheduler.register(Arrays.asList(scope), 60000L, 0L);
+
+        // test & verify
+        scheduler.onFailure(Arrays.asList(scope), 0L);
+        assertEquals(120000L, scheduler.getNextFetchMillis());
+        scheduler.onFailure(Arrays.asList(scope), 0L);
+        assertEquals(240000L, scheduler.getNextFetchMillis());
+        for (int i = 0; i < 20; i++) {
+            scheduler.onFailure(Arrays.asList(scope), 0L);
+        }
+        assertEquals(3600000L, scheduler.getNextFetchMillis());
+
+        scheduler.onSuccess(Arrays.asList(scope));
+        scheduler.onFailure(Arrays.asList(scope), 0L);
+        assertEquals(120000L, scheduler.getNextFetchMillis());
+    }
+
+    @Test
+    public void testOnFailure_unregisteredScope() {
+        // setup
+        final PrefetchScheduler scheduler = new PrefetchScheduler(noJitter);
+
+        // test
+        scheduler.onFailure(Arrays.asList(new DecisionScope("scope1")), 0L);
+
+        // verify
+        assertEquals(PrefetchScheduler.NOT_SCHEDULED, scheduler.getNextFetchMillis());
+    }
+
+    @Test
+    public void testPollDue_jitter() {
+        // setup
+        final PrefetchScheduler scheduler = new PrefetchScheduler(new Random(42));
+        scheduler.register(Arrays.asList(new DecisionScope("scope1")), 60000L, 0L);
+
+        // test
+        for (int i = 0; i < 100; i++) {
+            final long nowMillis = scheduler.getNextFetchMillis();
+            scheduler.pollDue(nowMillis);
+
+            // verify
+            final long delayMillis = scheduler.getNextFetchMillis() - nowMillis;
+            assertTrue(delayMillis >= 54000L && delayMillis <= 66000L);
+        }
+    }
+}
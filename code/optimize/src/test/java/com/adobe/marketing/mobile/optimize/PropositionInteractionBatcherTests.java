@@ -0,0 +1,101 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PropositionInteractionBatcherTests {
+    private final PropositionInteractionBatcher batcher = new PropositionInteractionBatcher();
+
+    @Test
+    public void testAdd_mergesInteractionsOfSameType() {
+        // test
+        assertEquals(1, batcher.add(createInteractionXdm("decisioning.propositionDisplay", "id1"), null));
+        assertEquals(2, batcher.add(createInteractionXdm("decisioning.propositionInteract", "id1"), null));
+        assertEquals(3, batcher.add(createInteractionXdm("decisioning.propositionDisplay", "id2"), null));
+        final List<PropositionInteractionBatcher.Batch> batches = batcher.drain();
+
+        // verify
+        assertEquals(2, batches.size());
+        assertEquals(0, batcher.getPendingCount());
+        assertEquals("decisioning.propositionDisplay", batches.get(0).getXdm().get("eventType"));
+        assertEquals(2, batches.get(0).getInteractionCount());
+        final List<Map<String, Object>> displayPropositions = getPropositions(batches.get(0).getXdm());
+        assertEquals(2, displayPropositions.size());
+        assertEquals("id1", displayPropositions.get(0).get("id"));
+        assertEquals("id2", displayPropositions.get(1).get("id"));
+        assertEquals("decisioning.propositionInteract", batches.get(1).getXdm().get("eventType"));
+        assertEquals(1, getPropositions(batches.get(1).getXdm()).size());
+        assertNull(batches.get(0).getDatasetId());
+    }
+
+    @Test
+    public void testAdd_separatesDatasetIds() {
+        // test
+        batcher.add(createInteractionXdm("decisioning.propositionDisplay", "id1"), "dataset1");
+        batcher.add(createInteractionXdm("decisioning.propositionDisplay", "id2"), "dataset2");
+        final List<PropositionInteractionBatcher.Batch> batches = batcher.drain();
+
+        // verify
+        assertEquals(2, batches.size());
+        assertEquals("dataset1", batches.get(0).getDatasetId());
+        assertEquals("dataset2", batches.get(1).getDatasetId());
+    }
+
+    @Test
+    public void testAdd_notBatchable() {
+        // setup
+        final Map<String, Object> xdmWithExtraData = createInteractionXdm("decisioning.propositionDisplay", "id1");
+        xdmWithExtraData.put("timestamp", "2021-01-01T00:00:00Z");
+
+        // test
+        assertEquals(PropositionInteractionBatcher.NOT_BATCHABLE, batcher.add(xdmWithExtraData, null));
+        assertEquals(PropositionInteractionBatcher.NOT_BATCHABLE, batcher.add(new HashMap<String, Object>(), null));
+        assertEquals(PropositionInteractionBatcher.NOT_BATCHABLE, batcher.add(null, null));
+
+        // verify
+        assertEquals(0, batcher.getPendingCount());
+        assertTrue(batcher.drain().isEmpty());
+    }
+
+    private Map<String, Object> createInteractionXdm(final String eventType, final String propositionId) {
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put("id", propositionId);
+        proposition.put("scope", "myMbox");
+        final List<Map<String, Object>> propositions = new ArrayList<>();
+        propositions.add(proposition);
+        final Map<String, Object> decisioning = new HashMap<>();
+        decisioning.put("propositions", propositions);
+        final Map<String, Object> experience = new HashMap<>();
+        experience.put("decisioning", decisioning);
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("_experience", experience);
+        xdm.put("eventType", eventType);
+        return xdm;
+    }
+
+    private List<Map<String, Object>> getPropositions(final Map<String, Object> xdm) {
+        final Map<String, Object> experience = (Map<String, Object>) xdm.get("_experience");
+        final Map<String, Object> decisioning = (Map<String, Object>) experience.get("decisioning");
+        return (List<Map<String, Object>>) decisioning.get("propositions");
+    }
+}
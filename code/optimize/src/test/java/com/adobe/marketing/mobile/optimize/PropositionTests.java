@@ -16,6 +16,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,7 +25,9 @@ import java.util.Map;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @SuppressWarnings("unchecked")
 public class PropositionTests {
@@ -48,6 +52,53 @@ public class PropositionTests {
         assertNull(offer.getCharacteristics());
     }
 
+    @Test
+    public void testFreeze_deeplyUnmodifiableCopy() {
+        // setup
+        final Map<String, Object> nestedMeta = new HashMap<>();
+        nestedMeta.put("key", "value");
+        final Map<String, Object> meta = new HashMap<>();
+        meta.put("nested", nestedMeta);
+        final Map<String, String> characteristics = new HashMap<>();
+        characteristics.put("key", "value");
+        final Offer offer = new Offer.Builder("offerId", OfferType.TEXT, "content")
+                .setMeta(meta)
+                .setLanguage(new ArrayList<>(Arrays.asList("en-us")))
+                .setCharacteristics(characteristics)
+                .build();
+        final Map<String, Object> activity = new HashMap<>();
+        activity.put("id", "activityId");
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("activity", activity);
+        scopeDetails.put("characteristics", new ArrayList<Object>(Arrays.asList("value")));
+        final Proposition proposition = new Proposition("id", new ArrayList<>(Arrays.asList(offer)), "myMbox", scopeDetails);
+
+        // test
+        final Proposition frozenProposition = proposition.freeze();
+
+        // verify
+        assertEquals(proposition, frozenProposition);
+        assertSame(frozenProposition, frozenProposition.freeze());
+        final Offer frozenOffer = frozenProposition.getOffers().get(0);
+        assertSame(frozenProposition, frozenOffer.getProposition());
+        assertUnmodifiable(frozenProposition.getOffers());
+        assertUnmodifiable(frozenProposition.getScopeDetails());
+        assertUnmodifiable((Map<?, ?>) frozenProposition.getScopeDetails().get("activity"));
+        assertUnmodifiable((List<?>) frozenProposition.getScopeDetails().get("characteristics"));
+        assertUnmodifiable(frozenOffer.getMeta());
+        assertUnmodifiable((Map<?, ?>) frozenOffer.getMeta().get("nested"));
+        assertUnmodifiable(frozenOffer.getLanguage());
+        assertUnmodifiable(frozenOffer.getCharacteristics());
+
+        // the original proposition keeps its modifiable collections, without affecting the frozen copy
+        proposition.getOffers().clear();
+        nestedMeta.clear();
+        activity.clear();
+        assertEquals(1, frozenProposition.getOffers().size());
+        assertEquals("value", ((Map<?, ?>) frozenOffer.getMeta().get("nested")).get("key"));
+        assertEquals("activityId", ((Map<?, ?>) frozenProposition.getScopeDetails().get("activity")).get("id"));
+    }
+
     @Test
     public void testFromEventData_validPropositionFromTarget() throws Exception {
         Map<String, Object> propositionData = new ObjectMapper().readValue(getClass().getClassLoader().getResource("json/PROPOSITION_VALID_TARGET.json"), HashMap.class);
@@ -141,4 +192,22 @@ public class PropositionTests {
         assertNotNull(decisioning);
         assertEquals("AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9", decisioning.get("propositionID"));
     }
+
+    private static void assertUnmodifiable(final Map<?, ?> map) {
+        try {
+            map.clear();
+            fail("The map should not be modifiable.");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    private static void assertUnmodifiable(final List<?> list) {
+        try {
+            list.clear();
+            fail("The list should not be modifiable.");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
 }
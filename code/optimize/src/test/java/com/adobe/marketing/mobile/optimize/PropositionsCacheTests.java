@@ -0,0 +1,411 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PropositionsCacheTests {
+    @Test
+    public void testGetSnapshot_emptyCache() {
+        // test
+        final PropositionsCache cache = new PropositionsCache();
+
+        // verify
+        final PropositionsCache.Snapshot snapshot = cache.getSnapshot();
+        assertEquals(0, snapshot.getVersion());
+        assertTrue(snapshot.getPropositions().isEmpty());
+    }
+
+    @Test
+    public void testPutAll_publishesNewSnapshot() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        final PropositionsCache.Snapshot previousSnapshot = cache.getSnapshot();
+        final Proposition proposition = createProposition("propositionId1", "scope1");
+
+        // test
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(new DecisionScope("scope1"), proposition);
+        cache.putAll(propositions);
+
+        // verify
+        final PropositionsCache.Snapshot snapshot = cache.getSnapshot();
+        assertEquals(1, snapshot.getVersion());
+        assertEquals(1, snapshot.getPropositions().size());
+        assertEquals(proposition, cache.get(new DecisionScope("scope1")));
+
+        // previously obtained snapshot is unchanged
+        assertEquals(0, previousSnapshot.getVersion());
+        assertTrue(previousSnapshot.getPropositions().isEmpty());
+    }
+
+    @Test
+    public void testPutAll_replacesExistingScope() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(new DecisionScope("scope1"), createProposition("propositionId1", "scope1"));
+        propositions.put(new DecisionScope("scope2"), createProposition("propositionId2", "scope2"));
+        cache.putAll(propositions);
+
+        // test
+        final Proposition updatedProposition = createProposition("propositionId3", "scope1");
+        final Map<DecisionScope, Proposition> updatedPropositions = new HashMap<>();
+        updatedPropositions.put(new DecisionScope("scope1"), updatedProposition);
+        cache.putAll(updatedPropositions);
+
+        // verify
+        final PropositionsCache.Snapshot snapshot = cache.getSnapshot();
+        assertEquals(2, snapshot.getVersion());
+        assertEquals(2, snapshot.getPropositions().size());
+        assertEquals(updatedProposition, cache.get(new DecisionScope("scope1")));
+        assertEquals("propositionId2", cache.get(new DecisionScope("scope2")).getId());
+    }
+
+    @Test
+    public void testPutAll_emptyPropositions() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+
+        // test
+        cache.putAll(new HashMap<DecisionScope, Proposition>());
+        cache.putAll(null);
+
+        // verify
+        assertEquals(0, cache.getSnapshot().getVersion());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshot_isImmutable() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(new DecisionScope("scope1"), createProposition("propositionId1", "scope1"));
+        cache.putAll(propositions);
+
+        // test
+        cache.getSnapshot().getPropositions().clear();
+    }
+
+    @Test
+    public void testClear() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(new DecisionScope("scope1"), createProposition("propositionId1", "scope1"));
+        cache.putAll(propositions);
+
+        // test
+        cache.clear();
+
+        // verify
+        final PropositionsCache.Snapshot snapshot = cache.getSnapshot();
+        assertEquals(2, snapshot.getVersion());
+        assertTrue(snapshot.getPropositions().isEmpty());
+        assertNull(cache.get(new DecisionScope("scope1")));
+    }
+
+    @Test
+    public void testPutAll_maxEntriesEvictsLeastRecentlyUsed() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        cache.configure(2, PropositionsCache.UNBOUNDED, "lru", null);
+        put(cache, "scope1");
+        put(cache, "scope2");
+        cache.get(new DecisionScope("scope1"));
+
+        // test
+        put(cache, "scope3");
+
+        // verify
+        final Map<DecisionScope, Proposition> propositions = cache.getSnapshot().getPropositions();
+        assertEquals(2, propositions.size());
+        assertTrue(propositions.containsKey(new DecisionScope("scope1")));
+        assertFalse(propositions.containsKey(new DecisionScope("scope2")));
+        assertTrue(propositions.containsKey(new DecisionScope("scope3")));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testPutAll_maxEntriesEvictsLeastFrequentlyUsed() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        cache.configure(2, PropositionsCache.UNBOUNDED, "lfu", null);
+        put(cache, "scope1");
+        put(cache, "scope2");
+        cache.get(new DecisionScope("scope1"));
+        cache.get(new DecisionScope("scope2"));
+        cache.get(new DecisionScope("scope2"));
+
+        // test
+        put(cache, "scope3");
+
+        // verify
+        final Map<DecisionScope, Proposition> propositions = cache.getSnapshot().getPropositions();
+        assertEquals(2, propositions.size());
+        assertFalse(propositions.containsKey(new DecisionScope("scope1")));
+        assertTrue(propositions.containsKey(new DecisionScope("scope2")));
+        assertTrue(propositions.containsKey(new DecisionScope("scope3")));
+    }
+
+    @Test
+    public void testPutAll_tinyLfuRejectsInfrequentScope() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        cache.configure(1, PropositionsCache.UNBOUNDED, "tinylfu", null);
+        put(cache, "scope1");
+        cache.get(new DecisionScope("scope1"));
+        cache.get(new DecisionScope("scope1"));
+
+        // test
+        put(cache, "scope2");
+
+        // verify
+        final Map<DecisionScope, Proposition> propositions = cache.getSnapshot().getPropositions();
+        assertEquals(1, propositions.size());
+        assertTrue(propositions.containsKey(new DecisionScope("scope1")));
+    }
+
+    @Test
+    public void testPutAll_tinyLfuAdmitsFrequentScope() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        cache.configure(1, PropositionsCache.UNBOUNDED, "tinylfu", null);
+        put(cache, "scope1");
+        for (int i = 0; i < 3; i++) {
+            cache.get(new DecisionScope("scope2"));
+        }
+
+        // test
+        put(cache, "scope2");
+
+        // verify
+        final Map<DecisionScope, Proposition> propositions = cache.getSnapshot().getPropositions();
+        assertEquals(1, propositions.size());
+        assertTrue(propositions.containsKey(new DecisionScope("scope2")));
+    }
+
+    @Test
+    public void testPutAll_pinnedScopeIsNotEvicted() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        cache.configure(1, PropositionsCache.UNBOUNDED, "lru", Arrays.asList(new DecisionScope("scope1")));
+        put(cache, "scope1");
+
+        // test
+        put(cache, "scope2");
+
+        // verify
+        final Map<DecisionScope, Proposition> propositions = cache.getSnapshot().getPropositions();
+        assertEquals(1, propositions.size());
+        assertTrue(propositions.containsKey(new DecisionScope("scope1")));
+    }
+
+    @Test
+    public void testPutAll_maxSizeBytes() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        final Proposition proposition = createProposition("propositionId", "scope1");
+        final long propositionSize = PropositionsCache.estimateSizeBytes(proposition);
+        cache.configure(PropositionsCache.UNBOUNDED, propositionSize + propositionSize / 2, "lru", null);
+        put(cache, "scope1");
+
+        // test
+        put(cache, "scope2");
+
+        // verify
+        final PropositionsCache.Snapshot snapshot = cache.getSnapshot();
+        assertEquals(1, snapshot.getPropositions().size());
+        assertTrue(snapshot.getPropositions().containsKey(new DecisionScope("scope2")));
+        assertEquals(propositionSize, snapshot.getSizeBytes());
+    }
+
+    @Test
+    public void testPutAll_propositionLargerThanMaxSizeBytes() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        cache.configure(PropositionsCache.UNBOUNDED, 10, "lru", null);
+
+        // test
+        put(cache, "scope1");
+
+        // verify
+        assertTrue(cache.getSnapshot().getPropositions().isEmpty());
+    }
+
+    @Test
+    public void testConfigure_trimsExistingEntries() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        put(cache, "scope1");
+        put(cache, "scope2");
+        put(cache, "scope3");
+
+        // test
+        cache.configure(1, PropositionsCache.UNBOUNDED, "lru", null);
+
+        // verify
+        final Map<DecisionScope, Proposition> propositions = cache.getSnapshot().getPropositions();
+        assertEquals(1, propositions.size());
+        assertTrue(propositions.containsKey(new DecisionScope("scope3")));
+    }
+
+    @Test
+    public void testEstimateSizeBytes_includesOfferContent() {
+        // setup
+        final String smallContent = "<p>a</p>";
+        final String largeContent = "<p>aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa</p>";
+        final List<Offer> smallOffers = new ArrayList<>();
+        smallOffers.add(new Offer.Builder("offerId", OfferType.HTML, smallContent).build());
+        final List<Offer> largeOffers = new ArrayList<>();
+        largeOffers.add(new Offer.Builder("offerId", OfferType.HTML, largeContent).build());
+
+        // test
+        final long smallSize = PropositionsCache.estimateSizeBytes(new Proposition("propositionId", smallOffers, "scope", null));
+        final long largeSize = PropositionsCache.estimateSizeBytes(new Proposition("propositionId", largeOffers, "scope", null));
+
+        // verify
+        assertEquals(2 * (largeContent.length() - smallContent.length()), largeSize - smallSize);
+    }
+
+    @Test
+    public void testGetAll_expiredScope() throws Exception {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        final Map<DecisionScope, Long> scopeTtlMillis = new HashMap<>();
+        scopeTtlMillis.put(new DecisionScope("scope2"), PropositionsCache.NO_EXPIRY);
+        cache.configureExpiry(1, scopeTtlMillis);
+        put(cache, "scope1");
+        put(cache, "scope2");
+        Thread.sleep(10);
+
+        // test
+        final PropositionsCache.Result result = cache.getAll(Arrays.asList(new DecisionScope("scope1"), new DecisionScope("scope2"), new DecisionScope("scope3")));
+
+        // verify
+        assertEquals(1, result.getPropositions().size());
+        assertTrue(result.getPropositions().containsKey(new DecisionScope("scope2")));
+        assertEquals(Arrays.asList(new DecisionScope("scope1")), result.getExpiredScopes());
+        assertNull(cache.get(new DecisionScope("scope1")));
+    }
+
+    @Test
+    public void testRemoveExpired_remembersExpiredScopes() throws Exception {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        cache.configureExpiry(1, null);
+        put(cache, "scope1");
+        Thread.sleep(10);
+
+        // test
+        final int removedCount = cache.removeExpired();
+
+        // verify
+        assertEquals(1, removedCount);
+        assertTrue(cache.getSnapshot().getPropositions().isEmpty());
+        assertEquals(0, cache.getSnapshot().getSizeBytes());
+        assertEquals(Arrays.asList(new DecisionScope("scope1")), cache.getAll(Arrays.asList(new DecisionScope("scope1"))).getExpiredScopes());
+
+        // scope is no longer expired once cached again
+        cache.configureExpiry(PropositionsCache.NO_EXPIRY, null);
+        put(cache, "scope1");
+        final PropositionsCache.Result result = cache.getAll(Arrays.asList(new DecisionScope("scope1")));
+        assertEquals(1, result.getPropositions().size());
+        assertTrue(result.getExpiredScopes().isEmpty());
+    }
+
+    @Test
+    public void testRemoveExpired_noExpiry() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        put(cache, "scope1");
+
+        // test
+        final int removedCount = cache.removeExpired();
+
+        // verify
+        assertEquals(0, removedCount);
+        assertEquals(1, cache.getSnapshot().getVersion());
+        assertFalse(cache.isExpiryEnabled());
+    }
+
+    @Test
+    public void testConfigureExpiry_appliesToCachedPropositions() throws Exception {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        put(cache, "scope1");
+        Thread.sleep(10);
+
+        // test
+        cache.configureExpiry(1, null);
+
+        // verify
+        assertTrue(cache.isExpiryEnabled());
+        assertNull(cache.get(new DecisionScope("scope1")));
+    }
+
+    @Test
+    public void testClear_forgetsExpiredScopes() throws Exception {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        cache.configureExpiry(1, null);
+        put(cache, "scope1");
+        Thread.sleep(10);
+        cache.removeExpired();
+
+        // test
+        cache.clear();
+
+        // verify
+        assertTrue(cache.getAll(Arrays.asList(new DecisionScope("scope1"))).getExpiredScopes().isEmpty());
+    }
+
+    @Test
+    public void testGetAll_writeTime() {
+        // setup
+        final PropositionsCache cache = new PropositionsCache();
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(new DecisionScope("scope1"), createProposition("propositionId1", "scope1"));
+        cache.putAll(propositions, 1000L);
+
+        // test
+        final PropositionsCache.Result result = cache.getAll(Arrays.asList(new DecisionScope("scope1"), new DecisionScope("scope2")));
+
+        // verify
+        assertEquals(1000L, result.getWriteTimeMillis(new DecisionScope("scope1")));
+        assertEquals(0L, result.getWriteTimeMillis(new DecisionScope("scope2")));
+    }
+
+    private void put(final PropositionsCache cache, final String scope) {
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(new DecisionScope(scope), createProposition("propositionId", scope));
+        cache.putAll(propositions);
+    }
+
+    private Proposition createProposition(final String id, final String scope) {
+        final List<Offer> offers = new ArrayList<>();
+        offers.add(new Offer.Builder("offerId", OfferType.TEXT, "content").build());
+        return new Proposition(id, offers, scope, null);
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import android.util.Base64;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.MobileCore;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Base64.class, MobileCore.class})
+@PowerMockIgnore("javax.*")
+public class PropositionsStoreTests {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Executor directExecutor = new Executor() {
+        @Override
+        public void execute(final Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private File directory;
+
+    @Before
+    public void setup() throws Exception {
+        PowerMockito.mockStatic(MobileCore.class);
+        PowerMockito.mockStatic(Base64.class);
+        Mockito.when(Base64.encodeToString((byte[]) any(), anyInt())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                return java.util.Base64.getEncoder().encodeToString((byte[]) invocation.getArguments()[0]);
+            }
+        });
+        Mockito.when(Base64.decode(anyString(), anyInt())).thenAnswer(new Answer<byte[]>() {
+            @Override
+            public byte[] answer(InvocationOnMock invocation) throws Throwable {
+                return java.util.Base64.getDecoder().decode((String) invocation.getArguments()[0]);
+            }
+        });
+
+        directory = new File(temporaryFolder.getRoot(), "com.adobe.optimize");
+    }
+
+    @Test
+    public void testWriteAndLoad_newStoreInstance() {
+        // setup
+        final PropositionsStore store = new PropositionsStore(directory, directExecutor);
+        final Proposition proposition = createProposition("propositionId1", "scope1");
+
+        // test
+        store.write(propositions(proposition), 1000L);
+
+        // verify
+        assertTrue(store.exists());
+        final PropositionsStore restoredStore = new PropositionsStore(directory, directExecutor);
+        final Map<DecisionScope, PropositionsStore.Record> records = restoredStore.load(Arrays.asList(new DecisionScope("scope1"), new DecisionScope("scope2")));
+        assertEquals(1, records.size());
+        assertEquals(proposition, records.get(new DecisionScope("scope1")).getProposition());
+        assertEquals(1000L, records.get(new DecisionScope("scope1")).getWriteTimeMillis());
+    }
+
+    @Test
+    public void testWrite_replacesExistingScope() {
+        // setup
+        final PropositionsStore store = new PropositionsStore(directory, directExecutor);
+        store.write(propositions(createProposition("propositionId1", "scope1")), 1000L);
+        final Proposition updatedProposition = createProposition("propositionId2", "scope1");
+
+        // test
+        store.write(propositions(updatedProposition), 2000L);
+
+        // verify
+        final Map<DecisionScope, PropositionsStore.Record> records = new PropositionsStore(directory, directExecutor).load(Arrays.asList(new DecisionScope("scope1")));
+        assertEquals(updatedProposition, records.get(new DecisionScope("scope1")).getProposition());
+        assertEquals(2000L, records.get(new DecisionScope("scope1")).getWriteTimeMillis());
+    }
+
+    @Test
+    public void testWrite_compactsSupersededRecords() {
+        // setup
+        final PropositionsStore store = new PropositionsStore(directory, directExecutor);
+        store.write(propositions(createProposition("propositionId", "scope1")), 1000L);
+        final long singleRecordLength = new File(directory, "propositions.log").length();
+
+        // test
+        for (int i = 0; i < 100; i++) {
+            store.write(propositions(createProposition("propositionId", "scope1")), 1000L);
+        }
+
+        // verify
+        assertTrue(new File(directory, "propositions.log").length() <= 64 * singleRecordLength);
+        final Map<DecisionScope, PropositionsStore.Record> records = new PropositionsStore(directory, directExecutor).load(Arrays.asList(new DecisionScope("scope1")));
+        assertEquals(1, records.size());
+    }
+
+    @Test
+    public void testLoad_truncatesIncompleteRecord() throws Exception {
+        // setup
+        final PropositionsStore store = new PropositionsStore(directory, directExecutor);
+        store.write(propositions(createProposition("propositionId1", "scope1")), 1000L);
+        final FileOutputStream outputStream = new FileOutputStream(new File(directory, "propositions.log"), true);
+        outputStream.write("\"scope2\"\t2000\t{\"id\":".getBytes("UTF-8"));
+        outputStream.close();
+
+        // test
+        final PropositionsStore restoredStore = new PropositionsStore(directory, directExecutor);
+        restoredStore.write(propositions(createProposition("propositionId3", "scope3")), 3000L);
+
+        // verify
+        final Map<DecisionScope, PropositionsStore.Record> records = new PropositionsStore(directory, directExecutor)
+                .load(Arrays.asList(new DecisionScope("scope1"), new DecisionScope("scope2"), new DecisionScope("scope3")));
+        assertEquals(2, records.size());
+        assertEquals("propositionId1", records.get(new DecisionScope("scope1")).getProposition().getId());
+        assertEquals("propositionId3", records.get(new DecisionScope("scope3")).getProposition().getId());
+    }
+
+    @Test
+    public void testMayContain() {
+        // setup
+        final PropositionsStore store = new PropositionsStore(directory, directExecutor);
+        store.write(propositions(createProposition("propositionId1", "scope1")), 1000L);
+        final PropositionsStore restoredStore = new PropositionsStore(directory, directExecutor);
+
+        // test
+        final boolean containedBeforePreload = restoredStore.mayContain(new DecisionScope("scope2"));
+        restoredStore.preload();
+
+        // verify
+        assertTrue(containedBeforePreload);
+        assertTrue(restoredStore.mayContain(new DecisionScope("scope1")));
+        assertFalse(restoredStore.mayContain(new DecisionScope("scope2")));
+    }
+
+    @Test
+    public void testLoad_callback() {
+        // setup
+        final PropositionsStore store = new PropositionsStore(directory, directExecutor);
+        final Proposition proposition = createProposition("propositionId1", "scope1");
+        store.write(propositions(proposition), 1000L);
+        final List<Map<DecisionScope, PropositionsStore.Record>> loadedRecords = new ArrayList<>();
+
+        // test
+        store.load(Arrays.asList(new DecisionScope("scope1")), new AdobeCallback<Map<DecisionScope, PropositionsStore.Record>>() {
+            @Override
+            public void call(final Map<DecisionScope, PropositionsStore.Record> records) {
+                loadedRecords.add(records);
+            }
+        });
+
+        // verify
+        assertEquals(1, loadedRecords.size());
+        assertEquals(proposition, loadedRecords.get(0).get(new DecisionScope("scope1")).getProposition());
+    }
+
+    @Test
+    public void testClear() {
+        // setup
+        final PropositionsStore store = new PropositionsStore(directory, directExecutor);
+        store.write(propositions(createProposition("propositionId1", "scope1")), 1000L);
+
+        // test
+        store.clear();
+
+        // verify
+        assertFalse(store.exists());
+        assertTrue(store.load(Arrays.asList(new DecisionScope("scope1"))).isEmpty());
+    }
+
+    @Test
+    public void testClear_discardsPendingWrites() {
+        // setup
+        final List<Runnable> pendingTasks = new ArrayList<>();
+        final PropositionsStore store = new PropositionsStore(directory, new Executor() {
+            @Override
+            public void execute(final Runnable runnable) {
+                pendingTasks.add(runnable);
+            }
+        });
+        store.write(propositions(createProposition("propositionId1", "scope1")), 1000L);
+
+        // test
+        store.clear();
+        assertTrue(store.load(Arrays.asList(new DecisionScope("scope1"))).isEmpty());
+        for (final Runnable task : pendingTasks) {
+            task.run();
+        }
+
+        // verify
+        assertFalse(store.exists());
+    }
+
+    @Test
+    public void testCreate_applicationNotAvailable() {
+        // test
+        Mockito.when(MobileCore.getApplication()).thenReturn(null);
+
+        // verify
+        assertEquals(null, PropositionsStore.create(directExecutor));
+    }
+
+    private Map<DecisionScope, Proposition> propositions(final Proposition proposition) {
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(new DecisionScope(proposition.getScope()), proposition);
+        return propositions;
+    }
+
+    private Proposition createProposition(final String id, final String scope) {
+        final List<Offer> offers = new ArrayList<>();
+        offers.add(new Offer.Builder("offerId", OfferType.HTML, "<h1>Hello é\t</h1>")
+                .setEtag("1")
+                .setSchema("https://ns.adobe.com/experience/offer-management/content-component-html")
+                .setLanguage(Arrays.asList("en-us"))
+                .build());
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("decisionProvider", "TGT");
+        return new Proposition(id, offers, scope, scopeDetails);
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.MobileCore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({MobileCore.class})
+public class PropositionsUpdateNotifierTests {
+    private final PropositionsUpdateNotifier notifier = new PropositionsUpdateNotifier();
+    private final DecisionScope scope = new DecisionScope("myMbox");
+    private final List<Map<DecisionScope, Proposition>> receivedMaps = new ArrayList<>();
+    private final SharedPropositions sharedPropositions = new SharedPropositions();
+
+    @Before
+    public void setup() {
+        PowerMockito.mockStatic(MobileCore.class);
+        final OptimizeExtension mockExtension = Mockito.mock(OptimizeExtension.class);
+        Mockito.when(mockExtension.getSharedPropositions()).thenReturn(sharedPropositions);
+        Whitebox.setInternalState(OptimizeExtension.class, "registeredExtension", mockExtension);
+    }
+
+    @After
+    public void teardown() {
+        Whitebox.setInternalState(OptimizeExtension.class, "registeredExtension", (OptimizeExtension) null);
+    }
+
+    @Test
+    public void testAdd_registersListenerOnce() {
+        // test
+        notifier.add(createCallback());
+        notifier.add(createCallback());
+
+        // verify
+        assertEquals(2, notifier.getCallbackCount());
+        PowerMockito.verifyStatic(MobileCore.class, Mockito.times(1));
+        MobileCore.registerEventListener(anyString(), anyString(), any(AdobeCallbackWithError.class));
+    }
+
+    @Test
+    public void testNotifyCallbacks_eachCallbackGetsItsOwnMap() {
+        // setup
+        notifier.add(createCallback());
+        notifier.add(createCallback());
+
+        // test
+        notifier.notifyCallbacks(createNotificationEvent());
+
+        // verify
+        assertEquals(2, receivedMaps.size());
+        assertNotSame(receivedMaps.get(0), receivedMaps.get(1));
+        assertEquals(receivedMaps.get(0), receivedMaps.get(1));
+    }
+
+    @Test
+    public void testNotifyCallbacks_failingCallback() {
+        // setup
+        notifier.add(new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {
+                throw new IllegalStateException("failed");
+            }
+        });
+        notifier.add(createCallback());
+
+        // test
+        notifier.notifyCallbacks(createNotificationEvent());
+
+        // verify
+        assertEquals(1, receivedMaps.size());
+    }
+
+    @Test
+    public void testNotifyCallbacks_executor() {
+        // setup
+        final List<Runnable> tasks = new ArrayList<>();
+        notifier.add(null, new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                tasks.add(command);
+            }
+        }, createCallback());
+        notifier.add(createCallback());
+
+        // test
+        notifier.notifyCallbacks(createNotificationEvent());
+
+        // verify
+        assertEquals("Only the callback without executor should be invoked on the notifying thread.", 1, receivedMaps.size());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals(2, receivedMaps.size());
+        assertEquals(receivedMaps.get(0), receivedMaps.get(1));
+    }
+
+    @Test
+    public void testRemove() {
+        // setup
+        final AdobeCallback<Map<DecisionScope, Proposition>> callback = createCallback();
+        notifier.add(callback);
+
+        // test
+        assertTrue(notifier.remove(callback));
+        assertFalse(notifier.remove(callback));
+        notifier.notifyCallbacks(createNotificationEvent());
+
+        // verify
+        assertEquals(0, notifier.getCallbackCount());
+        assertTrue(receivedMaps.isEmpty());
+    }
+
+    @Test
+    public void testNotifyCallbacks_emptyEventData() {
+        // setup
+        notifier.add(createCallback());
+
+        // test
+        notifier.notifyCallbacks(new Event.Builder("Optimize Notification", "com.adobe.eventType.optimize", "com.adobe.eventSource.notification")
+                .setEventData(new HashMap<String, Object>())
+                .build());
+        notifier.notifyCallbacks(null);
+
+        // verify
+        assertTrue(receivedMaps.isEmpty());
+    }
+
+    @Test
+    public void testNotifyCallbacks_scopedCallbacks() {
+        // setup
+        final List<Map<DecisionScope, Proposition>> otherScopeMaps = new ArrayList<>();
+        notifier.add(Arrays.asList(scope, new DecisionScope("otherMbox")), createCallback());
+        notifier.add(Arrays.asList(new DecisionScope("otherMbox")), new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {
+                otherScopeMaps.add(propositionsMap);
+            }
+        });
+
+        // test
+        notifier.notifyCallbacks(createNotificationEvent());
+
+        // verify
+        assertEquals(2, notifier.getCallbackCount());
+        assertEquals(1, receivedMaps.size());
+        assertEquals(1, receivedMaps.get(0).size());
+        assertTrue(receivedMaps.get(0).containsKey(scope));
+        assertTrue("The callback should not be invoked for the notifications without its scopes.", otherScopeMaps.isEmpty());
+    }
+
+    @Test
+    public void testNotifyCallbacks_scopedCallbackReceivesOnlyItsScopes() {
+        // setup
+        notifier.add(Arrays.asList(new DecisionScope("otherMbox")), createCallback());
+        final Proposition otherProposition = new Proposition("otherId", Arrays.asList(new Offer.Builder("otherOfferId", OfferType.TEXT, "content").build()),
+                "otherMbox", new HashMap<String, Object>());
+        final Event event = createNotificationEvent();
+        final Map<DecisionScope, Proposition> propositions = sharedPropositions.get(event);
+        propositions.put(new DecisionScope("otherMbox"), otherProposition);
+        sharedPropositions.put(event, propositions);
+
+        // test
+        notifier.notifyCallbacks(event);
+
+        // verify
+        assertEquals(1, receivedMaps.size());
+        assertEquals(1, receivedMaps.get(0).size());
+        assertEquals(otherProposition, receivedMaps.get(0).get(new DecisionScope("otherMbox")));
+    }
+
+    @Test
+    public void testRemove_scopedCallback() {
+        // setup
+        final AdobeCallback<Map<DecisionScope, Proposition>> callback = createCallback();
+        notifier.add(Arrays.asList(scope, new DecisionScope("otherMbox")), callback);
+
+        // test
+        assertTrue(notifier.remove(callback));
+        notifier.notifyCallbacks(createNotificationEvent());
+
+        // verify
+        assertEquals(0, notifier.getCallbackCount());
+        assertTrue(receivedMaps.isEmpty());
+    }
+
+    private AdobeCallback<Map<DecisionScope, Proposition>> createCallback() {
+        return new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositionsMap) {
+                receivedMaps.add(propositionsMap);
+            }
+        };
+    }
+
+    private Event createNotificationEvent() {
+        final Proposition proposition = new Proposition("id", Arrays.asList(new Offer.Builder("offerId", OfferType.TEXT, "content").build()),
+                "myMbox", new HashMap<String, Object>());
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("propositions", Arrays.asList(proposition.toEventData()));
+        final Event event = new Event.Builder("Optimize Notification", "com.adobe.eventType.optimize", "com.adobe.eventSource.notification")
+                .setEventData(eventData)
+                .build();
+
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(scope, proposition);
+        sharedPropositions.put(event, propositions);
+        return event;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.Event;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RequestTraceRecorderTests {
+    private final List<PersonalizationRequestTrace> reportedTraces = new ArrayList<>();
+    private final PersonalizationRequestTracer testTracer = new PersonalizationRequestTracer() {
+        @Override
+        public void onRequestTraced(final PersonalizationRequestTrace trace) {
+            reportedTraces.add(trace);
+        }
+    };
+
+    @After
+    public void teardown() {
+        RequestTraceRecorder.setTracer(null);
+    }
+
+    @Test
+    public void testStart_tracingDisabled() {
+        // setup
+        final RequestTraceRecorder recorder = new RequestTraceRecorder();
+
+        // test
+        final PersonalizationRequestTrace trace = recorder.start(createEvent(), 1000);
+
+        // verify
+        assertNull(trace);
+    }
+
+    @Test
+    public void testStart_tracingEnabled() {
+        // setup
+        final RequestTraceRecorder recorder = new RequestTraceRecorder();
+        RequestTraceRecorder.setTracer(testTracer);
+        final Event testEvent = createEvent();
+
+        // test
+        final PersonalizationRequestTrace trace = recorder.start(testEvent, testEvent.getTimestamp() + 5);
+
+        // verify
+        assertNotNull(trace);
+        assertEquals(testEvent.getUniqueIdentifier(), trace.getRequestId());
+        assertEquals(testEvent.getTimestamp(), trace.getRequestDispatchMillis());
+        assertEquals(5, trace.getRequestQueueMillis());
+        assertEquals(-1, trace.getEdgeRequestPreparationMillis());
+    }
+
+    @Test
+    public void testRemove_joinsByEdgeRequestId() {
+        // setup
+        final RequestTraceRecorder recorder = new RequestTraceRecorder();
+        final PersonalizationRequestTrace trace1 = new PersonalizationRequestTrace("request1", 1000, 1001);
+        final PersonalizationRequestTrace trace2 = new PersonalizationRequestTrace("request2", 1002, 1003);
+        recorder.onEdgeRequestDispatched("edgeRequest", Arrays.asList(trace1, trace2), 1010);
+
+        // test
+        final List<PersonalizationRequestTrace> traces = recorder.remove("edgeRequest");
+
+        // verify
+        assertEquals(Arrays.asList(trace1, trace2), traces);
+        assertEquals("edgeRequest", trace1.getEdgeRequestId());
+        assertEquals(9, trace1.getEdgeRequestPreparationMillis());
+        assertEquals(7, trace2.getEdgeRequestPreparationMillis());
+        assertTrue(recorder.remove("edgeRequest").isEmpty());
+        assertTrue(recorder.remove(null).isEmpty());
+    }
+
+    @Test
+    public void testOnEdgeRequestDispatched_dropsOldestPendingRequests() {
+        // setup
+        final RequestTraceRecorder recorder = new RequestTraceRecorder();
+
+        // test
+        for (int i = 0; i <= 64; i++) {
+            recorder.onEdgeRequestDispatched("edgeRequest" + i,
+                    Arrays.asList(new PersonalizationRequestTrace("request" + i, 1000, 1001)), 1010);
+        }
+
+        // verify
+        assertTrue(recorder.remove("edgeRequest0").isEmpty());
+        assertEquals(1, recorder.remove("edgeRequest64").size());
+    }
+
+    @Test
+    public void testClear() {
+        // setup
+        final RequestTraceRecorder recorder = new RequestTraceRecorder();
+        recorder.onEdgeRequestDispatched("edgeRequest", Arrays.asList(new PersonalizationRequestTrace("request", 1000, 1001)), 1010);
+
+        // test
+        recorder.clear();
+
+        // verify
+        assertTrue(recorder.remove("edgeRequest").isEmpty());
+    }
+
+    @Test
+    public void testReport() {
+        // setup
+        RequestTraceRecorder.setTracer(testTracer);
+        final PersonalizationRequestTrace trace = new PersonalizationRequestTrace("request", 1000, 1001);
+        trace.setEdgeRequestDispatched("edgeRequest", 1010);
+        trace.setEdgeResponseReceiptMillis(1100);
+        trace.setEdgeResponseStartMillis(1102);
+        trace.setCacheWriteMillis(1110);
+        trace.setNotificationDispatchMillis(1111);
+
+        // test
+        RequestTraceRecorder.report(Arrays.asList(trace));
+
+        // verify
+        assertEquals(Arrays.asList(trace), reportedTraces);
+        assertEquals(1, trace.getRequestQueueMillis());
+        assertEquals(9, trace.getEdgeRequestPreparationMillis());
+        assertEquals(90, trace.getEdgeLatencyMillis());
+        assertEquals(2, trace.getEdgeResponseQueueMillis());
+        assertEquals(8, trace.getCacheWriteDurationMillis());
+        assertEquals(1, trace.getNotificationDurationMillis());
+        assertEquals(111, trace.getTotalDurationMillis());
+    }
+
+    @Test
+    public void testReport_tracingDisabled() {
+        // test
+        RequestTraceRecorder.report(Arrays.asList(new PersonalizationRequestTrace("request", 1000, 1001)));
+
+        // verify
+        assertTrue(reportedTraces.isEmpty());
+    }
+
+    private Event createEvent() {
+        return new Event.Builder("Optimize Update Propositions Request", "com.adobe.eventType.optimize", "com.adobe.eventSource.requestContent")
+                .build();
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SerialExecutorServiceTests {
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+    private final ExecutorMetrics executorMetrics = new ExecutorMetrics();
+    private final TaskOverflowHandler overflowHandler = new TaskOverflowHandler(executorMetrics);
+
+    @After
+    public void teardown() {
+        threadPool.shutdownNow();
+    }
+
+    @Test
+    public void testExecute_multiThreadPoolRunsTasksOneAtATimeInOrder() throws Exception {
+        // setup
+        final SerialExecutorService serialExecutor = new SerialExecutorService(threadPool, 500, overflowHandler);
+        final List<Integer> runOrder = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger runningTasks = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+
+        // test
+        for (int i = 0; i < 200; i++) {
+            final int taskIndex = i;
+            serialExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (runningTasks.incrementAndGet() > 1) {
+                        overlapped.set(true);
+                    }
+                    Thread.yield();
+                    runOrder.add(taskIndex);
+                    runningTasks.decrementAndGet();
+                }
+            });
+        }
+        serialExecutor.shutdown();
+
+        // verify
+        assertTrue(serialExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse("The tasks should not run concurrently.", overlapped.get());
+        assertEquals(200, runOrder.size());
+        for (int i = 0; i < runOrder.size(); i++) {
+            assertEquals(Integer.valueOf(i), runOrder.get(i));
+        }
+        assertFalse("The provided executor should not be shut down.", threadPool.isShutdown());
+    }
+
+    @Test
+    public void testExecute_fullQueueRejectsTasksWhichAreNotCritical() throws Exception {
+        // setup
+        final SerialExecutorService serialExecutor = new SerialExecutorService(threadPool, 1, overflowHandler);
+        final CountDownLatch blockingLatch = new CountDownLatch(1);
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+        serialExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                startedLatch.countDown();
+                try {
+                    blockingLatch.await(1, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(startedLatch.await(1, TimeUnit.SECONDS));
+        final AtomicInteger runTasks = new AtomicInteger();
+        final Runnable countingTask = new Runnable() {
+            @Override
+            public void run() {
+                runTasks.incrementAndGet();
+            }
+        };
+
+        // test
+        serialExecutor.execute(executorMetrics.instrument(ExecutorTaskMetrics.TASK_UPDATE, countingTask));
+        try {
+            serialExecutor.execute(executorMetrics.instrument(ExecutorTaskMetrics.TASK_UPDATE, countingTask));
+            fail("The task should be rejected while the queue is full.");
+        } catch (final RejectedExecutionException e) {
+            // expected
+        }
+        serialExecutor.execute(executorMetrics.instrument(ExecutorTaskMetrics.TASK_CLEAR, countingTask));
+        blockingLatch.countDown();
+        serialExecutor.shutdown();
+
+        // verify
+        assertTrue(serialExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(2, runTasks.get());
+    }
+
+    @Test
+    public void testExecute_fullQueueAppliesOverflowPolicy() throws Exception {
+        // setup
+        final SerialExecutorService serialExecutor = new SerialExecutorService(threadPool, 1, overflowHandler);
+        final CountDownLatch blockingLatch = new CountDownLatch(1);
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+        serialExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                startedLatch.countDown();
+                try {
+                    blockingLatch.await(1, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(startedLatch.await(1, TimeUnit.SECONDS));
+        final List<String> runTasks = Collections.synchronizedList(new ArrayList<String>());
+        final AtomicBoolean trackDropped = new AtomicBoolean();
+        serialExecutor.execute(executorMetrics.instrument(ExecutorTaskMetrics.TASK_TRACK, new DroppableTask() {
+            @Override
+            public void run() {
+                runTasks.add("track");
+            }
+
+            @Override
+            public void onDropped() {
+                trackDropped.set(true);
+            }
+        }));
+
+        // test
+        serialExecutor.execute(executorMetrics.instrument(ExecutorTaskMetrics.TASK_UPDATE, new Runnable() {
+            @Override
+            public void run() {
+                runTasks.add("update");
+            }
+        }));
+        blockingLatch.countDown();
+        serialExecutor.shutdown();
+
+        // verify
+        assertTrue(serialExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("update"), runTasks);
+        assertTrue(trackDropped.get());
+        assertEquals(1L, executorMetrics.getRejectedTaskCount());
+        assertEquals(0, executorMetrics.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testShutdown_rejectsNewTasksAndRunsQueuedOnes() throws Exception {
+        // setup
+        final SerialExecutorService serialExecutor = new SerialExecutorService(threadPool, 500, overflowHandler);
+        final CountDownLatch runLatch = new CountDownLatch(2);
+        final Runnable countingTask = new Runnable() {
+            @Override
+            public void run() {
+                runLatch.countDown();
+            }
+        };
+        serialExecutor.execute(countingTask);
+        serialExecutor.execute(countingTask);
+
+        // test
+        serialExecutor.shutdown();
+
+        // verify
+        try {
+            serialExecutor.execute(countingTask);
+            fail("The task should be rejected once the executor is shut down.");
+        } catch (final RejectedExecutionException e) {
+            // expected
+        }
+        assertTrue(runLatch.await(1, TimeUnit.SECONDS));
+        assertTrue(serialExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertTrue(serialExecutor.isTerminated());
+    }
+
+    @Test
+    public void testExecute_providedExecutorShutDownDropsTasks() {
+        // setup
+        final SerialExecutorService serialExecutor = new SerialExecutorService(threadPool, 500, overflowHandler);
+        threadPool.shutdown();
+
+        // test
+        try {
+            serialExecutor.execute(new Runnable() {
+                @Override
+                public void run() {}
+            });
+            fail("The task should be rejected once the provided executor is shut down.");
+        } catch (final RejectedExecutionException e) {
+            // expected
+        }
+
+        // verify
+        assertFalse(serialExecutor.isShutdown());
+    }
+
+    @Test
+    public void testExecute_providedExecutorRejectingDropsQueuedTasks() {
+        // setup
+        final List<Runnable> handedTasks = new ArrayList<>();
+        final AtomicBoolean rejecting = new AtomicBoolean();
+        final SerialExecutorService serialExecutor = new SerialExecutorService(new Executor() {
+            @Override
+            public void execute(final Runnable task) {
+                if (rejecting.get()) {
+                    throw new RejectedExecutionException("shut down");
+                }
+                handedTasks.add(task);
+            }
+        }, 500, overflowHandler);
+        final AtomicInteger runTasks = new AtomicInteger();
+        final AtomicBoolean queuedTaskDropped = new AtomicBoolean();
+        serialExecutor.execute(executorMetrics.instrument(ExecutorTaskMetrics.TASK_UPDATE, new Runnable() {
+            @Override
+            public void run() {
+                runTasks.incrementAndGet();
+            }
+        }));
+        serialExecutor.execute(executorMetrics.instrument(ExecutorTaskMetrics.TASK_GET, new DroppableTask() {
+            @Override
+            public void run() {
+                runTasks.incrementAndGet();
+            }
+
+            @Override
+            public void onDropped() {
+                queuedTaskDropped.set(true);
+            }
+        }));
+
+        // test
+        rejecting.set(true);
+        handedTasks.get(0).run();
+
+        // verify
+        assertEquals(1, handedTasks.size());
+        assertEquals(1, runTasks.get());
+        assertTrue(queuedTaskDropped.get());
+        assertEquals(1L, executorMetrics.getRejectedTaskCount());
+        assertEquals(0, executorMetrics.getQueuedTaskCount());
+    }
+}
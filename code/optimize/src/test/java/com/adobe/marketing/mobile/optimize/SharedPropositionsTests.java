@@ -0,0 +1,104 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.Event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SharedPropositionsTests {
+    private final DecisionScope scope = new DecisionScope("myMbox");
+    private final Proposition proposition = new Proposition("id", new ArrayList<Offer>(), "myMbox", new HashMap<String, Object>()).freeze();
+    private final SharedPropositions sharedPropositions = new SharedPropositions();
+
+    @Test
+    public void testPutAndGet() {
+        // setup
+        final Event event = createEvent();
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(scope, proposition);
+
+        // test
+        sharedPropositions.put(event, propositions);
+        final Map<DecisionScope, Proposition> retrievedPropositions = sharedPropositions.get(event);
+
+        // verify
+        assertNotNull(retrievedPropositions);
+        assertNotSame(propositions, retrievedPropositions);
+        assertEquals(1, retrievedPropositions.size());
+        assertSame(proposition, retrievedPropositions.get(scope));
+
+        // each consumer gets its own map
+        retrievedPropositions.clear();
+        assertEquals(1, sharedPropositions.get(event).size());
+    }
+
+    @Test
+    public void testPut_freezesModifiablePropositions() {
+        // setup
+        final Event event = createEvent();
+        final Proposition modifiableProposition = new Proposition("id", new ArrayList<Offer>(), "myMbox", new HashMap<String, Object>());
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+        propositions.put(scope, modifiableProposition);
+
+        // test
+        sharedPropositions.put(event, propositions);
+        final Proposition retrievedProposition = sharedPropositions.get(event).get(scope);
+
+        // verify
+        assertNotSame(modifiableProposition, retrievedProposition);
+        assertEquals(modifiableProposition, retrievedProposition);
+        assertSame(retrievedProposition, retrievedProposition.freeze());
+    }
+
+    @Test
+    public void testGet_unknownEvent() {
+        // test
+        assertNull(sharedPropositions.get(createEvent()));
+        assertNull(sharedPropositions.get(null));
+    }
+
+    @Test
+    public void testPut_keepsMostRecentEvents() {
+        // setup
+        final Event firstEvent = createEvent();
+        sharedPropositions.put(firstEvent, new HashMap<DecisionScope, Proposition>());
+        Event lastEvent = null;
+
+        // test
+        for (int i = 0; i < 16; i++) {
+            lastEvent = createEvent();
+            sharedPropositions.put(lastEvent, new HashMap<DecisionScope, Proposition>());
+        }
+
+        // verify
+        assertNull(sharedPropositions.get(firstEvent));
+        assertNotNull(sharedPropositions.get(lastEvent));
+    }
+
+    private static Event createEvent() {
+        return new Event.Builder("Optimize Notification", "com.adobe.eventType.optimize", "com.adobe.eventSource.notification")
+                .setEventData(new HashMap<String, Object>())
+                .build();
+    }
+}
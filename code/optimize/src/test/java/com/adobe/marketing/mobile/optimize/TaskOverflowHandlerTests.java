@@ -0,0 +1,222 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TaskOverflowHandlerTests {
+    private final ExecutorMetrics executorMetrics = new ExecutorMetrics();
+    private final TaskOverflowHandler overflowHandler = new TaskOverflowHandler(executorMetrics);
+    private final List<String> runTasks = new CopyOnWriteArrayList<>();
+    private final CountDownLatch blockingLatch = new CountDownLatch(1);
+    private ThreadPoolExecutor executor;
+
+    @Before
+    public void setup() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ExecutorLaneQueue(1), overflowHandler);
+
+        // keep the executor thread busy, so that the next task fills the queue
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blockingLatch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+    }
+
+    @After
+    public void teardown() {
+        blockingLatch.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSetPolicy() {
+        // test
+        assertEquals("dropoldesttracking", overflowHandler.getPolicy());
+        overflowHandler.setPolicy("rejectNew");
+        assertEquals("rejectnew", overflowHandler.getPolicy());
+        overflowHandler.setPolicy("unsupported");
+        assertEquals("dropoldesttracking", overflowHandler.getPolicy());
+        overflowHandler.setPolicy("rejectnew");
+        overflowHandler.setPolicy("callerruns");
+        assertEquals("dropoldesttracking", overflowHandler.getPolicy());
+        overflowHandler.setPolicy("rejectnew");
+        overflowHandler.setPolicy(null);
+        assertEquals("dropoldesttracking", overflowHandler.getPolicy());
+    }
+
+    @Test
+    public void testDropOldestTracking_dropsQueuedTrackTask() throws Exception {
+        // setup
+        executor.execute(task(ExecutorTaskMetrics.TASK_TRACK, "track"));
+
+        // test
+        final boolean submitted = submit(task(ExecutorTaskMetrics.TASK_UPDATE, "update"));
+
+        // verify
+        assertTrue(submitted);
+        runQueuedTasks();
+        assertEquals(1, runTasks.size());
+        assertEquals("update", runTasks.get(0));
+        assertEquals(1L, executorMetrics.getRejectedTaskCount());
+        assertEquals(0, executorMetrics.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testDropOldestTracking_rejectsNewTaskWithoutQueuedTrackTask() throws Exception {
+        // setup
+        executor.execute(task(ExecutorTaskMetrics.TASK_UPDATE, "update"));
+
+        // test
+        final boolean submitted = submit(task(ExecutorTaskMetrics.TASK_TRACK, "track"));
+
+        // verify
+        assertFalse(submitted);
+        runQueuedTasks();
+        assertEquals(1, runTasks.size());
+        assertEquals("update", runTasks.get(0));
+        assertEquals(1L, executorMetrics.getRejectedTaskCount());
+        assertEquals(0, executorMetrics.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testRejectNew() throws Exception {
+        // setup
+        overflowHandler.setPolicy("rejectnew");
+        executor.execute(task(ExecutorTaskMetrics.TASK_TRACK, "track"));
+
+        // test
+        final boolean submitted = submit(task(ExecutorTaskMetrics.TASK_UPDATE, "update"));
+
+        // verify
+        assertFalse(submitted);
+        runQueuedTasks();
+        assertEquals(1, runTasks.size());
+        assertEquals("track", runTasks.get(0));
+        assertEquals(1L, executorMetrics.getRejectedTaskCount());
+    }
+
+    @Test
+    public void testShutdownExecutor_rejectsTask() throws Exception {
+        // setup
+        executor.shutdown();
+
+        // test
+        final boolean submitted = submit(task(ExecutorTaskMetrics.TASK_UPDATE, "update"));
+
+        // verify
+        assertFalse(submitted);
+        runQueuedTasks();
+        assertTrue(runTasks.isEmpty());
+        assertEquals(1L, executorMetrics.getRejectedTaskCount());
+        assertEquals(0, executorMetrics.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testFullQueue_submitterNotBlockedAndCriticalTasksQueued() throws Exception {
+        // setup
+        executor.execute(task(ExecutorTaskMetrics.TASK_UPDATE, "update1"));
+        final CountDownLatch submitted = new CountDownLatch(1);
+        final Thread submittingThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                submit(task(ExecutorTaskMetrics.TASK_UPDATE, "update2"));
+                executor.execute(task(ExecutorTaskMetrics.TASK_CLEAR, "clear"));
+                executor.execute(task(ExecutorTaskMetrics.TASK_EDGE_RESPONSE, "response"));
+                executor.execute(task(ExecutorTaskMetrics.TASK_OTHER, "configuration", true));
+                submit(task(ExecutorTaskMetrics.TASK_GET, "get"));
+                submitted.countDown();
+            }
+        });
+
+        // test
+        submittingThread.start();
+
+        // verify
+        assertTrue("The submitting thread should not wait for room in the queue.", submitted.await(1, TimeUnit.SECONDS));
+        runQueuedTasks();
+        assertEquals(Arrays.asList("update1", "clear", "response", "configuration"), runTasks);
+        assertEquals(2L, executorMetrics.getRejectedTaskCount());
+        assertEquals(0, executorMetrics.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testDropOldestTracking_keepsCriticalTrackTask() throws Exception {
+        // setup
+        executor.execute(task(ExecutorTaskMetrics.TASK_TRACK, "reset", true));
+        executor.execute(task(ExecutorTaskMetrics.TASK_TRACK, "track1"));
+
+        // test
+        executor.execute(task(ExecutorTaskMetrics.TASK_TRACK, "track2"));
+
+        // verify
+        runQueuedTasks();
+        assertEquals(Arrays.asList("reset", "track2"), runTasks);
+        assertEquals(1L, executorMetrics.getRejectedTaskCount());
+    }
+
+    /**
+     * Submits the given {@code task} like the extension does, recording it as rejected if the executor throws.
+     */
+    private boolean submit(final Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (final RejectedExecutionException e) {
+            executorMetrics.onRejected(task);
+            return false;
+        }
+    }
+
+    private Runnable task(final String taskType, final String name) {
+        return executorMetrics.instrument(taskType, recordingTask(name));
+    }
+
+    private Runnable task(final String taskType, final String name, final boolean critical) {
+        return executorMetrics.instrument(taskType, recordingTask(name), critical);
+    }
+
+    private Runnable recordingTask(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                runTasks.add(name);
+            }
+        };
+    }
+
+    private void runQueuedTasks() throws InterruptedException {
+        blockingLatch.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.AdobeError;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeoutPropositionsCallbackTests {
+    private final List<Object> results = new ArrayList<>();
+
+    private final PropositionsExpiryCallback recordingCallback = new PropositionsExpiryCallback() {
+        @Override
+        public void expired(final List<DecisionScope> expiredScopes) {
+            results.add(expiredScopes);
+        }
+
+        @Override
+        public void fail(final AdobeError error) {
+            results.add(error);
+        }
+
+        @Override
+        public void call(final Map<DecisionScope, Proposition> propositions) {
+            results.add(propositions);
+        }
+    };
+
+    @Test
+    public void testCall_beforeTimeout() throws Exception {
+        // setup
+        final TimeoutPropositionsCallback callback = new TimeoutPropositionsCallback(recordingCallback);
+        callback.start(200);
+        final Map<DecisionScope, Proposition> propositions = new HashMap<>();
+
+        // test
+        callback.expired(Arrays.asList(new DecisionScope("myMbox")));
+        callback.call(propositions);
+        Thread.sleep(400);
+
+        // verify
+        assertEquals(2, results.size());
+        assertEquals(Arrays.asList(new DecisionScope("myMbox")), results.get(0));
+        assertEquals(propositions, results.get(1));
+    }
+
+    @Test
+    public void testStart_timeout() throws Exception {
+        // setup
+        final TimeoutPropositionsCallback callback = new TimeoutPropositionsCallback(recordingCallback);
+
+        // test
+        callback.start(100);
+        Thread.sleep(300);
+        callback.call(new HashMap<DecisionScope, Proposition>());
+        callback.fail(AdobeError.UNEXPECTED_ERROR);
+
+        // verify
+        assertEquals(1, results.size());
+        assertEquals(AdobeError.CALLBACK_TIMEOUT, results.get(0));
+    }
+
+    @Test
+    public void testStart_timeoutWithoutErrorCallback() throws Exception {
+        // setup
+        final TimeoutPropositionsCallback callback = new TimeoutPropositionsCallback(new AdobeCallback<Map<DecisionScope, Proposition>>() {
+            @Override
+            public void call(final Map<DecisionScope, Proposition> propositions) {
+                results.add(propositions);
+            }
+        });
+
+        // test
+        callback.start(100);
+        Thread.sleep(300);
+        callback.call(new HashMap<DecisionScope, Proposition>());
+
+        // verify
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void testFail_beforeStart() {
+        // setup
+        final TimeoutPropositionsCallback callback = new TimeoutPropositionsCallback(recordingCallback);
+
+        // test
+        callback.fail(AdobeError.UNEXPECTED_ERROR);
+        callback.start(100);
+
+        // verify
+        assertEquals(Arrays.<Object>asList(AdobeError.UNEXPECTED_ERROR), results);
+    }
+}
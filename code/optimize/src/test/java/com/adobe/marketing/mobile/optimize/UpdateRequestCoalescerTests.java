@@ -0,0 +1,101 @@
+/*
+ Copyright 2021 Adobe. All rights reserved.
+ This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License. You may obtain a copy
+ of the License at http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software distributed under
+ the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ OF ANY KIND, either express or implied. See the License for the specific language
+ governing permissions and limitations under the License.
+ */
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class UpdateRequestCoalescerTests {
+    @Test
+    public void testAdd_mergesCompatibleRequests() {
+        // setup
+        final UpdateRequestCoalescer coalescer = new UpdateRequestCoalescer();
+        final Map<String, Object> data = new HashMap<>();
+        data.put("key", "value");
+
+        // test
+        assertTrue(coalescer.add(Arrays.asList("scope1", "scope2"), null, data, "datasetId", null));
+        assertFalse(coalescer.add(Arrays.asList("scope2", "scope3"), new HashMap<String, Object>(), new HashMap<>(data), "datasetId", null));
+
+        // verify
+        final List<UpdateRequestCoalescer.Request> requests = coalescer.drain();
+        assertEquals(1, requests.size());
+        assertEquals(Arrays.asList("scope1", "scope2", "scope3"), requests.get(0).getScopeNames());
+        assertEquals(data, requests.get(0).getData());
+        assertTrue(requests.get(0).getXdm().isEmpty());
+        assertEquals("datasetId", requests.get(0).getDatasetId());
+    }
+
+    @Test
+    public void testAdd_keepsIncompatibleRequestsSeparate() {
+        // setup
+        final UpdateRequestCoalescer coalescer = new UpdateRequestCoalescer();
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("myXdmKey", "myXdmValue");
+
+        // test
+        coalescer.add(Arrays.asList("scope1"), null, null, null, null);
+        coalescer.add(Arrays.asList("scope2"), xdm, null, null, null);
+        coalescer.add(Arrays.asList("scope3"), null, null, "datasetId", null);
+
+        // verify
+        final List<UpdateRequestCoalescer.Request> requests = coalescer.drain();
+        assertEquals(3, requests.size());
+        assertEquals(Arrays.asList("scope1"), requests.get(0).getScopeNames());
+        assertEquals(xdm, requests.get(1).getXdm());
+        assertNull(requests.get(1).getDatasetId());
+        assertEquals("datasetId", requests.get(2).getDatasetId());
+    }
+
+    @Test
+    public void testDrain_empties() {
+        // setup
+        final UpdateRequestCoalescer coalescer = new UpdateRequestCoalescer();
+        coalescer.add(Arrays.asList("scope1"), null, null, null, null);
+
+        // test
+        coalescer.drain();
+
+        // verify
+        assertTrue(coalescer.drain().isEmpty());
+        assertTrue(coalescer.add(Arrays.asList("scope1"), null, null, null, null));
+    }
+
+    @Test
+    public void testDrain_mergesTraces() {
+        // setup
+        final UpdateRequestCoalescer coalescer = new UpdateRequestCoalescer();
+        final PersonalizationRequestTrace trace1 = new PersonalizationRequestTrace("request1", 1000, 1001);
+        final PersonalizationRequestTrace trace2 = new PersonalizationRequestTrace("request2", 1002, 1003);
+        coalescer.add(Arrays.asList("scope1"), null, null, null, trace1);
+        coalescer.add(Arrays.asList("scope2"), null, null, null, trace2);
+        coalescer.add(Arrays.asList("scope3"), null, null, "datasetId", null);
+
+        // test
+        final List<UpdateRequestCoalescer.Request> requests = coalescer.drain();
+
+        // verify
+        assertEquals(2, requests.size());
+        assertEquals(Arrays.asList(trace1, trace2), requests.get(0).getTraces());
+        assertTrue(requests.get(1).getTraces().isEmpty());
+    }
+}